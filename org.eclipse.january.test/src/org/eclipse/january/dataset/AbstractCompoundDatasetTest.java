@@ -726,4 +726,35 @@ public class AbstractCompoundDatasetTest {
 		c = DatasetFactory.zeros(3, new int[] {3, 3}, Dataset.INT32).fill(new int[] {5, 0, 0});
 		TestUtils.assertDatasetEquals(c, b);
 	}
+
+	@Test
+	public void testPlanarLayout() {
+		CompoundDataset a = DatasetUtils.createCompoundDatasetFromLastAxis(DatasetFactory.createRange(60).reshape(4, 5, 3), true);
+		Dataset p = DatasetUtils.createPlanarDatasetFromCompoundDataset(a);
+		assertArrayEquals(new int[] {3, 4, 5}, p.getShapeRef());
+		assertEquals(Dataset.FLOAT64, p.getDType());
+		for (int i = 0; i < 3; i++) {
+			Dataset plane = p.getSliceView(new Slice(i, i + 1)).squeeze();
+			TestUtils.assertDatasetEquals(a.getElements(i), plane);
+		}
+		TestUtils.assertDatasetEquals(a, DatasetUtils.createCompoundDatasetFromFirstAxis(p));
+
+		// strided views
+		CompoundDataset v = a.getSliceView(new Slice(null, null, 2), new Slice(1, 4));
+		p = DatasetUtils.createPlanarDatasetFromCompoundDataset(v);
+		assertArrayEquals(new int[] {3, 2, 3}, p.getShapeRef());
+		for (int i = 0; i < 3; i++) {
+			TestUtils.assertDatasetEquals(v.getElements(i), p.getSliceView(new Slice(i, i + 1)).squeeze());
+		}
+		TestUtils.assertDatasetEquals(v, DatasetUtils.createCompoundDatasetFromFirstAxis(p.getSliceView()));
+
+		RGBDataset rgb = new RGBDataset(new short[] {0, 1, 2, 3}, new short[] {4, 5, 6, 7}, new short[] {8, 9, 10, 11}, 2, 2);
+		p = DatasetUtils.createPlanarDatasetFromCompoundDataset(rgb);
+		assertEquals(Dataset.INT16, p.getDType());
+		TestUtils.assertDatasetEquals(rgb.getGreenView(), p.getSliceView(new Slice(1, 2)).squeeze());
+
+		ComplexDoubleDataset c = DatasetFactory.createComplexDataset(ComplexDoubleDataset.class, new double[] {1, 2}, new double[] {3, 4});
+		p = DatasetUtils.createPlanarDatasetFromCompoundDataset(c);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {1, 2, 3, 4}).reshape(2, 2), p);
+	}
 }
@@ -15,6 +15,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -331,6 +334,19 @@ public class AbstractDatasetTest {
 		assertEquals("2,2 element", 12, a.getDouble(2,2), 1e-6);
 		assertTrue("Final element", Double.isNaN(a.getDouble(2,3)));
 
+		// sort along first axis of a view
+		a = DatasetFactory.createRange(60, Dataset.INT32).reshape(5, 12);
+		Dataset v = a.getSliceView(new Slice(null, null, -1), new Slice(1, null, 2));
+		v.sort(0);
+		assertEquals(1, a.getInt(4, 1)); // view is reversed along axis
+		assertEquals(49, a.getInt(0, 1));
+		assertEquals(48, a.getInt(4, 0));
+		a = DatasetFactory.createFromObject(new String[] {"d", "b", "a", "c", "f", "e"}).reshape(3, 2);
+		a.sort(0);
+		assertEquals("a", a.getString(0, 0));
+		assertEquals("b", a.getString(0, 1));
+		assertEquals("f", a.getString(2, 0));
+
 		// sort a view
 		a = DatasetFactory.createRange(12, Dataset.FLOAT64);
 		Dataset b = a.getSliceView(new Slice(null, null, -2));
@@ -2051,4 +2067,54 @@ public class AbstractDatasetTest {
 		TestUtils.assertDatasetEquals(a, DatasetUtils.rotate90(a, 4));
 	}
 	
+
+	@Test
+	public void testFillArray() {
+		Dataset a = DatasetFactory.createRange(24).reshape(4, 6);
+		double[] d = new double[26];
+		assertEquals(24, a.fillArray(null, d, 2));
+		assertEquals(0, d[1], 0);
+		assertEquals(23, d[25], 0);
+
+		SliceND s = new SliceND(a.getShapeRef(), new Slice(1, 3), new Slice(null, null, -2));
+		int[] i = new int[6];
+		assertEquals(6, a.fillArray(s, i, 0));
+		assertArrayEquals(new int[] {11, 9, 7, 17, 15, 13}, i);
+		float[] f = new float[8];
+		a.getTransposedView().getSliceView(new Slice(1, 3)).fillArray(null, f, 0);
+		assertArrayEquals(new float[] {1, 7, 13, 19, 2, 8, 14, 20}, f, 0);
+
+		Dataset c = DatasetFactory.createFromObject(2, CompoundIntegerDataset.class, new int[] {1, 2, 3, 4, 5, 6}, 3);
+		long[] l = new long[4];
+		assertEquals(4, c.fillArray(new SliceND(c.getShapeRef(), new Slice(1, null)), l, 0));
+		assertArrayEquals(new long[] {3, 4, 5, 6}, l);
+
+		try {
+			a.fillArray(null, new Object[24], 0);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testConvertToDataset() {
+		for (Dataset a : new Dataset[] {DatasetFactory.createRange(24).reshape(4, 6),
+				DatasetFactory.createRange(IntegerDataset.class, 10).getSliceView(new Slice(null, null, 3)),
+				DatasetFactory.createFromObject(new boolean[] {true, false}), DatasetFactory.createFromObject(1.5),
+				DatasetFactory.createFromObject(new String[] {"a", "b"})}) {
+			// hide implementation behind interface
+			final Dataset d = a;
+			IDataset i = (IDataset) Proxy.newProxyInstance(IDataset.class.getClassLoader(), new Class<?>[] {IDataset.class},
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							return method.invoke(d, args);
+						}
+					});
+			Dataset c = DatasetUtils.convertToDataset(i);
+			assertEquals(a.getClass(), c.getClass());
+			assertEquals(a, c);
+			assertEquals(a, DatasetFactory.createFromObject(i));
+		}
+	}
 }
@@ -11,9 +11,18 @@ package org.eclipse.january.dataset;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.io.ILazyLoader;
 
 import org.eclipse.january.dataset.AggregateDataset;
 import org.eclipse.january.dataset.Dataset;
@@ -150,4 +159,79 @@ public class AggregateDatasetTest {
 		assertArrayEquals("Incorrect shape", new int[] {2, 1}, s.getShape());
 		assertArrayEquals("Incorrect values", new double[] {1, 1}, (double[])s.getBuffer(), 1e-5);
 	}
+
+	@Test
+	public void testManyDatasets() throws Exception {
+		// mixed types so parts are cast into result and nested aggregates
+		ILazyDataset[] as = new ILazyDataset[40];
+		for (int i = 0; i < as.length; i++) {
+			Dataset a = DatasetFactory.createRange(i * 12, (i + 1) * 12, 1, i % 3 == 0 ? Dataset.INT16 : Dataset.FLOAT32);
+			a.setShape(3, 4);
+			as[i] = i % 10 == 9 ? new AggregateDataset(false, a.getSlice(new Slice(0, 1)), a.getSlice(new Slice(1, null))) : a;
+		}
+		AggregateDataset b = new AggregateDataset(false, as);
+		assertEquals(Dataset.FLOAT32, b.getDType());
+		assertArrayEquals(new int[] {120, 4}, b.getShape());
+
+		Dataset e = DatasetFactory.createRange(480, Dataset.FLOAT32).reshape(120, 4);
+		Slice[][] slices = {{null, null}, {new Slice(1, 118, 5), new Slice(1, 4, 2)},
+				{new Slice(4, 5)}, {new Slice(20, 20)}};
+		for (Slice[] s : slices) {
+			Dataset r = b.getSlice(s);
+			assertEquals(Dataset.FLOAT32, r.getDType());
+			assertEquals(e.getSlice(s), r);
+		}
+	}
+
+	@Test
+	public void testFailedPartWaitsForOthers() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicBoolean finished = new AtomicBoolean();
+		final Dataset x = DatasetFactory.createRange(4).reshape(1, 4);
+		ILazyDataset failing = new LazyDataset("f", Dataset.FLOAT64, new int[] {1, 4}, new ILazyLoader() {
+			private static final long serialVersionUID = ILazyLoader.serialVersionUID;
+
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+				try {
+					started.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+				}
+				throw new IOException("Cannot read");
+			}
+		});
+		ILazyDataset slow = new LazyDataset("s", Dataset.FLOAT64, new int[] {1, 4}, new ILazyLoader() {
+			private static final long serialVersionUID = ILazyLoader.serialVersionUID;
+
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+				started.countDown();
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+				}
+				finished.set(true);
+				return x.getSlice(slice);
+			}
+		});
+
+		AggregateDataset b = new AggregateDataset(false, failing, slow);
+		try {
+			b.getSlice();
+			fail("Should have thrown an exception");
+		} catch (DatasetException e) {
+			// expected
+		}
+		assertTrue("Slice must not return while parts are still being read", finished.get());
+	}
 }
@@ -20,14 +20,14 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ AbstractCompoundDatasetTest.class, AbstractDatasetTest.class, AggregateDatasetTest.class,
 		BinaryOperationTest.class, BooleanDatasetTest.class, BooleanIteratorTest.class, BroadcastIteratorTest.class,
 		BroadcastUtilsTest.class, ByteDatasetTest.class, ComparisonsTest.class, 
-		CompoundDoubleDatasetTest.class, ComplexDoubleDatasetTest.class,
-		ComplexFloatDatasetTest.class, DatasetFactoryTest.class, DateDatasetTest.class, DoubleDatasetTest.class,
+		CollectionStatsTest.class, CompoundDoubleDatasetTest.class, ComplexDoubleDatasetTest.class,
+		ComplexFloatDatasetTest.class, DatasetCodecTest.class, DatasetFactoryTest.class, DateDatasetTest.class, DenseDecompositionsTest.class, DoubleDatasetTest.class, EncodedStringDatasetTest.class, FFTTest.class,
 		FloatDatasetTest.class, IndexIteratorTest.class, IntegerDatasetTest.class,
-		IntegerIteratorTest.class, IntegersIteratorTest.class, InterpolatorUtilsTest.class, LazyDatasetTest.class,
+		IntegerIteratorTest.class, IntegersIteratorTest.class, InterpolationTest.class, InterpolatorUtilsTest.class, LazyDatasetTest.class,
 		LazyDynamicDatasetTest.class, LazyDynamicLoaderTest.class, LazyMathsTest.class, LazyWriteableDatasetTest.class,
 		LinearAlgebraTest.class, LongDatasetTest.class, MathsTest.class, ObjectDatasetTest.class,
-		PositionIteratorTest.class, RandomTest.class, RGBDatasetTest.class, ShortDatasetTest.class,
-		SingleInputBroadcastIteratorTest.class, SliceIteratorTest.class, SliceNDIteratorTest.class, SliceNDTest.class,
+		PositionIteratorTest.class, QuantileSketchTest.class, RandomTest.class, RGBDatasetTest.class, RunningAverageTest.class, ShortDatasetTest.class,
+		SingleInputBroadcastIteratorTest.class, SliceIteratorTest.class, SliceNDIteratorTest.class, SliceNDTest.class, SlidingWindowTest.class, SparseDatasetTest.class,
 		SliceTest.class, StatsTest.class, StrideIteratorTest.class, StringDatasetTest.class,
 		UnsignedArithmetics.class,
 		OutlierCorrectnessTest.class, OutlierStatsTest.class,
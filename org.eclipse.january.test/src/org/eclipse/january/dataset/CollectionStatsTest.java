@@ -0,0 +1,105 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.january.asserts.TestUtils;
+import org.junit.Test;
+
+public class CollectionStatsTest {
+
+	private static List<IDataset> createImages(int n, int... shape) {
+		Random.seed(12345);
+		List<IDataset> images = new ArrayList<IDataset>();
+		for (int i = 0; i < n; i++) {
+			images.add(Random.randn(shape));
+		}
+		return images;
+	}
+
+	/**
+	 * @return stack of images with images along last axis
+	 */
+	private static Dataset stack(List<? extends IDataset> images) {
+		int n = images.size();
+		Dataset[] expanded = new Dataset[n];
+		for (int i = 0; i < n; i++) {
+			Dataset d = DatasetUtils.convertToDataset(images.get(i)).getSlice();
+			int[] shape = d.getShape();
+			int[] nshape = new int[shape.length + 1];
+			System.arraycopy(shape, 0, nshape, 0, shape.length);
+			nshape[shape.length] = 1;
+			expanded[i] = d.reshape(nshape);
+		}
+		return DatasetUtils.concatenate(expanded, expanded[0].getRank() - 1);
+	}
+
+	@Test
+	public void testMeanAndMedian() throws Exception {
+		List<IDataset> images = createImages(7, 30, 40);
+		Dataset stack = stack(images);
+
+		TestUtils.assertDatasetEquals(stack.mean(2), CollectionStats.mean(images), 1e-12, 1e-12);
+		TestUtils.assertDatasetEquals(Stats.median(stack, 2), CollectionStats.median(images), 1e-12, 1e-12);
+
+		images = createImages(8, 30, 40); // even number
+		stack = stack(images);
+		TestUtils.assertDatasetEquals(Stats.median(stack, 2), CollectionStats.median(images), 1e-12, 1e-12);
+		Dataset[] q = Stats.quantile(stack, 2, 0.1, 0.9);
+		TestUtils.assertDatasetEquals(q[0], CollectionStats.quantile(images, 0.1), 1e-12, 1e-12);
+		TestUtils.assertDatasetEquals(q[1], CollectionStats.quantile(images, 0.9), 1e-12, 1e-12);
+
+		// views
+		List<IDataset> views = new ArrayList<IDataset>();
+		for (IDataset i : images) {
+			views.add(i.getSliceView(new Slice(null, null, -2), new Slice(3, 25)));
+		}
+		TestUtils.assertDatasetEquals(Stats.median(stack(views), 2), CollectionStats.median(views), 1e-12, 1e-12);
+	}
+
+	@Test
+	public void testSelect() {
+		double[] values = new double[] {5, 1, Double.NaN, 4, 2, 3};
+		assertEquals(1, CollectionStats.select(values.clone(), 6, 0), 0);
+		assertEquals(3, CollectionStats.select(values.clone(), 6, 0.4), 0);
+		assertEquals(4, CollectionStats.select(values.clone(), 5, 0.5), 0); // ignores last value
+		assertEquals(Double.NaN, CollectionStats.select(values.clone(), 6, 1), 0);
+
+		double[] same = new double[] {2, 2, 2, 2, 1};
+		assertEquals(2, CollectionStats.select(same, 5, 0.5), 0);
+	}
+
+	@Test
+	public void testClippedMean() throws Exception {
+		List<IDataset> images = createImages(20, 5, 6);
+		Dataset outlier = DatasetFactory.zeros(5, 6).fill(1000);
+		images.add(outlier);
+		Dataset mean = CollectionStats.mean(images.subList(0, 20));
+		Dataset clipped = CollectionStats.clippedMean(images, 3, 5);
+		// outlier is excluded when it is more than 3 sigma away
+		TestUtils.assertDatasetEquals(mean, clipped, 1e-12, 1e-12);
+		assertEquals(1000 / 21., CollectionStats.mean(images).getDouble(0, 0) - 20 * mean.getDouble(0, 0) / 21, 1e-10);
+	}
+
+	@Test
+	public void testLazy() throws Exception {
+		List<IDataset> images = createImages(5, 9, 4);
+		List<ILazyDataset> lazies = new ArrayList<ILazyDataset>();
+		for (IDataset i : images) {
+			lazies.add(LazyDataset.createLazyDataset(DatasetUtils.convertToDataset(i)));
+		}
+		TestUtils.assertDatasetEquals(CollectionStats.median(images), CollectionStats.median(lazies), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(CollectionStats.mean(images), CollectionStats.mean(lazies), 1e-15, 1e-15);
+	}
+}
@@ -0,0 +1,270 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.MetadataException;
+import org.eclipse.january.io.ILazyLoader;
+import org.eclipse.january.metadata.AxesMetadata;
+import org.eclipse.january.metadata.MetadataFactory;
+import org.junit.Test;
+
+public class DatasetCodecTest {
+
+	private static Dataset roundTrip(Dataset a, ByteOrder order, int flags) {
+		ByteBuffer b = ByteBuffer.allocate((int) DatasetCodec.getEncodedSizeLimit(a, flags)).order(order);
+		DatasetCodec.encode(a, b, flags);
+		b.flip();
+		Dataset r = DatasetCodec.decode(b);
+		assertEquals(0, b.remaining());
+		return r;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Dataset[] ds = new Dataset[] {
+			DatasetFactory.createRange(24).reshape(2, 3, 4),
+			DatasetFactory.createRange(FloatDataset.class, 10),
+			DatasetFactory.createRange(LongDataset.class, 7),
+			DatasetFactory.createRange(IntegerDataset.class, 12).reshape(3, 4),
+			DatasetFactory.createRange(ShortDataset.class, 5),
+			DatasetFactory.createRange(ByteDataset.class, 5),
+			DatasetFactory.createFromObject(new boolean[] {true, false, true}),
+			DatasetFactory.createComplexDataset(ComplexDoubleDataset.class, Random.randn(6), Random.randn(6)),
+			DatasetFactory.createFromObject(3, CompoundIntegerDataset.class, new int[] {1, 2, 3, 4, 5, 6}, 2),
+			DatasetFactory.createFromObject(2.5),
+			DatasetFactory.zeros(0, 3),
+		};
+		ds[0].setName("Test data");
+		for (Dataset a : ds) {
+			for (ByteOrder o : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+				for (int f : new int[] {0, DatasetCodec.COMPRESS}) {
+					Dataset r = roundTrip(a, o, f);
+					assertEquals(a.getClass(), r.getClass());
+					assertEquals(a.getElementsPerItem(), r.getElementsPerItem());
+					assertEquals(a.getName(), r.getName());
+					assertEquals(a, r);
+				}
+			}
+		}
+
+		Dataset v = DatasetFactory.createRange(30).reshape(5, 6).getSliceView(new Slice(1, 4), new Slice(null, null, -2));
+		assertEquals(v, roundTrip(v, ByteOrder.nativeOrder(), 0));
+		assertEquals(v, DatasetCodec.decode(DatasetCodec.encode(v, DatasetCodec.COMPRESS)));
+	}
+
+	@Test
+	public void testCompression() {
+		Dataset a = DatasetFactory.zeros(IntegerDataset.class, 512, 1024);
+		a.setSlice(1, new Slice(100, 200));
+		ByteBuffer b = DatasetCodec.encode(a, DatasetCodec.COMPRESS);
+		assertTrue(b.remaining() < a.getSize() * 4 / 100);
+		assertEquals(a, DatasetCodec.decode(b));
+
+		Random.seed(12371);
+		a = Random.randn(300, 1000);
+		assertEquals(a, DatasetCodec.decode(DatasetCodec.encode(a, DatasetCodec.COMPRESS)));
+
+		a = Random.randint(0, 4, new int[] {200000});
+		assertEquals(a, DatasetCodec.decode(DatasetCodec.encode(a, DatasetCodec.COMPRESS)));
+
+		byte[] src = new byte[1000];
+		for (int i = 0; i < src.length; i++) {
+			src[i] = (byte) (i % 7 == 0 ? i : 3);
+		}
+		byte[] dst = new byte[LZ4.maxCompressedLength(src.length)];
+		int n = LZ4.compress(src, 0, src.length, dst, 0, null);
+		byte[] out = new byte[src.length];
+		LZ4.decompress(dst, 0, n, out, 0, out.length);
+		assertArrayEquals(src, out);
+		try {
+			LZ4.decompress(dst, 0, n - 3, out, 0, out.length);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testMetadata() throws MetadataException {
+		Dataset a = DatasetFactory.createRange(12).reshape(3, 4);
+		a.setErrorBuffer(DatasetFactory.createRange(12).reshape(3, 4));
+		AxesMetadata md = MetadataFactory.createMetadata(AxesMetadata.class, 2);
+		md.setAxis(0, DatasetFactory.createRange(3).reshape(3, 1));
+		md.setAxis(1, DatasetFactory.createRange(FloatDataset.class, 4).reshape(1, 4), null);
+		a.setMetadata(md);
+
+		for (int f : new int[] {0, DatasetCodec.COMPRESS}) {
+			Dataset r = roundTrip(a, ByteOrder.BIG_ENDIAN, f);
+			assertEquals(a, r);
+			assertNull(r.getErrorBuffer());
+			assertNull(r.getFirstMetadata(AxesMetadata.class));
+
+			r = roundTrip(a, ByteOrder.LITTLE_ENDIAN, f | DatasetCodec.ERRORS | DatasetCodec.AXES);
+			assertEquals(a, r);
+			assertEquals(a.getErrorBuffer(), r.getErrorBuffer());
+			AxesMetadata rmd = r.getFirstMetadata(AxesMetadata.class);
+			assertEquals(DatasetFactory.createRange(3).reshape(3, 1), rmd.getAxis(0)[0]);
+			ILazyDataset[] axes = rmd.getAxis(1);
+			assertEquals(2, axes.length);
+			assertEquals(DatasetFactory.createRange(FloatDataset.class, 4).reshape(1, 4), axes[0]);
+			assertNull(axes[1]);
+		}
+	}
+
+	@Test
+	public void testChannel() throws IOException {
+		Random.seed(12371);
+		Dataset a = Random.rand(400, 700);
+		a.setErrorBuffer(Random.rand(400, 700));
+		for (int f : new int[] {DatasetCodec.ERRORS, DatasetCodec.COMPRESS | DatasetCodec.ERRORS}) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			DatasetCodec.write(a, Channels.newChannel(out), ByteOrder.LITTLE_ENDIAN, f);
+			byte[] bytes = out.toByteArray();
+			Dataset r = DatasetCodec.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+			assertEquals(a, r);
+			assertEquals(a.getErrorBuffer(), r.getErrorBuffer());
+			assertEquals(a, DatasetCodec.decode(ByteBuffer.wrap(bytes)));
+		}
+
+		try {
+			DatasetCodec.decode(ByteBuffer.wrap(new byte[] {'J', 'D', 'S', 1, 0, 0, 0, 0, 0}));
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			DatasetCodec.encode(DatasetFactory.createFromObject(new String[] {"a"}), 0);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testDates() {
+		DateDataset d = DatasetFactory.createFromObject(DateDataset.class, new java.util.Date[] {new java.util.Date(1000), null, new java.util.Date(1500000000000L)});
+		for (int f : new int[] {0, DatasetCodec.COMPRESS}) {
+			Dataset r = DatasetCodec.decode(DatasetCodec.encode(d, f));
+			assertTrue(r instanceof DateDataset);
+			assertEquals(d, r);
+			assertEquals(d.getDate(2), ((DateDataset) r).getDate(2));
+		}
+	}
+
+	@Test
+	public void testEncodedStrings() {
+		try {
+			DatasetCodec.encode(DatasetFactory.createEncodedStringDataset(new String[] {"a", "b", "a"}), 0);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testCorrupt() throws IOException {
+		// name length beyond staging buffer
+		ByteBuffer b = ByteBuffer.allocate(24).order(ByteOrder.BIG_ENDIAN);
+		b.put(new byte[] {'J', 'D', 'S', 1, 0, 0, 0, 0});
+		b.putInt(Dataset.FLOAT64).putInt(1).putInt(0).putInt(1 << 24);
+		for (int n : new int[] {1 << 24, -5}) {
+			b.putInt(20, n);
+			try {
+				DatasetCodec.read(Channels.newChannel(new ByteArrayInputStream(b.array())));
+				fail("Should have thrown an exception");
+			} catch (IOException e) {
+			}
+			try {
+				b.rewind();
+				DatasetCodec.decode(b);
+				fail("Should have thrown an exception");
+			} catch (IllegalArgumentException e) {
+			}
+		}
+
+		// bad shape and type
+		b = ByteBuffer.allocate(40).order(ByteOrder.BIG_ENDIAN);
+		b.put(new byte[] {'J', 'D', 'S', 1, 0, 0, 0, 0});
+		b.putInt(Dataset.FLOAT64).putInt(1).putInt(1).putInt(-3).putInt(-1).putLong(0);
+		try {
+			DatasetCodec.read(Channels.newChannel(new ByteArrayInputStream(b.array())));
+			fail("Should have thrown an exception");
+		} catch (IOException e) {
+		}
+		b.putInt(8, 12345).putInt(20, 0);
+		try {
+			DatasetCodec.read(Channels.newChannel(new ByteArrayInputStream(b.array())));
+			fail("Should have thrown an exception");
+		} catch (IOException e) {
+		}
+
+		// large shape is checked against length of data before allocating
+		b.putInt(8, Dataset.FLOAT64).putInt(20, 1 << 28).putLong(28, 8);
+		try {
+			DatasetCodec.read(Channels.newChannel(new ByteArrayInputStream(b.array())));
+			fail("Should have thrown an exception");
+		} catch (IOException e) {
+		}
+		b.putLong(28, 1L << 31);
+		try {
+			b.rewind();
+			DatasetCodec.decode(b);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+
+		// header too large to encode
+		Dataset a = DatasetFactory.createRange(3);
+		a.setName(new String(new char[1 << 20]).replace('\0', 'a'));
+		try {
+			DatasetCodec.write(a, Channels.newChannel(new ByteArrayOutputStream()), ByteOrder.BIG_ENDIAN, 0);
+			fail("Should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testLazyAxesLoadedOnce() throws MetadataException {
+		final AtomicInteger loads = new AtomicInteger();
+		final Dataset x = DatasetFactory.createRange(4);
+		ILazyDataset l = new LazyDataset("x", Dataset.FLOAT64, new int[] {4}, new ILazyLoader() {
+			private static final long serialVersionUID = ILazyLoader.serialVersionUID;
+
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+				loads.incrementAndGet();
+				return x.getSlice(slice);
+			}
+		});
+		Dataset a = DatasetFactory.createRange(4);
+		AxesMetadata md = MetadataFactory.createMetadata(AxesMetadata.class, 1);
+		md.setAxis(0, l);
+		a.setMetadata(md);
+		Dataset r = DatasetCodec.decode(DatasetCodec.encode(a, DatasetCodec.AXES));
+		assertEquals(1, loads.get());
+		assertEquals(x, r.getFirstMetadata(AxesMetadata.class).getAxis(0)[0]);
+	}
+}
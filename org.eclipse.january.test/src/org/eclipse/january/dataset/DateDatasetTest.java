@@ -9,7 +9,10 @@
 
 package org.eclipse.january.dataset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Date;
 
@@ -48,4 +51,42 @@ public class DateDatasetTest {
 		assertEquals(date, dataset.getDateAbs(0));
 	}
 	
+
+	@Test
+	public void testTimes() {
+		final long startDate = 1443657600000l; // 2015-10-01 00:00:00 GMT
+		final long interval = 60 * 60 * 1000; // 1 hour
+		final Date[] dates = new Date[] {new Date(startDate + 3 * interval), new Date(startDate),
+				null, new Date(startDate + interval)};
+		DateDatasetImpl dataset = new DateDatasetImpl(dates);
+		assertNull(dataset.getDate(2));
+		assertNull(dataset.getString(2));
+		assertEquals(startDate, dataset.getLong(1));
+
+		// strings are parsed and formatted
+		DateDatasetImpl copy = new DateDatasetImpl(4);
+		for (int i = 0; i < 4; i++) {
+			copy.set(dataset.getString(i), i);
+		}
+		assertEquals(dataset, copy);
+
+		// views and slices remain date datasets
+		assertTrue(dataset.getSliceView(new Slice(1, 2)) instanceof DateDataset);
+		DateDataset slice = (DateDataset) dataset.getSlice(new Slice(null, null, 3));
+		assertEquals(dates[3], slice.getDate(1));
+		assertTrue(dataset.clone() instanceof DateDataset);
+
+		// differences are durations
+		Dataset d = Maths.subtract(dataset.getSlice(new Slice(0, 1)), dataset.getSlice(new Slice(1, 2)));
+		assertEquals(3 * interval, d.getLong(0));
+
+		// comparisons and sorting use times
+		Dataset after = Comparisons.greaterThan(dataset, new Date(startDate + interval / 2));
+		assertArrayEquals(new boolean[] {true, false, false, true}, ((BooleanDataset) after).getData());
+		dataset.set(new Date(startDate + 2 * interval), 2);
+		dataset.sort(null);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(new Date(startDate + i * interval), dataset.getDate(i));
+		}
+	}
 }
@@ -0,0 +1,136 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.linear.SingularMatrixException;
+import org.eclipse.january.asserts.TestUtils;
+import org.junit.Test;
+
+public class DenseDecompositionsTest {
+
+	@Test
+	public void testLU() {
+		for (int n : new int[] {1, 5, 150}) {
+			Dataset a = Random.rand(-1., 1, n, n);
+			Dataset[] lup = LinearAlgebra.calcLUDecomposition(a);
+			TestUtils.assertDatasetEquals(LinearAlgebra.dotProduct(lup[2], a), LinearAlgebra.dotProduct(lup[0], lup[1]), 1e-10, 1e-10);
+
+			Dataset b = Random.rand(n, 3);
+			Dataset x = LinearAlgebra.solve(a, b);
+			TestUtils.assertDatasetEquals(b, LinearAlgebra.dotProduct(a, x), 1e-8, 1e-8);
+			TestUtils.assertDatasetEquals(DatasetUtils.eye(n, n, 0, Dataset.FLOAT64), LinearAlgebra.dotProduct(a, LinearAlgebra.calcInverse(a)), 1e-8, 1e-8);
+		}
+
+		// determinant of non-symmetric matrix
+		Dataset a = DatasetFactory.createFromObject(new double[] {0, 1, 0, 0, 0, 1, 1, 0, 0}, 3, 3);
+		assertEquals(1, LinearAlgebra.calcDeterminant(a), 1e-15);
+		a = DatasetFactory.createFromObject(new double[] {0, 2, 3, 0}, 2, 2);
+		assertEquals(-6, LinearAlgebra.calcDeterminant(a), 1e-15);
+	}
+
+	@Test(expected = SingularMatrixException.class)
+	public void testSingular() {
+		LinearAlgebra.calcInverse(DatasetFactory.createFromObject(new double[] {1, 2, 2, 4}, 2, 2));
+	}
+
+	@Test
+	public void testCholesky() {
+		int n = 130;
+		Dataset r = Random.rand(n, n);
+		Dataset a = Maths.add(LinearAlgebra.dotProduct(r, r.getTransposedView()), DatasetUtils.eye(n, n, 0, Dataset.FLOAT64));
+		Dataset l = LinearAlgebra.calcCholeskyDecomposition(a);
+		assertEquals(0, l.getDouble(0, 1), 0);
+		TestUtils.assertDatasetEquals(a, LinearAlgebra.dotProduct(l, l.getTransposedView()), 1e-10, 1e-10);
+
+		Dataset c = a.clone();
+		assertSame(c, DenseDecompositions.decomposeCholesky(c, true));
+		TestUtils.assertDatasetEquals(l, c, 1e-12, 1e-12);
+
+		// copied and written back for other types
+		Dataset f = a.cast(Dataset.FLOAT32);
+		assertSame(f, DenseDecompositions.decomposeCholesky(f, true));
+		TestUtils.assertDatasetEquals(l.cast(Dataset.FLOAT32), f, 1e-4, 1e-4);
+	}
+
+	@Test(expected = NonPositiveDefiniteMatrixException.class)
+	public void testNotPositiveDefinite() {
+		LinearAlgebra.calcCholeskyDecomposition(DatasetFactory.createFromObject(new double[] {1, 2, 2, 1}, 2, 2));
+	}
+
+	@Test
+	public void testQR() {
+		for (int[] shape : new int[][] {{4, 4}, {7, 3}, {3, 6}, {90, 80}}) {
+			Dataset a = Random.rand(-1., 1, shape);
+			Dataset[] qr = LinearAlgebra.calcQRDecomposition(a);
+			Dataset q = qr[0];
+			Dataset r = qr[1];
+			TestUtils.assertDatasetEquals(a, LinearAlgebra.dotProduct(q, r), 1e-10, 1e-10);
+			TestUtils.assertDatasetEquals(DatasetUtils.eye(shape[0], shape[0], 0, Dataset.FLOAT64), LinearAlgebra.dotProduct(q.getTransposedView(), q), 1e-10, 1e-10);
+			for (int i = 1; i < shape[0]; i++) {
+				for (int j = 0; j < Math.min(i, shape[1]); j++) {
+					assertEquals(0, r.getDouble(i, j), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSymmetricEigen() {
+		for (int n : new int[] {1, 3, 40}) {
+			Dataset r = Random.rand(-1., 1, n, n);
+			Dataset a = Maths.add(r, r.getTransposedView());
+			Dataset[] evd = DenseDecompositions.decomposeSymmetricEigen(a, false);
+			Dataset d = evd[0];
+			Dataset v = evd[1];
+			for (int i = 1; i < n; i++) {
+				assertEquals(true, d.getDouble(i - 1) <= d.getDouble(i));
+			}
+			Dataset vd = Maths.multiply(v, d.reshape(1, n));
+			TestUtils.assertDatasetEquals(LinearAlgebra.dotProduct(a, v), vd, 1e-10, 1e-10);
+			TestUtils.assertDatasetEquals(DatasetUtils.eye(n, n, 0, Dataset.FLOAT64), LinearAlgebra.dotProduct(v.getTransposedView(), v), 1e-10, 1e-10);
+
+			// descending order as before
+			Dataset[] ld = LinearAlgebra.calcEigenDecomposition(a);
+			assertEquals(d.getDouble(n - 1), ld[0].getDouble(0), 1e-12);
+			TestUtils.assertDatasetEquals(LinearAlgebra.dotProduct(a, ld[1]), Maths.multiply(ld[1], ld[0].reshape(1, n)), 1e-10, 1e-10);
+		}
+	}
+
+	@Test(expected = MaxCountExceededException.class)
+	public void testNoConvergence() {
+		int n = 5;
+		double[] v = (double[]) DatasetUtils.eye(n, n, 0, Dataset.FLOAT64).getBuffer();
+		DenseDecompositions.diagonalize(v, n, new double[] {1, 2, 3, 4, 5}, new double[] {0, 1, 1, 1, 1}, 1);
+	}
+
+	@Test
+	public void testSymmetryCheck() {
+		Dataset r = Random.rand(-1., 1, 6, 6);
+		Dataset a = Maths.add(r, r.getTransposedView());
+		Dataset e = LinearAlgebra.calcEigenvalues(a);
+		TestUtils.assertDatasetEquals(e, LinearAlgebra.calcEigenvalues(a.getTransposedView()), 1e-12, 1e-12);
+		Dataset b = a.clone();
+		b.set(b.getDouble(1, 4) * (1 + 1e-14), 1, 4); // within tolerance
+		TestUtils.assertDatasetEquals(e, LinearAlgebra.calcEigenvalues(b), 1e-10, 1e-10);
+
+		Dataset c = DatasetFactory.createFromObject(new double[] {2, 1, 0, 3}, 2, 2);
+		double[] ev = (double[]) LinearAlgebra.calcEigenvalues(c).getBuffer();
+		Arrays.sort(ev);
+		assertEquals(2, ev[0], 1e-12);
+		assertEquals(3, ev[1], 1e-12);
+	}
+}
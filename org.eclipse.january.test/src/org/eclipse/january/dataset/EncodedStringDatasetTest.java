@@ -0,0 +1,109 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class EncodedStringDatasetTest {
+
+	private static final String[] LABELS = new String[] {"beam", "dark", "beam", "flat", null, "dark", "beam", "flat"};
+
+	@Test
+	public void testCreate() {
+		EncodedStringDataset a = DatasetFactory.createEncodedStringDataset(LABELS);
+		assertArrayEquals(new int[] {8}, a.getShapeRef());
+		assertArrayEquals(new String[] {null, "beam", "dark", "flat"}, a.getDictionary());
+		for (int i = 0; i < LABELS.length; i++) {
+			assertEquals(LABELS[i], a.getObject(i));
+		}
+		assertEquals("dark", a.getString(1));
+		assertEquals(2, a.getCode("dark"));
+		assertEquals(-1, a.getCode("sample"));
+
+		StringDataset s = a.toStringDataset();
+		assertArrayEquals(LABELS, s.getData());
+		assertEquals(a, DatasetFactory.createEncodedStringDataset(s));
+
+		EncodedStringDataset b = DatasetFactory.createEncodedStringDataset(new String[] {"flat", "beam"});
+		a.setShape(4, 2);
+		assertEquals("flat", a.getString(3, 1));
+		assertEquals(b, a.getSlice(new Slice(3, 4), null).squeeze().getSlice(new Slice(null, null, -1)));
+		assertTrue(a.getSliceView(new Slice(1, 2)) instanceof EncodedStringDataset);
+	}
+
+	@Test
+	public void testSet() {
+		EncodedStringDataset a = DatasetFactory.createEncodedStringDataset(LABELS);
+		a.set("sample", 4);
+		assertEquals("sample", a.getString(4));
+		a.setSlice(new String[] {"x", "y"}, new Slice(0, 2));
+		assertEquals("x", a.getObject(0));
+		assertEquals("y", a.getObject(1));
+
+		EncodedStringDataset b = DatasetFactory.createEncodedStringDataset(new String[] {"dark", "flat"});
+		a.setSlice(b, new Slice(6, 8));
+		assertEquals("dark", a.getObject(6));
+		a.setByBoolean("none", a.equalTo("flat"));
+		assertEquals("none", a.getObject(3));
+		assertEquals("none", a.getObject(7));
+
+		a.setSlice(null, new Slice(1, 3));
+		assertNull(a.getObject(1));
+		assertNull(a.getObject(2));
+	}
+
+	@Test
+	public void testCodeOperations() {
+		EncodedStringDataset a = DatasetFactory.createEncodedStringDataset(LABELS);
+		assertArrayEquals(new boolean[] {false, true, false, false, false, true, false, false}, a.equalTo("dark").getData());
+		assertArrayEquals(new boolean[] {false, true, false, true, false, true, false, true}, a.isIn("dark", "flat", "other").getData());
+		assertArrayEquals(new boolean[8], a.equalTo("other").getData());
+
+		assertEquals(DatasetFactory.createEncodedStringDataset(new String[] {null, "beam", "dark", "flat"}), a.getUniqueItems());
+
+		Map<String, Integer> counts = a.getCounts();
+		assertArrayEquals(new String[] {null, "beam", "dark", "flat"}, counts.keySet().toArray(new String[0]));
+		assertEquals(3, counts.get("beam").intValue());
+		Map<String, IntegerDataset> groups = a.getGroups();
+		assertArrayEquals(new int[] {1, 5}, groups.get("dark").getData());
+		assertArrayEquals(new int[] {4}, groups.get(null).getData());
+
+		a.set("alpha", 0);
+		assertArrayEquals(new int[] {0}, a.minPos());
+		assertArrayEquals(new int[] {3}, a.maxPos());
+
+		a.sort(null);
+		assertEquals(DatasetFactory.createEncodedStringDataset(new String[] {null, "alpha", "beam", "beam", "dark", "dark", "flat", "flat"}), a);
+
+		EncodedStringDataset b = DatasetFactory.createEncodedStringDataset(new String[][] {{"c", "a", "b"}, {"z", "y", "x"}});
+		b.sort(1);
+		assertEquals(DatasetFactory.createEncodedStringDataset(new String[][] {{"a", "b", "c"}, {"x", "y", "z"}}), b);
+	}
+
+	@Test
+	public void testEqualsAndHash() {
+		EncodedStringDataset a = DatasetFactory.createEncodedStringDataset(new String[] {"x", "y", null, "x"});
+		EncodedStringDataset b = DatasetFactory.createEncodedStringDataset(new String[] {"z", "y", null, "x"});
+		assertFalse(a.equals(b));
+		b.set("x", 0); // same strings with different codes
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		b.set("y", 3);
+		assertFalse(a.equals(b));
+	}
+}
@@ -0,0 +1,156 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.january.dataset.FFT.ConvolutionMode;
+import org.junit.Test;
+
+public class FFTTest {
+
+	/**
+	 * Direct DFT along last axis
+	 */
+	private static ComplexDoubleDataset dft(Dataset a, boolean inverse) {
+		int[] shape = a.getShape();
+		int n = shape[shape.length - 1];
+		int lines = a.getSize() / n;
+		ComplexDoubleDataset c = (ComplexDoubleDataset) a.cast(Dataset.COMPLEX128).reshape(lines, n);
+		ComplexDoubleDataset r = DatasetFactory.zeros(ComplexDoubleDataset.class, lines, n);
+		double sign = inverse ? 1 : -1;
+		for (int l = 0; l < lines; l++) {
+			for (int k = 0; k < n; k++) {
+				double sr = 0;
+				double si = 0;
+				for (int j = 0; j < n; j++) {
+					double t = sign * 2 * Math.PI * ((long) j * k % n) / n;
+					double xr = c.getReal(l, j);
+					double xi = c.getImag(l, j);
+					sr += xr * Math.cos(t) - xi * Math.sin(t);
+					si += xr * Math.sin(t) + xi * Math.cos(t);
+				}
+				if (inverse) {
+					sr /= n;
+					si /= n;
+				}
+				r.set(new double[] {sr, si}, l, k);
+			}
+		}
+		r.setShape(shape);
+		return r;
+	}
+
+	private static void assertClose(Dataset e, Dataset a, double tol) {
+		assertArrayEquals(e.getShapeRef(), a.getShapeRef());
+		double d = ((Number) Maths.abs(Maths.subtract(e, a)).max()).doubleValue();
+		assertEquals(0, d, tol);
+	}
+
+	@Test
+	public void testFFT() {
+		Random.seed(12379);
+		for (int n : new int[] {1, 2, 8, 64, 3, 5, 12, 100}) {
+			Dataset a = Random.randn(3, n);
+			ComplexDoubleDataset f = FFT.fft(a);
+			assertClose(dft(a, false), f, 1e-10 * n);
+			assertClose(dft(f, true), FFT.ifft(f), 1e-10 * n);
+			assertClose(a, FFT.ifft(f).getRealView(), 1e-12 * n);
+		}
+
+		Dataset a = DatasetFactory.createFromObject(new double[] {1, 2, 3, 4});
+		assertEquals(10, FFT.fft(a).getReal(0), 1e-15);
+		assertEquals(2, FFT.fft(a).getImag(1), 1e-15);
+
+		// padding and views
+		Dataset p = FFT.fft(a, 8, 0);
+		assertClose(dft(DatasetFactory.createFromObject(new double[] {1, 2, 3, 4, 0, 0, 0, 0}), false), p, 1e-12);
+		Dataset v = a.getSliceView(new Slice(null, null, -1));
+		assertClose(dft(v, false), FFT.fft(v), 1e-12);
+	}
+
+	@Test
+	public void testFFTN() {
+		Random.seed(12379);
+		Dataset a = Random.randn(6, 8, 5);
+		ComplexDoubleDataset f = FFT.fftn(a, null, null);
+
+		// compare to successive transforms along each axis
+		Dataset e = dft(a, false);
+		e = dft(e.getTransposedView(0, 2, 1), false).getTransposedView(0, 2, 1);
+		e = dft(e.getTransposedView(2, 1, 0), false).getTransposedView(2, 1, 0);
+		assertClose(e, f, 1e-10);
+
+		assertClose(a, FFT.ifftn(f, null, null).getRealView(), 1e-12);
+		assertClose(FFT.fftn(a, null, new int[] {-2, -1}), FFT.fft2(a), 1e-12);
+		assertClose(a, FFT.ifft2(FFT.fft2(a)).getRealView(), 1e-12);
+	}
+
+	private static Dataset directConvolve(Dataset a, Dataset b) {
+		int na = a.getSize();
+		int nb = b.getSize();
+		ComplexDoubleDataset ca = (ComplexDoubleDataset) a.cast(Dataset.COMPLEX128);
+		ComplexDoubleDataset cb = (ComplexDoubleDataset) b.cast(Dataset.COMPLEX128);
+		ComplexDoubleDataset r = DatasetFactory.zeros(ComplexDoubleDataset.class, na + nb - 1);
+		for (int i = 0; i < na; i++) {
+			for (int j = 0; j < nb; j++) {
+				double xr = ca.getReal(i) * cb.getReal(j) - ca.getImag(i) * cb.getImag(j);
+				double xi = ca.getReal(i) * cb.getImag(j) + ca.getImag(i) * cb.getReal(j);
+				r.set(new double[] {r.getReal(i + j) + xr, r.getImag(i + j) + xi}, i + j);
+			}
+		}
+		return a.isComplex() || b.isComplex() ? r : r.getRealView();
+	}
+
+	@Test
+	public void testConvolve() {
+		Random.seed(12379);
+		Dataset a = Random.randn(13);
+		Dataset b = Random.randn(5);
+
+		Dataset e = directConvolve(a, b);
+		assertClose(e, FFT.convolve(a, b, ConvolutionMode.FULL), 1e-12);
+		assertClose(e.getSlice(new Slice(2, 15)), FFT.convolve(a, b, ConvolutionMode.SAME), 1e-12);
+		assertClose(e.getSlice(new Slice(4, 13)), FFT.convolve(a, b, ConvolutionMode.VALID), 1e-12);
+
+		Dataset c = DatasetFactory.createComplexDataset(ComplexDoubleDataset.class, b, Random.randn(5));
+		assertClose(directConvolve(a, c), FFT.convolve(a, c, ConvolutionMode.FULL), 1e-12);
+
+		// correlation is convolution with reversed conjugate
+		Dataset r = Maths.conjugate(c.getSlice(new Slice(null, null, -1)));
+		assertClose(directConvolve(a, r), FFT.correlate(a, c, ConvolutionMode.FULL), 1e-12);
+		r = b.getSlice(new Slice(null, null, -1));
+		assertClose(directConvolve(a, r), FFT.correlate(a, b, ConvolutionMode.FULL), 1e-12);
+	}
+
+	@Test
+	public void testConvolveAxes() {
+		Random.seed(12379);
+		Dataset a = Random.randn(4, 9);
+		Dataset b = Random.randn(4, 3);
+
+		Dataset c = FFT.convolve(a, b, ConvolutionMode.FULL, 1);
+		assertArrayEquals(new int[] {4, 11}, c.getShapeRef());
+		for (int i = 0; i < 4; i++) {
+			Dataset e = directConvolve(a.getSlice(new Slice(i, i + 1)).squeeze(), b.getSlice(new Slice(i, i + 1)).squeeze());
+			assertClose(e, c.getSlice(new Slice(i, i + 1)).squeeze(), 1e-12);
+		}
+
+		// 2D correlation peak gives shift
+		Dataset img = Random.rand(32, 32);
+		Dataset shifted = DatasetUtils.roll(DatasetUtils.roll(img, 3, 0), -5, 1);
+		Dataset x = FFT.correlate(shifted, img, ConvolutionMode.FULL);
+		assertArrayEquals(new int[] {63, 63}, x.getShapeRef());
+		int[] peak = x.maxPos();
+		assertEquals(31 + 3, peak[0]);
+		assertEquals(31 - 5, peak[1]);
+	}
+}
@@ -0,0 +1,145 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.january.dataset.Interpolation.BoundaryMode;
+import org.junit.Test;
+
+public class InterpolationTest {
+
+	@Test
+	public void testLinear() {
+		Dataset d = Random.rand(7, 9);
+		Dataset x = Random.rand(-1.5, 8.5, 20, 3);
+		Dataset y = Random.rand(-1.5, 10.5, 20, 3);
+		Dataset r = Interpolation.mapCoordinates(d, x, y);
+		assertArrayEquals(new int[] {20, 3}, r.getShapeRef());
+		IndexIterator it = r.getIterator(true);
+		int[] pos = it.getPos();
+		while (it.hasNext()) {
+			assertEquals(Maths.interpolate(d, x.getDouble(pos), y.getDouble(pos)), r.getDouble(pos), 1e-12);
+		}
+
+		// with strided input and 3D
+		d = Random.rand(10, 6, 5).getSliceView(new Slice(null, null, 2), null, new Slice(null, null, -1));
+		x = Random.rand(-1., 5, 50);
+		y = Random.rand(-1., 6, 50);
+		Dataset z = Random.rand(-1., 5, 50);
+		r = Interpolation.mapCoordinates(d, x, y, z);
+		for (int i = 0; i < 50; i++) {
+			assertEquals(Maths.interpolate(d, x.getDouble(i), y.getDouble(i), z.getDouble(i)), r.getDouble(i), 1e-12);
+		}
+	}
+
+	@Test
+	public void testCompound() {
+		CompoundDataset d = DatasetUtils.createCompoundDatasetFromLastAxis(Random.rand(5, 4, 3), true);
+		Dataset x = Random.rand(-1., 5, 30);
+		Dataset y = Random.rand(-1., 4, 30);
+		Dataset r = Interpolation.mapCoordinates(d, x, y);
+		assertEquals(3, r.getElementsPerItem());
+		double[] expected = new double[3];
+		double[] actual = new double[3];
+		for (int i = 0; i < 30; i++) {
+			Maths.interpolate(expected, d, x.getDouble(i), y.getDouble(i));
+			((CompoundDataset) r).getDoubleArray(actual, i);
+			assertArrayEquals(expected, actual, 1e-12);
+		}
+	}
+
+	@Test
+	public void testOrders() {
+		Dataset d = DatasetFactory.createFromObject(new double[] {0, 10, 20, 30});
+		Dataset x = DatasetFactory.createFromObject(new double[] {0.4, 0.6, 2.5, Double.NaN});
+		Dataset r = Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.CONSTANT, 0, x);
+		assertEquals(0, r.getDouble(0), 0);
+		assertEquals(10, r.getDouble(1), 0);
+		assertEquals(30, r.getDouble(2), 0);
+		assertTrue(Double.isNaN(r.getDouble(3)));
+
+		// cubic convolution is exact for quadratics
+		int n = 12;
+		Dataset q = DatasetFactory.createRange(n);
+		q = Maths.add(Maths.square(q), Maths.multiply(q, -3));
+		x = Random.rand(1., n - 2, 100);
+		r = Interpolation.mapCoordinates(q, Interpolation.CUBIC, BoundaryMode.NEAREST, 0, x);
+		for (int i = 0; i < 100; i++) {
+			double v = x.getDouble(i);
+			assertEquals(v * v - 3 * v, r.getDouble(i), 1e-10);
+		}
+
+		// and interpolates at sample points
+		Dataset s = Random.rand(6, 5);
+		List<Dataset> g = DatasetUtils.meshGrid(DatasetFactory.createRange(6), DatasetFactory.createRange(5));
+		r = Interpolation.mapCoordinates(s, Interpolation.CUBIC, BoundaryMode.MIRROR, 0, g.get(0), g.get(1));
+		assertEquals(s.getDouble(2, 3), r.getDouble(2, 3), 1e-12);
+		assertEquals(s.getDouble(0, 4), r.getDouble(0, 4), 1e-12);
+	}
+
+	@Test
+	public void testBoundaryModes() {
+		Dataset d = DatasetFactory.createFromObject(new double[] {1, 2, 3, 4});
+		Dataset x = DatasetFactory.createFromObject(new double[] {-3, -2, -1, 4, 5, 6});
+		assertArrayEquals(new double[] {-1, -1, -1, -1, -1, -1},
+				getData(Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.CONSTANT, -1, x)), 0);
+		assertArrayEquals(new double[] {1, 1, 1, 4, 4, 4},
+				getData(Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.NEAREST, 0, x)), 0);
+		assertArrayEquals(new double[] {3, 2, 1, 4, 3, 2},
+				getData(Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.REFLECT, 0, x)), 0);
+		assertArrayEquals(new double[] {4, 3, 2, 3, 2, 1},
+				getData(Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.MIRROR, 0, x)), 0);
+		assertArrayEquals(new double[] {2, 3, 4, 1, 2, 3},
+				getData(Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.WRAP, 0, x)), 0);
+
+		// linear between last and first for wrap
+		x = DatasetFactory.createFromObject(new double[] {3.5, -0.25});
+		assertArrayEquals(new double[] {2.5, 1.75},
+				getData(Interpolation.mapCoordinates(d, Interpolation.LINEAR, BoundaryMode.WRAP, 0, x)), 1e-15);
+	}
+
+	@Test
+	public void testExactAndDistantPoints() {
+		Dataset d = DatasetFactory.createFromObject(new double[] {1, 2, 3, 4});
+
+		// constant outside does not leak into samples
+		Dataset x = DatasetFactory.createFromObject(new double[] {0, 3, 1});
+		assertArrayEquals(new double[] {1, 4, 2},
+				getData(Interpolation.mapCoordinates(d, Interpolation.LINEAR, BoundaryMode.CONSTANT, Double.NaN, x)), 0);
+		assertArrayEquals(new double[] {1, 4, 2},
+				getData(Interpolation.mapCoordinates(d, Interpolation.CUBIC, BoundaryMode.CONSTANT, Double.NaN, x)), 0);
+
+		x = DatasetFactory.createFromObject(new double[] {1e12, -1e12, 1e12 + 1, Double.POSITIVE_INFINITY});
+		assertArrayEquals(new double[] {-1, -1, -1, -1},
+				getData(Interpolation.mapCoordinates(d, Interpolation.LINEAR, BoundaryMode.CONSTANT, -1, x)), 0);
+		assertArrayEquals(new double[] {4, 1, 4, 4},
+				getData(Interpolation.mapCoordinates(d, Interpolation.LINEAR, BoundaryMode.NEAREST, 0, x)), 0);
+		assertArrayEquals(new double[] {1, 1, 2, Double.NaN},
+				getData(Interpolation.mapCoordinates(d, Interpolation.LINEAR, BoundaryMode.WRAP, 0, x)), 0);
+		assertArrayEquals(new double[] {1, 1, 2, Double.NaN},
+				getData(Interpolation.mapCoordinates(d, Interpolation.LINEAR, BoundaryMode.REFLECT, 0, x)), 0);
+		assertArrayEquals(new double[] {3, 3, 2, Double.NaN},
+				getData(Interpolation.mapCoordinates(d, Interpolation.NEAREST, BoundaryMode.MIRROR, 0, x)), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongCoordinates() {
+		Interpolation.mapCoordinates(Random.rand(3, 4), DatasetFactory.zeros(2));
+	}
+
+	private static double[] getData(Dataset a) {
+		return (double[]) a.getBuffer();
+	}
+}
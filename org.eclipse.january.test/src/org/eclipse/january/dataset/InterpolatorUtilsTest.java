@@ -10,6 +10,10 @@
 package org.eclipse.january.dataset;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
 
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
@@ -40,6 +44,53 @@ public class InterpolatorUtilsTest {
 		assertEquals("Coordinate incorrect", 225.239, output.getDouble(54,97), 0.1);
 		assertEquals("Coordinate incorrect", 7118.775, output.getDouble(120,94), 0.1);
 	}
-	
 
+	@Test
+	public void testRegridCurvilinear() {
+		// rotated and sheared grid
+		int rows = 40, cols = 50;
+		List<Dataset> mesh = DatasetUtils.meshGrid(DatasetFactory.createRange(rows), DatasetFactory.createRange(cols));
+		Dataset i = mesh.get(0);
+		Dataset j = mesh.get(1);
+		Dataset x = Maths.add(Maths.multiply(i, 0.3), Maths.multiply(j, 0.9));
+		Dataset y = Maths.subtract(Maths.multiply(i, 1.1), Maths.multiply(j, 0.2));
+		Dataset data = Maths.add(Maths.multiply(x, 2), Maths.multiply(y, -3)); // linear so exact
+
+		CurvilinearGrid grid = new CurvilinearGrid(x, y);
+		double[] index = new double[2];
+		assertTrue(grid.locate(x.getDouble(7, 11), y.getDouble(7, 11), index));
+		assertEquals(7, index[0], 1e-9);
+		assertEquals(11, index[1], 1e-9);
+		assertTrue(grid.locate(0.3 * 2.25 + 0.9 * 30.5, 1.1 * 2.25 - 0.2 * 30.5, index));
+		assertEquals(2.25, index[0], 1e-9);
+		assertEquals(30.5, index[1], 1e-9);
+		assertFalse(grid.locate(-1, 0, index));
+		assertFalse(grid.locate(1000, 0, index));
+
+		Dataset gridX = DatasetFactory.createRange(-5, 50, 0.5, Dataset.FLOAT64);
+		Dataset gridY = DatasetFactory.createRange(-10, 45, 0.5, Dataset.FLOAT64);
+		Dataset result = InterpolatorUtils.regridCurvilinear(data, x, y, gridX, gridY);
+		assertEquals(gridY.getSize(), result.getShapeRef()[0]);
+		assertEquals(gridX.getSize(), result.getShapeRef()[1]);
+		int inside = 0;
+		for (int r = 0; r < gridY.getSize(); r++) {
+			for (int c = 0; c < gridX.getSize(); c++) {
+				double px = gridX.getDouble(c);
+				double py = gridY.getDouble(r);
+				double v = result.getDouble(r, c);
+				if (grid.locate(px, py, index)) {
+					assertEquals(2 * px - 3 * py, v, 1e-9);
+					inside++;
+				} else {
+					assertTrue(Double.isNaN(v));
+				}
+			}
+		}
+		assertTrue(inside > 1000);
+
+		// reuse located points for other data
+		Dataset[] indexes = grid.getIndexCoordinatesOnGrid(gridX, gridY);
+		Dataset other = grid.resample(Maths.multiply(data, 2), indexes);
+		assertEquals(2 * result.getDouble(40, 30), other.getDouble(40, 30), 1e-9);
+	}
 }
@@ -9,14 +9,23 @@
 
 package org.eclipse.january.dataset;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.eclipse.january.IMonitor;
 import org.eclipse.january.asserts.TestUtils;
 import org.eclipse.january.dataset.DataEvent;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.IDataListener;
 import org.eclipse.january.dataset.IDynamicDataset;
 import org.eclipse.january.dataset.LazyDynamicDataset;
+import org.eclipse.january.io.ILazyDynamicLoader;
+import org.eclipse.january.io.ILazyLoader;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -76,4 +85,139 @@ public class LazyDynamicDatasetTest {
 		}
 		Assert.assertEquals(repeat, counter.count);
 	}
+
+	static class GrowingLoader implements ILazyLoader, ILazyDynamicLoader {
+		private static final long serialVersionUID = 1L;
+		final AtomicInteger refreshes = new AtomicInteger();
+		volatile int rows = 0;
+
+		@Override
+		public boolean isFileReadable() {
+			return true;
+		}
+
+		@Override
+		public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+			return DatasetFactory.zeros(IntegerDataset.class, slice.getShape());
+		}
+
+		@Override
+		public int[] refreshShape() {
+			refreshes.incrementAndGet();
+			return new int[] {rows, 4};
+		}
+	}
+
+	@Test
+	public void testSharedLoader() throws InterruptedException {
+		// many datasets sharing a loader are checked by a few threads and the shape is read once per period
+		GrowingLoader loader = new GrowingLoader();
+		int n = 50;
+		int period = 200;
+		IDynamicDataset[] lazies = new IDynamicDataset[n];
+		CountingListener[] counters = new CountingListener[n];
+		long start = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			lazies[i] = new LazyDynamicDataset("test" + i, Dataset.INT32, 1, new int[] {0, 4}, new int[] {IDynamicDataset.UNLIMITED, 4}, loader);
+			counters[i] = new CountingListener();
+			lazies[i].addDataListener(counters[i]);
+			lazies[i].startUpdateChecker(period, new ShapeChangeChecker());
+		}
+
+		Thread.sleep(period / 2);
+		loader.rows = 3;
+		Thread.sleep(3 * period);
+		for (int i = 0; i < n; i++) {
+			lazies[i].startUpdateChecker(0, null);
+			Assert.assertArrayEquals(new int[] {3, 4}, lazies[i].getShape());
+			Assert.assertEquals(1, counters[i].count);
+		}
+		// checks within half a period share a refresh so there are at most two per period
+		long periods = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / period + 1;
+		int refreshes = loader.refreshes.get();
+		Assert.assertTrue("Shape refreshed " + refreshes + " times in " + periods + " periods", refreshes >= 1 && refreshes <= 2 * periods);
+	}
+
+	@Test
+	public void testBackoff() throws InterruptedException {
+		// checks that find no changes become less frequent
+		final AtomicInteger checks = new AtomicInteger();
+		IDynamicDataset lazy = createDynamic();
+		lazy.startUpdateChecker(50, new IDatasetChangeChecker() {
+			@Override
+			public void setDataset(ILazyDataset dataset) {
+			}
+
+			@Override
+			public boolean check() {
+				checks.incrementAndGet();
+				return false;
+			}
+		});
+		Thread.sleep(1025);
+		lazy.startUpdateChecker(0, null);
+		// checks at 50, 150, 350 and 750ms instead of every 50ms
+		int n = checks.get();
+		Assert.assertTrue("Number of checks was " + n, n >= 3 && n <= 6);
+	}
+
+	@Test
+	public void testAsynchronousEvents() throws InterruptedException {
+		// slow listener does not hold up resizing and sees only latest shape
+		LazyDynamicDataset lazy = (LazyDynamicDataset) createDynamic();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		lazy.setEventExecutor(executor);
+		final CountDownLatch first = new CountDownLatch(1);
+		final AtomicInteger count = new AtomicInteger();
+		final int[][] last = new int[1][];
+		lazy.addDataListener(new IDataListener() {
+			@Override
+			public void dataChangePerformed(DataEvent evt) {
+				try {
+					first.await();
+				} catch (InterruptedException e) {
+				}
+				last[0] = evt.getShape();
+				count.incrementAndGet();
+			}
+		});
+
+		long start = System.nanoTime();
+		for (int i = 1; i <= 100; i++) {
+			lazy.resize(i, 4);
+		}
+		Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+		first.countDown();
+		for (int i = 0; i < 100 && count.get() < 2; i++) {
+			Thread.sleep(20);
+		}
+		Thread.sleep(50);
+		executor.shutdown();
+		Assert.assertTrue(count.get() <= 2); // first and latest
+		Assert.assertArrayEquals(new int[] {100, 4}, last[0]);
+	}
+
+	@Test
+	public void testRateLimitedListener() throws InterruptedException {
+		LazyDynamicDataset lazy = (LazyDynamicDataset) createDynamic();
+		CountingListener limited = new CountingListener();
+		CountingListener counter = new CountingListener();
+		final StringBuffer threads = new StringBuffer();
+		lazy.addDataListener(limited, 200);
+		lazy.addDataListener(counter);
+		lazy.addDataListener(new IDataListener() {
+			@Override
+			public void dataChangePerformed(DataEvent evt) {
+				threads.append(Thread.currentThread().getName()).append(';');
+			}
+		}, 200);
+		for (int i = 1; i <= 10; i++) {
+			lazy.resize(i, 4);
+			Thread.sleep(20);
+		}
+		Thread.sleep(300);
+		Assert.assertEquals(10, counter.count);
+		Assert.assertEquals(2, limited.count); // immediately then after interval
+		Assert.assertFalse("Delivered on update checker: " + threads, threads.toString().contains("Dataset update checker"));
+	}
 }
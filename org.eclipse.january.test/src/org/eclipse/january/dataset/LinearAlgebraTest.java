@@ -13,6 +13,8 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.eclipse.january.asserts.TestUtils;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
@@ -263,4 +265,49 @@ public class LinearAlgebraTest {
 		Dataset b = DatasetFactory.createFromObject(new int[] {9, 8}, null);
 		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[]{2, 3}), LinearAlgebra.solve(a, b), true, 1e-12, 1e-12);
 	}
+
+	@Test
+	public void testStacks() {
+		for (int n = 1; n < 7; n++) {
+			Dataset a = Random.rand(-1., 1, 4, 5, n, n);
+			Dataset s = Maths.add(a, a.getTransposedView(0, 1, 3, 2)); // symmetric
+			Dataset v = Random.rand(4, 5, n);
+			Dataset dets = LinearAlgebra.calcDeterminants(s);
+			Dataset invs = LinearAlgebra.calcInverses(a);
+			Dataset xs = LinearAlgebra.solveAll(a, v);
+			Dataset evs = LinearAlgebra.calcSymmetricEigenvalues(s);
+			assertArrayEquals(new int[] {4, 5}, dets.getShapeRef());
+			assertArrayEquals(a.getShapeRef(), invs.getShapeRef());
+			assertArrayEquals(v.getShapeRef(), xs.getShapeRef());
+			assertArrayEquals(v.getShapeRef(), evs.getShapeRef());
+			for (int i = 0; i < 4; i++) {
+				for (int j = 0; j < 5; j++) {
+					Slice[] sl = {new Slice(i, i + 1), new Slice(j, j + 1)};
+					Dataset m = a.getSlice(sl).squeezeEnds().reshape(n, n);
+					// determinant from eigen-decomposition is only reliable for symmetric matrices
+					assertEquals(LinearAlgebra.calcDeterminant(s.getSlice(sl).reshape(n, n)), dets.getDouble(i, j), 1e-10);
+					TestUtils.assertDatasetEquals(LinearAlgebra.calcInverse(m), invs.getSlice(sl).reshape(n, n), 1e-8, 1e-10);
+					TestUtils.assertDatasetEquals(LinearAlgebra.solve(m, v.getSlice(sl).reshape(n)), xs.getSlice(sl).reshape(n), 1e-8, 1e-10);
+					double[] e = (double[]) LinearAlgebra.calcEigenvalues(s.getSlice(sl).reshape(n, n)).getBuffer();
+					Arrays.sort(e);
+					TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(e), evs.getSlice(sl).reshape(n), 1e-8, 1e-10);
+				}
+			}
+		}
+
+		// multiple right-hand sides and singular matrices
+		Dataset a = DatasetFactory.createFromObject(new double[] {3, 1, 1, 2, 1, 2, 2, 4}, 2, 2, 2);
+		Dataset b = DatasetFactory.createFromObject(new double[] {9, 1, 8, 2, 1, 1, 1, 1}, 2, 2, 2);
+		Dataset x = LinearAlgebra.solveAll(a, b);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {2, 0, 3, 1}, 2, 2), x.getSlice(new Slice(1)).reshape(2, 2), 1e-12, 1e-12);
+		assertTrue(Double.isNaN(x.getDouble(1, 0, 0)));
+		assertTrue(Double.isNaN(LinearAlgebra.calcInverses(a).getDouble(1, 1, 1)));
+		assertEquals(0, LinearAlgebra.calcDeterminants(a).getDouble(1), 0);
+
+		Dataset c = DatasetFactory.createFromObject(new double[] {4, 0, -0.}, 3, 1, 1);
+		Dataset ic = LinearAlgebra.calcInverses(c);
+		assertEquals(0.25, ic.getDouble(0, 0, 0), 0);
+		assertTrue(Double.isNaN(ic.getDouble(1, 0, 0)));
+		assertTrue(Double.isNaN(ic.getDouble(2, 0, 0)));
+	}
 }
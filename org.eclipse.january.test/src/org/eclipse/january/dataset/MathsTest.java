@@ -1675,6 +1675,34 @@ public class MathsTest {
 		checkDatasets(null, null, d, ta);
 	}
 
+	@Test
+	public void testAlongAxis() {
+		// compare with 1D results on lines of a strided view
+		Dataset a = Random.rand(-5., 5, 90, 70, 30).getSliceView(new Slice(null, null, 2), new Slice(5, null), new Slice(null, null, -3));
+		int[] shape = a.getShape();
+		for (int axis = 0; axis < 3; axis++) {
+			Dataset d = Maths.difference(a, 2, axis);
+			Dataset c = Maths.centralDifference(a, axis);
+			Dataset s = Stats.cumulativeSum(a, axis);
+			for (int i = 0; i < 10; i++) {
+				Slice[] slices = new Slice[3];
+				for (int j = 0; j < 3; j++) {
+					int p = (i * 7 + j) % shape[j];
+					slices[j] = j == axis ? null : new Slice(p, p + 1);
+				}
+				Dataset line = a.getSlice(slices).flatten();
+				Slice[] dslices = slices.clone();
+				checkDatasets(null, null, d.getSlice(dslices).flatten(), Maths.difference(line, 2, 0));
+				checkDatasets(null, null, c.getSlice(slices).flatten(), Maths.centralDifference(line, 0));
+				checkDatasets(null, null, s.getSlice(slices).flatten(), Stats.cumulativeSum(line));
+			}
+		}
+
+		Dataset b = DatasetFactory.createFromObject(2, CompoundDoubleDataset.class, new double[] {0, 1, 2, 3, 4, 5, 7, 6}).reshape(2, 2);
+		Dataset ta = DatasetFactory.createFromObject(2, CompoundDoubleDataset.class, new double[] {4, 4, 5, 3}).reshape(1, 2);
+		checkDatasets(null, null, Maths.difference(b, 1, 0), ta);
+	}
+
 	@Test
 	public void testGradient() {
 		double[] data = {1, 2, 4, 7, 11, 16};
@@ -9,6 +9,7 @@
 
 package org.eclipse.january.dataset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
@@ -29,8 +30,7 @@ public class OutlierCorrectnessTest {
 	
 	@Before
 	public void setUp() throws Exception {
-		Random.seed(2468);
-		dataNormal = Random.randn(1.0,  1.0, new int[]{6});
+		dataNormal = OutlierStatsTest.randn(2468, 6);
 		dataNormal.sort(null);
 		dataOneToFour = DatasetFactory.createFromList(Arrays.asList(ArrayUtils.toObject(new double[]{1, 2, 3, 4})));
 		System.out.println("Normal data " + dataNormal.toString(true));
@@ -64,6 +64,99 @@ public class OutlierCorrectnessTest {
 	}
 	
 
+	private static double qnBrute(double[] x) {
+		int n = x.length;
+		double[] d = new double[n * (n - 1) / 2];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				d[m++] = Math.abs(x[i] - x[j]);
+			}
+		}
+		Arrays.sort(d);
+		int h = n / 2 + 1;
+		return 2.2219 * d[h * (h - 1) / 2 - 1];
+	}
+
+	@Test
+	public void testQn() {
+		for (int n = 2; n < 80; n++) {
+			Dataset a = n % 3 == 0 ? Random.randint(0, 10, new int[] {n}) : Random.randn(n);
+			assertEquals("Size " + n, qnBrute(BufferUtils.toDoubles(a)), Outliers.qn(a), 1e-12);
+		}
+		assertEquals(qnBrute(BufferUtils.toDoubles(dataNormal)), Outliers.qn(dataNormal), 1e-12);
+		assertEquals(0, Outliers.qn(DatasetFactory.ones(new int[] {100}, Dataset.FLOAT64)), 0);
+		assertEquals(Double.NaN, Outliers.qn(DatasetFactory.createFromObject(new double[] {1, Double.NaN, 2})), 0);
+	}
+
+	@Test
+	public void testMedianAbsoluteDeviation() {
+		for (int n : new int[] {1, 2, 7, 100, 101}) {
+			Dataset a = Random.randn(n);
+			double median = (Double) Stats.median(a);
+			double mad = 1.4826 * (Double) Stats.median(Maths.abs(Maths.subtract(a, median)));
+			double[] r = Outliers.medianAbsoluteDeviation(a);
+			assertEquals(mad, r[0], 1e-15);
+			assertEquals(median, r[1], 1e-15);
+		}
+	}
+
+	@Test
+	public void testNaNs() {
+		// NaNs are largest values
+		double[] r = Outliers.medianAbsoluteDeviation(DatasetFactory.createFromObject(new double[] {1, Double.NaN, 3, 4}));
+		assertEquals(2.2239, r[0], 1e-12);
+		assertEquals(3.5, r[1], 1e-12);
+		r = Outliers.medianAbsoluteDeviation(DatasetFactory.createFromObject(new double[] {Double.NaN, 1, 3, 4, 9}));
+		assertEquals(4.4478, r[0], 1e-12);
+		assertEquals(4, r[1], 1e-12);
+		r = Outliers.medianAbsoluteDeviation(DatasetFactory.createFromObject(new double[] {Double.NaN, 1, Double.NaN}));
+		assertEquals(Double.NaN, r[0], 0);
+		assertEquals(Double.NaN, r[1], 0);
+
+		double[][] cases = {{1, Double.NaN, 3, 4}, {Double.NaN, 1, 3, 4, 9}, {5, 1, Double.NaN, 2, 8, 3}};
+		for (double[] c : cases) {
+			Dataset a = DatasetFactory.createFromObject(c);
+			assertEquals(3.5778, Outliers.snNaive(a), 1e-12);
+			assertEquals(3.5778, Outliers.snFast(a), 1e-12);
+		}
+		for (int n = 1; n < 40; n++) {
+			Dataset a = Random.randn(n);
+			for (int i = 0; i < n; i += 3) {
+				a.set(Double.NaN, (7 * i) % n);
+				assertEquals("Size " + n, Outliers.snNaive(a), Outliers.snFast(a), 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testAxes() {
+		Dataset a = Random.randn(new int[] {17, 12, 9}).getSliceView(null, new Slice(1, null), null);
+		for (int axis = 0; axis < 3; axis++) {
+			Dataset[] mad = Outliers.medianAbsoluteDeviation(a, axis);
+			Dataset sn = Outliers.snFast(a, axis);
+			Dataset qn = Outliers.qn(a, axis);
+			assertArrayEquals(ShapeUtils.squeezeShape(a.getShape(), axis), sn.getShapeRef());
+			for (int i = 0; i < 5; i++) {
+				Slice[] slices = new Slice[3];
+				int[] pos = new int[2];
+				for (int j = 0, k = 0; j < 3; j++) {
+					if (j != axis) {
+						pos[k] = (3 * i + j) % a.getShapeRef()[j];
+						slices[j] = new Slice(pos[k], pos[k] + 1);
+						k++;
+					}
+				}
+				Dataset line = a.getSlice(slices).flatten();
+				double[] r = Outliers.medianAbsoluteDeviation(line);
+				assertEquals(r[0], mad[0].getDouble(pos), 1e-15);
+				assertEquals(r[1], mad[1].getDouble(pos), 1e-15);
+				assertEquals(Outliers.snNaive(line), sn.getDouble(pos), 1e-15);
+				assertEquals(qnBrute(BufferUtils.toDoubles(line)), qn.getDouble(pos), 1e-12);
+			}
+		}
+	}
+
 	@Test
 	public void testArrayMedians() {
 		double[] int11 = new double[] {1,2,3,4,5,6,7,8,9,10,11}; // lomed is 6
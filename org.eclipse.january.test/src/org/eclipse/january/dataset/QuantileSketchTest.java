@@ -0,0 +1,151 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.asserts.TestUtils;
+import org.junit.Test;
+
+public class QuantileSketchTest {
+
+	private static void checkRanks(double[] sorted, QuantileSketch s, double tolerance) {
+		final int n = sorted.length;
+		for (double q = 0.01; q < 1; q += 0.01) {
+			double v = s.getQuantile(q);
+			int lo = Arrays.binarySearch(sorted, v);
+			assertTrue(lo >= 0);
+			// rank of value in exact distribution
+			double r = (lo + 1.) / n;
+			assertEquals("Quantile " + q, q, r, tolerance);
+			assertEquals("Rank " + q, r, s.getRank(v), tolerance);
+		}
+	}
+
+	@Test
+	public void testAccuracy() {
+		Dataset a = Random.randn(new int[] {1000000});
+		double[] sorted = BufferUtils.toDoubles(a);
+		Arrays.sort(sorted);
+
+		QuantileSketch s = new QuantileSketch();
+		s.update(a);
+		assertEquals(a.getSize(), s.getCount());
+		assertEquals(sorted[0], s.getMinimum(), 0);
+		assertEquals(sorted[sorted.length - 1], s.getMaximum(), 0);
+		assertEquals(sorted[0], s.getQuantile(0), 0);
+		assertEquals(sorted[sorted.length - 1], s.getQuantile(1), 0);
+		assertTrue("Memory is bounded", s.getRetained() < 4 * s.getK());
+		double e = s.getNormalizedRankError();
+		assertTrue(e < 0.02);
+		checkRanks(sorted, s, e);
+
+		QuantileSketch p = Stats.quantileSketch(a, QuantileSketch.DEFAULT_K);
+		assertEquals(a.getSize(), p.getCount());
+		checkRanks(sorted, p, e);
+
+		// sorted input
+		QuantileSketch o = new QuantileSketch(100);
+		for (double x : sorted) {
+			o.update(x);
+		}
+		checkRanks(sorted, o, o.getNormalizedRankError());
+	}
+
+	@Test
+	public void testMerge() {
+		Dataset a = Random.rand(0., 1, 300000);
+		QuantileSketch s = new QuantileSketch(64);
+		int n = 0;
+		for (int i = 0; i < 7; i++) {
+			Dataset b = a.getSliceView(new Slice(i, null, 7));
+			QuantileSketch t = new QuantileSketch(64);
+			t.update(b);
+			n += b.getSize();
+			s.merge(t);
+			assertEquals(n, s.getCount());
+		}
+		assertEquals(a.min().doubleValue(), s.getMinimum(), 0);
+		assertEquals(a.max().doubleValue(), s.getMaximum(), 0);
+		double[] sorted = BufferUtils.toDoubles(a);
+		Arrays.sort(sorted);
+		checkRanks(sorted, s, s.getNormalizedRankError());
+
+		try {
+			s.merge(new QuantileSketch());
+			assertTrue("Should have thrown exception", false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		// small streams are kept exactly and NaNs are ignored
+		QuantileSketch e = new QuantileSketch();
+		assertTrue(Double.isNaN(e.getQuantile(0.5)));
+		for (double x : new double[] {5, Double.NaN, 1, 4, 2, 3}) {
+			e.update(x);
+		}
+		assertEquals(5, e.getCount());
+		assertEquals(3, e.getQuantile(0.5), 0);
+		assertEquals(2, e.getQuantile(0.4), 0);
+		assertEquals(0.4, e.getRank(2.5), 1e-15);
+	}
+
+	@Test
+	public void testLazyAndAxes() throws DatasetException {
+		Dataset a = Random.rand(0., 1, 9, 40, 30);
+		ILazyDataset l = LazyDataset.createLazyDataset(a);
+		QuantileSketch s = Stats.quantileSketch(l, QuantileSketch.DEFAULT_K);
+		assertEquals(a.getSize(), s.getCount());
+		double[] sorted = BufferUtils.toDoubles(a);
+		Arrays.sort(sorted);
+		checkRanks(sorted, s, s.getNormalizedRankError());
+
+		for (int axis = 0; axis < 3; axis++) {
+			Dataset m = Stats.median(a, axis);
+			QuantileSketch[] sketches = Stats.quantileSketches(a, axis, QuantileSketch.DEFAULT_K);
+			if (a.getShapeRef()[axis] % 2 == 1) {
+				TestUtils.assertDatasetEquals(m, Stats.quantile(sketches, m.getShapeRef(), 0.5), 1e-15, 1e-15);
+			}
+			TestUtils.assertDatasetEquals(a.min(axis), Stats.quantile(sketches, m.getShapeRef(), 0), 1e-15, 1e-15);
+			TestUtils.assertDatasetEquals(a.max(axis), Stats.quantile(sketches, m.getShapeRef(), 1), 1e-15, 1e-15);
+
+			QuantileSketch[] lazy = Stats.quantileSketches(l, axis, QuantileSketch.DEFAULT_K);
+			TestUtils.assertDatasetEquals(Stats.quantile(sketches, m.getShapeRef(), 0.3), Stats.quantile(lazy, m.getShapeRef(), 0.3), 1e-15, 1e-15);
+		}
+	}
+
+	@Test
+	public void testEmpty() throws DatasetException {
+		QuantileSketch s = Stats.quantileSketch(DatasetFactory.zeros(0), QuantileSketch.DEFAULT_K);
+		assertEquals(0, s.getCount());
+		assertTrue(Double.isNaN(s.getQuantile(0.5)));
+
+		Dataset a = DatasetFactory.zeros(3, 0);
+		ILazyDataset l = LazyDataset.createLazyDataset(a);
+		assertEquals(0, Stats.quantileSketch(l, QuantileSketch.DEFAULT_K).getCount());
+		for (int axis = 0; axis < 2; axis++) {
+			QuantileSketch[] sketches = Stats.quantileSketches(a, axis, QuantileSketch.DEFAULT_K);
+			QuantileSketch[] lazy = Stats.quantileSketches(l, axis, QuantileSketch.DEFAULT_K);
+			assertEquals(3 * axis, sketches.length);
+			assertEquals(sketches.length, lazy.length);
+			for (int i = 0; i < sketches.length; i++) {
+				assertEquals(0, sketches[i].getCount());
+				assertEquals(0, lazy[i].getCount());
+			}
+		}
+	}
+}
@@ -9,11 +9,17 @@
 
 package org.eclipse.january.dataset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.january.dataset.DoubleDataset;
 import org.eclipse.january.dataset.IntegerDataset;
 import org.eclipse.january.dataset.Random;
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.asserts.TestUtils;
 import org.junit.Test;
 
 /**
@@ -103,4 +109,56 @@ public class RandomTest {
 		assertEquals(msg, 2.3, ((Number) ta.mean()).doubleValue(), 2.3*5e-2);
 		assertEquals(msg, Math.sqrt(2.3), ta.stdDeviation(), 2.3*5e-2);
 	}
+
+	/**
+	 * Poisson distribution with large mean
+	 */
+	@Test
+	public void TestPoiLarge() {
+		Random.seed(103);
+		IntegerDataset ta = Random.poisson(230, new int[] {10000});
+
+		assertEquals(msg, 230, ((Number) ta.mean()).doubleValue(), 230*1e-2);
+		assertEquals(msg, Math.sqrt(230), ta.stdDeviation(), Math.sqrt(230)*5e-2);
+	}
+
+	/**
+	 * Values do not depend on number of threads
+	 */
+	@Test
+	public void TestParallel() {
+		Random.seed(211);
+		DoubleDataset ta = Random.randn(200000);
+		IntegerDataset ia = Random.poisson(3.5, 1000, 200);
+		Random.seed(211);
+		DoubleDataset tb;
+		IntegerDataset ib;
+		ForkJoinPool pool = new ForkJoinPool(1);
+		ParallelUtils.setPool(pool);
+		try {
+			tb = Random.randn(200000);
+			ib = Random.poisson(3.5, 1000, 200);
+		} finally {
+			ParallelUtils.setPool(null);
+			pool.shutdown();
+		}
+		assertArrayEquals(ta.getData(), tb.getData(), 0);
+		assertArrayEquals(ia.getData(), ib.getData());
+
+		// subsequent calls differ
+		assertFalse(ta.equals(Random.randn(200000)));
+	}
+
+	/**
+	 * Lazy datasets give same values for any slice
+	 */
+	@Test
+	public void TestLazyRand() throws DatasetException {
+		ILazyDataset lazy = Random.lazyRand(20, 30);
+		Dataset all = DatasetUtils.convertToDataset(lazy.getSlice());
+		TestUtils.assertDatasetEquals(all, DatasetUtils.convertToDataset(lazy.getSlice()));
+		Slice[] slice = new Slice[] {new Slice(3, 17, 2), new Slice(25, 4, -3)};
+		TestUtils.assertDatasetEquals(all.getSlice(slice), DatasetUtils.convertToDataset(lazy.getSlice(slice)));
+		assertEquals(all.getDouble(5, 7), lazy.getSlice(new Slice(5, 6), new Slice(7, 8)).getDouble(0, 0), 0);
+	}
 }
@@ -0,0 +1,85 @@
+/*-
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.january.asserts.TestUtils;
+import org.junit.Test;
+
+public class RunningAverageTest {
+
+	@Test
+	public void testStatistics() {
+		Dataset a = Random.rand(12, 7, 5);
+		RunningAverage av = new RunningAverage(a.getSliceView(new Slice(0, 1)).squeeze(), true, true);
+		assertNull(av.getCurrentAverage().getErrorBuffer());
+		for (int i = 1; i < 12; i++) {
+			av.update(a.getSliceView(new Slice(i, i + 1)).squeeze());
+		}
+		assertEquals(12, av.getCount());
+		TestUtils.assertDatasetEquals(a.mean(0), av.getCurrentAverage(), 1e-12, 1e-14);
+		TestUtils.assertDatasetEquals(a.variance(0), av.getCurrentVariance(), 1e-12, 1e-14);
+		TestUtils.assertDatasetEquals(a.min(0), av.getCurrentMinimum(), 0, 0);
+		TestUtils.assertDatasetEquals(a.max(0), av.getCurrentMaximum(), 0, 0);
+
+		// strided views
+		Dataset b = Random.rand(6, 8, 10);
+		av = new RunningAverage(b.getSliceView(new Slice(0, 1), null, new Slice(null, null, 2)).squeeze());
+		for (int i = 1; i < 6; i++) {
+			av.update(b.getSliceView(new Slice(i, i + 1), null, new Slice(null, null, 2)).squeeze());
+		}
+		TestUtils.assertDatasetEquals(b.getSliceView(null, null, new Slice(null, null, 2)).mean(0), av.getCurrentAverage(), 1e-12, 1e-14);
+		assertNull(av.getCurrentVariance());
+	}
+
+	@Test
+	public void testMerge() {
+		Dataset a = Random.rand(10, 40);
+		Dataset e = Random.rand(10, 40);
+		a.setErrorBuffer(e);
+		RunningAverage all = null;
+		RunningAverage lower = null;
+		RunningAverage upper = null;
+		for (int i = 0; i < 10; i++) {
+			Dataset s = a.getSliceView(new Slice(i, i + 1)).squeeze();
+			if (all == null) {
+				all = new RunningAverage(s, true, true);
+			} else {
+				all.update(s);
+			}
+			if (i < 3) {
+				if (lower == null) {
+					lower = new RunningAverage(s, true, true);
+				} else {
+					lower.update(s);
+				}
+			} else if (upper == null) {
+				upper = new RunningAverage(s, true, true);
+			} else {
+				upper.update(s);
+			}
+		}
+		lower.merge(upper);
+		assertEquals(10, lower.getCount());
+		TestUtils.assertDatasetEquals(all.getCurrentAverage(), lower.getCurrentAverage(), 1e-12, 1e-14);
+		TestUtils.assertDatasetEquals(all.getCurrentAverage().getErrorBuffer(), lower.getCurrentAverage().getErrorBuffer(), 1e-12, 1e-14);
+		TestUtils.assertDatasetEquals(all.getCurrentVariance(), lower.getCurrentVariance(), 1e-12, 1e-14);
+		TestUtils.assertDatasetEquals(all.getCurrentMinimum(), lower.getCurrentMinimum(), 0, 0);
+		TestUtils.assertDatasetEquals(all.getCurrentMaximum(), lower.getCurrentMaximum(), 0, 0);
+		TestUtils.assertDatasetEquals(e.sum(0).idivide(100), all.getCurrentAverage().getErrorBuffer(), 1e-12, 1e-14);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWrongShape() {
+		new RunningAverage(Random.rand(3, 4)).update(Random.rand(4, 3));
+	}
+}
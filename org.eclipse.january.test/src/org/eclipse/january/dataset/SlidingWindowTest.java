@@ -0,0 +1,205 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.asserts.TestUtils;
+import org.eclipse.january.dataset.Interpolation.BoundaryMode;
+import org.eclipse.january.dataset.SlidingWindow.Reduction;
+import org.junit.Test;
+
+public class SlidingWindowTest {
+
+	/**
+	 * Direct evaluation of reduction over 2D windows
+	 */
+	private static Dataset filter2D(Dataset a, Reduction r, int[] w, BoundaryMode mode, double cval) {
+		int[] shape = a.getShape();
+		int r0 = mode == null ? shape[0] - w[0] + 1 : shape[0];
+		int r1 = mode == null ? shape[1] - w[1] + 1 : shape[1];
+		int b0 = mode == null ? 0 : w[0] / 2;
+		int b1 = mode == null ? 0 : w[1] / 2;
+		DoubleDataset out = DatasetFactory.zeros(DoubleDataset.class, r0, r1);
+		double[] values = new double[w[0] * w[1]];
+		for (int i = 0; i < r0; i++) {
+			for (int j = 0; j < r1; j++) {
+				int n = 0;
+				for (int k = 0; k < w[0]; k++) {
+					int p = mode == null ? i + k : Interpolation.mapIndex(i + k - b0, shape[0], mode);
+					for (int l = 0; l < w[1]; l++) {
+						int q = mode == null ? j + l : Interpolation.mapIndex(j + l - b1, shape[1], mode);
+						values[n++] = p < 0 || q < 0 ? cval : a.getDouble(p, q);
+					}
+				}
+				Arrays.sort(values);
+				double v;
+				switch (r) {
+				case SUM:
+				case MEAN:
+					v = 0;
+					for (double x : values) {
+						v += x;
+					}
+					if (r == Reduction.MEAN) {
+						v /= n;
+					}
+					break;
+				case MINIMUM:
+					v = values[0];
+					break;
+				case MAXIMUM:
+					v = values[n - 1];
+					break;
+				case MEDIAN:
+				default:
+					v = n % 2 == 1 ? values[n / 2] : 0.5 * (values[n / 2 - 1] + values[n / 2]);
+					break;
+				}
+				out.set(v, i, j);
+			}
+		}
+		return out;
+	}
+
+	@Test
+	public void testLines() {
+		Dataset a = Random.randint(-20, 20, new int[] {23, 17});
+		for (Reduction r : Reduction.values()) {
+			for (BoundaryMode mode : new BoundaryMode[] {null, BoundaryMode.CONSTANT, BoundaryMode.NEAREST,
+					BoundaryMode.REFLECT, BoundaryMode.MIRROR, BoundaryMode.WRAP}) {
+				for (int w : new int[] {1, 2, 5, 8}) {
+					String msg = r + ", " + mode + ", " + w;
+					TestUtils.assertDatasetEquals(filter2D(a, r, new int[] {w, 1}, mode, 3), SlidingWindow.filter(a, r, w, 0, mode, 3), 1e-12, 1e-12);
+					Dataset b = SlidingWindow.filter(a, r, w, -1, mode, 3);
+					assertEquals(msg, Dataset.FLOAT64, b.getDType());
+					TestUtils.assertDatasetEquals(filter2D(a, r, new int[] {1, w}, mode, 3), b, 1e-12, 1e-12);
+				}
+			}
+		}
+
+		// window longer than line
+		Dataset c = DatasetFactory.createFromObject(new double[] {3, 1, 2});
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {2, 2, 2}), SlidingWindow.median(c, 7, 0), 1e-15, 1e-15);
+	}
+
+	@Test
+	public void testAxes() {
+		Dataset a = Random.rand(-1., 1, 19, 26);
+		for (Reduction r : new Reduction[] {Reduction.SUM, Reduction.MEAN, Reduction.MINIMUM, Reduction.MAXIMUM}) {
+			for (BoundaryMode mode : new BoundaryMode[] {null, BoundaryMode.CONSTANT, BoundaryMode.WRAP}) {
+				Dataset e = filter2D(a, r, new int[] {4, 3}, mode, 0.5);
+				TestUtils.assertDatasetEquals(e, SlidingWindow.filter(a, r, new int[] {4, 3}, new int[] {0, 1}, mode, 0.5), 1e-12, 1e-12);
+				TestUtils.assertDatasetEquals(e.transpose(), SlidingWindow.filter(a.transpose(), r, new int[] {3, 4}, new int[] {0, 1}, mode, 0.5), 1e-12, 1e-12);
+			}
+		}
+
+		try {
+			SlidingWindow.filter(a, Reduction.MEDIAN, new int[] {3, 3}, new int[] {0, 1}, null, 0);
+			assertTrue("Should have thrown exception", false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			SlidingWindow.filter(a, Reduction.SUM, 20, 0, null, 0);
+			assertTrue("Should have thrown exception", false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSpecialValues() {
+		Dataset a = DatasetFactory.createFromObject(new double[] {1, 2, Double.NaN, 4, 5, Double.POSITIVE_INFINITY, 7, 8, 9, 10});
+		double n = Double.NaN;
+		double i = Double.POSITIVE_INFINITY;
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {n, n, n, i, i, i, 24, 27}),
+				SlidingWindow.filter(a, Reduction.SUM, 3, 0, null, 0), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {n, n, n, 4, 5, 7, 7, 8}),
+				SlidingWindow.filter(a, Reduction.MINIMUM, 3, 0, null, 0), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {n, n, n, 5, 7, 8, 8, 9}),
+				SlidingWindow.filter(a, Reduction.MEDIAN, 3, 0, null, 0), 1e-15, 1e-15);
+
+		// compound datasets are filtered per element
+		Dataset c = DatasetFactory.createFromObject(2, CompoundDoubleDataset.class, new double[] {1, -1, 3, -3, 2, -2, 5, -5});
+		Dataset m = SlidingWindow.filter(c, Reduction.MAXIMUM, 2, 0, null, 0);
+		assertEquals(2, m.getElementsPerItem());
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(2, CompoundDoubleDataset.class, new double[] {3, -1, 3, -2, 5, -2}), m, 1e-15, 1e-15);
+	}
+
+	@Test
+	public void testLazy() throws DatasetException {
+		Dataset a = Random.rand(-1., 1, 13, 11, 7);
+		ILazyDataset l = LazyDataset.createLazyDataset(a);
+		for (BoundaryMode mode : new BoundaryMode[] {null, BoundaryMode.CONSTANT, BoundaryMode.REFLECT, BoundaryMode.MIRROR, BoundaryMode.WRAP}) {
+			for (Reduction r : Reduction.values()) {
+				int[] window = r == Reduction.MEDIAN ? new int[] {4} : new int[] {4, 3};
+				int[] axes = r == Reduction.MEDIAN ? new int[] {0} : new int[] {0, 2};
+				Dataset e = SlidingWindow.filter(a, r, window, axes, mode, 2);
+				ILazyDataset f = SlidingWindow.lazyFilter(l, r, window, axes, mode, 2);
+				assertArrayEquals(e.getShapeRef(), f.getShape());
+				TestUtils.assertDatasetEquals(e, DatasetUtils.convertToDataset(f.getSlice()), 1e-12, 1e-12);
+
+				// chunks along filtered axis
+				int n = e.getShapeRef()[0];
+				for (int k = 0; k < n; k += 3) {
+					Slice s = new Slice(k, Math.min(n, k + 3));
+					TestUtils.assertDatasetEquals(e.getSlice(s), DatasetUtils.convertToDataset(f.getSlice(s)), 1e-12, 1e-12);
+				}
+				Slice[] slices = new Slice[] {new Slice(null, null, -2), new Slice(1, 9, 3), new Slice(null, null, -1)};
+				TestUtils.assertDatasetEquals(e.getSlice(slices), DatasetUtils.convertToDataset(f.getSlice(slices)), 1e-12, 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void testLazyLongWindows() throws DatasetException {
+		// windows longer than axes need several reflected or wrapped copies
+		Dataset[] data = {DatasetFactory.createFromObject(new double[] {1, 2}),
+				DatasetFactory.createFromObject(new double[] {1, 2, 3, 4}, 2, 2),
+				Random.rand(-1., 1, 3, 5)};
+		for (Dataset a : data) {
+			ILazyDataset l = LazyDataset.createLazyDataset(a);
+			int rank = a.getRank();
+			for (BoundaryMode mode : new BoundaryMode[] {BoundaryMode.CONSTANT, BoundaryMode.NEAREST, BoundaryMode.REFLECT, BoundaryMode.MIRROR, BoundaryMode.WRAP}) {
+				for (Reduction r : Reduction.values()) {
+					for (int w : new int[] {4, 6, 11}) {
+						int[] window = new int[r == Reduction.MEDIAN ? 1 : rank];
+						int[] axes = new int[window.length];
+						for (int i = 0; i < window.length; i++) {
+							window[i] = w - i;
+							axes[i] = i;
+						}
+						Dataset e = SlidingWindow.filter(a, r, window, axes, mode, 0.5);
+						ILazyDataset f = SlidingWindow.lazyFilter(l, r, window, axes, mode, 0.5);
+						String msg = mode + " " + r + " " + Arrays.toString(window) + " " + Arrays.toString(a.getShapeRef());
+						assertArrayEquals(msg, e.getShapeRef(), f.getShape());
+						TestUtils.assertDatasetEquals(e, DatasetUtils.convertToDataset(f.getSlice()), 1e-12, 1e-12);
+						Slice[] slices = new Slice[rank];
+						slices[0] = new Slice(null, null, -1);
+						TestUtils.assertDatasetEquals(e.getSlice(slices), DatasetUtils.convertToDataset(f.getSlice(slices)), 1e-12, 1e-12);
+					}
+				}
+			}
+		}
+
+		Dataset a = DatasetFactory.createFromObject(new double[] {1, 2, 3, 4}, 2, 2);
+		ILazyDataset f = SlidingWindow.lazyFilter(LazyDataset.createLazyDataset(a), Reduction.SUM, new int[] {4, 4}, new int[] {0, 1}, BoundaryMode.REFLECT, 0.5);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {40, 40, 40, 40}, 2, 2), DatasetUtils.convertToDataset(f.getSlice()), 1e-12, 1e-12);
+	}
+}
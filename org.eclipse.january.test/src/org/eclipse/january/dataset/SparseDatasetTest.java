@@ -0,0 +1,178 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.january.asserts.TestUtils;
+import org.junit.Test;
+
+public class SparseDatasetTest {
+
+	/**
+	 * @return dense dataset with about 5% of items non-zero
+	 */
+	private static Dataset createSparse(int... shape) {
+		Dataset a = Random.rand(-1., 1, shape);
+		return Maths.multiply(a, Comparisons.greaterThan(Maths.abs(a), 0.95));
+	}
+
+	@Test
+	public void testConversions() {
+		Dataset a = createSparse(7, 50, 40);
+		SparseDataset s = SparseDataset.createFromDense(a);
+		int n = 0;
+		IndexIterator it = a.getIterator();
+		while (it.hasNext()) {
+			if (a.getElementDoubleAbs(it.index) != 0) {
+				n++;
+			}
+		}
+		assertEquals(n, s.getNonZeroCount());
+		assertTrue(n < a.getSize() / 10);
+		assertArrayEquals(a.getShapeRef(), s.getShape());
+		TestUtils.assertDatasetEquals(a, s.toDense(), 0, 0);
+		TestUtils.assertDatasetEquals(a, DatasetUtils.convertToDataset(s), 0, 0);
+
+		int[] pos = a.maxPos();
+		assertEquals(a.getDouble(pos), s.getDouble(pos), 0);
+		assertEquals(a.getDouble(3, -1, 7), s.getDouble(3, -1, 7), 0);
+
+		// views are read in place
+		Dataset v = a.getSliceView(new Slice(null, null, -2), null, new Slice(3, 30, 4));
+		TestUtils.assertDatasetEquals(v, SparseDataset.createFromDense(v).toDense(), 0, 0);
+
+		// indexes in any order with repeats
+		SparseDataset c = SparseDataset.createFromIndexes(new int[] {2, 3}, new int[] {5, 1, 5, 2, 0}, new double[] {1, 2, 3, -4, 0});
+		assertEquals(3, c.getNonZeroCount());
+		assertArrayEquals(new int[] {1, 2, 5}, c.getNonZeroIndexes());
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {0, 2, -4, 0, 0, 4}, 2, 3), c.toDense(), 0, 0);
+
+		c.set(7, 1, 0);
+		c.set(0, 0, 1);
+		c.set(5, 0, 2);
+		assertArrayEquals(new int[] {2, 3, 5}, c.getNonZeroIndexes());
+		assertArrayEquals(new double[] {5, 7, 4}, c.getNonZeroValues(), 0);
+
+		c.setShape(3, 2);
+		assertEquals(7, c.getDouble(1, 1), 0);
+		c.resize(5);
+		assertArrayEquals(new int[] {2, 3}, c.getNonZeroIndexes());
+		assertEquals(1, c.squeeze().getRank());
+	}
+
+	@Test
+	public void testSlicing() {
+		Dataset a = createSparse(9, 31, 17);
+		SparseDataset s = SparseDataset.createFromDense(a);
+		Slice[][] slices = {
+				{new Slice(2, 5), null, new Slice(1, 16, 3)},
+				{new Slice(null, null, -1), new Slice(30, 2, -4), null},
+				{new Slice(4, 5), new Slice(6, 7), null},
+				{new Slice(3, 3), null, null},
+		};
+		for (Slice[] slice : slices) {
+			SparseDataset t = s.getSlice(slice);
+			TestUtils.assertDatasetEquals(a.getSlice(slice), t.toDense(), 0, 0);
+			assertArrayEquals(SparseDataset.createFromDense(a.getSlice(slice)).getNonZeroIndexes(), t.getNonZeroIndexes());
+		}
+
+		TestUtils.assertDatasetEquals(a.getTransposedView(2, 0, 1), s.getTransposedView(2, 0, 1).toDense(), 0, 0);
+		TestUtils.assertDatasetEquals(a.getTransposedView(1, 0, 2), s.getTransposedView(1, 0, 2).toDense(), 0, 0);
+	}
+
+	@Test
+	public void testMathsAndReductions() {
+		Dataset a = createSparse(6, 40, 30);
+		Dataset b = createSparse(6, 40, 30);
+		SparseDataset s = SparseDataset.createFromDense(a);
+		SparseDataset t = SparseDataset.createFromDense(b);
+
+		TestUtils.assertDatasetEquals(Maths.add(a, b), s.add(t).toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.subtract(a, b), s.subtract(t).toDense(), 1e-15, 1e-15);
+		assertEquals(0, s.subtract(s).getNonZeroCount());
+		TestUtils.assertDatasetEquals(Maths.multiply(a, b), s.multiply(t).toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.multiply(a, b), s.multiply(b).toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.multiply(a, 2.5), s.multiply(2.5).toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.divide(a, 4), s.divide(4).toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.negative(a), s.negate().toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.abs(a), s.abs().toDense(), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(Maths.square(a), s.apply(new UnaryOperation.Stub() {
+			@Override
+			public void complexOperate(double[] out, double ra, double ia) {
+				out[0] = ra * ra;
+				out[1] = 0;
+			}
+
+			@Override
+			public String toString(String a) {
+				return a + "**2";
+			}
+		}).toDense(), 1e-15, 1e-15);
+
+		try {
+			s.divide(0);
+			assertTrue("Should have thrown exception", false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			s.apply(new UnaryOperation.Stub() {
+				@Override
+				public void complexOperate(double[] out, double ra, double ia) {
+					out[0] = Math.cos(ra);
+					out[1] = 0;
+				}
+
+				@Override
+				public String toString(String a) {
+					return "cos(" + a + ")";
+				}
+			});
+			assertTrue("Should have thrown exception", false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			s.add(new SparseDataset(6, 40));
+			assertTrue("Should have thrown exception", false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		assertEquals(((Number) a.sum()).doubleValue(), s.sum(), 1e-12);
+		assertEquals(a.max().doubleValue(), s.max().doubleValue(), 0);
+		assertEquals(a.min().doubleValue(), s.min().doubleValue(), 0);
+		assertEquals(((Number) a.mean()).doubleValue(), ((Number) s.mean()).doubleValue(), 1e-15);
+		assertArrayEquals(a.maxPos(), s.maxPos());
+		assertArrayEquals(a.minPos(), s.minPos());
+		for (int axis = 0; axis < 3; axis++) {
+			TestUtils.assertDatasetEquals(a.sum(axis), s.sum(axis), 1e-14, 1e-14);
+		}
+		TestUtils.assertDatasetEquals(a.sum(2), s.sum(-1), 1e-14, 1e-14);
+
+		// zeros and special values
+		SparseDataset p = SparseDataset.createFromIndexes(new int[] {4}, new int[] {0, 2, 3}, new double[] {3, Double.NaN, 2});
+		assertEquals(0, p.min(true).doubleValue(), 0);
+		assertArrayEquals(new int[] {1}, p.minPos(true));
+		assertTrue(Double.isNaN(p.max().doubleValue()));
+		assertEquals(3, p.max(true).doubleValue(), 0);
+		assertArrayEquals(new int[] {2}, p.maxPos());
+		assertEquals(5. / 3, ((Number) p.mean(true)).doubleValue(), 1e-15);
+		SparseDataset q = SparseDataset.createFromIndexes(new int[] {3}, new int[] {0, 1, 2}, new double[] {3, -1, 2});
+		assertEquals(-1, q.min().doubleValue(), 0);
+		assertArrayEquals(new int[] {1}, q.minPos());
+	}
+}
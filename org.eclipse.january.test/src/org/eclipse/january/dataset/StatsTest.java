@@ -12,9 +12,11 @@ package org.eclipse.january.dataset;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 
+import org.eclipse.january.DatasetException;
 import org.eclipse.january.asserts.TestUtils;
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
@@ -226,6 +228,18 @@ public class StatsTest {
 			TestUtils.verbosePrintf("%4d: Low/High (%g/%g - %.4f/%.4f) took %.2fms\n", l, vs[0], vs[1], vs[2]/s, 1-vs[3]/s, times[0]/1e6);
 		}
 
+		ls = new int[] {640, 8192, (int) lx};
+		for (int l : ls) {
+			vs = Stats.outlierValuesHeap(a, l, l, 0);
+			for (int i = 0; i < REPEAT; i++) {
+				times[i] = -System.nanoTime();
+				Stats.outlierValuesHeap(a, l, l, 0);
+				times[i] += System.nanoTime();
+			}
+			Arrays.sort(times);
+			TestUtils.verbosePrintf("%4d: Low/High (%g/%g - %.4f/%.4f) took %.2fms\n", l, vs[0], vs[1], vs[2]/s, 1-vs[3]/s, times[0]/1e6);
+		}
+
 		vs = Stats.outlierValuesMap(a, (int) lx, (int) hx);
 		for (int i = 0; i < REPEAT; i++) {
 			times[i] = -System.nanoTime();
@@ -251,6 +265,30 @@ public class StatsTest {
 		assertEquals(100, o[3], 1e-4);
 	}
 
+	@Test
+	public void testOutlierValuesHeap() {
+		Dataset a = Random.randint(0, 500, new int[] {20000}).cast(Dataset.FLOAT64);
+		for (int l : new int[] {1, 10, 200, 3000, 5000}) {
+			assertArrayEquals(Stats.outlierValuesMap(a, l, l), Stats.outlierValuesHeap(a, l, l, 0), 1e-15);
+			assertArrayEquals(Stats.outlierValuesMap(a, l, l + 7), Stats.outlierValuesHeap(a, l, l + 7, 0), 1e-15);
+		}
+		Dataset v = a.getSliceView(new Slice(null, null, -3));
+		assertArrayEquals(Stats.outlierValuesMap(v, 40, 40), Stats.outlierValuesHeap(v, 40, 40, 0), 1e-15);
+
+		// NaNs are ignored and overlapping values are made distinct
+		a = DatasetFactory.createFromObject(new double[] {3, Double.NaN, 1, 2, 2, 5, 4, 4, Double.NaN});
+		assertArrayEquals(new double[] {2, 4, 3, 2}, Stats.outlierValuesHeap(a, 3, 2, 0), 1e-15);
+		assertArrayEquals(new double[] {2, 3, 3, 4}, Stats.outlierValuesHeap(a, 4, 5, 0), 1e-15);
+
+		Dataset b = Random.randn(new int[] {400, 500});
+		double[] o = Stats.outlierValues(b, 1, 99, -1);
+		double[] p = Stats.outlierValues(b, 1, 99, -1, 20000);
+		assertEquals(o[0], p[0], 0.1);
+		assertEquals(o[1], p[1], 0.1);
+		assertEquals(1, p[2], 1e-6);
+		assertEquals(99, p[3], 1e-6);
+	}
+
 	@Test
 	public void testCovarianceRanks() {
 		Dataset a = DatasetFactory.createFromObject(new double[]{-3.5, 6., 8., 14., -2.2, 1.6, 4.0, 7});
@@ -324,4 +362,185 @@ public class StatsTest {
 		DoubleDataset cddofexpect = DatasetFactory.createFromObject(DoubleDataset.class, new double[]{38.06645833, -11.01645833, -11.01645833, 37.883125}, 2, 2);
 		assertArrayEquals(cddofexpect.getData(), covcddof.getData(), 1E-7);
 	}
+
+	/**
+	 * Direct two-pass evaluation of covariance of rows
+	 */
+	private static double[][] naiveCovariance(double[][] x, int ddof) {
+		int v = x.length;
+		int n = x[0].length;
+		double[] m = new double[v];
+		for (int i = 0; i < v; i++) {
+			for (int k = 0; k < n; k++) {
+				m[i] += x[i][k];
+			}
+			m[i] /= n;
+		}
+		double[][] c = new double[v][v];
+		for (int i = 0; i < v; i++) {
+			for (int j = 0; j < v; j++) {
+				for (int k = 0; k < n; k++) {
+					c[i][j] += (x[i][k] - m[i]) * (x[j][k] - m[j]);
+				}
+				c[i][j] /= n - ddof;
+			}
+		}
+		return c;
+	}
+
+	@Test
+	public void testCovarianceStreaming() throws DatasetException {
+		Dataset a = Random.randn(new int[] {37, 5000}).iadd(1e3);
+		double[][] x = new double[37][];
+		for (int i = 0; i < 37; i++) {
+			x[i] = BufferUtils.toDoubles(a.getSlice(new Slice(i, i + 1), null).squeeze());
+		}
+		Dataset e = DatasetFactory.createFromObject(naiveCovariance(x, 1));
+		TestUtils.assertDatasetEquals(e, Stats.covariance(a), 1e-10, 1e-12);
+		TestUtils.assertDatasetEquals(e, Stats.covariance(a.transpose(), false, false, null), 1e-10, 1e-12);
+		TestUtils.assertDatasetEquals(e, Stats.covariance(a.getTransposedView(), false, false, null), 1e-10, 1e-12);
+		ILazyDataset l = LazyDataset.createLazyDataset(a);
+		TestUtils.assertDatasetEquals(e, Stats.covariance(l, true, false, null), 1e-10, 1e-12);
+		TestUtils.assertDatasetEquals(Maths.multiply(e, 4999. / 5000), Stats.covariance(l, true, true, null), 1e-10, 1e-12);
+
+		Dataset r = Stats.correlation(a, true);
+		for (int i = 0; i < 37; i++) {
+			assertEquals(1, r.getDouble(i, i), 1e-15);
+			for (int j = 0; j < 37; j++) {
+				assertEquals(e.getDouble(i, j) / Math.sqrt(e.getDouble(i, i) * e.getDouble(j, j)), r.getDouble(i, j), 1e-12);
+			}
+		}
+		TestUtils.assertDatasetEquals(r, Stats.correlation(l, true), 1e-12, 1e-12);
+		TestUtils.assertDatasetEquals(r, Stats.correlation(LazyDataset.createLazyDataset(a.transpose()), false), 1e-12, 1e-12);
+
+		// integers are not truncated
+		Dataset i = DatasetFactory.createFromObject(new int[] {1, 2, 4, 7, 0, 1, 1, 0}, 2, 4);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {7, -1. / 3, -1. / 3, 1. / 3}, 2, 2), Stats.covariance(i), 1e-14, 1e-14);
+
+		// results are double precision for float inputs
+		Dataset f = a.getSlice(new Slice(2)).cast(FloatDataset.class);
+		assertEquals(Dataset.FLOAT64, Stats.covariance(f).getDType());
+		assertEquals(Dataset.FLOAT64, Stats.covariance(f, f, true, false, null).getDType());
+		assertEquals(Dataset.FLOAT64, Stats.covariance(LazyDataset.createLazyDataset(f), true, false, null).getDType());
+		assertEquals(Dataset.FLOAT64, Stats.correlation(f, true).getDType());
+		assertEquals(Dataset.FLOAT64, Stats.correlation(LazyDataset.createLazyDataset(f), true).getDType());
+	}
+
+	@Test
+	public void testHistogram() throws Exception {
+		Dataset a = DatasetFactory.createFromObject(new double[] {0, 0.5, 1, 1.5, 2, 2.5, 3, 3.5, 4, Double.NaN});
+		Dataset[] h = Stats.histogram(a, 4, 0, 4, null);
+		assertArrayEquals(new long[] {2, 2, 2, 3}, ((LongDataset) h[0]).getData());
+		assertArrayEquals(new double[] {0, 1, 2, 3, 4}, ((DoubleDataset) h[1]).getData(), 1e-15);
+
+		h = Stats.histogram(a, 2, true);
+		assertArrayEquals(new long[] {4, 5}, ((LongDataset) h[0]).getData());
+		try {
+			Stats.histogram(a, 2);
+			fail("Range with NaNs should have thrown an exception");
+		} catch (IllegalArgumentException e) {
+			// do nothing
+		}
+
+		Dataset w = DatasetFactory.createFromObject(new double[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+		h = Stats.histogram(a, 2, 0, 4, w);
+		assertArrayEquals(new double[] {10, 35}, ((DoubleDataset) h[0]).getData(), 1e-15);
+
+		Dataset e = DatasetFactory.createFromObject(new double[] {-1, 1, 1.5, 10});
+		Dataset he = Stats.histogram(a, e, null);
+		assertArrayEquals(new long[] {2, 1, 6}, ((LongDataset) he).getData());
+
+		// views are read in place
+		Dataset v = a.getSliceView(new Slice(null, null, 2));
+		h = Stats.histogram(v, 4, 0, 4, null);
+		assertArrayEquals(new long[] {1, 1, 1, 2}, ((LongDataset) h[0]).getData());
+
+		// lazy datasets are streamed
+		h = Stats.histogram((ILazyDataset) a, 4, 0, 4, null);
+		assertArrayEquals(new long[] {2, 2, 2, 3}, ((LongDataset) h[0]).getData());
+		he = Stats.histogram((ILazyDataset) a, e, (ILazyDataset) w);
+		assertArrayEquals(new double[] {3, 3, 39}, ((DoubleDataset) he).getData(), 1e-15);
+	}
+
+	@Test
+	public void testHistogramLarge() {
+		Random.seed(12371);
+		Dataset a = Random.randn(1000, 1000);
+		Dataset[] h = Stats.histogram(a, 50, -3, 3, null);
+
+		long[] expected = new long[50];
+		IndexIterator it = a.getIterator();
+		while (it.hasNext()) {
+			double x = a.getElementDoubleAbs(it.index);
+			if (x >= -3 && x <= 3) {
+				expected[Math.min((int) ((x + 3) * 50 / 6.), 49)]++;
+			}
+		}
+		assertArrayEquals(expected, ((LongDataset) h[0]).getData());
+
+		h = Stats.histogram(a.getTransposedView(), 50, -3, 3, null);
+		assertArrayEquals(expected, ((LongDataset) h[0]).getData());
+	}
+
+	@Test
+	public void testHistogramAxis() {
+		Dataset a = DatasetFactory.createRange(24).reshape(2, 3, 4);
+		Dataset[] h = Stats.histogram(a, 1, 2, 0, 24, null);
+		assertArrayEquals(new int[] {2, 4, 2}, h[0].getShapeRef());
+		for (int i = 0; i < 2; i++) {
+			for (int k = 0; k < 4; k++) {
+				assertEquals(i == 0 ? 3 : 0, h[0].getLong(i, k, 0));
+				assertEquals(i == 0 ? 0 : 3, h[0].getLong(i, k, 1));
+			}
+		}
+
+		Dataset he = Stats.histogram(a, -1, DatasetFactory.createFromObject(new double[] {0, 2, 23}), a);
+		assertArrayEquals(new int[] {2, 3, 2}, he.getShapeRef());
+		assertEquals(1, he.getDouble(0, 0, 0), 1e-15);
+		assertEquals(5, he.getDouble(0, 0, 1), 1e-15);
+		assertEquals(0, he.getDouble(1, 0, 0), 1e-15);
+		assertEquals(12 + 13 + 14 + 15, he.getDouble(1, 0, 1), 1e-15);
+	}
+
+	@Test
+	public void testHistogramEmptyAxis() {
+		Dataset a = DatasetFactory.zeros(DoubleDataset.class, 2, 0, 3);
+		Dataset[] h = Stats.histogram(a, 1, 4, 0, 4, null);
+		assertArrayEquals(new int[] {2, 3, 4}, h[0].getShapeRef());
+		assertEquals(0, ((Number) h[0].sum()).longValue());
+
+		Dataset he = Stats.histogram(a, 1, DatasetFactory.createFromObject(new double[] {0, 2, 4}), DatasetFactory.ones(a));
+		assertArrayEquals(new int[] {2, 3, 2}, he.getShapeRef());
+		assertEquals(0, ((Number) he.sum()).doubleValue(), 1e-15);
+	}
+
+	@Test
+	public void testHistogram2D() {
+		Dataset x = DatasetFactory.createFromObject(new double[] {0, 0, 1, 1, 2, 5});
+		Dataset y = DatasetFactory.createFromObject(new double[] {0, 1, 0, 1, 1, 0});
+		Dataset[] h = Stats.histogram2D(x, y, 2, 0, 2, 2, 0, 1, null);
+		assertArrayEquals(new int[] {2, 2}, h[0].getShapeRef());
+		assertArrayEquals(new long[] {1, 1, 1, 2}, ((LongDataset) h[0]).getData());
+		assertEquals(3, h[1].getSize());
+		assertEquals(3, h[2].getSize());
+
+		Dataset e = DatasetFactory.createFromObject(new double[] {0, 0.5, 10});
+		Dataset he = Stats.histogram2D(x, y, e, e, DatasetFactory.ones(x));
+		assertArrayEquals(new double[] {1, 1, 2, 2}, ((DoubleDataset) he).getData(), 1e-15);
+	}
+
+	@Test
+	public void testCumulative() {
+		Dataset a = DatasetFactory.createFromObject(new double[] {1, 2, 3, Double.NaN, 4, 5}).reshape(3, 2);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {1, 2, 4, 0, 8, 7}).reshape(3, 2),
+				Stats.cumulativeSum(a, 0, true), 1e-15, 1e-15);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new double[] {1, 2, 3, 0, 12, 10}).reshape(3, 2),
+				Stats.cumulativeProduct(a, 0, true), 1e-15, 1e-15);
+
+		Dataset b = DatasetFactory.createFromObject(new long[] {1L << 40, 3, 2, 4}).reshape(2, 2);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new long[] {1L << 40, 3, 1L << 41, 12}).reshape(2, 2),
+				Stats.cumulativeProduct(b, 0), 0, 0);
+		TestUtils.assertDatasetEquals(DatasetFactory.createFromObject(new long[] {1L << 40, (1L << 40) + 3, 2, 6}).reshape(2, 2),
+				Stats.cumulativeSum(b, 1), 0, 0);
+	}
 }
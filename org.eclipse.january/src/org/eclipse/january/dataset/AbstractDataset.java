@@ -718,6 +718,81 @@ public abstract class AbstractDataset extends LazyDatasetBase implements Dataset
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * All elements of each item are copied
+	 */
+	@Override
+	public int fillArray(SliceND slice, Object array, int offset) {
+		final AbstractDataset view = slice == null ? this : (AbstractDataset) getSliceView(slice);
+		final int isize = view.getElementsPerItem();
+		final int length = view.size * isize;
+		if (length == 0) {
+			return 0;
+		}
+		if (view.stride == null && array.getClass() == odata.getClass()) {
+			System.arraycopy(odata, 0, array, offset, length);
+			return length;
+		}
+
+		final IndexIterator it = view.getIterator();
+		int i = offset;
+		if (array instanceof double[]) {
+			final double[] data = (double[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = view.getElementDoubleAbs(it.index + j);
+				}
+			}
+		} else if (array instanceof float[]) {
+			final float[] data = (float[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = (float) view.getElementDoubleAbs(it.index + j);
+				}
+			}
+		} else if (array instanceof long[]) {
+			final long[] data = (long[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = view.getElementLongAbs(it.index + j);
+				}
+			}
+		} else if (array instanceof int[]) {
+			final int[] data = (int[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = (int) view.getElementLongAbs(it.index + j);
+				}
+			}
+		} else if (array instanceof short[]) {
+			final short[] data = (short[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = (short) view.getElementLongAbs(it.index + j);
+				}
+			}
+		} else if (array instanceof byte[]) {
+			final byte[] data = (byte[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = (byte) view.getElementLongAbs(it.index + j);
+				}
+			}
+		} else if (array instanceof boolean[]) {
+			final boolean[] data = (boolean[]) array;
+			while (it.hasNext()) {
+				for (int j = 0; j < isize; j++) {
+					data[i++] = view.getElementBooleanAbs(it.index + j);
+				}
+			}
+		} else {
+			throw new IllegalArgumentException("Array must be a primitive array");
+		}
+		return i - offset;
+	}
+
 	/**
 	 * Create a stride array from dataset
 	 * @param a dataset
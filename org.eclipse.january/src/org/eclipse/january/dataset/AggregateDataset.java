@@ -15,6 +15,17 @@ package org.eclipse.january.dataset;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.january.DatasetException;
 import org.eclipse.january.IMonitor;
@@ -22,6 +33,9 @@ import org.eclipse.january.IMonitor;
 /**
  * Class to aggregate a set of lazy datasets and present them as a single lazy dataset where
  * the first position value accesses the aggregation
+ * <p>
+ * A slice that spans several datasets is read from them concurrently on a bounded executor and
+ * each part is written (and cast if necessary) directly into its region of the result.
  */
 public class AggregateDataset extends LazyDatasetBase implements ILazyDataset {
 
@@ -40,6 +54,42 @@ public class AggregateDataset extends LazyDatasetBase implements ILazyDataset {
 	private int[] sliceStart = null;
 	private int[] sliceStep  = null;
 
+	private static ExecutorService executor = null;
+
+	private static final ThreadLocal<Boolean> inSlicer = new ThreadLocal<Boolean>();
+
+	/**
+	 * Set the executor used to read parts of slices from the aggregated datasets concurrently
+	 * @param service if null, use a default pool of daemon threads
+	 * @since 2.0
+	 */
+	public static synchronized void setExecutor(ExecutorService service) {
+		executor = service;
+	}
+
+	/**
+	 * @return executor used to read parts of slices
+	 * @since 2.0
+	 */
+	public static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			final int n = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+			final AtomicInteger count = new AtomicInteger();
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(n, n, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "Aggregate dataset slicer " + count.incrementAndGet());
+							t.setDaemon(true);
+							return t;
+						}
+					});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
 	/**
 	 * Calculate (possibly extended) shapes from given datasets
 	 * @param extend if true, extend rank by one
@@ -238,40 +288,172 @@ public class AggregateDataset extends LazyDatasetBase implements ILazyDataset {
 		}
 
 		// convert first dimension's slice to individual slices per stored dataset
-		int fb = start[0];
-		int fe = stop[0];
-		int fs = step[0];
-
-		List<Dataset> sliced = new ArrayList<Dataset>();
+		final int[] oshape = slice.getShape().clone();
+		final int fb = start[0];
+		final int fe = stop[0];
+		final int fs = step[0];
+		final List<Part> parts = new ArrayList<Part>();
 		int op = fb;
 		int p = op;
-		ILazyDataset od = data[map[op]];
-		ILazyDataset nd; 
+		int o = 0;
 		while (p < fe) {
-			
-			if (monitor!=null && monitor.isCancelled()) throw new DatasetException("Slice cancelled");
-			nd = data[map[p]];
-			if (nd != od) {
-				start[0] = op - offset[map[op]];
-				stop[0] = p - offset[map[op]];
-				Dataset a = DatasetUtils.convertToDataset(od.getSlice(monitor, start, stop, step));
-				sliced.add(a.cast(dtype));
-
-				od = nd;
+			if (map[p] != map[op]) {
+				parts.add(new Part(map[op], op, p, o, start, stop, step));
+				o += (p - op - 1) / fs + 1;
 				op = p;
 			}
 			p += fs;
 		}
-		start[0] = op - offset[map[op]];
-		stop[0] = p - offset[map[op]];
-		Dataset a = DatasetUtils.convertToDataset(od.getSlice(monitor, start, stop, step));
-		sliced.add(a.cast(dtype));
+		if (op < fe) {
+			parts.add(new Part(map[op], op, p, o, start, stop, step));
+		}
 
-		Dataset d = DatasetUtils.concatenate(sliced.toArray(new Dataset[0]), 0);
+		final Dataset d = DatasetFactory.zeros(isize, DTypeUtils.getInterface(dtype), oshape);
 		d.setName(name);
+		if (parts.size() < 2 || Boolean.TRUE.equals(inSlicer.get())) {
+			for (Part part : parts) {
+				if (monitor != null && monitor.isCancelled()) {
+					throw new DatasetException("Slice cancelled");
+				}
+				part.copy(monitor, d);
+			}
+		} else {
+			ExecutorService service = getExecutor();
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			final AtomicBoolean aborted = new AtomicBoolean();
+			boolean failed = true;
+			try {
+				for (int i = 1; i < parts.size(); i++) {
+					final Part part = parts.get(i);
+					futures.add(service.submit(new Callable<Void>() {
+						@Override
+						public Void call() throws DatasetException {
+							if (aborted.get()) {
+								return null;
+							}
+							if (monitor != null && monitor.isCancelled()) {
+								throw new DatasetException("Slice cancelled");
+							}
+							inSlicer.set(Boolean.TRUE);
+							try {
+								part.copy(monitor, d);
+							} finally {
+								inSlicer.remove();
+							}
+							return null;
+						}
+					}));
+				}
+				parts.get(0).copy(monitor, d);
+				for (Future<Void> f : futures) {
+					f.get();
+				}
+				failed = false;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DatasetException("Slice interrupted", e);
+			} catch (ExecutionException e) {
+				Throwable c = e.getCause();
+				if (c instanceof DatasetException) {
+					throw (DatasetException) c;
+				}
+				if (c instanceof RuntimeException) {
+					throw (RuntimeException) c;
+				}
+				throw new DatasetException("Could not slice dataset", c);
+			} finally {
+				if (failed) {
+					// stop parts that have not started and wait for the others so none
+					// writes to the dataset after this method has thrown
+					aborted.set(true);
+					awaitAll(futures);
+				}
+			}
+		}
+		d.setDirty();
 		return d;
 	}
 
+	/**
+	 * Wait for all tasks to finish, ignoring their failures
+	 * @param futures
+	 */
+	private static void awaitAll(final List<Future<Void>> futures) {
+		boolean interrupted = false;
+		for (Future<Void> f : futures) {
+			while (true) {
+				try {
+					f.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					break;
+				} catch (CancellationException e) {
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Part of slice that lies in one aggregated dataset
+	 */
+	private class Part {
+		private final ILazyDataset source;
+		private final SliceND slice; // in source
+		private final int[] dstart; // in destination
+		private final int[] dstop;
+
+		/**
+		 * @param index of dataset
+		 * @param begin first aggregate position
+		 * @param end aggregate position after last
+		 * @param dpos first position in destination
+		 * @param start of slice
+		 * @param stop of slice
+		 * @param step of slice
+		 */
+		Part(int index, int begin, int end, int dpos, int[] start, int[] stop, int[] step) {
+			source = data[index];
+			int[] lstart = start.clone();
+			int[] lstop = stop.clone();
+			lstart[0] = begin - offset[index];
+			lstop[0] = end - offset[index];
+			slice = new SliceND(source.getShape(), lstart, lstop, step.clone());
+			int[] lshape = slice.getShape();
+			dstart = new int[lshape.length];
+			dstart[0] = dpos;
+			dstop = lshape.clone();
+			dstop[0] += dpos;
+		}
+
+		/**
+		 * Read part and write it to destination
+		 * @param monitor
+		 * @param d destination
+		 * @throws DatasetException
+		 */
+		void copy(IMonitor monitor, Dataset d) throws DatasetException {
+			Dataset a = DatasetUtils.convertToDataset(source.getSlice(monitor, slice));
+			if (a.getDType() == dtype && a.getStrides() == null && a.getElementsPerItem() == isize) {
+				// parts are contiguous in both
+				int n = a.getSize() * isize;
+				int[] dshape = d.getShapeRef();
+				int pos = dstart[0] * isize;
+				for (int i = 1; i < dshape.length; i++) {
+					pos *= dshape[i];
+				}
+				System.arraycopy(a.getBuffer(), 0, d.getBuffer(), pos, n);
+			} else {
+				d.setSlice(a, dstart, dstop, null);
+			}
+		}
+	}
+
 	@Override
 	public Dataset getSlice(Slice... slice) throws DatasetException {
 		return getSlice(null, slice);
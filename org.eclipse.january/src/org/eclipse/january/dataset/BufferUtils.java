@@ -0,0 +1,245 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+/**
+ * Utilities to read from, and copy between, the internal primitive buffers of datasets in
+ * blocks. The readers honour the offset and strides of views so no copying of the dataset is
+ * needed. Items are indexed by their flat (row-major) position in the dataset's shape.
+ */
+final class BufferUtils {
+
+	private BufferUtils() {
+	}
+
+	/**
+	 * Copy an element of a range of items to a double array
+	 * @param a dataset
+	 * @param element index of element in each item
+	 * @param start flat index of first item
+	 * @param length number of items
+	 * @param dest destination array
+	 * @param dpos start position in destination
+	 */
+	static void copyToDoubles(final Dataset a, final int element, final int start, int length, final double[] dest, int dpos) {
+		if (length <= 0) {
+			return;
+		}
+		final Object buffer = a.getBuffer();
+		final int isize = a.getElementsPerItem();
+		final int[] stride = a.getStrides();
+		if (stride == null) {
+			copySegment(a, buffer, start * isize + element, isize, length, dest, dpos);
+			return;
+		}
+
+		final int[] shape = a.getShapeRef();
+		final int rank = shape.length;
+		final int offset = a.getOffset() + element;
+		if (rank == 0) {
+			dest[dpos] = a.getElementDoubleAbs(offset);
+			return;
+		}
+
+		final int last = rank - 1;
+		final int[] pos = new int[rank];
+		int r = start;
+		for (int i = last; i >= 0; i--) {
+			pos[i] = r % shape[i];
+			r /= shape[i];
+		}
+
+		final int n = shape[last];
+		final int s = stride[last];
+		while (length > 0) {
+			int index = offset;
+			for (int i = 0; i < rank; i++) {
+				index += pos[i] * stride[i];
+			}
+			final int m = Math.min(n - pos[last], length);
+			copySegment(a, buffer, index, s, m, dest, dpos);
+			dpos += m;
+			length -= m;
+
+			pos[last] = 0;
+			for (int i = last - 1; i >= 0; i--) {
+				if (++pos[i] < shape[i]) {
+					break;
+				}
+				pos[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Copy all items of a single element dataset to a new double array
+	 * @param a dataset
+	 * @return array
+	 */
+	static double[] toDoubles(final Dataset a) {
+		final double[] values = new double[a.getSize()];
+		copyToDoubles(a, 0, 0, values.length, values, 0);
+		return values;
+	}
+
+	/**
+	 * Copy strided segment of buffer to a double array
+	 * @param a dataset (used when buffer is not of a primitive type)
+	 * @param buffer internal buffer
+	 * @param index absolute index of first value
+	 * @param step between values
+	 * @param n number of values
+	 * @param dest destination array
+	 * @param dpos start position in destination
+	 */
+	private static void copySegment(final Dataset a, final Object buffer, int index, final int step, final int n, final double[] dest, int dpos) {
+		final int end = dpos + n;
+		if (buffer instanceof double[]) {
+			final double[] data = (double[]) buffer;
+			if (step == 1) {
+				System.arraycopy(data, index, dest, dpos, n);
+				return;
+			}
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index];
+			}
+		} else if (buffer instanceof float[]) {
+			final float[] data = (float[]) buffer;
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index];
+			}
+		} else if (buffer instanceof long[]) {
+			final long[] data = (long[]) buffer;
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index];
+			}
+		} else if (buffer instanceof int[]) {
+			final int[] data = (int[]) buffer;
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index];
+			}
+		} else if (buffer instanceof short[]) {
+			final short[] data = (short[]) buffer;
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index];
+			}
+		} else if (buffer instanceof byte[]) {
+			final byte[] data = (byte[]) buffer;
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index];
+			}
+		} else if (buffer instanceof boolean[]) {
+			final boolean[] data = (boolean[]) buffer;
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = data[index] ? 1 : 0;
+			}
+		} else {
+			for (; dpos < end; dpos++, index += step) {
+				dest[dpos] = a.getElementDoubleAbs(index);
+			}
+		}
+	}
+
+	/**
+	 * Copy values between arrays of the same type with given steps
+	 * @param src source array
+	 * @param spos start position in source
+	 * @param sstep step in source
+	 * @param dst destination array
+	 * @param dpos start position in destination
+	 * @param dstep step in destination
+	 * @param n number of values
+	 */
+	static void copyStrided(final Object src, int spos, final int sstep, final Object dst, int dpos, final int dstep, final int n) {
+		if (sstep == 1 && dstep == 1) {
+			System.arraycopy(src, spos, dst, dpos, n);
+			return;
+		}
+		if (src instanceof double[]) {
+			final double[] s = (double[]) src;
+			final double[] d = (double[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof float[]) {
+			final float[] s = (float[]) src;
+			final float[] d = (float[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof long[]) {
+			final long[] s = (long[]) src;
+			final long[] d = (long[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof int[]) {
+			final int[] s = (int[]) src;
+			final int[] d = (int[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof short[]) {
+			final short[] s = (short[]) src;
+			final short[] d = (short[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof byte[]) {
+			final byte[] s = (byte[]) src;
+			final byte[] d = (byte[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof boolean[]) {
+			final boolean[] s = (boolean[]) src;
+			final boolean[] d = (boolean[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else if (src instanceof Object[]) {
+			final Object[] s = (Object[]) src;
+			final Object[] d = (Object[]) dst;
+			for (int i = 0; i < n; i++, spos += sstep, dpos += dstep) {
+				d[dpos] = s[spos];
+			}
+		} else {
+			throw new IllegalArgumentException("Buffer must be an array");
+		}
+	}
+
+	/**
+	 * Copy between interleaved layout, where the elements of each item are adjacent, and planar
+	 * layout, where each element forms a contiguous plane
+	 * @param src source array
+	 * @param dst destination array
+	 * @param n number of items
+	 * @param isize number of elements in each item
+	 * @param toPlanar if true, copy from interleaved to planar
+	 */
+	static void transposeElements(final Object src, final Object dst, final int n, final int isize, final boolean toPlanar) {
+		final int grain = Math.max(1, ParallelUtils.DEFAULT_GRAIN / isize);
+		ParallelUtils.forRange(0, n, grain, new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				for (int e = 0; e < isize; e++) {
+					if (toPlanar) {
+						copyStrided(src, start * isize + e, isize, dst, e * n + start, 1, end - start);
+					} else {
+						copyStrided(src, e * n + start, 1, dst, start * isize + e, isize, end - start);
+					}
+				}
+			}
+		});
+	}
+}
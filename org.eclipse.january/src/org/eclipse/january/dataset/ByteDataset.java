@@ -663,16 +663,12 @@ public class ByteDataset extends AbstractDataset {
 			}
 		} else {
 			axis = checkAxis(axis);
-			
-			ByteDataset ads = new ByteDataset(shape[axis]);
-			PositionIterator pi = getPositionIterator(axis);
-			int[] pos = pi.getPos();
-			boolean[] hit = pi.getOmit();
-			while (pi.hasNext()) {
-				copyItemsFromAxes(pos, hit, ads);
-				Arrays.sort(ads.data);
-				setItemsOnAxes(pos, hit, ads.data);
-			}
+			LineUtils.applyAlongAxis(this, axis, this, new LineUtils.LineKernel(true) {
+				@Override
+				void process(Dataset line, Dataset out) {
+					Arrays.sort(((ByteDataset) line).data);
+				}
+			});
 		}
 		return this;
 		// throw new UnsupportedOperationException("Cannot sort dataset"); // BOOLEAN_USE
@@ -19,11 +19,26 @@ import java.util.List;
 
 /**
  * Statistics of data set lists. Used for image processing.
+ * <p>
+ * The statistics are evaluated for each pixel over the stack of values at that position in
+ * all the data sets. Pixels are processed in tiles: the values of a tile of pixels are copied
+ * from the buffers of all data sets then each pixel's values are reduced, using selection for
+ * medians and quantiles. Tiles of in-memory data sets are processed in parallel. Lazy data sets
+ * are streamed in slabs of rows along their first axis.
  */
 public class CollectionStats {
 
+	private static final int TILE_VALUES = 1 << 16; // number of values in tile of in-memory data sets
+
+	private static final int SLAB_VALUES = 1 << 23; // number of values in slab of lazy data sets
+
 	private static interface StatFunction {
-		double evaluate(Dataset set);
+		/**
+		 * @param values stack of values (can be reordered)
+		 * @param n number of values
+		 * @return statistic
+		 */
+		double evaluate(double[] values, int n);
 	}
 
 	/**
@@ -33,12 +48,16 @@ public class CollectionStats {
 	 * @return mean data set of the same shape as those passed in.
 	 * @throws Exception
 	 */
-	public static Dataset mean(final List<IDataset> sets) throws Exception {
+	public static Dataset mean(final List<? extends ILazyDataset> sets) throws Exception {
 		
 		return process(sets, new StatFunction() {
 			@Override
-			public double evaluate(Dataset set) {
-				return (Double)set.mean();
+			public double evaluate(double[] values, int n) {
+				double sum = 0;
+				for (int i = 0; i < n; i++) {
+					sum += values[i];
+				}
+				return sum / n;
 			}
 		});
 	}
@@ -50,54 +69,292 @@ public class CollectionStats {
 	 * @return median data set of the same shape as those passed in.
 	 * @throws Exception
 	 */
-	public static Dataset median(final List<IDataset> sets) throws Exception {
+	public static Dataset median(final List<? extends ILazyDataset> sets) throws Exception {
 		
+		return quantile(sets, 0.5);
+	}
+
+	/**
+	 * Used to get a quantile image from a set of images. Values are interpolated linearly
+	 * as in {@link Stats#quantile(Dataset, double)}
+	 * 
+	 * @param sets
+	 * @param q quantile in range [0, 1]
+	 * @return quantile data set of the same shape as those passed in.
+	 * @throws Exception
+	 * @since 2.0
+	 */
+	public static Dataset quantile(final List<? extends ILazyDataset> sets, final double q) throws Exception {
+		if (q < 0 || q > 1) {
+			throw new IllegalArgumentException("Quantile requested is invalid");
+		}
+
 		return process(sets, new StatFunction() {
 			@Override
-			public double evaluate(Dataset set) {
-				return (Double)Stats.median(set);
+			public double evaluate(double[] values, int n) {
+				return select(values, n, q);
 			}
 		});
 	}
 
 	/**
-	 * Used to get a median image from a set of images for instance.
+	 * Used to get a sigma-clipped mean image from a set of images. For each pixel, values that
+	 * differ from the mean by more than the given multiple of the standard deviation are
+	 * excluded and the mean is recalculated until no more values are excluded
 	 * 
 	 * @param sets
-	 * @return median data set of the same shape as those passed in.
+	 * @param nsigma number of standard deviations beyond which values are excluded
+	 * @param iterations maximum number of iterations
+	 * @return clipped mean data set of the same shape as those passed in.
+	 * @throws Exception
+	 * @since 2.0
+	 */
+	public static Dataset clippedMean(final List<? extends ILazyDataset> sets, final double nsigma, final int iterations) throws Exception {
+		if (nsigma <= 0) {
+			throw new IllegalArgumentException("Number of standard deviations must be positive");
+		}
+
+		return process(sets, new StatFunction() {
+			@Override
+			public double evaluate(double[] values, int n) {
+				double mean = 0;
+				for (int it = 0; it <= iterations; it++) {
+					double sum = 0;
+					for (int i = 0; i < n; i++) {
+						sum += values[i];
+					}
+					mean = sum / n;
+					if (it == iterations || n < 3) {
+						break;
+					}
+
+					double var = 0;
+					for (int i = 0; i < n; i++) {
+						double d = values[i] - mean;
+						var += d * d;
+					}
+					double limit = nsigma * Math.sqrt(var / (n - 1));
+					int m = 0;
+					for (int i = 0; i < n; i++) { // keep values within limit
+						double v = values[i];
+						if (Math.abs(v - mean) <= limit) {
+							values[m++] = v;
+						}
+					}
+					if (m == n || m == 0) {
+						break;
+					}
+					n = m;
+				}
+				return mean;
+			}
+		});
+	}
+
+	/**
+	 * Select quantile of values. NaNs are ordered after all other values as in a sort
+	 * @param values (reordered)
+	 * @param n number of values
+	 * @param q quantile
+	 * @return quantile with linear interpolation
+	 */
+	static double select(final double[] values, final int n, final double q) {
+		int m = 0; // move NaNs to end
+		for (int i = 0; i < n; i++) {
+			double v = values[i];
+			if (!Double.isNaN(v)) {
+				values[i] = values[m];
+				values[m++] = v;
+			}
+		}
+
+		double f = (n - 1) * q;
+		int k = (int) Math.floor(f);
+		f -= k;
+		if (k >= m) {
+			return Double.NaN;
+		}
+		double lo = selectKth(values, m, k);
+		if (f == 0) {
+			return lo;
+		}
+		if (k + 1 >= m) {
+			return Double.NaN;
+		}
+
+		// next value is smallest of those after k-th
+		double hi = values[k + 1];
+		for (int i = k + 2; i < m; i++) {
+			if (values[i] < hi) {
+				hi = values[i];
+			}
+		}
+		return (1 - f) * lo + f * hi;
+	}
+
+	/**
+	 * Partially order values so the k-th smallest is at position k, smaller values before and
+	 * others after it (Hoare's selection with median of three)
+	 * @param values
+	 * @param n
+	 * @param k
+	 * @return k-th smallest value
+	 */
+	private static double selectKth(final double[] values, final int n, final int k) {
+		int l = 0;
+		int r = n - 1;
+		while (r > l) {
+			int mid = (l + r) >>> 1;
+			if (values[mid] < values[l]) {
+				swap(values, mid, l);
+			}
+			if (values[r] < values[l]) {
+				swap(values, r, l);
+			}
+			if (values[r] < values[mid]) {
+				swap(values, r, mid);
+			}
+			double pivot = values[mid];
+			int i = l;
+			int j = r;
+			while (i <= j) {
+				while (values[i] < pivot) {
+					i++;
+				}
+				while (values[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(values, i++, j--);
+				}
+			}
+			if (k <= j) {
+				r = j;
+			} else if (k >= i) {
+				l = i;
+			} else {
+				break;
+			}
+		}
+		return values[k];
+	}
+
+	private static void swap(final double[] values, final int i, final int j) {
+		double t = values[i];
+		values[i] = values[j];
+		values[j] = t;
+	}
+
+	/**
+	 * Evaluate function over stack of values at each pixel
+	 * 
+	 * @param sets
+	 * @param function
+	 * @return result data set of the same shape as those passed in.
 	 * @throws Exception
 	 */
-	private static Dataset process(final List<IDataset> sets,
+	private static Dataset process(final List<? extends ILazyDataset> sets,
 			                               final StatFunction   function) throws Exception {
 		
 		int[] shape = assertShapes(sets);
 		final DoubleDataset result = DatasetFactory.zeros(DoubleDataset.class, shape);
-        final double[] rData = result.getData();
-        final IndexIterator iter = new PositionIterator(shape);
-        final int[] pos = iter.getPos();
-
-        final int len = sets.size();
-		final DoubleDataset pixel = DatasetFactory.zeros(DoubleDataset.class, len);
-		final double[] pData = pixel.getData();
-        for (int i = 0; iter.hasNext(); i++) {
-			for (int ipix = 0; ipix < len; ipix++) {
-				pData[ipix] = sets.get(ipix).getDouble(pos);
+		final double[] rData = result.getData();
+		final int len = sets.size();
+		final int size = rData.length;
+		if (size == 0) {
+			return result;
+		}
+
+		boolean lazy = false;
+		final Dataset[] data = new Dataset[len];
+		for (int i = 0; i < len; i++) {
+			ILazyDataset s = sets.get(i);
+			if (s instanceof IDataset) {
+				data[i] = DatasetUtils.convertToDataset((IDataset) s);
+			} else {
+				lazy = true;
+			}
+		}
+
+		if (!lazy) {
+			final int tile = Math.max(1, TILE_VALUES / len);
+			ParallelUtils.forRange(0, size, tile, new ParallelUtils.RangeTask() {
+				@Override
+				void run(int start, int end) {
+					final double[] stack = new double[len * tile];
+					final double[] values = new double[len];
+					for (int t = start; t < end; t += tile) {
+						int n = Math.min(tile, end - t);
+						for (int i = 0; i < len; i++) {
+							BufferUtils.copyToDoubles(data[i], 0, t, n, stack, i * n);
+						}
+						reduce(function, stack, len, n, 0, n, values, rData, t);
+					}
+				}
+			});
+			return result;
+		}
+
+		// stream slabs of rows
+		final int rows = shape.length == 0 ? 1 : shape[0];
+		final int rowSize = shape.length == 0 ? 1 : size / rows;
+		final int slab = (int) Math.max(1, SLAB_VALUES / ((long) len * rowSize));
+		final double[] stack = new double[len * Math.min(rows, slab) * rowSize];
+		for (int r = 0; r < rows; r += slab) {
+			final int re = Math.min(rows, r + slab);
+			final int n = (re - r) * rowSize;
+			for (int i = 0; i < len; i++) {
+				Dataset part;
+				if (data[i] != null) {
+					part = shape.length == 0 ? data[i] : data[i].getSliceView(new Slice(r, re));
+				} else {
+					ILazyDataset s = sets.get(i);
+					part = DatasetUtils.convertToDataset(shape.length == 0 ? s.getSlice() : s.getSlice(new Slice(r, re)));
+				}
+				BufferUtils.copyToDoubles(part, 0, 0, n, stack, i * n);
+			}
+
+			final int offset = r * rowSize;
+			ParallelUtils.forRange(0, n, Math.max(1, TILE_VALUES / len), new ParallelUtils.RangeTask() {
+				@Override
+				void run(int start, int end) {
+					reduce(function, stack, len, n, start, end, new double[len], rData, offset);
+				}
+			});
+		}
+		return result;
+	}
+
+	/**
+	 * Reduce stacks of values in tile
+	 * @param function
+	 * @param stack values of tile in each data set
+	 * @param len number of data sets
+	 * @param n number of pixels in tile
+	 * @param start first pixel to reduce
+	 * @param end stop pixel (exclusive)
+	 * @param values scratch array
+	 * @param result
+	 * @param offset position of tile in result
+	 */
+	private static void reduce(final StatFunction function, final double[] stack, final int len, final int n,
+			final int start, final int end, final double[] values, final double[] result, final int offset) {
+		for (int p = start; p < end; p++) {
+			for (int i = 0; i < len; i++) {
+				values[i] = stack[i * n + p];
 			}
-			pixel.setDirty();
-			rData[i] = function.evaluate(pixel);
+			result[offset + p] = function.evaluate(values, len);
 		}
-        
-        return result;
 	}
 
-	private static int[] assertShapes(final Collection<IDataset> sets) throws Exception{
+	private static int[] assertShapes(final Collection<? extends ILazyDataset> sets) throws Exception{
 		
 		if (sets.size()<2) throw new Exception("You must take the median of at least two sets!");
 		
-		final Iterator<IDataset> it = sets.iterator();
+		final Iterator<? extends ILazyDataset> it = sets.iterator();
 		final int[] shape = it.next().getShape();
 		while (it.hasNext()) {
-			IDataset d = it.next();
+			ILazyDataset d = it.next();
 			final int[] nextShape = d.getShape();
 			if (!Arrays.equals(shape, nextShape)) throw new Exception("All data sets should be the same shape!");
 		}
@@ -0,0 +1,303 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.List;
+
+/**
+ * Spatial index over a curvilinear 2D grid whose points have coordinates given by a pair of
+ * datasets x and y. Each cell of the grid, bounded by points [i, j] and [i+1, j+1], is a
+ * quadrilateral that is mapped bilinearly to the unit square.
+ * <p>
+ * The cells are bucketed over a regular grid that covers their bounding box so a target point
+ * is located by testing only the few cells in its bucket. Locating points gives fractional
+ * indexes into the source grid which can be reused to resample all datasets that share the grid
+ * geometry (e.g. frames of a scan) with {@link Interpolation#mapCoordinates(Dataset, Dataset...)}.
+ * Instances are immutable and can be shared between threads.
+ * @since 2.0
+ */
+public final class CurvilinearGrid {
+
+	private static final int MAX_ITERATIONS = 16;
+	private static final double TOLERANCE = 1e-10;
+	private static final double EDGE = 1e-9; // allowance for points on cell edges
+
+	private final int rows;
+	private final int cols;
+	private final double[] x;
+	private final double[] y;
+	private final double xMin;
+	private final double yMin;
+	private final double xScale; // buckets per unit
+	private final double yScale;
+	private final int xBuckets;
+	private final int yBuckets;
+	private final int[] bucketStart; // start position of each bucket's cells
+	private final int[] cells; // flat index of lower corner of cell
+
+	/**
+	 * Build index over grid
+	 * @param x coordinates of grid points
+	 * @param y coordinates of grid points
+	 */
+	public CurvilinearGrid(final Dataset x, final Dataset y) {
+		final int[] shape = x.getShapeRef();
+		if (shape.length != 2 || !x.isCompatibleWith(y)) {
+			throw new IllegalArgumentException("Coordinate datasets must be 2D and of the same shape");
+		}
+		if (shape[0] < 2 || shape[1] < 2) {
+			throw new IllegalArgumentException("Grid must have at least two points along each axis");
+		}
+		rows = shape[0];
+		cols = shape[1];
+		this.x = BufferUtils.toDoubles(x);
+		this.y = BufferUtils.toDoubles(y);
+
+		double x0 = Double.POSITIVE_INFINITY;
+		double x1 = Double.NEGATIVE_INFINITY;
+		double y0 = Double.POSITIVE_INFINITY;
+		double y1 = Double.NEGATIVE_INFINITY;
+		for (int k = 0; k < this.x.length; k++) {
+			final double xk = this.x[k];
+			final double yk = this.y[k];
+			if (xk < x0) {
+				x0 = xk;
+			}
+			if (xk > x1) {
+				x1 = xk;
+			}
+			if (yk < y0) {
+				y0 = yk;
+			}
+			if (yk > y1) {
+				y1 = yk;
+			}
+		}
+		if (!(x0 <= x1 && y0 <= y1)) {
+			throw new IllegalArgumentException("Coordinate datasets must contain finite values");
+		}
+
+		// about one cell per bucket with buckets in proportion to extent of grid
+		final int n = (rows - 1) * (cols - 1);
+		final double w = Math.max(x1 - x0, Double.MIN_NORMAL);
+		final double h = Math.max(y1 - y0, Double.MIN_NORMAL);
+		final double side = Math.sqrt(w * h / n);
+		xBuckets = (int) Math.max(1, Math.min(n, Math.ceil(w / side)));
+		yBuckets = (int) Math.max(1, Math.min(n, Math.ceil(h / side)));
+		xMin = x0;
+		yMin = y0;
+		xScale = xBuckets / w;
+		yScale = yBuckets / h;
+
+		// count cells in each bucket then fill
+		final int nb = xBuckets * yBuckets;
+		final int[] count = new int[nb + 1];
+		final int[] range = new int[4];
+		for (int i = 0; i < rows - 1; i++) {
+			for (int j = 0; j < cols - 1; j++) {
+				if (setBucketRange(i * cols + j, range)) {
+					for (int by = range[2]; by <= range[3]; by++) {
+						for (int bx = range[0]; bx <= range[1]; bx++) {
+							count[by * xBuckets + bx + 1]++;
+						}
+					}
+				}
+			}
+		}
+		for (int b = 0; b < nb; b++) {
+			count[b + 1] += count[b];
+		}
+		bucketStart = count.clone();
+		cells = new int[count[nb]];
+		for (int i = 0; i < rows - 1; i++) {
+			for (int j = 0; j < cols - 1; j++) {
+				final int c = i * cols + j;
+				if (setBucketRange(c, range)) {
+					for (int by = range[2]; by <= range[3]; by++) {
+						for (int bx = range[0]; bx <= range[1]; bx++) {
+							cells[count[by * xBuckets + bx]++] = c;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param c flat index of lower corner of cell
+	 * @param range buckets covered by cell as x start, x end, y start and y end (inclusive)
+	 * @return false if cell has any undefined corners
+	 */
+	private boolean setBucketRange(final int c, final int[] range) {
+		final int c1 = c + cols;
+		final double[] xc = {x[c], x[c + 1], x[c1], x[c1 + 1]};
+		final double[] yc = {y[c], y[c + 1], y[c1], y[c1 + 1]};
+		double x0 = xc[0], x1 = xc[0], y0 = yc[0], y1 = yc[0];
+		for (int k = 0; k < 4; k++) {
+			if (Double.isNaN(xc[k]) || Double.isNaN(yc[k])) {
+				return false;
+			}
+			x0 = Math.min(x0, xc[k]);
+			x1 = Math.max(x1, xc[k]);
+			y0 = Math.min(y0, yc[k]);
+			y1 = Math.max(y1, yc[k]);
+		}
+		range[0] = getXBucket(x0);
+		range[1] = getXBucket(x1);
+		range[2] = getYBucket(y0);
+		range[3] = getYBucket(y1);
+		return true;
+	}
+
+	private int getXBucket(final double v) {
+		return Math.max(0, Math.min(xBuckets - 1, (int) ((v - xMin) * xScale)));
+	}
+
+	private int getYBucket(final double v) {
+		return Math.max(0, Math.min(yBuckets - 1, (int) ((v - yMin) * yScale)));
+	}
+
+	/**
+	 * @return shape of grid
+	 */
+	public int[] getShape() {
+		return new int[] {rows, cols};
+	}
+
+	/**
+	 * Locate a point in grid
+	 * @param px x coordinate of point
+	 * @param py y coordinate of point
+	 * @param index array to receive fractional indexes of point in grid
+	 * @return true if point is within grid
+	 */
+	public boolean locate(final double px, final double py, final double[] index) {
+		final double fx = (px - xMin) * xScale;
+		final double fy = (py - yMin) * yScale;
+		if (!(fx >= -EDGE && fx <= xBuckets + EDGE && fy >= -EDGE && fy <= yBuckets + EDGE)) {
+			return false;
+		}
+		final int b = getYBucket(py) * xBuckets + getXBucket(px);
+		for (int k = bucketStart[b], kEnd = bucketStart[b + 1]; k < kEnd; k++) {
+			if (invert(cells[k], px, py, index)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Find position of point in cell by inverting bilinear map with Newton's method
+	 * @param c flat index of lower corner of cell
+	 * @param px
+	 * @param py
+	 * @param index
+	 * @return true if point is in cell
+	 */
+	private boolean invert(final int c, final double px, final double py, final double[] index) {
+		final int c1 = c + cols;
+		final double x00 = x[c], x01 = x[c + 1], x10 = x[c1], x11 = x[c1 + 1];
+		final double y00 = y[c], y01 = y[c + 1], y10 = y[c1], y11 = y[c1 + 1];
+		double u = 0.5; // along rows (axis 0)
+		double v = 0.5; // along columns (axis 1)
+		for (int it = 0; it < MAX_ITERATIONS; it++) {
+			final double fx = (1 - u) * ((1 - v) * x00 + v * x01) + u * ((1 - v) * x10 + v * x11) - px;
+			final double fy = (1 - u) * ((1 - v) * y00 + v * y01) + u * ((1 - v) * y10 + v * y11) - py;
+			final double xu = (1 - v) * (x10 - x00) + v * (x11 - x01);
+			final double yu = (1 - v) * (y10 - y00) + v * (y11 - y01);
+			final double xv = (1 - u) * (x01 - x00) + u * (x11 - x10);
+			final double yv = (1 - u) * (y01 - y00) + u * (y11 - y10);
+			final double det = xu * yv - xv * yu;
+			if (det == 0 || Double.isNaN(det)) {
+				return false;
+			}
+			final double du = (fx * yv - fy * xv) / det;
+			final double dv = (fy * xu - fx * yu) / det;
+			u -= du;
+			v -= dv;
+			if (Math.abs(du) < TOLERANCE && Math.abs(dv) < TOLERANCE) {
+				break;
+			}
+		}
+		if (u < -EDGE || u > 1 + EDGE || v < -EDGE || v > 1 + EDGE) {
+			return false;
+		}
+		index[0] = c / cols + Math.max(0, Math.min(1, u));
+		index[1] = c % cols + Math.max(0, Math.min(1, v));
+		return true;
+	}
+
+	/**
+	 * Locate points in grid
+	 * @param px x coordinates of points
+	 * @param py y coordinates of points
+	 * @return pair of double datasets of fractional indexes of points in grid (NaN where
+	 * points are outside grid) with shape of coordinates
+	 */
+	public Dataset[] getIndexCoordinates(final Dataset px, final Dataset py) {
+		if (!px.isCompatibleWith(py)) {
+			throw new IllegalArgumentException("Point coordinate datasets must be of the same shape");
+		}
+		final double[] xs = BufferUtils.toDoubles(px);
+		final double[] ys = BufferUtils.toDoubles(py);
+		final int[] shape = px.getShapeRef();
+		final DoubleDataset i0 = DatasetFactory.zeros(DoubleDataset.class, shape);
+		final DoubleDataset i1 = DatasetFactory.zeros(DoubleDataset.class, shape);
+		final double[] r0 = i0.getData();
+		final double[] r1 = i1.getData();
+
+		ParallelUtils.forRange(0, xs.length, 1024, new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] index = new double[2];
+				for (int k = start; k < end; k++) {
+					if (locate(xs[k], ys[k], index)) {
+						r0[k] = index[0];
+						r1[k] = index[1];
+					} else {
+						r0[k] = Double.NaN;
+						r1[k] = Double.NaN;
+					}
+				}
+			}
+		});
+		return new Dataset[] {i0, i1};
+	}
+
+	/**
+	 * Locate points of a regular target grid
+	 * @param gridX 1D dataset of x coordinates of target grid
+	 * @param gridY 1D dataset of y coordinates of target grid
+	 * @return pair of double datasets of fractional indexes of points in grid (NaN where
+	 * points are outside grid) with shape of [length of gridY, length of gridX]
+	 */
+	public Dataset[] getIndexCoordinatesOnGrid(final Dataset gridX, final Dataset gridY) {
+		List<Dataset> mesh = DatasetUtils.meshGrid(gridY, gridX);
+		return getIndexCoordinates(mesh.get(1), mesh.get(0));
+	}
+
+	/**
+	 * Resample data defined on this grid using bilinear interpolation
+	 * @param data dataset with shape of grid
+	 * @param indexes fractional indexes of target points, as found by
+	 * {@link #getIndexCoordinates(Dataset, Dataset)} or {@link #getIndexCoordinatesOnGrid(Dataset, Dataset)}
+	 * @return resampled data with NaNs where target points are outside grid
+	 */
+	public Dataset resample(final Dataset data, final Dataset[] indexes) {
+		final int[] shape = data.getShapeRef();
+		if (shape.length != 2 || shape[0] != rows || shape[1] != cols) {
+			throw new IllegalArgumentException("Data must have same shape as grid");
+		}
+		return Interpolation.mapCoordinates(data, Interpolation.LINEAR, Interpolation.BoundaryMode.NEAREST, Double.NaN, indexes);
+	}
+}
@@ -24,6 +24,16 @@ public class DTypeUtils {
 
 	private static final Map<Class<? extends Dataset>, Integer> interface2DTypes = createInterfaceMap(); // map interface to dataset type
 
+	private static final Map<Integer, Class<? extends Dataset>> dtype2Interfaces = createDTypeMap(); // map dataset type to interface
+
+	private static Map<Integer, Class<? extends Dataset>> createDTypeMap() {
+		Map<Integer, Class<? extends Dataset>> map = new HashMap<Integer, Class<? extends Dataset>>();
+		for (Map.Entry<Class<? extends Dataset>, Integer> e : interface2DTypes.entrySet()) {
+			map.put(e.getValue(), e.getKey());
+		}
+		return map;
+	}
+
 	private static Map<Class<? extends Dataset>, Integer> createInterfaceMap() {
 		Map<Class<? extends Dataset>, Integer> map = new HashMap<Class<? extends Dataset>, Integer>();
 		map.put(BooleanDataset.class, Dataset.BOOL);
@@ -132,6 +142,17 @@ public class DTypeUtils {
 		return interface2DTypes.get(clazz);
 	}
 
+	/**
+	 * @param dtype dataset type
+	 * @return dataset class for dataset type
+	 */
+	static Class<? extends Dataset> getInterface(int dtype) {
+		if (!dtype2Interfaces.containsKey(dtype)) {
+			throw new IllegalArgumentException("Dataset type not supported");
+		}
+		return dtype2Interfaces.get(dtype);
+	}
+
 	public static boolean isDTypeElemental(int dtype) {
 		return dtype <= Dataset.DATE;
 	}
@@ -9,32 +9,115 @@
 
 package org.eclipse.january.dataset;
 
-import java.util.Collections;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Class used by DynamicDataset to delegate
+ * <p>
+ * By default, events are delivered synchronously on the thread that fires them. If an executor
+ * is set, events are delivered on it instead and an event that arrives while an earlier one is
+ * waiting to be delivered to a listener replaces it so listeners only see the latest event.
+ * Listeners can also be added with a minimum interval between deliveries; events in that interval
+ * are coalesced in the same way and the latest is delivered at the end of the interval. The
+ * {@link UpdateCheckScheduler} only times these deliveries; they are made on the set executor
+ * or, if none is set, on a shared pool of daemon threads.
  */
 public class DataListenerDelegate {
 
-	private Set<IDataListener> listeners;
+	private static final Logger logger = LoggerFactory.getLogger(DataListenerDelegate.class);
+
+	private ConcurrentMap<IDataListener, Subscription> listeners;
+
+	private volatile Executor executor = null;
+
+	private static ExecutorService deliverer = null;
 
 	public DataListenerDelegate() {
-		listeners = Collections.newSetFromMap(new ConcurrentHashMap<IDataListener, Boolean>());
+		listeners = new ConcurrentHashMap<IDataListener, Subscription>();
+	}
+
+	/**
+	 * Set executor used to deliver events
+	 * @param executor if null, deliver events synchronously
+	 * @since 2.0
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @return executor used to deliver events (null if synchronous)
+	 * @since 2.0
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @return pool used to deliver events at end of intervals when no executor is set
+	 */
+	private static synchronized ExecutorService getDeliverer() {
+		if (deliverer == null) {
+			final int n = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+			final AtomicInteger count = new AtomicInteger();
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(n, n, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "Data event deliverer " + count.incrementAndGet());
+							t.setDaemon(true);
+							return t;
+						}
+					});
+			pool.allowCoreThreadTimeOut(true);
+			deliverer = pool;
+		}
+		return deliverer;
 	}
 
 	public void addDataListener(IDataListener l) {
-		listeners.add(l);
+		addDataListener(l, 0);
+	}
+
+	/**
+	 * Add a listener with a limit on its rate of delivery
+	 * @param l
+	 * @param milliseconds minimum interval between deliveries of events to listener
+	 * @since 2.0
+	 */
+	public void addDataListener(IDataListener l, long milliseconds) {
+		if (milliseconds < 0) {
+			throw new IllegalArgumentException("Interval must not be negative");
+		}
+		Subscription old = listeners.put(l, new Subscription(l, TimeUnit.MILLISECONDS.toNanos(milliseconds)));
+		if (old != null) {
+			old.removed = true;
+		}
 	}
 
 	public void removeDataListener(IDataListener l) {
-		listeners.remove(l);
+		Subscription s = listeners.remove(l);
+		if (s != null) {
+			s.removed = true;
+		}
 	}
 
 	public void fire(DataEvent evt) {
-		for (IDataListener listener : listeners) {
-			listener.dataChangePerformed(evt);
+		for (Subscription s : listeners.values()) {
+			s.offer(evt);
 		}
 	}
 
@@ -43,7 +126,90 @@ public class DataListenerDelegate {
 	}
 
 	public void clear() {
+		for (Subscription s : listeners.values()) {
+			s.removed = true;
+		}
 		listeners.clear();
 	}
 
+	/**
+	 * Delivery state of a listener
+	 */
+	private class Subscription implements Runnable {
+		private final IDataListener listener;
+		private final long interval; // in nanoseconds
+		private final AtomicReference<DataEvent> pending = new AtomicReference<DataEvent>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private volatile long last;
+		volatile boolean removed = false;
+
+		Subscription(IDataListener listener, long interval) {
+			this.listener = listener;
+			this.interval = interval;
+			last = System.nanoTime() - interval;
+		}
+
+		void offer(DataEvent evt) {
+			if (interval == 0 && executor == null) {
+				listener.dataChangePerformed(evt);
+				return;
+			}
+			pending.set(evt); // replaces any undelivered event
+			schedule();
+		}
+
+		private void schedule() {
+			if (!scheduled.compareAndSet(false, true)) {
+				return; // delivery of pending event is already scheduled
+			}
+			long delay = last + interval - System.nanoTime();
+			if (delay > 0) {
+				UpdateCheckScheduler.getExecutor().schedule(new Runnable() {
+					@Override
+					public void run() {
+						execute(true);
+					}
+				}, delay, TimeUnit.NANOSECONDS);
+			} else {
+				execute(false);
+			}
+		}
+
+		/**
+		 * @param timed if true, called on scheduler's thread which must not be held up by listener
+		 */
+		private void execute(boolean timed) {
+			Executor e = executor;
+			if (e == null && timed) {
+				e = getDeliverer();
+			}
+			try {
+				if (e == null) {
+					run();
+				} else {
+					e.execute(this);
+				}
+			} catch (RuntimeException ex) { // e.g. rejected by executor
+				scheduled.set(false);
+				logger.error("Could not deliver event to listener", ex);
+			}
+		}
+
+		@Override
+		public void run() {
+			DataEvent evt = pending.getAndSet(null);
+			if (evt != null && !removed) {
+				last = System.nanoTime();
+				try {
+					listener.dataChangePerformed(evt);
+				} catch (RuntimeException ex) {
+					logger.error("Listener failed to handle event", ex);
+				}
+			}
+			scheduled.set(false);
+			if (pending.get() != null) { // arrived during delivery
+				schedule();
+			}
+		}
+	}
 }
@@ -0,0 +1,708 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.MetadataException;
+import org.eclipse.january.metadata.AxesMetadata;
+import org.eclipse.january.metadata.MetadataFactory;
+
+/**
+ * Compact, versioned binary encoding of numerical datasets
+ * <p>
+ * The encoding starts with a header that holds a magic number, version, byte order, flags,
+ * dataset type, elements per item, shape and name. This is followed by the data written
+ * directly from the internal buffer in the given byte order, optionally compressed in
+ * independent LZ4 blocks. The (squared) error buffer and axes can be appended, each as a
+ * nested encoding.
+ * <p>
+ * Layout (after the first four bytes, all values are in the encoding's byte order):
+ * <pre>
+ * 'J' 'D' 'S' version
+ * order flags 0 0
+ * dtype isize rank shape[rank] name-length name-bytes (UTF-8, length is -1 if null)
+ * data-bytes (long)
+ * data (raw or sequence of blocks of raw-length, stored-length, bytes)
+ * [error dataset] [rank {axis-count {present-byte [axis dataset]}}]
+ * </pre>
+ * Views are made contiguous before writing. Date datasets are encoded with the date type and
+ * their times in milliseconds since the epoch. Encoded string datasets are rejected as their
+ * dictionaries are not encoded.
+ * @since 2.0
+ */
+public final class DatasetCodec {
+
+	/**
+	 * Version of encoding
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Flag to compress data
+	 */
+	public static final int COMPRESS = 1;
+
+	/**
+	 * Flag to include error buffer
+	 */
+	public static final int ERRORS = 2;
+
+	/**
+	 * Flag to include axes
+	 */
+	public static final int AXES = 4;
+
+	private static final byte[] MAGIC = {'J', 'D', 'S'};
+
+	private static final int BLOCK = 1 << 18; // bytes of uncompressed data per block
+
+	private static final int STAGING = 1 << 20; // bytes in staging buffer, also the limit on size of header
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private DatasetCodec() {
+	}
+
+	/**
+	 * Output to a channel via a staging buffer or directly to a byte buffer
+	 */
+	private static class Sink {
+		private final WritableByteChannel channel;
+		final ByteBuffer buffer;
+		final byte[] raw = new byte[BLOCK];
+		byte[] compressed;
+		int[] table;
+
+		Sink(ByteBuffer buffer) {
+			channel = null;
+			this.buffer = buffer;
+		}
+
+		Sink(WritableByteChannel channel, ByteOrder order) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocate(STAGING).order(order);
+		}
+
+		/**
+		 * Ensure bytes are available in buffer
+		 * @param n
+		 * @throws IOException
+		 */
+		void ensure(int n) throws IOException {
+			if (buffer.remaining() >= n) {
+				return;
+			}
+			if (channel == null) {
+				throw new BufferOverflowException();
+			}
+			flush();
+		}
+
+		void flush() throws IOException {
+			if (channel != null) {
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				buffer.clear();
+			}
+		}
+	}
+
+	/**
+	 * Input from a channel via a staging buffer or directly from a byte buffer
+	 */
+	private static class Source {
+		private final ReadableByteChannel channel;
+		ByteBuffer buffer;
+		byte[] raw;
+		byte[] compressed;
+
+		Source(ByteBuffer buffer) {
+			channel = null;
+			this.buffer = buffer;
+		}
+
+		Source(ReadableByteChannel channel) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocate(STAGING);
+			buffer.flip();
+		}
+
+		/**
+		 * Ensure bytes are available in buffer
+		 * @param n
+		 * @throws IOException if number of bytes is negative or exceeds the staging buffer
+		 */
+		void require(int n) throws IOException {
+			if (n < 0) {
+				throw new IOException("Encoded dataset is corrupt");
+			}
+			if (buffer.remaining() >= n) {
+				return;
+			}
+			if (channel == null) {
+				throw new BufferUnderflowException();
+			}
+			if (n > buffer.capacity()) {
+				throw new IOException("Encoded dataset is corrupt");
+			}
+			buffer.compact();
+			while (buffer.position() < n) {
+				if (channel.read(buffer) < 0) {
+					throw new EOFException("End of channel reached before dataset was fully read");
+				}
+			}
+			buffer.flip();
+		}
+	}
+
+	/**
+	 * Encode dataset to a new byte buffer in native byte order
+	 * @param a dataset
+	 * @param flags combination of {@link #COMPRESS}, {@link #ERRORS} and {@link #AXES}
+	 * @return byte buffer ready for reading
+	 */
+	public static ByteBuffer encode(final IDataset a, final int flags) {
+		Dataset d = DatasetUtils.convertToDataset(a);
+		Dataset[][] axes = (flags & AXES) != 0 ? getAxes(d) : null;
+		long size = getEncodedSizeLimit(d, axes, flags);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Dataset is too large to encode in a byte buffer");
+		}
+		ByteBuffer b = ByteBuffer.allocate((int) size).order(ByteOrder.nativeOrder());
+		try {
+			write(d, axes, new Sink(b), flags);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // cannot happen
+		}
+		b.flip();
+		return b;
+	}
+
+	/**
+	 * Encode dataset to a byte buffer, starting at its current position and using its byte order
+	 * @param a dataset
+	 * @param buffer
+	 * @param flags combination of {@link #COMPRESS}, {@link #ERRORS} and {@link #AXES}
+	 * @throws BufferOverflowException if buffer has insufficient space
+	 */
+	public static void encode(final IDataset a, final ByteBuffer buffer, final int flags) {
+		try {
+			Dataset d = DatasetUtils.convertToDataset(a);
+			write(d, (flags & AXES) != 0 ? getAxes(d) : null, new Sink(buffer), flags);
+		} catch (IOException e) {
+			throw new IllegalStateException(e); // cannot happen
+		}
+	}
+
+	/**
+	 * Write encoded dataset to a channel
+	 * @param a dataset
+	 * @param channel
+	 * @param order byte order to use
+	 * @param flags combination of {@link #COMPRESS}, {@link #ERRORS} and {@link #AXES}
+	 * @throws IOException
+	 */
+	public static void write(final IDataset a, final WritableByteChannel channel, final ByteOrder order, final int flags) throws IOException {
+		Sink sink = new Sink(channel, order);
+		Dataset d = DatasetUtils.convertToDataset(a);
+		write(d, (flags & AXES) != 0 ? getAxes(d) : null, sink, flags);
+		sink.flush();
+	}
+
+	/**
+	 * @param a dataset
+	 * @param flags
+	 * @return upper limit of number of bytes needed to encode dataset
+	 */
+	public static long getEncodedSizeLimit(final IDataset a, final int flags) {
+		Dataset d = DatasetUtils.convertToDataset(a);
+		return getEncodedSizeLimit(d, (flags & AXES) != 0 ? getAxes(d) : null, flags);
+	}
+
+	/**
+	 * @param d dataset
+	 * @param axes loaded axes (can be null)
+	 * @param flags
+	 * @return upper limit of number of bytes needed to encode dataset
+	 */
+	private static long getEncodedSizeLimit(final Dataset d, final Dataset[][] axes, final int flags) {
+		checkSupported(d);
+		long size = getHeaderSize(d);
+		long bytes = (long) d.getSize() * d.getElementsPerItem() * getElementBytes(d.getBuffer());
+		if ((flags & COMPRESS) != 0) {
+			long blocks = (bytes + BLOCK - 1) / BLOCK;
+			size += bytes + blocks * (8 + 16) + bytes / 255;
+		} else {
+			size += bytes;
+		}
+		if ((flags & ERRORS) != 0) {
+			Dataset e = d.getErrorBuffer();
+			if (e != null) {
+				size += getEncodedSizeLimit(e, null, flags & COMPRESS);
+			}
+		}
+		if ((flags & AXES) != 0 && axes != null) {
+			size += 4;
+			for (Dataset[] as : axes) {
+				size += 4;
+				if (as != null) {
+					for (Dataset l : as) {
+						size += 1;
+						if (l != null) {
+							size += getEncodedSizeLimit(l, null, flags & COMPRESS);
+						}
+					}
+				}
+			}
+		}
+		return size;
+	}
+
+	private static long getHeaderSize(Dataset a) {
+		String name = a.getName();
+		return 8 + 12 + 4 * a.getRank() + 4 + (name == null ? 0 : name.getBytes(UTF8).length) + 8;
+	}
+
+	private static void checkSupported(Dataset a) {
+		if (a instanceof EncodedStringDataset) { // codes are meaningless without dictionary
+			throw new IllegalArgumentException("Only numerical datasets are supported");
+		}
+	}
+
+	private static int getElementBytes(Object buffer) {
+		if (buffer instanceof double[] || buffer instanceof long[]) {
+			return 8;
+		} else if (buffer instanceof float[] || buffer instanceof int[]) {
+			return 4;
+		} else if (buffer instanceof short[]) {
+			return 2;
+		} else if (buffer instanceof byte[] || buffer instanceof boolean[]) {
+			return 1;
+		} else if (buffer == null) {
+			return 0;
+		}
+		throw new IllegalArgumentException("Only numerical datasets are supported");
+	}
+
+	/**
+	 * @param a
+	 * @return loaded axes or null
+	 */
+	private static Dataset[][] getAxes(Dataset a) {
+		AxesMetadata md = a.getFirstMetadata(AxesMetadata.class);
+		if (md == null) {
+			return null;
+		}
+		int rank = a.getRank();
+		Dataset[][] axes = new Dataset[rank][];
+		for (int i = 0; i < rank; i++) {
+			ILazyDataset[] as = md.getAxis(i);
+			if (as != null) {
+				axes[i] = new Dataset[as.length];
+				for (int j = 0; j < as.length; j++) {
+					axes[i][j] = as[j] == null ? null : getAxis(as[j]);
+				}
+			}
+		}
+		return axes;
+	}
+
+	private static Dataset getAxis(ILazyDataset l) {
+		try {
+			Dataset d = DatasetUtils.sliceAndConvertLazyDataset(l);
+			if (d.getFirstMetadata(AxesMetadata.class) != null) {
+				d = d.getView(false);
+				d.clearMetadata(AxesMetadata.class);
+			}
+			return d;
+		} catch (DatasetException e) {
+			throw new IllegalArgumentException("Could not get axis data", e);
+		}
+	}
+
+	private static void write(Dataset a, final Dataset[][] axes, final Sink sink, int flags) throws IOException {
+		checkSupported(a);
+		if (a.getStrides() != null) {
+			a = a.clone();
+		}
+		final Object data = a.getBuffer();
+		final int esize = getElementBytes(data);
+		final ByteBuffer b = sink.buffer;
+		final Dataset errors = (flags & ERRORS) != 0 ? a.getErrorBuffer() : null;
+		if (errors == null) {
+			flags &= ~ERRORS;
+		}
+		if (axes == null) {
+			flags &= ~AXES;
+		}
+		final long hsize = getHeaderSize(a);
+		if (hsize > STAGING) {
+			throw new IllegalArgumentException("Dataset name is too long to encode");
+		}
+
+		final int[] shape = a.getShapeRef();
+		final int rank = shape == null ? 0 : shape.length;
+		final String name = a.getName();
+		final byte[] nb = name == null ? null : name.getBytes(UTF8);
+		sink.ensure((int) hsize);
+		b.put(MAGIC);
+		b.put((byte) VERSION);
+		b.put((byte) (b.order() == ByteOrder.BIG_ENDIAN ? 0 : 1));
+		b.put((byte) flags);
+		b.put((byte) 0);
+		b.put((byte) 0);
+		b.putInt(a instanceof DateDataset ? Dataset.DATE : a.getDType()); // dates report their underlying type
+		b.putInt(a.getElementsPerItem());
+		b.putInt(rank);
+		for (int i = 0; i < rank; i++) {
+			b.putInt(shape[i]);
+		}
+		if (nb == null) {
+			b.putInt(-1);
+		} else {
+			b.putInt(nb.length);
+			b.put(nb);
+		}
+		final int length = data == null ? 0 : a.getSize() * a.getElementsPerItem();
+		b.putLong((long) length * esize);
+
+		if ((flags & COMPRESS) != 0) {
+			writeCompressed(data, length, esize, sink);
+		} else {
+			writeRaw(data, length, esize, sink);
+		}
+
+		if (errors != null) {
+			write(errors, null, sink, flags & COMPRESS);
+		}
+		if (axes != null) {
+			sink.ensure(4);
+			b.putInt(axes.length);
+			for (Dataset[] as : axes) {
+				sink.ensure(4);
+				b.putInt(as == null ? -1 : as.length);
+				if (as == null) {
+					continue;
+				}
+				for (Dataset l : as) {
+					sink.ensure(1);
+					b.put((byte) (l == null ? 0 : 1));
+					if (l != null) {
+						write(l, null, sink, flags & COMPRESS);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Put elements into byte buffer
+	 * @param data array
+	 * @param off offset in array
+	 * @param n number of elements
+	 * @param b byte buffer with enough space
+	 */
+	private static void put(Object data, int off, int n, ByteBuffer b) {
+		final int p = b.position();
+		if (data instanceof double[]) {
+			b.asDoubleBuffer().put((double[]) data, off, n);
+			b.position(p + 8 * n);
+		} else if (data instanceof float[]) {
+			b.asFloatBuffer().put((float[]) data, off, n);
+			b.position(p + 4 * n);
+		} else if (data instanceof long[]) {
+			b.asLongBuffer().put((long[]) data, off, n);
+			b.position(p + 8 * n);
+		} else if (data instanceof int[]) {
+			b.asIntBuffer().put((int[]) data, off, n);
+			b.position(p + 4 * n);
+		} else if (data instanceof short[]) {
+			b.asShortBuffer().put((short[]) data, off, n);
+			b.position(p + 2 * n);
+		} else if (data instanceof byte[]) {
+			b.put((byte[]) data, off, n);
+		} else if (data instanceof boolean[]) {
+			boolean[] bd = (boolean[]) data;
+			for (int i = off, end = off + n; i < end; i++) {
+				b.put((byte) (bd[i] ? 1 : 0));
+			}
+		}
+	}
+
+	/**
+	 * Get elements from byte buffer
+	 * @param data array
+	 * @param off offset in array
+	 * @param n number of elements
+	 * @param b byte buffer with enough bytes
+	 */
+	private static void get(Object data, int off, int n, ByteBuffer b) {
+		final int p = b.position();
+		if (data instanceof double[]) {
+			b.asDoubleBuffer().get((double[]) data, off, n);
+			b.position(p + 8 * n);
+		} else if (data instanceof float[]) {
+			b.asFloatBuffer().get((float[]) data, off, n);
+			b.position(p + 4 * n);
+		} else if (data instanceof long[]) {
+			b.asLongBuffer().get((long[]) data, off, n);
+			b.position(p + 8 * n);
+		} else if (data instanceof int[]) {
+			b.asIntBuffer().get((int[]) data, off, n);
+			b.position(p + 4 * n);
+		} else if (data instanceof short[]) {
+			b.asShortBuffer().get((short[]) data, off, n);
+			b.position(p + 2 * n);
+		} else if (data instanceof byte[]) {
+			b.get((byte[]) data, off, n);
+		} else if (data instanceof boolean[]) {
+			boolean[] bd = (boolean[]) data;
+			for (int i = off, end = off + n; i < end; i++) {
+				bd[i] = b.get() != 0;
+			}
+		}
+	}
+
+	private static void writeRaw(Object data, int length, int esize, Sink sink) throws IOException {
+		final ByteBuffer b = sink.buffer;
+		for (int i = 0; i < length;) {
+			sink.ensure(esize);
+			int n = Math.min(length - i, b.remaining() / esize);
+			put(data, i, n, b);
+			i += n;
+		}
+	}
+
+	private static void writeCompressed(Object data, int length, int esize, Sink sink) throws IOException {
+		final ByteBuffer b = sink.buffer;
+		final ByteBuffer raw = ByteBuffer.wrap(sink.raw).order(b.order());
+		if (sink.compressed == null) {
+			sink.compressed = new byte[LZ4.maxCompressedLength(BLOCK)];
+			sink.table = new int[1 << 14];
+		}
+		final byte[] compressed = sink.compressed;
+		final int items = BLOCK / esize;
+		for (int i = 0; i < length; i += items) {
+			final int n = Math.min(length - i, items);
+			raw.clear();
+			put(data, i, n, raw);
+			final int rlen = raw.position();
+			final int clen = LZ4.compress(sink.raw, 0, rlen, compressed, 0, sink.table);
+			final boolean stored = clen >= rlen;
+			final int slen = stored ? rlen : clen;
+			sink.ensure(8 + slen);
+			b.putInt(rlen);
+			b.putInt(slen);
+			b.put(stored ? sink.raw : compressed, 0, slen);
+		}
+	}
+
+	/**
+	 * Decode dataset from a byte buffer, starting at its current position. On return, the
+	 * buffer's position is after the encoded dataset
+	 * @param buffer
+	 * @return dataset
+	 * @throws IllegalArgumentException if encoding is not supported or is corrupt
+	 */
+	public static Dataset decode(final ByteBuffer buffer) {
+		ByteOrder order = buffer.order();
+		try {
+			return read(new Source(buffer));
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("Encoded dataset is truncated", e);
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		} finally {
+			buffer.order(order);
+		}
+	}
+
+	/**
+	 * Read encoded dataset from a channel. Bytes after the encoded dataset may have been read
+	 * from the channel so this is only suitable for channels holding a single dataset or
+	 * for the last dataset in a channel
+	 * @param channel
+	 * @return dataset
+	 * @throws IOException if channel cannot be read or encoding is not supported or is corrupt
+	 */
+	public static Dataset read(final ReadableByteChannel channel) throws IOException {
+		return read(new Source(channel));
+	}
+
+	private static Dataset read(final Source source) throws IOException {
+		final ByteBuffer b = source.buffer;
+		source.require(8);
+		for (byte m : MAGIC) {
+			if (b.get() != m) {
+				throw new IOException("Buffer does not contain an encoded dataset");
+			}
+		}
+		int version = b.get();
+		if (version < 1 || version > VERSION) {
+			throw new IOException("Encoding version " + version + " is not supported");
+		}
+		b.order(b.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+		final int flags = b.get();
+		b.get();
+		b.get();
+
+		source.require(12);
+		final int dtype = b.getInt();
+		final int isize = b.getInt();
+		final int rank = b.getInt();
+		if (isize < 1 || rank < 0 || rank > (STAGING - 4) / 4) {
+			throw new IOException("Encoded dataset is corrupt");
+		}
+		source.require(4 * rank + 4);
+		final int[] shape = new int[rank];
+		long size = 1;
+		for (int i = 0; i < rank; i++) {
+			shape[i] = b.getInt();
+			if (shape[i] < 0) {
+				throw new IOException("Encoded dataset is corrupt");
+			}
+			size *= shape[i];
+			if (size * isize > Integer.MAX_VALUE) {
+				throw new IOException("Encoded dataset is corrupt");
+			}
+		}
+		final int nlen = b.getInt();
+		if (nlen < -1) {
+			throw new IOException("Encoded dataset is corrupt");
+		}
+		String name = null;
+		if (nlen >= 0) {
+			source.require(nlen);
+			byte[] nb = new byte[nlen];
+			b.get(nb);
+			name = new String(nb, UTF8);
+		}
+		source.require(8);
+		final long bytes = b.getLong();
+
+		// check length of data before allocating dataset
+		final int esize = DTypeUtils.getItemBytes(dtype == Dataset.DATE ? Dataset.INT64 : dtype, 1);
+		if (esize == 0) {
+			throw new IOException("Encoded dataset is corrupt");
+		}
+		final int length = (int) (size * isize);
+		if (bytes != (long) length * esize) {
+			throw new IOException("Encoded dataset has wrong number of bytes");
+		}
+		if (source.channel == null && (flags & COMPRESS) == 0 && bytes > b.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		final Dataset a;
+		try {
+			a = DatasetFactory.zeros(isize, DTypeUtils.getInterface(dtype), shape);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Encoded dataset is corrupt", e);
+		}
+		final Object data = a.getBuffer();
+		if ((flags & COMPRESS) != 0) {
+			readCompressed(data, length, esize, source);
+		} else {
+			readRaw(data, length, esize, source);
+		}
+		a.setName(name);
+
+		if ((flags & ERRORS) != 0) {
+			a.setErrorBuffer(read(source));
+		}
+		if ((flags & AXES) != 0) {
+			source.require(4);
+			final int arank = b.getInt();
+			if (arank != rank) {
+				throw new IOException("Encoded axes do not match rank of dataset");
+			}
+			AxesMetadata md;
+			try {
+				md = MetadataFactory.createMetadata(AxesMetadata.class, rank);
+			} catch (MetadataException e) {
+				throw new IllegalArgumentException("Could not create axes metadata", e);
+			}
+			for (int i = 0; i < rank; i++) {
+				source.require(4);
+				final int n = b.getInt();
+				if (n < 0) {
+					continue;
+				}
+				ILazyDataset[] as = new ILazyDataset[n];
+				for (int j = 0; j < n; j++) {
+					source.require(1);
+					if (b.get() != 0) {
+						as[j] = read(source);
+					}
+				}
+				md.setAxis(i, as);
+			}
+			a.setMetadata(md);
+		}
+		return a;
+	}
+
+	private static void readRaw(Object data, int length, int esize, Source source) throws IOException {
+		for (int i = 0; i < length;) {
+			source.require(esize);
+			final ByteBuffer b = source.buffer;
+			int n = Math.min(length - i, b.remaining() / esize);
+			get(data, i, n, b);
+			i += n;
+		}
+	}
+
+	private static void readCompressed(Object data, int length, int esize, Source source) throws IOException {
+		if (source.raw == null) {
+			source.raw = new byte[BLOCK];
+			source.compressed = new byte[LZ4.maxCompressedLength(BLOCK)];
+		}
+		final ByteBuffer b = source.buffer;
+		final ByteBuffer raw = ByteBuffer.wrap(source.raw).order(b.order());
+		for (int i = 0; i < length;) {
+			source.require(8);
+			final int rlen = b.getInt();
+			final int slen = b.getInt();
+			if (rlen <= 0 || rlen > BLOCK || rlen % esize != 0 || slen <= 0 || slen > rlen) {
+				throw new IOException("Encoded dataset is corrupt");
+			}
+			source.require(slen);
+			if (slen == rlen) {
+				b.get(source.raw, 0, rlen);
+			} else {
+				b.get(source.compressed, 0, slen);
+				try {
+					LZ4.decompress(source.compressed, 0, slen, source.raw, 0, rlen);
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Encoded dataset is corrupt", e);
+				}
+			}
+			raw.clear();
+			raw.limit(rlen);
+			final int n = Math.min(rlen / esize, length - i);
+			get(data, i, n, raw);
+			i += n;
+		}
+	}
+}
@@ -909,6 +909,19 @@ public class DatasetFactory {
 		return (T) createComplexDataset(DTypeUtils.getDType(clazz), real, imag);
 	}
 
+	/**
+	 * Create dictionary-encoded string dataset from an object which could be a Java list,
+	 * array (of arrays...), string or dataset. Items which are not strings are converted
+	 * with {@link Object#toString()}
+	 *
+	 * @param obj
+	 * @return encoded string dataset
+	 * @since 2.0
+	 */
+	public static EncodedStringDataset createEncodedStringDataset(Object obj) {
+		return EncodedStringDataset.createFromObject(obj);
+	}
+
 	/**
 	 * @param clazz dataset class
 	 * @param shape
@@ -774,7 +774,7 @@ public class DatasetUtils {
 		if (a.getDType() == dtype) {
 			return a;
 		}
-		return copy(d, dtype);
+		return copy(a, dtype);
 	}
 
 	/**
@@ -1210,6 +1210,12 @@ public class DatasetUtils {
 		final Dataset result = DatasetFactory.zeros(isize, data.getShape(), dtype);
 		result.setName(data.getName());
 
+		if (isize == 1 && dtype >= Dataset.BOOL && dtype <= Dataset.FLOAT64) {
+			data.fillArray(null, result.getBuffer(), 0);
+			result.setErrors(data.getErrors());
+			return result;
+		}
+
 		final IndexIterator it = result.getIterator(true);
 		final int[] pos = it.getPos();
 		switch (dtype) {
@@ -1421,6 +1427,61 @@ public class DatasetUtils {
 		return a.asNonCompoundDataset(shareData);
 	}
 
+	/**
+	 * Create a compound dataset by using first axis as elements of an item. This is the inverse
+	 * of {@link #createPlanarDatasetFromCompoundDataset(CompoundDataset)}
+	 * @param a
+	 * @return compound dataset
+	 * @since 2.0
+	 */
+	public static CompoundDataset createCompoundDatasetFromFirstAxis(final Dataset a) {
+		if (a.getElementsPerItem() != 1) {
+			utilsLogger.error("Need a single-element dataset");
+			throw new IllegalArgumentException("Need a single-element dataset");
+		}
+		final int[] shape = a.getShapeRef();
+		if (shape == null || shape.length == 0) {
+			utilsLogger.error("Need a dataset with at least one dimension");
+			throw new IllegalArgumentException("Need a dataset with at least one dimension");
+		}
+
+		final int rank = shape.length - 1;
+		final int is = shape[0];
+		final int[] ishape = new int[rank + 1];
+		System.arraycopy(shape, 1, ishape, 0, rank);
+		ishape[rank] = is;
+		final Dataset d = a.getStrides() == null ? a : a.clone();
+		final Dataset interleaved = DatasetFactory.zeros(DTypeUtils.getInterface(a.getDType()), ishape);
+		BufferUtils.transposeElements(d.getBuffer(), interleaved.getBuffer(), ShapeUtils.calcSize(shape) / Math.max(is, 1), is, false);
+		final CompoundDataset result = createCompoundDatasetFromLastAxis(interleaved, true);
+		result.setName(a.getName());
+		return result;
+	}
+
+	/**
+	 * Create a dataset from a compound dataset by using elements of an item as first axis.
+	 * Each element is then a contiguous plane so a view of it, e.g. from
+	 * {@code getSliceView(new Slice(i, i + 1))} or {@code getSliceView(new Slice(i, i + 1)).squeeze()},
+	 * does not stride through memory and can be processed by the usual (non-compound) methods
+	 * @param a
+	 * @return non-compound dataset with shape of [elements per item, shape of a]
+	 * @since 2.0
+	 */
+	public static Dataset createPlanarDatasetFromCompoundDataset(final CompoundDataset a) {
+		final CompoundDataset c = a.getStrides() == null ? a : a.clone();
+		final Dataset interleaved = c.asNonCompoundDataset(true);
+		final int is = c.getElementsPerItem();
+		final int[] shape = c.getShapeRef();
+		final int[] pshape = new int[shape.length + 1];
+		pshape[0] = is;
+		System.arraycopy(shape, 0, pshape, 1, shape.length);
+
+		final Dataset result = DatasetFactory.zeros(DTypeUtils.getInterface(interleaved.getDType()), pshape);
+		BufferUtils.transposeElements(interleaved.getBuffer(), result.getBuffer(), c.getSize(), is, true);
+		result.setName(a.getName());
+		return result;
+	}
+
 	/**
 	 * Create a copy that has been coerced to an appropriate dataset type
 	 * depending on the input object's class
@@ -13,8 +13,17 @@ import java.util.Date;
 
 /**
  * Interface for a dataset containing {@link Date}s.
+ * <p>
+ * Implementations hold the dates as milliseconds since the epoch so numerical methods
+ * use these times.
  */
 public interface DateDataset extends Dataset {
+	/**
+	 * Time used for missing dates
+	 * @since 2.0
+	 */
+	public static final long NOT_A_TIME = Long.MIN_VALUE;
+
 	/**
 	 * Get the first date. The dataset must not be null
 	 * @return date
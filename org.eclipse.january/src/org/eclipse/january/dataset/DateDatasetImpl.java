@@ -9,25 +9,37 @@
 
 package org.eclipse.january.dataset;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 import java.util.Date;
 
-public class DateDatasetImpl extends StringDataset implements DateDataset {
+/**
+ * Dataset of dates held as milliseconds since the epoch (1970-01-01T00:00:00Z)
+ * <p>
+ * As the times are held in a primitive buffer, this is a {@link LongDataset} so comparisons,
+ * sorting and arithmetic work directly on the times, e.g. the difference of two date datasets
+ * gives the durations in milliseconds. A missing date is held as {@link DateDataset#NOT_A_TIME}.
+ * Dates are formatted in ISO-8601 (local time zone) only when strings are requested.
+ */
+public class DateDatasetImpl extends LongDataset implements DateDataset {
 	// pin UID to base class
 	private static final long serialVersionUID = Dataset.serialVersionUID;
 
-	private static final SimpleDateFormat ISO8601_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
-	
+	private static final DateTimeFormatter ISO8601_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
 	static DateDatasetImpl createFromObject(final Object obj) {
 		final DateDatasetImpl result = new DateDatasetImpl();
 		result.shape = ShapeUtils.getShapeFromObject(obj);
 		result.size = ShapeUtils.calcSize(result.shape);
 		result.odata = result.data = createArray(result.size);
-		
+
 		final int[] pos = new int[result.shape.length];
 		result.fillData(obj, 0, pos);
-		
+
 		return result;
 	}
 
@@ -37,169 +49,263 @@ public class DateDatasetImpl extends StringDataset implements DateDataset {
 	DateDatasetImpl() {
 		super();
 	}
-	
+
 	DateDatasetImpl(final int... shape) {
 		super(shape);
 	}
-	
+
 	DateDatasetImpl(final Date[] data, int... shape) {
-		super(datesToStrings(data), shape);
+		super(datesToTimes(data), shape);
 	}
-	
-	private static String[] datesToStrings(final Date[] dates) {
-		final String[] dateStrings = new String[dates.length];
+
+	/**
+	 * Create a dataset using given times
+	 * @param times in milliseconds since the epoch
+	 * @param shape (can be null to create 1D dataset)
+	 */
+	DateDatasetImpl(final long[] times, int... shape) {
+		super(times, shape);
+	}
+
+	/**
+	 * Copy a dataset
+	 * @param dataset
+	 */
+	DateDatasetImpl(final LongDataset dataset) {
+		super(dataset);
+	}
+
+	private static long[] datesToTimes(final Date[] dates) {
+		final long[] times = new long[dates.length];
 		for (int i = 0; i < dates.length; i++) {
-			dateStrings[i] = dateToString(dates[i]);
+			times[i] = dateToTime(dates[i]);
+		}
+
+		return times;
+	}
+
+	private static long dateToTime(final Date date) {
+		return date == null ? NOT_A_TIME : date.getTime();
+	}
+
+	private static Date timeToDate(final long time) {
+		return time == NOT_A_TIME ? null : new Date(time);
+	}
+
+	private static String timeToString(final long time) {
+		if (time == NOT_A_TIME) {
+			return null;
 		}
-		
-		return dateStrings;
+		return ISO8601_DATE_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()));
 	}
-	
-	private static String dateToString(final Date date) {
-		if (date != null) {
-			return ISO8601_DATE_FORMAT.format(date);
+
+	private static long stringToTime(final String dateAsString) {
+		try {
+			return LocalDateTime.parse(dateAsString, ISO8601_DATE_FORMAT).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		} catch (DateTimeParseException e) {
+			logger.error("Could not parse datetime: " + dateAsString);
+			throw new IllegalArgumentException("Could not parse datetime: " + dateAsString, e);
 		}
-		
-		return null;
 	}
-	
-	private static String objectToDateString(final Object obj) {
-		if (obj instanceof Date) {
-			return dateToString((Date) obj);
+
+	private static long objectToTime(final Object obj) {
+		if (obj == null) {
+			return NOT_A_TIME;
+		} else if (obj instanceof Date) {
+			return ((Date) obj).getTime();
+		} else if (obj instanceof String) {
+			return stringToTime((String) obj);
+		} else if (obj instanceof DateDataset) {
+			DateDataset dataset = (DateDataset) obj;
+			if (dataset.getSize() != 1) {
+				logger.error("Given dataset must only have one item");
+				throw new IllegalArgumentException("Given dataset must have only one item");
+			}
+			return dataset.getElementLongAbs(dataset.getOffset());
 		} else if (obj instanceof Dataset) {
 			Dataset dataset = (Dataset) obj;
 			if (dataset.getSize() != 1) {
 				logger.error("Given dataset must only have one item");
 				throw new IllegalArgumentException("Given dataset must have only one item");
 			}
-			
-			return objectToDateString(dataset.getObjectAbs(0));
+			return objectToTime(dataset.getObjectAbs(dataset.getOffset()));
 		} else if (obj instanceof IDataset) {
 			IDataset dataset = (IDataset) obj;
 			if (dataset.getSize() != 1) {
 				logger.error("Given dataset must only have one item");
 				throw new IllegalArgumentException("Given dataset must have only one item");
 			}
-			return objectToDateString(dataset.getObject(new int[dataset.getRank()]));
-		} else {
-			logger.error("Argument is of unsupported class");
-			throw new IllegalArgumentException("Argument is of unsupported class");
+			return objectToTime(dataset.getObject(new int[dataset.getRank()]));
 		}
+		return DTypeUtils.toLong(obj);
 	}
-	
-	private static Date stringToDate(final String dateAsString) {
-		if (dateAsString != null) {
-			try {
-				return ISO8601_DATE_FORMAT.parse(dateAsString);
-			} catch (ParseException e) {
-				// fall through to return null
-				logger.error("Could not parse datetime: " + dateAsString);
-			}
-		}
-		
-		return null;
+
+	@Override
+	public DateDatasetImpl clone() {
+		return new DateDatasetImpl(this);
+	}
+
+	@Override
+	public DateDatasetImpl getView(boolean deepCopyMetadata) {
+		DateDatasetImpl view = new DateDatasetImpl();
+		copyToView(this, view, true, deepCopyMetadata);
+		view.setData();
+		return view;
+	}
+
+	@Override
+	public DateDatasetImpl getSlice(final SliceIterator siter) {
+		LongDataset slice = super.getSlice(siter);
+		DateDatasetImpl result = new DateDatasetImpl(slice.data, slice.shape);
+		result.setName(slice.getName());
+		return result;
+	}
+
+	@Override
+	public DateDatasetImpl getUniqueItems() {
+		return new DateDatasetImpl(super.getUniqueItems().data);
 	}
-	
+
 	@Override
 	public Date getDate() {
-		final String dateAsString = super.getString();
-		return stringToDate(dateAsString);
+		return timeToDate(get());
 	}
 
 	@Override
 	public Date getDate(int i) {
-		final String dateAsString = super.getString(i);
-		return stringToDate(dateAsString);
+		return timeToDate(get(i));
 	}
 
 	@Override
 	public Date getDate(int i, int j) {
-		final String dateAsString = super.getString(i, j);
-		return stringToDate(dateAsString);
+		return timeToDate(get(i, j));
 	}
 
 	@Override
 	public Date getDate(int... pos) {
-		final String dateAsString = super.getString(pos);
-		return stringToDate(dateAsString);
+		return timeToDate(get(pos));
 	}
 
 	@Override
 	public Date getDateAbs(int index) {
-		final String dateAsString = super.getStringAbs(index);
-		if (dateAsString != null) {
-			return stringToDate(dateAsString);
+		return timeToDate(data[index]);
+	}
+
+	@Override
+	public Object getObjectAbs(final int index) {
+		return getDateAbs(index);
+	}
+
+	@Override
+	public Object getObject() {
+		return getDate();
+	}
+
+	@Override
+	public Object getObject(final int i) {
+		return getDate(i);
+	}
+
+	@Override
+	public Object getObject(final int i, final int j) {
+		return getDate(i, j);
+	}
+
+	@Override
+	public Object getObject(final int... pos) {
+		return getDate(pos);
+	}
+
+	@Override
+	public String getStringAbs(final int index) {
+		final long time = data[index];
+		if (stringFormat == null || time == NOT_A_TIME) {
+			return timeToString(time);
 		}
-		
-		return null;
+		return stringFormat.format(new Date(time));
 	}
-	
+
 	@Override
 	public void setItemDirect(final int dindex, final int sindex, final Object src) {
-		if (src instanceof String[]) {
+		if (src instanceof long[]) {
 			super.setItemDirect(dindex, sindex, src);
 		} else if (src instanceof Date[]) {
-			String[] datesAsStrings = datesToStrings((Date[]) src);
-			data[dindex] = datesAsStrings[sindex];
+			setDirty();
+			data[dindex] = dateToTime(((Date[]) src)[sindex]);
 		} else {
 			logger.error("Argument is of unsupported class");
 			throw new IllegalArgumentException("Argument is of unsupported class");
 		}
 	}
 
+	@Override
+	public void setObjectAbs(final int index, final Object obj) {
+		if (index < 0 || index > data.length) {
+			throw new IndexOutOfBoundsException("Index given is outside dataset");
+		}
+
+		setAbs(index, objectToTime(obj));
+	}
+
 	public void setAbs(final int index, final Date date) {
-		data[index] = dateToString(date);
-		setDirty();
+		setAbs(index, dateToTime(date));
 	}
-	
+
 	/**
 	 * @since 2.0
 	 */
 	public void setItem(final Date value) {
 		setAbs(getFirst1DIndex(), value);
 	}
-	
+
 	public void setItem(final Date value, final int i) {
 		setAbs(get1DIndex(i), value);
 	}
-	
+
 	public void setItem(final Date value, final int i, final int j) {
 		setAbs(get1DIndex(i, j), value);
 	}
-	
+
 	public void setItem(final Date value, final int... pos) {
 		setAbs(get1DIndex(pos), value);
 	}
 
 	@Override
 	public void set(final Object obj) {
-		setItem(objectToDateString(obj));
+		setItem(objectToTime(obj));
 	}
 
 	@Override
 	public void set(final Object obj, final int i) {
-		setItem(objectToDateString(obj), i);
+		setItem(objectToTime(obj), i);
 	}
 
 	@Override
 	public void set(final Object obj, final int i, final int j) {
-		setItem(objectToDateString(obj), i, j);
+		setItem(objectToTime(obj), i, j);
 	}
-	
+
 	@Override
 	public void set(final Object obj, int... pos) {
 		if (pos == null || (pos.length == 0 && shape.length > 0)) {
 			pos = new int[shape.length];
 		}
-		
-		setItem(objectToDateString(obj), pos);
+
+		setItem(objectToTime(obj), pos);
 	}
-	
+
 	@Override
-	public StringDatasetBase sort(Integer axis) {
-		// Note yet supported.
-		// TODO: this method will be inefficient as we store dates formatted as strings
-		throw new UnsupportedOperationException("Cannot sort dataset");
+	public DateDatasetImpl fill(final Object obj) {
+		setDirty();
+		final long time = objectToTime(obj);
+		if (stride == null) {
+			Arrays.fill(data, time);
+		} else {
+			IndexIterator iter = getIterator();
+			while (iter.hasNext()) {
+				data[iter.index] = time;
+			}
+		}
+		return this;
 	}
-
 }
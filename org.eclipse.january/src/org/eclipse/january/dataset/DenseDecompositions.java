@@ -0,0 +1,657 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import org.apache.commons.math3.exception.MaxCountExceededException;
+import org.apache.commons.math3.linear.NonPositiveDefiniteMatrixException;
+import org.apache.commons.math3.linear.NonSymmetricMatrixException;
+
+/**
+ * Dense matrix decompositions that work directly on the row-major buffers of datasets
+ * <p>
+ * The LU and Cholesky decompositions factorize a panel of columns at a time and then update
+ * the trailing matrix in parallel over rows. The QR decomposition applies each Householder
+ * reflection to the trailing columns in parallel. The symmetric eigen-decomposition uses
+ * Householder tridiagonalization followed by the implicit QL method.
+ * <p>
+ * Each method can overwrite its input. When the input is a contiguous double dataset, this means
+ * no memory is allocated for the matrix; for other datasets, the decomposition is done on a copy
+ * of their values that is written back to the input.
+ * @since 2.0
+ */
+public final class DenseDecompositions {
+
+	/**
+	 * Number of columns in a panel
+	 */
+	static final int BLOCK = 64;
+
+	private static final double RELATIVE_SYMMETRY_THRESHOLD = 1e-15;
+	private static final double ABSOLUTE_POSITIVITY_THRESHOLD = 1e-10;
+	private static final int MAX_ITERATIONS = 100;
+
+	private DenseDecompositions() {
+	}
+
+	/**
+	 * Decompose a square matrix A to P^-1 L U using partial pivoting
+	 * @param a matrix
+	 * @param overwrite if true, overwrite matrix with the decomposition
+	 * @return array of the decomposition (with L in the lower triangle and its unit diagonal omitted,
+	 * and U in the upper triangle) and an integer dataset of the pivot row positions
+	 */
+	public static Dataset[] decomposeLU(Dataset a, boolean overwrite) {
+		final int n = checkSquare(a);
+		final double[] m = getBuffer(a, overwrite);
+		final int[] piv = new int[n];
+		lu(m, n, piv);
+		return new Dataset[] {createResult(a, m, overwrite), new IntegerDataset(piv, n)};
+	}
+
+	/**
+	 * Decompose a symmetric positive-definite matrix A to L L^T
+	 * @param a matrix
+	 * @param overwrite if true, overwrite matrix with L. A contiguous double matrix is factorized in
+	 * place so its values are undefined if it is not positive-definite
+	 * @return L
+	 * @throws NonSymmetricMatrixException if matrix is not symmetric
+	 * @throws NonPositiveDefiniteMatrixException if matrix is not positive-definite
+	 */
+	public static Dataset decomposeCholesky(Dataset a, boolean overwrite) {
+		final int n = checkSquare(a);
+		final double[] m = getBuffer(a, overwrite);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				final double ij = m[i * n + j];
+				final double ji = m[j * n + i];
+				if (Math.abs(ij - ji) > RELATIVE_SYMMETRY_THRESHOLD * Math.max(Math.abs(ij), Math.abs(ji))) {
+					throw new NonSymmetricMatrixException(i, j, RELATIVE_SYMMETRY_THRESHOLD);
+				}
+			}
+		}
+		cholesky(m, n);
+		return createResult(a, m, overwrite);
+	}
+
+	/**
+	 * Decompose a matrix A to Q R using Householder reflections
+	 * @param a matrix
+	 * @param overwrite if true, overwrite matrix with the decomposition
+	 * @return array of the decomposition (with R in the upper triangle and the Householder vectors
+	 * below the diagonal, their unit first elements omitted) and a dataset of the reflection factors
+	 */
+	public static Dataset[] decomposeQR(Dataset a, boolean overwrite) {
+		final int[] shape = checkMatrix(a);
+		final double[] m = getBuffer(a, overwrite);
+		final double[] tau = new double[Math.min(shape[0], shape[1])];
+		qr(m, shape[0], shape[1], tau);
+		return new Dataset[] {createResult(a, m, overwrite), new DoubleDataset(tau, tau.length)};
+	}
+
+	/**
+	 * Decompose a symmetric matrix A to V D V^T where D is diagonal. Only the lower triangle of
+	 * the matrix is used
+	 * @param a matrix
+	 * @param overwrite if true, overwrite matrix with V
+	 * @return array of eigenvalues in ascending order and V whose columns are the corresponding
+	 * eigenvectors
+	 * @throws MaxCountExceededException if an eigenvalue does not converge
+	 */
+	public static Dataset[] decomposeSymmetricEigen(Dataset a, boolean overwrite) {
+		final int n = checkSquare(a);
+		final double[] m = getBuffer(a, overwrite);
+		final double[] d = new double[n];
+		if (n > 0) {
+			final double[] e = new double[n];
+			tridiagonalize(m, n, d, e);
+			diagonalize(m, n, d, e, MAX_ITERATIONS);
+		}
+		return new Dataset[] {new DoubleDataset(d, n), createResult(a, m, overwrite)};
+	}
+
+	private static int[] checkMatrix(Dataset a) {
+		if (a.getRank() != 2) {
+			throw new IllegalArgumentException("Dataset must be rank 2");
+		}
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Dataset must not be compound");
+		}
+		return a.getShapeRef();
+	}
+
+	private static int checkSquare(Dataset a) {
+		final int[] shape = checkMatrix(a);
+		if (shape[0] != shape[1]) {
+			throw new IllegalArgumentException("Dataset must be square");
+		}
+		return shape[0];
+	}
+
+	/**
+	 * @param a
+	 * @param overwrite
+	 * @return buffer of dataset if it can be overwritten, otherwise a copy of its values
+	 */
+	private static double[] getBuffer(Dataset a, boolean overwrite) {
+		if (overwrite && a instanceof DoubleDataset && a.getStrides() == null) {
+			return (double[]) a.getBuffer();
+		}
+		return BufferUtils.toDoubles(a);
+	}
+
+	/**
+	 * @param a input
+	 * @param m values
+	 * @param overwrite
+	 * @return input with values or new dataset
+	 */
+	private static Dataset createResult(Dataset a, double[] m, boolean overwrite) {
+		if (overwrite) {
+			if (m == a.getBuffer()) {
+				a.setDirty();
+			} else {
+				a.setSlice(new DoubleDataset(m, a.getShapeRef()));
+			}
+			return a;
+		}
+		return new DoubleDataset(m, a.getShape());
+	}
+
+	/**
+	 * @param n number of rows to update
+	 * @param cost number of operations for each row
+	 * @return number of rows in each task
+	 */
+	private static int getGrain(int n, long cost) {
+		return (int) Math.max(1, Math.min(n, ParallelUtils.DEFAULT_GRAIN / Math.max(1, cost)));
+	}
+
+	/**
+	 * Decompose in place using partial pivoting
+	 * @param a row-major square matrix
+	 * @param n size of matrix
+	 * @param piv row permutation
+	 * @return determinant
+	 */
+	static double lu(final double[] a, final int n, final int[] piv) {
+		double det = 1;
+		for (int i = 0; i < n; i++) {
+			piv[i] = i;
+		}
+		for (int b = 0; b < n; b += BLOCK) {
+			final int k0 = b;
+			final int k1 = Math.min(n, k0 + BLOCK);
+
+			// factorize panel of columns
+			for (int j = k0; j < k1; j++) {
+				final int rj = j * n;
+				int p = j;
+				double max = Math.abs(a[rj + j]);
+				for (int i = j + 1; i < n; i++) {
+					final double v = Math.abs(a[i * n + j]);
+					if (v > max) {
+						max = v;
+						p = i;
+					}
+				}
+				if (p != j) {
+					swapRows(a, n, p, j);
+					final int t = piv[p];
+					piv[p] = piv[j];
+					piv[j] = t;
+					det = -det;
+				}
+				final double d = a[rj + j];
+				det *= d;
+				if (d == 0) {
+					continue; // column is already eliminated
+				}
+				for (int i = j + 1; i < n; i++) {
+					final int ri = i * n;
+					final double f = a[ri + j] / d;
+					a[ri + j] = f;
+					if (f != 0) {
+						for (int c = j + 1; c < k1; c++) {
+							a[ri + c] -= f * a[rj + c];
+						}
+					}
+				}
+			}
+			if (k1 == n) {
+				break;
+			}
+
+			// solve for block row of U
+			for (int i = k0 + 1; i < k1; i++) {
+				final int ri = i * n;
+				for (int j = k0; j < i; j++) {
+					final double f = a[ri + j];
+					if (f != 0) {
+						final int rj = j * n;
+						for (int c = k1; c < n; c++) {
+							a[ri + c] -= f * a[rj + c];
+						}
+					}
+				}
+			}
+
+			// update trailing matrix
+			ParallelUtils.forRange(k1, n, getGrain(n - k1, (long) (k1 - k0) * (n - k1)), new ParallelUtils.RangeTask() {
+				@Override
+				void run(int start, int end) {
+					for (int i = start; i < end; i++) {
+						final int ri = i * n;
+						for (int j = k0; j < k1; j++) {
+							final double f = a[ri + j];
+							if (f != 0) {
+								final int rj = j * n;
+								for (int c = k1; c < n; c++) {
+									a[ri + c] -= f * a[rj + c];
+								}
+							}
+						}
+					}
+				}
+			});
+		}
+		return det;
+	}
+
+	private static void swapRows(final double[] a, final int n, final int p, final int q) {
+		final int rp = p * n;
+		final int rq = q * n;
+		for (int c = 0; c < n; c++) {
+			final double t = a[rp + c];
+			a[rp + c] = a[rq + c];
+			a[rq + c] = t;
+		}
+	}
+
+	/**
+	 * Decompose in place to lower triangular matrix
+	 * @param a row-major symmetric matrix
+	 * @param n size of matrix
+	 */
+	static void cholesky(final double[] a, final int n) {
+		for (int b = 0; b < n; b += BLOCK) {
+			final int k0 = b;
+			final int k1 = Math.min(n, k0 + BLOCK);
+
+			// factorize diagonal block
+			for (int j = k0; j < k1; j++) {
+				final int rj = j * n;
+				double d = a[rj + j];
+				for (int p = k0; p < j; p++) {
+					d -= a[rj + p] * a[rj + p];
+				}
+				if (d <= ABSOLUTE_POSITIVITY_THRESHOLD) {
+					throw new NonPositiveDefiniteMatrixException(d, j, ABSOLUTE_POSITIVITY_THRESHOLD);
+				}
+				d = Math.sqrt(d);
+				a[rj + j] = d;
+				for (int i = j + 1; i < k1; i++) {
+					final int ri = i * n;
+					double s = a[ri + j];
+					for (int p = k0; p < j; p++) {
+						s -= a[ri + p] * a[rj + p];
+					}
+					a[ri + j] = s / d;
+				}
+			}
+			if (k1 == n) {
+				break;
+			}
+
+			// solve for block column of L
+			final int grain = getGrain(n - k1, (long) (k1 - k0) * (k1 - k0));
+			ParallelUtils.forRange(k1, n, grain, new ParallelUtils.RangeTask() {
+				@Override
+				void run(int start, int end) {
+					for (int i = start; i < end; i++) {
+						final int ri = i * n;
+						for (int j = k0; j < k1; j++) {
+							final int rj = j * n;
+							double s = a[ri + j];
+							for (int p = k0; p < j; p++) {
+								s -= a[ri + p] * a[rj + p];
+							}
+							a[ri + j] = s / a[rj + j];
+						}
+					}
+				}
+			});
+
+			// update lower triangle of trailing matrix
+			ParallelUtils.forRange(k1, n, getGrain(n - k1, (long) (k1 - k0) * (n - k1) / 2), new ParallelUtils.RangeTask() {
+				@Override
+				void run(int start, int end) {
+					for (int i = start; i < end; i++) {
+						final int ri = i * n;
+						for (int c = k1; c <= i; c++) {
+							final int rc = c * n;
+							double s = 0;
+							for (int p = k0; p < k1; p++) {
+								s += a[ri + p] * a[rc + p];
+							}
+							a[ri + c] -= s;
+						}
+					}
+				}
+			});
+		}
+
+		for (int i = 0; i < n; i++) { // clear upper triangle
+			for (int j = i + 1; j < n; j++) {
+				a[i * n + j] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Decompose in place using Householder reflections
+	 * @param a row-major matrix
+	 * @param m number of rows
+	 * @param n number of columns
+	 * @param tau reflection factors
+	 */
+	static void qr(final double[] a, final int m, final int n, final double[] tau) {
+		final int kmax = tau.length;
+		for (int k = 0; k < kmax; k++) {
+			final int rk = k * n;
+			double norm2 = 0;
+			for (int i = k; i < m; i++) {
+				final double x = a[i * n + k];
+				norm2 += x * x;
+			}
+			if (norm2 == 0) {
+				tau[k] = 0;
+				continue;
+			}
+			final double akk = a[rk + k];
+			final double beta = akk > 0 ? -Math.sqrt(norm2) : Math.sqrt(norm2);
+			final double v0 = akk - beta;
+			for (int i = k + 1; i < m; i++) {
+				a[i * n + k] /= v0;
+			}
+			tau[k] = (beta - akk) / beta;
+			a[rk + k] = beta;
+			applyReflection(a, n, k, m, tau[k], a, n, k + 1, n);
+		}
+	}
+
+	/**
+	 * Apply Householder reflection I - tau v v^T from the left to a block of rows in a matrix
+	 * @param h matrix holding vector v below its diagonal
+	 * @param hn number of columns in h
+	 * @param k column of vector (and first row of block)
+	 * @param m number of rows
+	 * @param tau
+	 * @param a matrix
+	 * @param n number of columns in a
+	 * @param cStart first column of block
+	 * @param cEnd column after block
+	 */
+	static void applyReflection(final double[] h, final int hn, final int k, final int m, final double tau,
+			final double[] a, final int n, final int cStart, final int cEnd) {
+		if (tau == 0 || cStart >= cEnd) {
+			return;
+		}
+		ParallelUtils.forRange(cStart, cEnd, getGrain(cEnd - cStart, 2L * (m - k)), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final int l = end - start;
+				final double[] w = new double[l];
+				final int rk = k * n;
+				for (int c = 0; c < l; c++) {
+					w[c] = a[rk + start + c];
+				}
+				for (int i = k + 1; i < m; i++) {
+					final double v = h[i * hn + k];
+					if (v != 0) {
+						final int ri = i * n + start;
+						for (int c = 0; c < l; c++) {
+							w[c] += v * a[ri + c];
+						}
+					}
+				}
+				for (int c = 0; c < l; c++) {
+					w[c] *= tau;
+					a[rk + start + c] -= w[c];
+				}
+				for (int i = k + 1; i < m; i++) {
+					final double v = h[i * hn + k];
+					if (v != 0) {
+						final int ri = i * n + start;
+						for (int c = 0; c < l; c++) {
+							a[ri + c] -= v * w[c];
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Reduce symmetric matrix to tridiagonal form by orthogonal similarity transformation,
+	 * accumulating the transformation in place
+	 * @param v row-major symmetric matrix, replaced by transformation
+	 * @param n
+	 * @param d diagonal
+	 * @param e sub-diagonal (in last n-1 elements)
+	 */
+	private static void tridiagonalize(final double[] v, final int n, final double[] d, final double[] e) {
+		// symmetric Householder reduction as in EISPACK's tred2
+		final int rl = (n - 1) * n;
+		for (int j = 0; j < n; j++) {
+			d[j] = v[rl + j];
+		}
+
+		for (int i = n - 1; i > 0; i--) {
+			final int ri = i * n;
+			final int rp = ri - n; // previous row
+			double scale = 0;
+			double h = 0;
+			for (int k = 0; k < i; k++) {
+				scale += Math.abs(d[k]);
+			}
+			if (scale == 0) {
+				e[i] = d[i - 1];
+				for (int j = 0; j < i; j++) {
+					d[j] = v[rp + j];
+					v[ri + j] = 0;
+					v[j * n + i] = 0;
+				}
+			} else {
+				for (int k = 0; k < i; k++) {
+					d[k] /= scale;
+					h += d[k] * d[k];
+				}
+				double f = d[i - 1];
+				double g = f > 0 ? -Math.sqrt(h) : Math.sqrt(h);
+				e[i] = scale * g;
+				h -= f * g;
+				d[i - 1] = f - g;
+				for (int j = 0; j < i; j++) {
+					e[j] = 0;
+				}
+
+				for (int j = 0; j < i; j++) {
+					f = d[j];
+					v[j * n + i] = f;
+					g = e[j] + v[j * n + j] * f;
+					for (int k = j + 1; k < i; k++) {
+						final double vkj = v[k * n + j];
+						g += vkj * d[k];
+						e[k] += vkj * f;
+					}
+					e[j] = g;
+				}
+				f = 0;
+				for (int j = 0; j < i; j++) {
+					e[j] /= h;
+					f += e[j] * d[j];
+				}
+				final double hh = f / (h + h);
+				for (int j = 0; j < i; j++) {
+					e[j] -= hh * d[j];
+				}
+				for (int j = 0; j < i; j++) {
+					f = d[j];
+					g = e[j];
+					for (int k = j; k < i; k++) {
+						v[k * n + j] -= f * e[k] + g * d[k];
+					}
+					d[j] = v[rp + j];
+					v[ri + j] = 0;
+				}
+			}
+			d[i] = h;
+		}
+
+		// accumulate transformations
+		for (int i = 0; i < n - 1; i++) {
+			v[rl + i] = v[i * n + i];
+			v[i * n + i] = 1;
+			final double h = d[i + 1];
+			if (h != 0) {
+				for (int k = 0; k <= i; k++) {
+					d[k] = v[k * n + i + 1] / h;
+				}
+				for (int j = 0; j <= i; j++) {
+					double g = 0;
+					for (int k = 0; k <= i; k++) {
+						g += v[k * n + i + 1] * v[k * n + j];
+					}
+					for (int k = 0; k <= i; k++) {
+						v[k * n + j] -= g * d[k];
+					}
+				}
+			}
+			for (int k = 0; k <= i; k++) {
+				v[k * n + i + 1] = 0;
+			}
+		}
+		for (int j = 0; j < n; j++) {
+			d[j] = v[rl + j];
+			v[rl + j] = 0;
+		}
+		v[rl + n - 1] = 1;
+		e[0] = 0;
+	}
+
+	/**
+	 * Diagonalize symmetric tridiagonal matrix using implicit QL iterations, accumulating the
+	 * rotations and sorting the eigenvalues and eigenvectors in ascending order
+	 * @param v row-major transformation, replaced by eigenvectors
+	 * @param n
+	 * @param d diagonal, replaced by eigenvalues
+	 * @param e sub-diagonal (in last n-1 elements)
+	 * @param maxIterations maximum number of iterations for each eigenvalue
+	 * @throws MaxCountExceededException if an eigenvalue does not converge
+	 */
+	static void diagonalize(final double[] v, final int n, final double[] d, final double[] e, final int maxIterations) {
+		// as in EISPACK's tql2
+		for (int i = 1; i < n; i++) {
+			e[i - 1] = e[i];
+		}
+		e[n - 1] = 0;
+
+		final double eps = Math.ulp(1.0);
+		double f = 0;
+		double tst1 = 0;
+		for (int l = 0; l < n; l++) {
+			tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+			int m = l;
+			while (m < n - 1 && Math.abs(e[m]) > eps * tst1) {
+				m++;
+			}
+
+			if (m > l) {
+				int iter = 0;
+				do {
+					double g = d[l];
+					double p = (d[l + 1] - g) / (2 * e[l]);
+					double r = Math.hypot(p, 1);
+					if (p < 0) {
+						r = -r;
+					}
+					d[l] = e[l] / (p + r);
+					d[l + 1] = e[l] * (p + r);
+					final double dl1 = d[l + 1];
+					double h = g - d[l];
+					for (int i = l + 2; i < n; i++) {
+						d[i] -= h;
+					}
+					f += h;
+
+					p = d[m];
+					double c = 1;
+					double c2 = c;
+					double c3 = c;
+					final double el1 = e[l + 1];
+					double s = 0;
+					double s2 = 0;
+					for (int i = m - 1; i >= l; i--) {
+						c3 = c2;
+						c2 = c;
+						s2 = s;
+						g = c * e[i];
+						h = c * p;
+						r = Math.hypot(p, e[i]);
+						e[i + 1] = s * r;
+						s = e[i] / r;
+						c = p / r;
+						p = c * d[i] - s * g;
+						d[i + 1] = h + s * (c * g + s * d[i]);
+
+						for (int k = 0; k < n; k++) { // rotate columns i and i+1
+							final int ki = k * n + i;
+							h = v[ki + 1];
+							v[ki + 1] = s * v[ki] + c * h;
+							v[ki] = c * v[ki] - s * h;
+						}
+					}
+					p = -s * s2 * c3 * el1 * e[l] / dl1;
+					e[l] = s * p;
+					d[l] = c * p;
+				} while (Math.abs(e[l]) > eps * tst1 && ++iter < maxIterations);
+				if (Math.abs(e[l]) > eps * tst1) {
+					throw new MaxCountExceededException(maxIterations);
+				}
+			}
+			d[l] += f;
+			e[l] = 0;
+		}
+
+		for (int i = 0; i < n - 1; i++) { // selection sort
+			int k = i;
+			double p = d[i];
+			for (int j = i + 1; j < n; j++) {
+				if (d[j] < p) {
+					k = j;
+					p = d[j];
+				}
+			}
+			if (k != i) {
+				d[k] = d[i];
+				d[i] = p;
+				for (int j = 0; j < n; j++) {
+					final int r = j * n;
+					p = v[r + i];
+					v[r + i] = v[r + k];
+					v[r + k] = p;
+				}
+			}
+		}
+	}
+}
@@ -663,16 +663,12 @@ public class DoubleDataset extends AbstractDataset {
 			} // BOOLEAN_OMIT
 		} else { // BOOLEAN_OMIT
 			axis = checkAxis(axis); // BOOLEAN_OMIT
-			 // BOOLEAN_OMIT 
-			DoubleDataset ads = new DoubleDataset(shape[axis]); // BOOLEAN_OMIT
-			PositionIterator pi = getPositionIterator(axis); // BOOLEAN_OMIT
-			int[] pos = pi.getPos(); // BOOLEAN_OMIT
-			boolean[] hit = pi.getOmit(); // BOOLEAN_OMIT
-			while (pi.hasNext()) { // BOOLEAN_OMIT
-				copyItemsFromAxes(pos, hit, ads); // BOOLEAN_OMIT
-				Arrays.sort(ads.data); // BOOLEAN_OMIT
-				setItemsOnAxes(pos, hit, ads.data); // BOOLEAN_OMIT
-			} // BOOLEAN_OMIT
+			LineUtils.applyAlongAxis(this, axis, this, new LineUtils.LineKernel(true) { // BOOLEAN_OMIT
+				@Override // BOOLEAN_OMIT
+				void process(Dataset line, Dataset out) { // BOOLEAN_OMIT
+					Arrays.sort(((DoubleDataset) line).data); // BOOLEAN_OMIT
+				} // BOOLEAN_OMIT
+			}); // BOOLEAN_OMIT
 		} // BOOLEAN_OMIT
 		return this; // BOOLEAN_OMIT
 		// throw new UnsupportedOperationException("Cannot sort dataset"); // BOOLEAN_USE
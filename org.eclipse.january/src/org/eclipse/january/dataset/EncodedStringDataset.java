@@ -0,0 +1,629 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.io.Serializable;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dataset of strings held as integer codes into a dictionary of distinct strings
+ * <p>
+ * This suits strings with few distinct values, such as labels, as each item only takes the
+ * space of an integer and comparisons, grouping, finding unique items and sorting work
+ * on the codes. Strings are decoded by the usual getters, e.g. {@link #getString(int...)}
+ * and {@link #getObject(int...)}, and encoded by the setters.
+ * <p>
+ * The dictionary only grows and is shared by views, slices and copies. Code 0 is
+ * reserved for null. As this is an {@link IntegerDataset}, numerical methods act on
+ * the codes.
+ */
+public class EncodedStringDataset extends IntegerDataset {
+	// pin UID to base class
+	private static final long serialVersionUID = Dataset.serialVersionUID;
+
+	/**
+	 * Dictionary of distinct strings. Additions are synchronized
+	 */
+	static class Dictionary implements Serializable {
+		private static final long serialVersionUID = Dataset.serialVersionUID;
+
+		private volatile String[] values = new String[] {null};
+		private int size = 1;
+		private final Map<String, Integer> codes = new HashMap<String, Integer>();
+
+		/**
+		 * @param value
+		 * @return code for value, adding it if necessary
+		 */
+		synchronized int encode(final String value) {
+			if (value == null) {
+				return 0;
+			}
+			Integer c = codes.get(value);
+			if (c == null) {
+				if (size == values.length) {
+					values = Arrays.copyOf(values, 2 * size);
+				}
+				c = size;
+				values[size++] = value;
+				codes.put(value, c);
+			}
+			return c;
+		}
+
+		/**
+		 * @param value
+		 * @return code for value or -1 if value is not in dictionary
+		 */
+		synchronized int find(final String value) {
+			if (value == null) {
+				return 0;
+			}
+			Integer c = codes.get(value);
+			return c == null ? -1 : c;
+		}
+
+		String decode(final int code) {
+			return values[code];
+		}
+
+		/**
+		 * @return copy of values where index is the code
+		 */
+		synchronized String[] getValues() {
+			return Arrays.copyOf(values, size);
+		}
+
+		/**
+		 * @return array of codes ordered by value with null first
+		 */
+		int[] getOrder() {
+			final String[] v = getValues();
+			Integer[] order = new Integer[v.length];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, 1, order.length, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					return v[a].compareTo(v[b]);
+				}
+			});
+			int[] o = new int[order.length];
+			for (int i = 0; i < o.length; i++) {
+				o[i] = order[i];
+			}
+			return o;
+		}
+	}
+
+	private Dictionary dictionary;
+
+	/**
+	 * Create a null dataset
+	 */
+	EncodedStringDataset() {
+		super();
+		dictionary = new Dictionary();
+	}
+
+	/**
+	 * Create a null-filled dataset of given shape
+	 * @param shape
+	 */
+	EncodedStringDataset(final int... shape) {
+		super(shape);
+		dictionary = new Dictionary();
+	}
+
+	/**
+	 * Create a dataset using given data
+	 * @param data
+	 * @param shape
+	 *            (can be null to create 1D dataset)
+	 */
+	EncodedStringDataset(final String[] data, int... shape) {
+		super(createArray(data.length), shape);
+		dictionary = new Dictionary();
+		for (int i = 0; i < data.length; i++) {
+			this.data[i] = dictionary.encode(data[i]);
+		}
+	}
+
+	/**
+	 * Create a dataset using given codes into a dictionary
+	 * @param dictionary
+	 * @param codes
+	 * @param shape
+	 */
+	EncodedStringDataset(final Dictionary dictionary, final int[] codes, int... shape) {
+		super(codes, shape);
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * Copy a dataset
+	 * @param dataset
+	 */
+	EncodedStringDataset(final EncodedStringDataset dataset) {
+		super(dataset);
+		dictionary = dataset.dictionary;
+	}
+
+	/**
+	 * Encode a dataset of strings
+	 * @param dataset
+	 */
+	EncodedStringDataset(final Dataset dataset) {
+		this(dataset, new Dictionary());
+	}
+
+	private EncodedStringDataset(final Dataset dataset, final Dictionary dictionary) {
+		super(dataset.getShapeRef());
+		this.dictionary = dictionary;
+		setName(dataset.getName());
+		encode(dataset, data);
+	}
+
+	/**
+	 * Encode items of dataset to given array
+	 * @param dataset
+	 * @param codes
+	 */
+	private void encode(final Dataset dataset, final int[] codes) {
+		final IndexIterator it = dataset.getIterator();
+		if (dataset instanceof StringDatasetBase) {
+			final String[] strings = ((StringDatasetBase) dataset).getData();
+			for (int i = 0; it.hasNext(); i++) {
+				codes[i] = dictionary.encode(strings[it.index]);
+			}
+		} else {
+			for (int i = 0; it.hasNext(); i++) {
+				codes[i] = encodeObject(dataset.getObjectAbs(it.index));
+			}
+		}
+	}
+
+	private int encodeObject(final Object obj) {
+		return dictionary.encode(obj == null ? null : obj.toString());
+	}
+
+	/**
+	 * Create a dataset from an object which could be a Java list, array (of arrays...), string
+	 * or dataset
+	 *
+	 * @param obj
+	 * @return dataset with contents given by input
+	 */
+	static EncodedStringDataset createFromObject(final Object obj) {
+		if (obj instanceof EncodedStringDataset) {
+			return ((EncodedStringDataset) obj).clone();
+		}
+		Dataset d = obj instanceof IDataset ? DatasetUtils.convertToDataset((IDataset) obj) : StringDataset.createFromObject(obj);
+		return new EncodedStringDataset(d);
+	}
+
+	/**
+	 * Encode input so it uses this dataset's dictionary
+	 * @param obj
+	 * @return dataset with same dictionary
+	 */
+	private EncodedStringDataset encodeInput(final Object obj) {
+		if (obj instanceof EncodedStringDataset && ((EncodedStringDataset) obj).dictionary == dictionary) {
+			return (EncodedStringDataset) obj;
+		}
+		if (obj instanceof IDataset) {
+			return new EncodedStringDataset(DatasetUtils.convertToDataset((IDataset) obj), dictionary);
+		}
+		if (obj == null || obj instanceof String || obj instanceof Number || obj instanceof Boolean) {
+			EncodedStringDataset d = new EncodedStringDataset(dictionary, new int[] {encodeObject(obj)});
+			d.setShape();
+			return d;
+		}
+		return new EncodedStringDataset(StringDataset.createFromObject(obj), dictionary);
+	}
+
+	/**
+	 * @param obj
+	 * @return code for single value or encoded dataset
+	 */
+	private Object encodeValue(final Object obj) {
+		if (obj == null || obj instanceof String || obj instanceof Number || obj instanceof Boolean) {
+			return Integer.valueOf(encodeObject(obj));
+		}
+		return encodeInput(obj);
+	}
+
+	@Override
+	public EncodedStringDataset getView(boolean deepCopyMetadata) {
+		EncodedStringDataset view = new EncodedStringDataset();
+		copyToView(this, view, true, deepCopyMetadata);
+		view.setData();
+		view.dictionary = dictionary;
+		return view;
+	}
+
+	@Override
+	public EncodedStringDataset clone() {
+		return new EncodedStringDataset(this);
+	}
+
+	@Override
+	public EncodedStringDataset getSlice(final SliceIterator siter) {
+		IntegerDataset slice = super.getSlice(siter);
+		EncodedStringDataset result = new EncodedStringDataset(dictionary, slice.data, slice.shape);
+		result.setName(slice.getName());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof EncodedStringDataset) || ((EncodedStringDataset) obj).dictionary == dictionary) {
+			return super.equals(obj);
+		}
+
+		EncodedStringDataset other = (EncodedStringDataset) obj;
+		if (!Arrays.equals(shape, other.shape)) {
+			return false;
+		}
+		IndexIterator iter = getIterator();
+		IndexIterator oiter = other.getIterator();
+		while (iter.hasNext() && oiter.hasNext()) {
+			String v = dictionary.decode(data[iter.index]);
+			String ov = other.dictionary.decode(other.data[oiter.index]);
+			if (v == null ? ov != null : !v.equals(ov)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// use decoded values as equal datasets can have different dictionaries
+		int hash = Arrays.hashCode(shape);
+		IndexIterator iter = getIterator();
+		while (iter.hasNext()) {
+			String v = dictionary.decode(data[iter.index]);
+			hash = 31 * hash + (v == null ? 0 : v.hashCode());
+		}
+		return hash;
+	}
+
+	/**
+	 * @return dataset of strings
+	 */
+	public StringDataset toStringDataset() {
+		StringDataset result = new StringDataset(shape);
+		String[] rdata = result.getData();
+		IndexIterator it = getIterator();
+		for (int i = 0; it.hasNext(); i++) {
+			rdata[i] = dictionary.decode(data[it.index]);
+		}
+		result.setName(name);
+		return result;
+	}
+
+	/**
+	 * @return distinct strings (including null) where index is the code
+	 */
+	public String[] getDictionary() {
+		return dictionary.getValues();
+	}
+
+	/**
+	 * @param value
+	 * @return code used for given value or -1 if not used
+	 */
+	public int getCode(final String value) {
+		return dictionary.find(value);
+	}
+
+	/**
+	 * @param index
+	 *            absolute index
+	 * @return string
+	 */
+	public String getStringValueAbs(final int index) {
+		return dictionary.decode(data[index]);
+	}
+
+	@Override
+	public Object getObjectAbs(final int index) {
+		return dictionary.decode(data[index]);
+	}
+
+	@Override
+	public Object getObject() {
+		return dictionary.decode(get());
+	}
+
+	@Override
+	public Object getObject(final int i) {
+		return dictionary.decode(get(i));
+	}
+
+	@Override
+	public Object getObject(final int i, final int j) {
+		return dictionary.decode(get(i, j));
+	}
+
+	@Override
+	public Object getObject(final int... pos) {
+		return dictionary.decode(get(pos));
+	}
+
+	@Override
+	public String getStringAbs(final int index) {
+		String v = dictionary.decode(data[index]);
+		return stringFormat instanceof MessageFormat ? stringFormat.format(v) : String.format("%s", v);
+	}
+
+	@Override
+	protected void setItemDirect(final int dindex, final int sindex, final Object src) {
+		if (src instanceof int[]) {
+			super.setItemDirect(dindex, sindex, src);
+		} else if (src instanceof String[]) {
+			setAbs(dindex, dictionary.encode(((String[]) src)[sindex]));
+		} else {
+			logger.error("Argument is of unsupported class");
+			throw new IllegalArgumentException("Argument is of unsupported class");
+		}
+	}
+
+	@Override
+	public void setObjectAbs(final int index, final Object obj) {
+		if (index < 0 || index > data.length) {
+			throw new IndexOutOfBoundsException("Index given is outside dataset");
+		}
+
+		setAbs(index, encodeObject(obj));
+	}
+
+	@Override
+	public void set(final Object obj) {
+		setItem(encodeObject(obj));
+	}
+
+	@Override
+	public void set(final Object obj, final int i) {
+		setItem(encodeObject(obj), i);
+	}
+
+	@Override
+	public void set(final Object obj, final int i, final int j) {
+		setItem(encodeObject(obj), i, j);
+	}
+
+	@Override
+	public void set(final Object obj, int... pos) {
+		if (pos == null || (pos.length == 0 && shape.length > 0)) {
+			pos = new int[shape.length];
+		}
+
+		setItem(encodeObject(obj), pos);
+	}
+
+	@Override
+	public EncodedStringDataset fill(final Object obj) {
+		super.fill(encodeObject(obj));
+		return this;
+	}
+
+	@Override
+	public EncodedStringDataset setByBoolean(final Object obj, Dataset selection) {
+		super.setByBoolean(encodeValue(obj), selection);
+		return this;
+	}
+
+	@Override
+	public EncodedStringDataset setBy1DIndex(final Object obj, final Dataset index) {
+		super.setBy1DIndex(encodeValue(obj), index);
+		return this;
+	}
+
+	@Override
+	public EncodedStringDataset setByIndexes(final Object obj, final Object... indexes) {
+		super.setByIndexes(encodeValue(obj), indexes);
+		return this;
+	}
+
+	@Override
+	IntegerDataset setSlicedView(Dataset view, Dataset d) {
+		return super.setSlicedView(view, encodeInput(d));
+	}
+
+	@Override
+	public Dataset setSlice(final Object obj, final SliceND slice) {
+		return setSlicedView(getSliceView(slice), encodeInput(obj));
+	}
+
+	@Override
+	public EncodedStringDataset setSlice(final Object obj, final IndexIterator siter) {
+		super.setSlice(encodeValue(obj), siter);
+		return this;
+	}
+
+	/**
+	 * Compare item-wise for whether items are equal to a value
+	 * @param value
+	 * @return dataset where item is true if equal to value
+	 */
+	public BooleanDataset equalTo(final String value) {
+		return isIn(value);
+	}
+
+	/**
+	 * Compare item-wise for whether items are equal to any of given values
+	 * @param values
+	 * @return dataset where item is true if equal to any value
+	 */
+	public BooleanDataset isIn(final String... values) {
+		final boolean[] match = new boolean[dictionary.getValues().length];
+		for (String v : values) {
+			int c = dictionary.find(v);
+			if (c >= 0) {
+				match[c] = true;
+			}
+		}
+
+		final BooleanDataset result = DatasetFactory.zeros(BooleanDataset.class, shape);
+		final boolean[] rdata = result.getData();
+		final IndexIterator it = getIterator();
+		for (int i = 0; it.hasNext(); i++) {
+			final int c = data[it.index];
+			rdata[i] = c < match.length && match[c];
+		}
+		return result;
+	}
+
+	/**
+	 * @return number of occurrences of each code
+	 */
+	private int[] countCodes() {
+		final int[] counts = new int[dictionary.getValues().length];
+		final IndexIterator it = getIterator();
+		while (it.hasNext()) {
+			counts[data[it.index]]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Group items by value
+	 * @return map of values (in sorted order with null first) to the 1D (row-major) indices of items
+	 * with that value
+	 */
+	public Map<String, IntegerDataset> getGroups() {
+		final int[] counts = countCodes();
+		final int[][] indices = new int[counts.length][];
+		for (int c = 0; c < counts.length; c++) {
+			if (counts[c] > 0) {
+				indices[c] = new int[counts[c]];
+				counts[c] = 0;
+			}
+		}
+		final IndexIterator it = getIterator();
+		for (int i = 0; it.hasNext(); i++) {
+			final int c = data[it.index];
+			indices[c][counts[c]++] = i;
+		}
+
+		final Map<String, IntegerDataset> groups = new LinkedHashMap<String, IntegerDataset>();
+		for (int c : dictionary.getOrder()) {
+			if (c < indices.length && indices[c] != null) {
+				groups.put(dictionary.decode(c), new IntegerDataset(indices[c], null));
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * @return map of values (in sorted order with null first) to their number of occurrences
+	 */
+	public Map<String, Integer> getCounts() {
+		final int[] counts = countCodes();
+		final Map<String, Integer> result = new LinkedHashMap<String, Integer>();
+		for (int c : dictionary.getOrder()) {
+			if (c < counts.length && counts[c] > 0) {
+				result.put(dictionary.decode(c), counts[c]);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public EncodedStringDataset getUniqueItems() {
+		final int[] counts = countCodes();
+		int n = 0;
+		for (int c : counts) {
+			if (c > 0) {
+				n++;
+			}
+		}
+		final int[] u = new int[n];
+		n = 0;
+		for (int c : dictionary.getOrder()) {
+			if (c < counts.length && counts[c] > 0) {
+				u[n++] = c;
+			}
+		}
+		return new EncodedStringDataset(dictionary, u);
+	}
+
+	/**
+	 * Sort items by value with nulls first
+	 */
+	@Override
+	public EncodedStringDataset sort(Integer axis) {
+		final int[] order = dictionary.getOrder();
+		final int[] rank = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			rank[order[i]] = i;
+		}
+
+		IndexIterator it = getIterator();
+		while (it.hasNext()) {
+			data[it.index] = rank[data[it.index]];
+		}
+		IntegerDataset ranks = new IntegerDataset();
+		copyToView(this, ranks, false, false);
+		ranks.setData();
+		ranks.sort(axis);
+		it = getIterator();
+		while (it.hasNext()) {
+			data[it.index] = order[data[it.index]];
+		}
+		setDirty();
+		return this;
+	}
+
+	@Override
+	public int[] maxPos(boolean... ignoreInvalids) {
+		return findExtremePos(true);
+	}
+
+	@Override
+	public int[] minPos(boolean... ignoreInvalids) {
+		return findExtremePos(false);
+	}
+
+	private int[] findExtremePos(boolean max) {
+		final int[] order = dictionary.getOrder();
+		final int[] rank = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			rank[order[i]] = i;
+		}
+
+		int best = -1;
+		int bestRank = max ? -1 : Integer.MAX_VALUE;
+		final IndexIterator it = getIterator();
+		for (int i = 0; it.hasNext(); i++) {
+			final int c = data[it.index];
+			if (c == 0) { // ignore nulls
+				continue;
+			}
+			final int r = rank[c];
+			if (max ? r > bestRank : r < bestRank) {
+				bestRank = r;
+				best = i;
+			}
+		}
+		return best < 0 ? null : ShapeUtils.getNDPositionFromShape(best, shape);
+	}
+}
@@ -0,0 +1,722 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fast Fourier transforms and FFT-based convolution and correlation
+ * <p>
+ * The transforms work directly on the interleaved buffer of a complex double dataset and are
+ * done line-by-line along each axis with lines distributed over a fork-join pool. Power-of-two
+ * lengths use a radix-2 algorithm and other lengths use Bluestein's algorithm. The bit-reversal
+ * tables, twiddle factors and chirps for each length are cached.
+ * <p>
+ * As in NumPy, the forward transform is unnormalised and the inverse transform is scaled by 1/n.
+ * @since 2.0
+ */
+public final class FFT {
+
+	private FFT() {
+	}
+
+	/**
+	 * Size of output of convolution or correlation
+	 */
+	public enum ConvolutionMode {
+		/**
+		 * Full output where inputs overlap in at least one point
+		 */
+		FULL,
+		/**
+		 * Same shape as first input, centred with respect to full output
+		 */
+		SAME,
+		/**
+		 * Only where inputs fully overlap
+		 */
+		VALID;
+	}
+
+	private static final int GRAIN = 16384; // in items
+
+	private static final int GROUP = 16; // maximum number of adjacent lines transformed together
+
+	private static final ConcurrentMap<Integer, SoftReference<Plan>> plans = new ConcurrentHashMap<Integer, SoftReference<Plan>>();
+
+	/**
+	 * @param n
+	 * @return cached plan for transform of given length
+	 */
+	static Plan getPlan(int n) {
+		SoftReference<Plan> r = plans.get(n);
+		Plan p = r == null ? null : r.get();
+		if (p == null) {
+			p = new Plan(n);
+			plans.put(n, new SoftReference<Plan>(p));
+		}
+		return p;
+	}
+
+	/**
+	 * Clear cache of plans
+	 */
+	public static void clearCache() {
+		plans.clear();
+	}
+
+	/**
+	 * Work arrays for a thread
+	 */
+	static class Workspace {
+		double[] re;
+		double[] im;
+
+		void ensure(int length) {
+			if (re == null || re.length < length) {
+				re = new double[length];
+				im = new double[length];
+			}
+		}
+	}
+
+	/**
+	 * Precalculated tables for transforms of a given length
+	 */
+	static class Plan {
+		final int n;
+		private final int[] bitrev;
+		private final double[] cos;
+		private final double[] sin;
+
+		// for Bluestein's algorithm
+		private final Plan sub;
+		private final double[] wr; // chirp
+		private final double[] wi;
+		private final double[] br; // transform of conjugate chirp
+		private final double[] bi;
+
+		Plan(int n) {
+			if (n < 1) {
+				throw new IllegalArgumentException("Length of transform must be greater than zero");
+			}
+			this.n = n;
+			if (Integer.bitCount(n) == 1) {
+				int bits = Integer.numberOfTrailingZeros(n);
+				bitrev = new int[n];
+				for (int i = 1; i < n; i++) {
+					bitrev[i] = (bitrev[i >> 1] >> 1) | ((i & 1) << (bits - 1));
+				}
+				int h = n / 2;
+				cos = new double[h];
+				sin = new double[h];
+				for (int i = 0; i < h; i++) {
+					double t = 2 * Math.PI * i / n;
+					cos[i] = Math.cos(t);
+					sin[i] = Math.sin(t);
+				}
+				sub = null;
+				wr = wi = br = bi = null;
+			} else {
+				bitrev = null;
+				cos = sin = null;
+				int m = Integer.highestOneBit(2 * n - 1) << 1;
+				sub = getPlan(m);
+				wr = new double[n];
+				wi = new double[n];
+				long nn = 2L * n;
+				for (int k = 0; k < n; k++) {
+					double t = Math.PI * ((((long) k) * k) % nn) / n; // reduce to keep precision
+					wr[k] = Math.cos(t);
+					wi[k] = -Math.sin(t);
+				}
+				br = new double[m];
+				bi = new double[m];
+				br[0] = wr[0];
+				bi[0] = -wi[0];
+				for (int k = 1; k < n; k++) {
+					br[k] = br[m - k] = wr[k];
+					bi[k] = bi[m - k] = -wi[k];
+				}
+				sub.transform(br, bi, null);
+			}
+		}
+
+		/**
+		 * Unnormalised forward transform in place. Swap real and imaginary arrays for
+		 * the unnormalised inverse transform
+		 * @param re
+		 * @param im
+		 * @param ws workspace (only used for lengths that are not powers of two)
+		 */
+		void transform(final double[] re, final double[] im, Workspace ws) {
+			if (sub == null) {
+				radix2(re, im);
+			} else {
+				bluestein(re, im, ws);
+			}
+		}
+
+		private void radix2(final double[] re, final double[] im) {
+			for (int i = 1; i < n; i++) {
+				int j = bitrev[i];
+				if (j > i) {
+					double t = re[i]; re[i] = re[j]; re[j] = t;
+					t = im[i]; im[i] = im[j]; im[j] = t;
+				}
+			}
+
+			for (int size = 2; size <= n; size <<= 1) {
+				final int half = size >> 1;
+				final int tstep = n / size;
+				for (int i = 0; i < n; i += size) {
+					for (int j = i, k = 0, end = i + half; j < end; j++, k += tstep) {
+						final int l = j + half;
+						final double c = cos[k];
+						final double s = sin[k];
+						final double tr = re[l] * c + im[l] * s;
+						final double ti = im[l] * c - re[l] * s;
+						re[l] = re[j] - tr;
+						im[l] = im[j] - ti;
+						re[j] += tr;
+						im[j] += ti;
+					}
+				}
+			}
+		}
+
+		private void bluestein(final double[] re, final double[] im, Workspace ws) {
+			final int m = sub.n;
+			if (ws == null) {
+				ws = new Workspace();
+			}
+			ws.ensure(m);
+			final double[] ar = ws.re;
+			final double[] ai = ws.im;
+			for (int k = 0; k < n; k++) {
+				ar[k] = re[k] * wr[k] - im[k] * wi[k];
+				ai[k] = re[k] * wi[k] + im[k] * wr[k];
+			}
+			Arrays.fill(ar, n, m, 0);
+			Arrays.fill(ai, n, m, 0);
+
+			sub.transform(ar, ai, null);
+			for (int k = 0; k < m; k++) {
+				final double r = ar[k] * br[k] - ai[k] * bi[k];
+				ai[k] = ar[k] * bi[k] + ai[k] * br[k];
+				ar[k] = r;
+			}
+			sub.transform(ai, ar, null); // inverse
+
+			final double f = 1.0 / m;
+			for (int k = 0; k < n; k++) {
+				final double r = ar[k] * f;
+				final double i = ai[k] * f;
+				re[k] = r * wr[k] - i * wi[k];
+				im[k] = r * wi[k] + i * wr[k];
+			}
+		}
+	}
+
+	/**
+	 * Transform along an axis in place
+	 * @param data interleaved complex buffer
+	 * @param shape
+	 * @param axis
+	 * @param inverse if true, do inverse transform (includes 1/n normalisation)
+	 */
+	static void transform(final double[] data, final int[] shape, final int axis, final boolean inverse) {
+		final int n = shape[axis];
+		if (n == 1) {
+			return;
+		}
+		int o = 1;
+		for (int i = 0; i < axis; i++) {
+			o *= shape[i];
+		}
+		int s = 1;
+		for (int i = axis + 1; i < shape.length; i++) {
+			s *= shape[i];
+		}
+		final int outer = o;
+		final int inner = s;
+		final int group = Math.min(GROUP, inner);
+		final int groups = (inner + group - 1) / group; // per outer index
+		final Plan plan = getPlan(n);
+		final double f = inverse ? 1.0 / n : 1;
+
+		ParallelUtils.forRange(0, outer * groups, Math.max(1, GRAIN / (n * group)), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[][] re = new double[group][n];
+				final double[][] im = new double[group][n];
+				final Workspace ws = new Workspace();
+				final int step = 2 * inner;
+
+				for (int g = start; g < end; g++) {
+					final int oi = g / groups;
+					final int i0 = (g % groups) * group;
+					final int m = Math.min(group, inner - i0);
+					final int base = 2 * (oi * n * inner + i0);
+
+					// gather adjacent lines together for better locality
+					for (int k = 0, b = base; k < n; k++, b += step) {
+						for (int l = 0, c = b; l < m; l++) {
+							re[l][k] = data[c++];
+							im[l][k] = data[c++];
+						}
+					}
+					for (int l = 0; l < m; l++) {
+						if (inverse) {
+							plan.transform(im[l], re[l], ws);
+						} else {
+							plan.transform(re[l], im[l], ws);
+						}
+					}
+					for (int k = 0, b = base; k < n; k++, b += step) {
+						for (int l = 0, c = b; l < m; l++) {
+							data[c++] = re[l][k] * f;
+							data[c++] = im[l][k] * f;
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Copy overlapping region of dataset to interleaved complex buffer
+	 * @param a dataset
+	 * @param data buffer
+	 * @param shape of buffer
+	 * @param conjugate if true, negate imaginary parts
+	 */
+	static void copyIn(final Dataset a, final double[] data, final int[] shape, final boolean conjugate) {
+		copyIn(a, 0, data, shape, 0, false);
+		if (a.getElementsPerItem() > 1) {
+			copyIn(a, 1, data, shape, 1, conjugate);
+		}
+	}
+
+	/**
+	 * Copy element of overlapping region of dataset to element of interleaved complex buffer
+	 * @param a dataset
+	 * @param element index in source items
+	 * @param data buffer
+	 * @param shape of buffer
+	 * @param part 0 for real, 1 for imaginary
+	 * @param negate if true, negate values
+	 */
+	static void copyIn(final Dataset a, final int element, final double[] data, final int[] shape, final int part, final boolean negate) {
+		final int rank = shape.length;
+		final int[] ashape = a.getShapeRef();
+		final int[] stop = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			stop[i] = Math.min(ashape[i], shape[i]);
+		}
+		final int size = ShapeUtils.calcSize(stop);
+		if (size == 0) {
+			return;
+		}
+		final Dataset v = Arrays.equals(stop, ashape) ? a : a.getSliceView(null, stop, null);
+		final int length = stop[rank - 1];
+		final int rows = size / length;
+		final int[] strides = getStrides(shape);
+
+		ParallelUtils.forRange(0, rows, Math.max(1, GRAIN / length), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] line = new double[length];
+				final int[] pos = new int[rank];
+				for (int r = start; r < end; r++) {
+					int t = r;
+					int index = 0;
+					for (int i = rank - 2; i >= 0; i--) {
+						pos[i] = t % stop[i];
+						t /= stop[i];
+						index += pos[i] * strides[i];
+					}
+					BufferUtils.copyToDoubles(v, element, r * length, length, line, 0);
+					index = 2 * index + part;
+					if (negate) {
+						for (int k = 0; k < length; k++, index += 2) {
+							data[index] = -line[k];
+						}
+					} else {
+						for (int k = 0; k < length; k++, index += 2) {
+							data[index] = line[k];
+						}
+					}
+				}
+			}
+		});
+	}
+
+	private static int[] getStrides(int[] shape) {
+		final int rank = shape.length;
+		int[] strides = new int[rank];
+		int s = 1;
+		for (int i = rank - 1; i >= 0; i--) {
+			strides[i] = s;
+			s *= shape[i];
+		}
+		return strides;
+	}
+
+	private static int[] checkAxes(final int rank, int[] axes) {
+		if (rank == 0) {
+			throw new IllegalArgumentException("Dataset must have rank greater than zero");
+		}
+		if (axes == null || axes.length == 0) {
+			axes = new int[rank];
+			for (int i = 0; i < rank; i++) {
+				axes[i] = i;
+			}
+			return axes;
+		}
+		axes = axes.clone();
+		boolean[] used = new boolean[rank];
+		for (int i = 0; i < axes.length; i++) {
+			int a = AbstractDataset.checkAxis(rank, axes[i]);
+			if (used[a]) {
+				throw new IllegalArgumentException("Axes must not be repeated");
+			}
+			used[a] = true;
+			axes[i] = a;
+		}
+		return axes;
+	}
+
+	private static void checkDataset(Dataset a) {
+		int is = a.getElementsPerItem();
+		if (is > 2 || (is == 2 && !a.isComplex())) {
+			throw new IllegalArgumentException("Dataset must be real or complex");
+		}
+	}
+
+	private static ComplexDoubleDataset transform(final Dataset a, int[] s, int[] axes, final boolean inverse) {
+		checkDataset(a);
+		final int rank = a.getRank();
+		axes = checkAxes(rank, axes);
+		final int[] shape = a.getShape();
+		if (s != null) {
+			if (s.length != axes.length) {
+				throw new IllegalArgumentException("Number of lengths must match number of axes");
+			}
+			for (int i = 0; i < axes.length; i++) {
+				if (s[i] < 1) {
+					throw new IllegalArgumentException("Lengths must be greater than zero");
+				}
+				shape[axes[i]] = s[i];
+			}
+		}
+
+		ComplexDoubleDataset result = new ComplexDoubleDataset(shape);
+		if (result.getSize() == 0) {
+			return result;
+		}
+		double[] data = result.getData();
+		copyIn(a, data, shape, false);
+		for (int axis : axes) {
+			transform(data, shape, axis, inverse);
+		}
+		return result;
+	}
+
+	/**
+	 * Discrete Fourier transform along last axis
+	 * @param a dataset
+	 * @return complex transform
+	 */
+	public static ComplexDoubleDataset fft(final Dataset a) {
+		return fft(a, -1, -1);
+	}
+
+	/**
+	 * Discrete Fourier transform along an axis
+	 * @param a dataset
+	 * @param n length of transform. The input is truncated or zero-padded to this length. If
+	 * less than one then use length of axis
+	 * @param axis
+	 * @return complex transform
+	 */
+	public static ComplexDoubleDataset fft(final Dataset a, final int n, final int axis) {
+		return transform(a, n < 1 ? null : new int[] {n}, new int[] {axis}, false);
+	}
+
+	/**
+	 * Inverse discrete Fourier transform along last axis
+	 * @param a dataset
+	 * @return complex inverse transform
+	 */
+	public static ComplexDoubleDataset ifft(final Dataset a) {
+		return ifft(a, -1, -1);
+	}
+
+	/**
+	 * Inverse discrete Fourier transform along an axis
+	 * @param a dataset
+	 * @param n length of transform. The input is truncated or zero-padded to this length. If
+	 * less than one then use length of axis
+	 * @param axis
+	 * @return complex inverse transform
+	 */
+	public static ComplexDoubleDataset ifft(final Dataset a, final int n, final int axis) {
+		return transform(a, n < 1 ? null : new int[] {n}, new int[] {axis}, true);
+	}
+
+	/**
+	 * Discrete Fourier transform over last two axes
+	 * @param a dataset
+	 * @return complex transform
+	 */
+	public static ComplexDoubleDataset fft2(final Dataset a) {
+		return transform(a, null, new int[] {-2, -1}, false);
+	}
+
+	/**
+	 * Inverse discrete Fourier transform over last two axes
+	 * @param a dataset
+	 * @return complex inverse transform
+	 */
+	public static ComplexDoubleDataset ifft2(final Dataset a) {
+		return transform(a, null, new int[] {-2, -1}, true);
+	}
+
+	/**
+	 * N-dimensional discrete Fourier transform
+	 * @param a dataset
+	 * @param s lengths of transform for each axis (can be null to use dataset's shape). The
+	 * input is truncated or zero-padded to these lengths
+	 * @param axes axes to transform (can be null to use all axes)
+	 * @return complex transform
+	 */
+	public static ComplexDoubleDataset fftn(final Dataset a, final int[] s, final int[] axes) {
+		return transform(a, s, axes, false);
+	}
+
+	/**
+	 * N-dimensional inverse discrete Fourier transform
+	 * @param a dataset
+	 * @param s lengths of transform for each axis (can be null to use dataset's shape). The
+	 * input is truncated or zero-padded to these lengths
+	 * @param axes axes to transform (can be null to use all axes)
+	 * @return complex inverse transform
+	 */
+	public static ComplexDoubleDataset ifftn(final Dataset a, final int[] s, final int[] axes) {
+		return transform(a, s, axes, true);
+	}
+
+	/**
+	 * Convolve two datasets along given axes using FFTs. Other axes must have matching lengths
+	 * @param a dataset
+	 * @param b dataset of same rank
+	 * @param mode size of output
+	 * @param axes axes to convolve along (if none given then use all axes)
+	 * @return convolution (real if both inputs are real, otherwise complex)
+	 */
+	public static Dataset convolve(final Dataset a, final Dataset b, final ConvolutionMode mode, final int... axes) {
+		return convolve(a, b, false, mode, axes);
+	}
+
+	/**
+	 * Cross-correlate two datasets along given axes using FFTs. This is the convolution of the
+	 * first dataset with the reversed, conjugated second dataset. Other axes must have matching lengths
+	 * @param a dataset
+	 * @param b dataset of same rank
+	 * @param mode size of output
+	 * @param axes axes to correlate along (if none given then use all axes)
+	 * @return correlation (real if both inputs are real, otherwise complex)
+	 */
+	public static Dataset correlate(final Dataset a, final Dataset b, final ConvolutionMode mode, final int... axes) {
+		return convolve(a, b, true, mode, axes);
+	}
+
+	private static Dataset convolve(final Dataset a, Dataset b, final boolean correlate, final ConvolutionMode mode, int[] axes) {
+		checkDataset(a);
+		checkDataset(b);
+		final int rank = a.getRank();
+		if (b.getRank() != rank) {
+			throw new IllegalArgumentException("Datasets must have same rank");
+		}
+		axes = checkAxes(rank, axes);
+		final int[] ashape = a.getShapeRef();
+		final int[] bshape = b.getShapeRef();
+		final boolean[] used = new boolean[rank];
+		for (int axis : axes) {
+			used[axis] = true;
+			if (ashape[axis] == 0 || bshape[axis] == 0) {
+				throw new IllegalArgumentException("Datasets must not be empty");
+			}
+		}
+		for (int i = 0; i < rank; i++) {
+			if (!used[i] && ashape[i] != bshape[i]) {
+				throw new IllegalArgumentException("Datasets must have the same lengths on axes that are not convolved");
+			}
+		}
+
+		if (correlate) { // reverse along axes
+			Slice[] slice = new Slice[rank];
+			for (int axis : axes) {
+				slice[axis] = new Slice(null, null, -1);
+			}
+			b = b.getSliceView(slice);
+		}
+
+		final int[] pshape = ashape.clone(); // padded shape
+		final int[] start = new int[rank];
+		final int[] rshape = ashape.clone();
+		for (int axis : axes) {
+			final int na = ashape[axis];
+			final int nb = bshape[axis];
+			final int full = na + nb - 1;
+			pshape[axis] = Integer.highestOneBit(full) == full ? full : Integer.highestOneBit(full) << 1;
+			final int n;
+			switch (mode) {
+			case SAME:
+				n = na;
+				break;
+			case VALID:
+				n = Math.abs(na - nb) + 1;
+				break;
+			case FULL:
+			default:
+				n = full;
+				break;
+			}
+			start[axis] = (full - n) / 2;
+			rshape[axis] = n;
+		}
+
+		final int size = ShapeUtils.calcSize(pshape);
+		final boolean isComplex = a.isComplex() || b.isComplex();
+		final double[] x = new double[2 * size];
+		if (isComplex) {
+			copyIn(a, x, pshape, false);
+			double[] y = new double[2 * size];
+			copyIn(b, y, pshape, correlate);
+			for (int axis : axes) {
+				transform(x, pshape, axis, false);
+				transform(y, pshape, axis, false);
+			}
+			for (int i = 0; i < x.length; i += 2) {
+				final double r = x[i] * y[i] - x[i + 1] * y[i + 1];
+				x[i + 1] = x[i] * y[i + 1] + x[i + 1] * y[i];
+				x[i] = r;
+			}
+		} else {
+			// pack both real inputs into one complex transform
+			copyIn(a, 0, x, pshape, 0, false);
+			copyIn(b, 0, x, pshape, 1, false);
+			for (int axis : axes) {
+				transform(x, pshape, axis, false);
+			}
+			multiplyPacked(x, pshape, used);
+		}
+		for (int axis : axes) {
+			transform(x, pshape, axis, true);
+		}
+
+		return copyOut(x, pshape, start, rshape, isComplex);
+	}
+
+	/**
+	 * Multiply transforms of real datasets packed as real and imaginary parts of a transform
+	 * @param x transform of a + ib
+	 * @param shape
+	 * @param used axes that have been transformed
+	 */
+	private static void multiplyPacked(final double[] x, final int[] shape, final boolean[] used) {
+		final int rank = shape.length;
+		final int[] strides = getStrides(shape);
+		final int[] pos = new int[rank];
+		final int size = x.length / 2;
+		for (int f = 0; f < size; f++) {
+			int g = 0; // index of mirrored position
+			for (int i = 0; i < rank; i++) {
+				int p = pos[i];
+				if (used[i] && p != 0) {
+					p = shape[i] - p;
+				}
+				g += p * strides[i];
+			}
+			if (g >= f) {
+				final int i = 2 * f;
+				final int j = 2 * g;
+				final double xr = x[i];
+				final double xi = x[i + 1];
+				final double yr = x[j];
+				final double yi = -x[j + 1];
+				// A = (X_f + conj(X_g))/2 and B = (X_f - conj(X_g))/2i
+				final double ar = 0.5 * (xr + yr);
+				final double ai = 0.5 * (xi + yi);
+				final double br = 0.5 * (xi - yi);
+				final double bi = -0.5 * (xr - yr);
+				final double pr = ar * br - ai * bi;
+				final double pi = ar * bi + ai * br;
+				x[i] = pr;
+				x[i + 1] = pi;
+				x[j] = pr; // product is Hermitian
+				x[j + 1] = -pi;
+			}
+
+			for (int i = rank - 1; i >= 0; i--) {
+				if (++pos[i] < shape[i]) {
+					break;
+				}
+				pos[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Copy region of interleaved complex buffer to a new dataset
+	 * @param x buffer
+	 * @param shape of buffer
+	 * @param start of region
+	 * @param rshape shape of region
+	 * @param isComplex if false, copy only real parts
+	 * @return dataset
+	 */
+	private static Dataset copyOut(final double[] x, final int[] shape, final int[] start, final int[] rshape, final boolean isComplex) {
+		final int rank = shape.length;
+		final int[] strides = getStrides(shape);
+		final int length = rshape[rank - 1];
+		final int size = ShapeUtils.calcSize(rshape);
+		final double[] out = new double[isComplex ? 2 * size : size];
+		final int rows = length == 0 ? 0 : size / length;
+		final int[] pos = new int[rank];
+		for (int r = 0, o = 0; r < rows; r++) {
+			int t = r;
+			int index = start[rank - 1];
+			for (int i = rank - 2; i >= 0; i--) {
+				pos[i] = t % rshape[i];
+				t /= rshape[i];
+				index += (pos[i] + start[i]) * strides[i];
+			}
+			index *= 2;
+			if (isComplex) {
+				System.arraycopy(x, index, out, o, 2 * length);
+				o += 2 * length;
+			} else {
+				for (int k = 0; k < length; k++, index += 2) {
+					out[o++] = x[index];
+				}
+			}
+		}
+		return isComplex ? new ComplexDoubleDataset(out, rshape) : new DoubleDataset(out, rshape);
+	}
+}
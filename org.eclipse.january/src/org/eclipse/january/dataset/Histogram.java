@@ -0,0 +1,436 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.Arrays;
+
+import org.eclipse.january.DatasetException;
+
+/**
+ * Histogram engine used by {@link Stats}
+ * <p>
+ * Values are read in blocks from the primitive buffers and binned into per-thread arrays
+ * which are merged once all the items have been processed. Values that lie outside the
+ * bins or are NaNs are not counted. The last bin includes its upper edge.
+ */
+final class Histogram {
+
+	private static final int BLOCK = 2048; // number of items read at a time
+
+	private static final int GRAIN = 65536;
+
+	private Histogram() {
+	}
+
+	/**
+	 * Maps values to bin indexes
+	 */
+	static abstract class Binner {
+		final int bins;
+
+		Binner(int bins) {
+			this.bins = bins;
+		}
+
+		/**
+		 * @param x
+		 * @return bin index or -1 if value does not lie in any bin
+		 */
+		abstract int getBin(double x);
+
+		/**
+		 * @return dataset of bin edges
+		 */
+		abstract Dataset getEdges();
+	}
+
+	/**
+	 * Bins of equal width
+	 */
+	static class UniformBinner extends Binner {
+		private final double lo;
+		private final double hi;
+		private final double scale;
+
+		UniformBinner(int bins, double lo, double hi) {
+			super(bins);
+			if (bins < 1) {
+				throw new IllegalArgumentException("Number of bins must be greater than zero");
+			}
+			if (Double.isNaN(lo) || Double.isNaN(hi) || Double.isInfinite(lo) || Double.isInfinite(hi)) {
+				throw new IllegalArgumentException("Range of bins must be finite - consider ignoring invalid values");
+			}
+			if (lo == hi) { // as per NumPy
+				lo -= 0.5;
+				hi += 0.5;
+			} else if (lo > hi) {
+				throw new IllegalArgumentException("Lower limit of range must be less than upper limit");
+			}
+			this.lo = lo;
+			this.hi = hi;
+			scale = bins / (hi - lo);
+		}
+
+		@Override
+		int getBin(double x) {
+			if (x >= lo && x < hi) {
+				int i = (int) ((x - lo) * scale);
+				return i < bins ? i : bins - 1; // guard against rounding
+			}
+			return x == hi ? bins - 1 : -1;
+		}
+
+		@Override
+		Dataset getEdges() {
+			return DatasetFactory.createLinearSpace(DoubleDataset.class, lo, hi, bins + 1);
+		}
+	}
+
+	/**
+	 * Bins defined by monotonically increasing edges
+	 */
+	static class EdgesBinner extends Binner {
+		private final double[] edges;
+		private final double lo;
+		private final double hi;
+
+		EdgesBinner(double[] edges) {
+			super(edges.length - 1);
+			if (bins < 1) {
+				throw new IllegalArgumentException("There must be at least two bin edges");
+			}
+			for (int i = 0; i < bins; i++) {
+				if (!(edges[i] < edges[i + 1])) {
+					throw new IllegalArgumentException("Bin edges must be monotonically increasing");
+				}
+			}
+			this.edges = edges;
+			lo = edges[0];
+			hi = edges[bins];
+		}
+
+		@Override
+		int getBin(double x) {
+			if (x >= lo && x < hi) {
+				int l = 0;
+				int h = bins;
+				while (h - l > 1) { // invariant: edges[l] <= x < edges[h]
+					int m = (l + h) >>> 1;
+					if (x < edges[m]) {
+						h = m;
+					} else {
+						l = m;
+					}
+				}
+				return l;
+			}
+			return x == hi ? bins - 1 : -1;
+		}
+
+		@Override
+		Dataset getEdges() {
+			return DatasetFactory.createFromObject(DoubleDataset.class, edges.clone());
+		}
+	}
+
+	/**
+	 * Accumulated bin counts or weights
+	 */
+	static class Bins {
+		final long[] counts;
+		final double[] weights;
+
+		Bins(int size, boolean weighted) {
+			counts = weighted ? null : new long[size];
+			weights = weighted ? new double[size] : null;
+		}
+
+		void add(Bins other) {
+			if (counts != null) {
+				for (int i = 0; i < counts.length; i++) {
+					counts[i] += other.counts[i];
+				}
+			} else {
+				for (int i = 0; i < weights.length; i++) {
+					weights[i] += other.weights[i];
+				}
+			}
+		}
+
+		Dataset toDataset(int... shape) {
+			return counts != null ? new LongDataset(counts, shape) : new DoubleDataset(weights, shape);
+		}
+	}
+
+	static boolean[] getIgnoreFlags(boolean... ignoreInvalids) {
+		boolean ignoreNaNs = ignoreInvalids != null && ignoreInvalids.length > 0 ? ignoreInvalids[0] : false;
+		boolean ignoreInfs = ignoreInvalids != null && ignoreInvalids.length > 1 ? ignoreInvalids[1] : ignoreNaNs;
+		return new boolean[] {ignoreNaNs, ignoreInfs};
+	}
+
+	static Binner createBinner(Dataset a, int bins, boolean... ignoreInvalids) {
+		checkSingleElement(a);
+		return new UniformBinner(bins, a.min(ignoreInvalids).doubleValue(), a.max(ignoreInvalids).doubleValue());
+	}
+
+	static Binner createBinner(IDataset edges) {
+		Dataset e = DatasetUtils.convertToDataset(edges);
+		if (e.getRank() != 1) {
+			throw new IllegalArgumentException("Bin edges must be a 1D dataset");
+		}
+		checkSingleElement(e);
+		return new EdgesBinner(BufferUtils.toDoubles(e));
+	}
+
+	private static void checkSingleElement(Dataset a) {
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Only single-element datasets are supported");
+		}
+	}
+
+	private static int[] getBinsShape(Binner[] binners) {
+		int[] shape = new int[binners.length];
+		for (int i = 0; i < shape.length; i++) {
+			shape[i] = binners[i].bins;
+		}
+		return shape;
+	}
+
+	private static Dataset checkWeights(Dataset[] values, Dataset weights) {
+		int size = values[0].getSize();
+		for (Dataset v : values) {
+			checkSingleElement(v);
+			if (v.getSize() != size) {
+				throw new IllegalArgumentException("Datasets must have the same size");
+			}
+		}
+		if (weights != null) {
+			checkSingleElement(weights);
+			if (weights.getSize() != size) {
+				throw new IllegalArgumentException("Weights must have same size as dataset");
+			}
+		}
+		return weights;
+	}
+
+	/**
+	 * Calculate histogram of values
+	 * @param values datasets of coordinates
+	 * @param binners one for each coordinate
+	 * @param weights can be null
+	 * @param ignoreInvalids
+	 * @return histogram
+	 */
+	static Dataset histogram(Dataset[] values, Binner[] binners, Dataset weights, boolean... ignoreInvalids) {
+		checkWeights(values, weights);
+		final int[] bshape = getBinsShape(binners);
+		return accumulate(values, binners, weights, getIgnoreFlags(ignoreInvalids), ShapeUtils.calcSize(bshape)).toDataset(bshape);
+	}
+
+	/**
+	 * Calculate histogram of values from lazy datasets
+	 * @param values lazy datasets of coordinates
+	 * @param binners one for each coordinate
+	 * @param weights can be null
+	 * @param ignoreInvalids
+	 * @return histogram
+	 * @throws DatasetException
+	 */
+	static Dataset histogram(ILazyDataset[] values, Binner[] binners, ILazyDataset weights, boolean... ignoreInvalids) throws DatasetException {
+		final int[] shape = values[0].getShape();
+		for (ILazyDataset v : values) {
+			if (!Arrays.equals(shape, v.getShape())) {
+				throw new IllegalArgumentException("Datasets must have the same shape");
+			}
+		}
+		if (weights != null && !Arrays.equals(shape, weights.getShape())) {
+			throw new IllegalArgumentException("Weights must have same shape as dataset");
+		}
+
+		final int[] bshape = getBinsShape(binners);
+		final boolean[] flags = getIgnoreFlags(ignoreInvalids);
+		final int size = ShapeUtils.calcSize(bshape);
+		Bins total = new Bins(size, weights != null);
+		LazyBlocks blocks = new LazyBlocks(values[0]);
+		Dataset[] b = new Dataset[values.length];
+		while (blocks.hasNext()) {
+			for (int i = 1; i < b.length; i++) {
+				b[i] = blocks.next(values[i]);
+			}
+			Dataset w = weights == null ? null : blocks.next(weights);
+			b[0] = blocks.next();
+			total.add(accumulate(b, binners, checkWeights(b, w), flags, size));
+		}
+		return total.toDataset(bshape);
+	}
+
+	/**
+	 * Bin values in parallel
+	 * @param values
+	 * @param binners
+	 * @param weights can be null
+	 * @param flags ignore NaNs and ignore infinities
+	 * @param size number of bins
+	 * @return bins
+	 */
+	private static Bins accumulate(final Dataset[] values, final Binner[] binners, final Dataset weights,
+			final boolean[] flags, final int size) {
+		final int n = values[0].getSize();
+		// limit number of partial bins when they are large
+		final int grain = size > GRAIN ? Math.max(GRAIN, n / ParallelUtils.getParallelism() + 1) : GRAIN;
+		Bins bins = ParallelUtils.reduce(0, n, grain, new ParallelUtils.RangeReduction<Bins>() {
+			@Override
+			Bins compute(int start, int end) {
+				Bins b = new Bins(size, weights != null);
+				fill(values, binners, weights, flags, start, end, b, 0, createBuffers(values.length, end - start, weights != null));
+				return b;
+			}
+
+			@Override
+			Bins combine(Bins lower, Bins upper) {
+				lower.add(upper);
+				return lower;
+			}
+		});
+		return bins == null ? new Bins(size, weights != null) : bins;
+	}
+
+	private static double[][] createBuffers(int rank, int length, boolean weighted) {
+		final int n = Math.min(BLOCK, length);
+		double[][] buffers = new double[weighted ? rank + 1 : rank][];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = new double[n];
+		}
+		return buffers;
+	}
+
+	/**
+	 * Bin range of items
+	 * @param values
+	 * @param binners
+	 * @param weights can be null
+	 * @param flags ignore NaNs and ignore infinities
+	 * @param start first item
+	 * @param end stop item (exclusive)
+	 * @param bins accumulated bins
+	 * @param offset into bins
+	 * @param buffers for values and weights
+	 */
+	private static void fill(Dataset[] values, Binner[] binners, Dataset weights, boolean[] flags,
+			int start, int end, Bins bins, int offset, double[][] buffers) {
+		final int rank = values.length;
+		final double[][] x = buffers;
+		final double[] w = weights == null ? null : buffers[rank];
+		final boolean ignoreNaNs = flags[0];
+		final boolean ignoreInfs = flags[1];
+		final long[] counts = bins.counts;
+		final double[] sums = bins.weights;
+
+		for (int i = start; i < end; i += BLOCK) {
+			final int n = Math.min(BLOCK, end - i);
+			for (int r = 0; r < rank; r++) {
+				BufferUtils.copyToDoubles(values[r], 0, i, n, x[r], 0);
+			}
+			if (w != null) {
+				BufferUtils.copyToDoubles(weights, 0, i, n, w, 0);
+			}
+
+			for (int j = 0; j < n; j++) {
+				int index = 0;
+				for (int r = 0; r < rank; r++) {
+					final double v = x[r][j];
+					if (ignoreInfs && Double.isInfinite(v)) {
+						index = -1;
+						break;
+					}
+					final int k = binners[r].getBin(v);
+					if (k < 0) {
+						index = -1;
+						break;
+					}
+					index = index * binners[r].bins + k;
+				}
+				if (index < 0) {
+					continue;
+				}
+				if (w == null) {
+					counts[offset + index]++;
+				} else {
+					final double v = w[j];
+					if ((ignoreNaNs && Double.isNaN(v)) || (ignoreInfs && Double.isInfinite(v))) {
+						continue;
+					}
+					sums[offset + index] += v;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calculate histograms of lines along an axis
+	 * @param a dataset
+	 * @param axis
+	 * @param binner
+	 * @param weights can be null
+	 * @param ignoreInvalids
+	 * @return histograms with shape of dataset without given axis and with bins as last axis
+	 */
+	static Dataset histogram(final Dataset a, int axis, final Binner binner, final Dataset weights, boolean... ignoreInvalids) {
+		checkSingleElement(a);
+		axis = a.checkAxis(axis);
+		if (weights != null) {
+			checkSingleElement(weights);
+			if (!Arrays.equals(a.getShapeRef(), weights.getShapeRef())) {
+				throw new IllegalArgumentException("Weights must have same shape as dataset");
+			}
+		}
+		final int rank = a.getRank();
+		final int[] shape = a.getShapeRef();
+
+		// move axis to end so that each line is a contiguous range of flat indexes
+		int[] axes = new int[rank];
+		int[] oshape = new int[rank];
+		for (int i = 0, j = 0; i < rank; i++) {
+			if (i != axis) {
+				oshape[j] = shape[i];
+				axes[j++] = i;
+			}
+		}
+		axes[rank - 1] = axis;
+		final int bins = binner.bins;
+		oshape[rank - 1] = bins;
+
+		final Dataset[] t = new Dataset[] {a.getTransposedView(axes)};
+		final Dataset tw = weights == null ? null : weights.getTransposedView(axes);
+		final Binner[] binners = new Binner[] {binner};
+		final boolean[] flags = getIgnoreFlags(ignoreInvalids);
+		final int length = shape[axis];
+		int n = 1; // number of lines, which is not zero when only the axis is empty
+		for (int i = 0; i < rank - 1; i++) {
+			n *= oshape[i];
+		}
+		final int lines = n;
+		final Bins result = new Bins(lines * bins, weights != null);
+
+		ParallelUtils.forRange(0, lines, Math.max(1, GRAIN / Math.max(1, length)), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				double[][] buffers = createBuffers(1, length, tw != null);
+				for (int l = start; l < end; l++) {
+					fill(t, binners, tw, flags, l * length, (l + 1) * length, result, l * bins, buffers);
+				}
+			}
+		});
+		return result.toDataset(oshape);
+	}
+}
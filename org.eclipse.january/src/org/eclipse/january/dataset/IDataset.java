@@ -247,4 +247,76 @@ public interface IDataset extends ILazyDataset {
 	 * @return the values of the error at this point (can be null when no error defined)
 	 */
 	public double[] getErrorArray(int... pos);
+
+	/**
+	 * Copy values from a slice of this dataset into a primitive array in row-major order.
+	 * Values are converted as by the corresponding getter, e.g. {@link #getDouble(int...)}
+	 * when the array is a double array.
+	 * <p>
+	 * The default implementation uses the getters so implementations should override this
+	 * to copy directly from their storage
+	 * @param slice can be null for entire dataset
+	 * @param array primitive array (of booleans, bytes, shorts, ints, longs, floats or doubles)
+	 * with room for the elements of all items in slice
+	 * @param offset start position in array
+	 * @return number of elements copied
+	 * @throws IllegalArgumentException if array is not a primitive array
+	 * @throws UnsupportedOperationException if there is more than one element per item and
+	 * the implementation does not support this
+	 * @since 2.0
+	 */
+	default int fillArray(SliceND slice, Object array, int offset) {
+		if (getElementsPerItem() != 1) {
+			throw new UnsupportedOperationException("Only datasets with single-element items are supported");
+		}
+		if (slice == null) {
+			slice = new SliceND(getShape());
+		}
+		if (ShapeUtils.calcSize(slice.getShape()) == 0) {
+			return 0;
+		}
+
+		final PositionIterator it = new PositionIterator(slice);
+		final int[] pos = it.getPos();
+		int i = offset;
+		if (array instanceof double[]) {
+			final double[] data = (double[]) array;
+			while (it.hasNext()) {
+				data[i++] = getDouble(pos);
+			}
+		} else if (array instanceof float[]) {
+			final float[] data = (float[]) array;
+			while (it.hasNext()) {
+				data[i++] = getFloat(pos);
+			}
+		} else if (array instanceof long[]) {
+			final long[] data = (long[]) array;
+			while (it.hasNext()) {
+				data[i++] = getLong(pos);
+			}
+		} else if (array instanceof int[]) {
+			final int[] data = (int[]) array;
+			while (it.hasNext()) {
+				data[i++] = getInt(pos);
+			}
+		} else if (array instanceof short[]) {
+			final short[] data = (short[]) array;
+			while (it.hasNext()) {
+				data[i++] = getShort(pos);
+			}
+		} else if (array instanceof byte[]) {
+			final byte[] data = (byte[]) array;
+			while (it.hasNext()) {
+				data[i++] = getByte(pos);
+			}
+		} else if (array instanceof boolean[]) {
+			final boolean[] data = (boolean[]) array;
+			while (it.hasNext()) {
+				data[i++] = getBoolean(pos);
+			}
+		} else {
+			throw new IllegalArgumentException("Array must be a primitive array");
+		}
+		return i - offset;
+	}
 }
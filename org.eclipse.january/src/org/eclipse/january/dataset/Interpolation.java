@@ -0,0 +1,336 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Interpolation of datasets at many points at once
+ * <p>
+ * This evaluates a dataset at the (fractional) coordinates given by a dataset per axis, like
+ * SciPy's {@code map_coordinates}. The values are read from the dataset's buffer once and points
+ * are distributed over a fork-join pool so it is much faster than calling
+ * {@link Maths#interpolate(Dataset, double...)} for each point.
+ * @since 2.0
+ */
+public final class Interpolation {
+
+	private Interpolation() {
+	}
+
+	/**
+	 * Nearest neighbour interpolation
+	 */
+	public static final int NEAREST = 0;
+
+	/**
+	 * Linear interpolation
+	 */
+	public static final int LINEAR = 1;
+
+	/**
+	 * Cubic convolution interpolation (Keys' kernel with a = -1/2), which is exact for quadratics
+	 */
+	public static final int CUBIC = 3;
+
+	/**
+	 * How values are found for indexes beyond the ends of an axis. For an axis
+	 * {@code a b c d}, the modes extend it as shown
+	 */
+	public enum BoundaryMode {
+		/**
+		 * {@code k k k k | a b c d | k k k k} where k is a constant value
+		 */
+		CONSTANT,
+		/**
+		 * {@code a a a a | a b c d | d d d d}
+		 */
+		NEAREST,
+		/**
+		 * {@code d c b a | a b c d | d c b a}
+		 */
+		REFLECT,
+		/**
+		 * {@code c d c b | a b c d | c b a b}
+		 */
+		MIRROR,
+		/**
+		 * {@code a b c d | a b c d | a b c d}
+		 */
+		WRAP;
+	}
+
+	/**
+	 * Linearly interpolate a dataset at given coordinates. The dataset is considered to have zero
+	 * support outside its bounds, as in {@link Maths#interpolate(Dataset, double...)}
+	 * @param d input dataset
+	 * @param coords datasets of coordinates, one per axis of input dataset
+	 * @return interpolated values with shape of coordinates
+	 */
+	public static Dataset mapCoordinates(final Dataset d, final Dataset... coords) {
+		return mapCoordinates(d, LINEAR, BoundaryMode.CONSTANT, 0, coords);
+	}
+
+	/**
+	 * Interpolate a dataset at given coordinates. The i-th point is at position
+	 * {@code [coords[0][i], coords[1][i], ...]} in index space of the dataset
+	 * @param d input dataset (can be compound)
+	 * @param order of interpolation: {@link #NEAREST}, {@link #LINEAR} or {@link #CUBIC}
+	 * @param mode how values beyond the bounds of the dataset are found
+	 * @param cval value used beyond bounds for constant mode
+	 * @param coords datasets of coordinates, one per axis of input dataset. These must have the same shape
+	 * @return double dataset of interpolated values with shape of coordinates (compound if input is compound)
+	 */
+	public static Dataset mapCoordinates(final Dataset d, final int order, final BoundaryMode mode, final double cval, final Dataset... coords) {
+		if (order != NEAREST && order != LINEAR && order != CUBIC) {
+			throw new IllegalArgumentException("Order must be 0, 1 or 3");
+		}
+		if (mode == null) {
+			throw new IllegalArgumentException("Boundary mode must be defined");
+		}
+		final int rank = d.getRank();
+		if (coords == null || coords.length != rank) {
+			throw new IllegalArgumentException("Number of coordinate datasets must be equal to rank of dataset");
+		}
+		final int[] oshape = coords[0].getShapeRef();
+		for (int i = 1; i < rank; i++) {
+			if (!Arrays.equals(oshape, coords[i].getShapeRef())) {
+				throw new IllegalArgumentException("Coordinate datasets must have the same shape");
+			}
+		}
+		final int is = d.getElementsPerItem();
+		final int size = d.getSize();
+		if (rank == 0 || size == 0) {
+			throw new IllegalArgumentException("Dataset must have at least one dimension and be non-empty");
+		}
+
+		final double[][] values = new double[is][];
+		if (is == 1) {
+			values[0] = getDoubles(d);
+		} else {
+			for (int e = 0; e < is; e++) {
+				values[e] = new double[size];
+				BufferUtils.copyToDoubles(d, e, 0, size, values[e], 0);
+			}
+		}
+		final double[][] x = new double[rank][];
+		for (int i = 0; i < rank; i++) {
+			x[i] = getDoubles(coords[i]);
+		}
+
+		final Dataset result = is == 1 ? DatasetFactory.zeros(DoubleDataset.class, oshape) :
+			DatasetFactory.zeros(is, CompoundDoubleDataset.class, oshape);
+		final double[] r = (double[]) result.getBuffer();
+		final int n = result.getSize();
+		if (n == 0) {
+			return result;
+		}
+
+		final int[] shape = d.getShapeRef();
+		final int[] stride = new int[rank];
+		int s = 1;
+		for (int i = rank - 1; i >= 0; i--) {
+			stride[i] = s;
+			s *= shape[i];
+		}
+		final int taps = order + 1;
+		int m = 1;
+		for (int i = 0; i < rank; i++) {
+			m *= taps;
+		}
+		final int total = m;
+		final int grain = Math.max(64, ParallelUtils.DEFAULT_GRAIN / (total * is));
+
+		ParallelUtils.forRange(0, n, grain, new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final int[][] offsets = new int[rank][taps];
+				final double[][] weights = new double[rank][taps];
+				final int[] t = new int[rank];
+				final double[] w = new double[taps];
+				for (int p = start; p < end; p++) {
+					boolean nan = false;
+					for (int i = 0; i < rank; i++) {
+						final double xi = limitCoordinate(x[i][p], shape[i], mode);
+						if (Double.isNaN(xi)) {
+							nan = true;
+							break;
+						}
+						final int l = setWeights(order, xi, w);
+						final int[] o = offsets[i];
+						for (int j = 0; j < taps; j++) {
+							final int k = mapIndex(l + j, shape[i], mode);
+							o[j] = k < 0 ? -1 : k * stride[i];
+						}
+						System.arraycopy(w, 0, weights[i], 0, taps);
+					}
+					final int pos = p * is;
+					if (nan) {
+						Arrays.fill(r, pos, pos + is, Double.NaN);
+						continue;
+					}
+
+					for (int e = 0; e < is; e++) {
+						final double[] v = values[e];
+						double sum = 0;
+						Arrays.fill(t, 0);
+						for (int c = 0; c < total; c++) {
+							int index = 0;
+							double f = 1;
+							for (int i = 0; i < rank; i++) {
+								final int o = offsets[i][t[i]];
+								if (o < 0) {
+									index = -1;
+									f *= weights[i][t[i]];
+									for (i++; i < rank; i++) {
+										f *= weights[i][t[i]];
+									}
+									break;
+								}
+								index += o;
+								f *= weights[i][t[i]];
+							}
+							if (f != 0) { // so samples and constant outside do not mix at exact points
+								sum += f * (index < 0 ? cval : v[index]);
+							}
+
+							for (int i = rank - 1; i >= 0; i--) { // advance taps odometer
+								if (++t[i] < taps) {
+									break;
+								}
+								t[i] = 0;
+							}
+						}
+						r[pos + e] = sum;
+					}
+				}
+			}
+		});
+
+		result.setName(d.getName());
+		return result;
+	}
+
+	/**
+	 * Largest magnitude of coordinate whose support can be indexed with ints
+	 */
+	private static final double COORDINATE_LIMIT = 1 << 30;
+
+	/**
+	 * Bring a coordinate within {@link #COORDINATE_LIMIT}. Periodic modes shift it by whole periods
+	 * and other modes clamp it as it only sees a constant or end value there
+	 * @param x coordinate
+	 * @param n length of axis
+	 * @param mode
+	 * @return coordinate or NaN if it is infinite for periodic mode
+	 */
+	private static double limitCoordinate(final double x, final int n, final BoundaryMode mode) {
+		if (x >= -COORDINATE_LIMIT && x <= COORDINATE_LIMIT) {
+			return x;
+		}
+		final double p;
+		switch (mode) {
+		case REFLECT:
+			p = 2. * n;
+			break;
+		case MIRROR:
+			p = n == 1 ? 1 : 2. * n - 2;
+			break;
+		case WRAP:
+			p = n;
+			break;
+		default:
+			return x < 0 ? -COORDINATE_LIMIT : x > 0 ? COORDINATE_LIMIT : x;
+		}
+		return x - p * Math.floor(x / p);
+	}
+
+	/**
+	 * Set weights of support for interpolation at given coordinate
+	 * @param order
+	 * @param x coordinate
+	 * @param w weights
+	 * @return index of first sample in support
+	 */
+	private static int setWeights(final int order, final double x, final double[] w) {
+		switch (order) {
+		case NEAREST:
+			w[0] = 1;
+			return (int) Math.floor(x + 0.5);
+		case LINEAR:
+			final int l = (int) Math.floor(x);
+			final double u = x - l;
+			w[0] = 1 - u;
+			w[1] = u;
+			return l;
+		default:
+			final int c = (int) Math.floor(x);
+			final double v = x - c;
+			final double v2 = v * v;
+			w[0] = ((-0.5 * v + 1) * v - 0.5) * v;
+			w[1] = (1.5 * v - 2.5) * v2 + 1;
+			w[2] = ((-1.5 * v + 2) * v + 0.5) * v;
+			w[3] = (0.5 * v - 0.5) * v2;
+			return c - 1;
+		}
+	}
+
+	/**
+	 * @param k index
+	 * @param n length of axis
+	 * @param mode
+	 * @return index within axis or -1 if beyond bounds for constant mode
+	 */
+	static int mapIndex(int k, final int n, final BoundaryMode mode) {
+		if (k >= 0 && k < n) {
+			return k;
+		}
+		switch (mode) {
+		case CONSTANT:
+			return -1;
+		case NEAREST:
+			return k < 0 ? 0 : n - 1;
+		case REFLECT:
+			k %= 2 * n;
+			if (k < 0) {
+				k += 2 * n;
+			}
+			return k < n ? k : 2 * n - 1 - k;
+		case MIRROR:
+			if (n == 1) {
+				return 0;
+			}
+			final int p = 2 * n - 2;
+			k %= p;
+			if (k < 0) {
+				k += p;
+			}
+			return k < n ? k : p - k;
+		case WRAP:
+		default:
+			k %= n;
+			return k < 0 ? k + n : k;
+		}
+	}
+
+	/**
+	 * @param a single element dataset
+	 * @return buffer of a contiguous double dataset, otherwise a copy of its values
+	 */
+	private static double[] getDoubles(final Dataset a) {
+		if (a instanceof DoubleDataset && a.getStrides() == null && a.getElementsPerItem() == 1) {
+			return (double[]) a.getBuffer();
+		}
+		return BufferUtils.toDoubles(a);
+	}
+}
@@ -542,4 +542,22 @@ public class InterpolatorUtils {
 		
 		return result;
 	}
+
+	/**
+	 * Regrid data defined on a curvilinear grid onto a regular grid using bilinear interpolation.
+	 * Use a {@link CurvilinearGrid} directly to reuse its index and the located points for many
+	 * datasets that share the same geometry
+	 * @param data 2D dataset
+	 * @param x coordinates of data points
+	 * @param y coordinates of data points
+	 * @param gridX x coordinates of regular grid
+	 * @param gridY y coordinates of regular grid
+	 * @return regridded data of shape [length of gridY, length of gridX] with NaNs where points
+	 * of regular grid lie outside curvilinear grid
+	 * @since 2.0
+	 */
+	public static Dataset regridCurvilinear(Dataset data, Dataset x, Dataset y, Dataset gridX, Dataset gridY) {
+		CurvilinearGrid grid = new CurvilinearGrid(x, y);
+		return grid.resample(data, grid.getIndexCoordinatesOnGrid(gridX, gridY));
+	}
 }
@@ -0,0 +1,219 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.Arrays;
+
+/**
+ * Compressor and decompressor for the LZ4 block format
+ * <p>
+ * This is a simple greedy implementation which uses a hash table of the last position at
+ * which each 4-byte sequence was seen. Its output can be read by any LZ4 block decoder.
+ */
+final class LZ4 {
+
+	private static final int MIN_MATCH = 4;
+	private static final int LAST_LITERALS = 5; // number of bytes at end that must be literals
+	private static final int MF_LIMIT = 12; // no match can start in this number of bytes at end
+	private static final int MAX_OFFSET = 65535;
+	private static final int HASH_LOG = 14;
+	private static final int RUN_MASK = 15;
+
+	private LZ4() {
+	}
+
+	/**
+	 * @param length of input
+	 * @return maximum length of compressed output
+	 */
+	static int maxCompressedLength(int length) {
+		return length + length / 255 + 16;
+	}
+
+	private static int readInt(byte[] b, int i) {
+		return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | (b[i + 3] & 0xff) << 24;
+	}
+
+	private static int hash(int v) {
+		return (v * -1640531535) >>> (32 - HASH_LOG);
+	}
+
+	/**
+	 * Compress bytes
+	 * @param src source
+	 * @param srcOff offset in source
+	 * @param srcLen number of bytes to compress
+	 * @param dst destination which must have at least {@link #maxCompressedLength(int)} bytes available
+	 * @param dstOff offset in destination
+	 * @param table hash table of length 1 << HASH_LOG (can be null)
+	 * @return number of bytes written
+	 */
+	static int compress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstOff, int[] table) {
+		final int end = srcOff + srcLen;
+		final int mfLimit = end - MF_LIMIT;
+		final int matchLimit = end - LAST_LITERALS;
+		int op = dstOff;
+		int anchor = srcOff;
+
+		if (srcLen > MF_LIMIT) {
+			if (table == null) {
+				table = new int[1 << HASH_LOG];
+			}
+			Arrays.fill(table, -1);
+
+			int ip = srcOff;
+			while (ip < mfLimit) {
+				final int v = readInt(src, ip);
+				final int h = hash(v);
+				int ref = table[h];
+				table[h] = ip;
+				if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != v) {
+					ip++;
+					continue;
+				}
+
+				// extend backwards
+				while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+					ip--;
+					ref--;
+				}
+				int len = MIN_MATCH;
+				while (ip + len < matchLimit && src[ip + len] == src[ref + len]) {
+					len++;
+				}
+
+				op = writeSequence(src, anchor, ip - anchor, dst, op, ip - ref, len);
+				ip += len;
+				anchor = ip;
+				if (ip - 2 >= srcOff && ip < mfLimit) {
+					table[hash(readInt(src, ip - 2))] = ip - 2;
+				}
+			}
+		}
+
+		// last literals
+		final int literals = end - anchor;
+		final int token = op++;
+		if (literals >= RUN_MASK) {
+			dst[token] = (byte) (RUN_MASK << 4);
+			op = writeLength(dst, op, literals - RUN_MASK);
+		} else {
+			dst[token] = (byte) (literals << 4);
+		}
+		System.arraycopy(src, anchor, dst, op, literals);
+		return op + literals - dstOff;
+	}
+
+	private static int writeLength(byte[] dst, int op, int l) {
+		while (l >= 255) {
+			dst[op++] = (byte) 255;
+			l -= 255;
+		}
+		dst[op++] = (byte) l;
+		return op;
+	}
+
+	private static int writeSequence(byte[] src, int anchor, int literals, byte[] dst, int op, int offset, int length) {
+		final int token = op++;
+		int t;
+		if (literals >= RUN_MASK) {
+			t = RUN_MASK << 4;
+			op = writeLength(dst, op, literals - RUN_MASK);
+		} else {
+			t = literals << 4;
+		}
+		System.arraycopy(src, anchor, dst, op, literals);
+		op += literals;
+
+		dst[op++] = (byte) offset;
+		dst[op++] = (byte) (offset >>> 8);
+
+		length -= MIN_MATCH;
+		if (length >= RUN_MASK) {
+			t |= RUN_MASK;
+			op = writeLength(dst, op, length - RUN_MASK);
+		} else {
+			t |= length;
+		}
+		dst[token] = (byte) t;
+		return op;
+	}
+
+	/**
+	 * Decompress bytes
+	 * @param src source
+	 * @param srcOff offset in source
+	 * @param srcLen number of compressed bytes
+	 * @param dst destination
+	 * @param dstOff offset in destination
+	 * @param dstLen expected number of decompressed bytes
+	 * @throws IllegalArgumentException if input is malformed
+	 */
+	static void decompress(final byte[] src, final int srcOff, final int srcLen, final byte[] dst, final int dstOff, final int dstLen) {
+		final int end = srcOff + srcLen;
+		final int dEnd = dstOff + dstLen;
+		int ip = srcOff;
+		int op = dstOff;
+		try {
+			while (ip < end) {
+				final int token = src[ip++] & 0xff;
+				int literals = token >>> 4;
+				if (literals == RUN_MASK) {
+					int b;
+					do {
+						b = src[ip++] & 0xff;
+						literals += b;
+					} while (b == 255);
+				}
+				if (op + literals > dEnd || ip + literals > end) {
+					throw new IllegalArgumentException("Compressed data is corrupt");
+				}
+				System.arraycopy(src, ip, dst, op, literals);
+				ip += literals;
+				op += literals;
+				if (ip >= end) {
+					break;
+				}
+
+				final int offset = (src[ip] & 0xff) | (src[ip + 1] & 0xff) << 8;
+				ip += 2;
+				int length = token & RUN_MASK;
+				if (length == RUN_MASK) {
+					int b;
+					do {
+						b = src[ip++] & 0xff;
+						length += b;
+					} while (b == 255);
+				}
+				length += MIN_MATCH;
+				int ref = op - offset;
+				if (offset == 0 || ref < dstOff || op + length > dEnd) {
+					throw new IllegalArgumentException("Compressed data is corrupt");
+				}
+				if (offset >= length) {
+					System.arraycopy(dst, ref, dst, op, length);
+					op += length;
+				} else { // overlapping copy
+					for (final int mEnd = op + length; op < mEnd;) {
+						dst[op++] = dst[ref++];
+					}
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Compressed data is corrupt", e);
+		}
+		if (op != dEnd) {
+			throw new IllegalArgumentException("Compressed data has wrong length");
+		}
+	}
+}
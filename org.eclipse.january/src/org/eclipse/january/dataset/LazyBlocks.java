@@ -0,0 +1,108 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import org.eclipse.january.DatasetException;
+
+/**
+ * Helper to stream a lazy dataset as a sequence of blocks. Each block is a slice
+ * holding consecutive positions along the first axis so that concatenating the
+ * blocks, in order, reproduces the flattened dataset
+ */
+final class LazyBlocks {
+
+	/**
+	 * Default maximum number of items in a block
+	 */
+	static final int DEFAULT_BLOCK_SIZE = 1 << 22;
+
+	private final ILazyDataset lazy;
+	private final int[] shape;
+	private final int length; // along first axis
+	private final int rows; // per block
+	private int row;
+
+	/**
+	 * @param lazy dataset
+	 * @param maxItems maximum number of items in each block (if possible)
+	 */
+	LazyBlocks(ILazyDataset lazy, int maxItems) {
+		this.lazy = lazy;
+		shape = lazy.getShape();
+		if (shape.length == 0) {
+			length = 1;
+			rows = 1;
+		} else {
+			length = shape[0];
+			int rowSize = 1;
+			for (int i = 1; i < shape.length; i++) {
+				rowSize *= shape[i];
+			}
+			rows = Math.max(1, maxItems / Math.max(1, rowSize));
+		}
+		row = 0;
+	}
+
+	/**
+	 * @param lazy dataset
+	 */
+	LazyBlocks(ILazyDataset lazy) {
+		this(lazy, DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * @return true if there are more blocks
+	 */
+	boolean hasNext() {
+		return row < length && ShapeUtils.calcSize(shape) > 0;
+	}
+
+	/**
+	 * @return position along first axis of next block
+	 */
+	int getRow() {
+		return row;
+	}
+
+	/**
+	 * @return next block
+	 * @throws DatasetException
+	 */
+	Dataset next() throws DatasetException {
+		if (shape.length == 0) {
+			row = length;
+			return DatasetUtils.sliceAndConvertLazyDataset(lazy);
+		}
+		Dataset block = next(lazy);
+		row += Math.min(rows, length - row);
+		return block;
+	}
+
+	/**
+	 * Get same block from another lazy dataset of identical shape. This must be called
+	 * before {@link #next()}
+	 * @param other
+	 * @return block
+	 * @throws DatasetException
+	 */
+	Dataset next(ILazyDataset other) throws DatasetException {
+		if (shape.length == 0) {
+			return DatasetUtils.sliceAndConvertLazyDataset(other);
+		}
+		int[] start = new int[shape.length];
+		int[] stop = shape.clone();
+		start[0] = row;
+		stop[0] = Math.min(row + rows, length);
+		return DatasetUtils.convertToDataset(other.getSlice(new SliceND(shape, start, stop, null)));
+	}
+}
@@ -15,7 +15,6 @@ package org.eclipse.january.dataset;
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -544,36 +543,17 @@ public class LazyDataset extends LazyDatasetBase implements Serializable, Clonea
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	private List<Class<? extends MetadataType>> findAnnotatedMetadata(Class<? extends Annotation> aclazz) {
 		List<Class<? extends MetadataType>> mclazzes = new ArrayList<Class<? extends MetadataType>>();
 		if (metadata == null)
 			return mclazzes;
 
 		for (Class<? extends MetadataType> c : metadata.keySet()) {
-			boolean hasAnn = false;
 			for (MetadataType m : metadata.get(c)) {
-				if (m == null)
-					continue;
-
-				Class<? extends MetadataType> mc = m.getClass();
-				do { // iterate over super-classes
-					for (Field f : mc.getDeclaredFields()) {
-						if (f.isAnnotationPresent(aclazz)) {
-							hasAnn = true;
-							break;
-						}
-					}
-					Class<?> sclazz = mc.getSuperclass();
-					if (!MetadataType.class.isAssignableFrom(sclazz))
-						break;
-					mc = (Class<? extends MetadataType>) sclazz;
-				} while (!hasAnn);
-				if (hasAnn)
+				if (m != null && getAnnotatedFields(m.getClass(), aclazz).length > 0) {
+					mclazzes.add(c);
 					break;
-			}
-			if (hasAnn) {
-				mclazzes.add(c);
+				}
 			}
 		}
 		return mclazzes;
@@ -587,7 +567,8 @@ public class LazyDataset extends LazyDatasetBase implements Serializable, Clonea
 	 * the physical memory.
 	 * 
 	 * To get more in memory increase -Xmx setting or use an expression
-	 * which calls a rolling function (like rmean) instead of slicing directly
+	 * which calls a rolling function (like rmean or those in
+	 * {@link SlidingWindow#lazyFilter}) instead of slicing directly
 	 * to memory.
 	 * 
 	 * @param lazySet
@@ -763,7 +763,48 @@ public abstract class LazyDatasetBase implements ILazyDataset, Serializable {
 		processAnnotatedMetadata(new MdsDirty(), true);
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * Cache of accessible fields, for each metadata class, that have a given annotation
+	 */
+	private static final ClassValue<ConcurrentMap<Class<? extends Annotation>, Field[]>> ANNOTATED_FIELDS = new ClassValue<ConcurrentMap<Class<? extends Annotation>, Field[]>>() {
+		@Override
+		protected ConcurrentMap<Class<? extends Annotation>, Field[]> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Class<? extends Annotation>, Field[]>();
+		}
+	};
+
+	/**
+	 * Get fields, declared in given metadata class and its super-classes, that have given annotation.
+	 * The fields are found once per class and made accessible
+	 * @param mc metadata class
+	 * @param aclazz annotation class
+	 * @return fields (which must not be modified)
+	 */
+	static Field[] getAnnotatedFields(Class<? extends MetadataType> mc, Class<? extends Annotation> aclazz) {
+		ConcurrentMap<Class<? extends Annotation>, Field[]> fields = ANNOTATED_FIELDS.get(mc);
+		Field[] fs = fields.get(aclazz);
+		if (fs == null) {
+			List<Field> list = new ArrayList<Field>();
+			Class<?> c = mc;
+			do { // iterate over super-classes
+				for (Field f : c.getDeclaredFields()) {
+					if (f.isAnnotationPresent(aclazz)) {
+						try {
+							f.setAccessible(true);
+						} catch (SecurityException e) {
+							logger.error("Could not make field {} accessible in metadata class {}", f.getName(), c.getCanonicalName());
+						}
+						list.add(f);
+					}
+				}
+				c = c.getSuperclass();
+			} while (c != null && MetadataType.class.isAssignableFrom(c));
+			fs = list.toArray(new Field[list.size()]);
+			fields.putIfAbsent(aclazz, fs);
+		}
+		return fs;
+	}
+
 	private void processAnnotatedMetadata(MetadatasetAnnotationOperation op, boolean throwException) {
 		if (metadata == null)
 			return;
@@ -773,26 +814,15 @@ public abstract class LazyDatasetBase implements ILazyDataset, Serializable {
 				if (m == null)
 					continue;
 
-				Class<? extends MetadataType> mc = m.getClass();
-				do { // iterate over super-classes
-					processClass(op, m, mc, throwException);
-					Class<?> sclazz = mc.getSuperclass();
-					if (!MetadataType.class.isAssignableFrom(sclazz))
-						break;
-					mc = (Class<? extends MetadataType>) sclazz;
-				} while (true);
+				processClass(op, m, throwException);
 			}
 		}
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	private static void processClass(MetadatasetAnnotationOperation op, MetadataType m, Class<? extends MetadataType> mc, boolean throwException) {
-		for (Field f : mc.getDeclaredFields()) {
-			if (!f.isAnnotationPresent(op.getAnnClass()))
-				continue;
-
+	private static void processClass(MetadatasetAnnotationOperation op, MetadataType m, boolean throwException) {
+		for (Field f : getAnnotatedFields(m.getClass(), op.getAnnClass())) {
 			try {
-				f.setAccessible(true);
 				Object o = f.get(m);
 				if (o == null)
 					continue;
@@ -890,7 +920,7 @@ public abstract class LazyDatasetBase implements ILazyDataset, Serializable {
 					}
 				}
 			} catch (Exception e) {
-				logger.error("Problem occurred when processing metadata of class {}: {}", mc.getCanonicalName(), e);
+				logger.error("Problem occurred when processing metadata of class {}: {}", f.getDeclaringClass().getCanonicalName(), e);
 				if (throwException)
 					throw new RuntimeException(e);
 			}
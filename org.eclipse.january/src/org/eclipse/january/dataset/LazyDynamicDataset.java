@@ -10,6 +10,7 @@
 package org.eclipse.january.dataset;
 
 import java.util.Arrays;
+import java.util.concurrent.Executor;
 
 import org.eclipse.january.io.ILazyDynamicLoader;
 import org.eclipse.january.io.ILazyLoader;
@@ -22,30 +23,8 @@ public class LazyDynamicDataset extends LazyDataset implements IDynamicDataset {
 	protected transient DataListenerDelegate eventDelegate; // this does not need to be serialised!
 
 	protected IDatasetChangeChecker checker;
-	private boolean stop;
-
-	class PeriodicRunnable implements Runnable {
-		long millis;
-
-		@Override
-		public void run() {
-			while (!stop) {
-				try {
-					Thread.sleep(millis);
-				} catch (InterruptedException e) {
-					logger.error("Something has interrupted this periodic runner!");
-					stop = true; // ends runner
-				}
-				if (checker == null || checker.check()) {
-					fireDataListeners();
-				}
-			}				
-		}
-	}
-
-	private transient PeriodicRunnable runner = new PeriodicRunnable();
 
-	private Thread checkingThread;
+	private transient UpdateCheckScheduler.Task updater;
 
 	public LazyDynamicDataset(String name, int dtype, int elements, int[] shape, int[] maxShape, ILazyLoader loader) {
 		super(name, dtype, elements, shape, loader);
@@ -82,6 +61,28 @@ public class LazyDynamicDataset extends LazyDataset implements IDynamicDataset {
 		eventDelegate.addDataListener(l);
 	}
 
+	/**
+	 * Add a listener with a limit on its rate of delivery. Events that occur within the
+	 * interval are coalesced and only the latest is delivered
+	 * @param l
+	 * @param milliseconds minimum interval between deliveries of events to listener
+	 * @since 2.0
+	 */
+	public void addDataListener(IDataListener l, long milliseconds) {
+		eventDelegate.addDataListener(l, milliseconds);
+	}
+
+	/**
+	 * Set executor used to deliver events to listeners so that the thread that changes the
+	 * dataset is not held up by listeners. Events that occur while an earlier one is waiting
+	 * to be delivered to a listener replace it
+	 * @param executor if null, deliver events synchronously
+	 * @since 2.0
+	 */
+	public void setEventExecutor(Executor executor) {
+		eventDelegate.setExecutor(executor);
+	}
+
 	@Override
 	public void removeDataListener(IDataListener l) {
 		eventDelegate.removeDataListener(l);
@@ -184,14 +185,17 @@ public class LazyDynamicDataset extends LazyDataset implements IDynamicDataset {
 		return ret;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Checks are run by the shared {@link UpdateCheckScheduler}
+	 */
 	@Override
 	public synchronized void startUpdateChecker(int milliseconds, IDatasetChangeChecker checker) {
-		// stop any current checking threads
-		if (checkingThread != null) {
-			stop = true;
-			if (checkingThread != null) {
-				checkingThread.interrupt();
-			}
+		// stop any current checking
+		if (updater != null) {
+			updater.cancel();
+			updater = null;
 		}
 		this.checker = checker;
 		if (checker != null) {
@@ -201,10 +205,6 @@ public class LazyDynamicDataset extends LazyDataset implements IDynamicDataset {
 			return;
 		}
 
-		runner.millis = milliseconds;
-		checkingThread = new Thread(runner);
-		checkingThread.setDaemon(true);
-		checkingThread.setName("Checking thread with period " + milliseconds + "ms");
-		checkingThread.start();
+		updater = UpdateCheckScheduler.schedule(this, milliseconds, checker);
 	}
 }
@@ -147,27 +147,55 @@ public final class LazyMaths {
 		int[] pos = iter.getPos();
 		boolean[] omit = iter.getOmit();
 
-		int rank = shape.length;
-		int[] st = new int[rank];
+		final int rank = shape.length;
+		final int[] st = new int[rank];
 		Arrays.fill(st, 1);
-		int[] end = new int[rank];
 
-		RunningAverage av = null;
+		final List<int[]> starts = new ArrayList<int[]>();
+		final List<int[]> ends = new ArrayList<int[]>();
 		int c = 0;
 		while (iter.hasNext() && c < stop) {
 			if (c++ < start) continue;
+			int[] end = new int[rank];
 			for (int i = 0; i < rank; i++) {
 				end[i] = omit[i] ? shape[i] : pos[i] + 1;
 			}
-			IDataset ds = data.getSlice(pos, end, st);
-			if (av == null) {
-				av = new RunningAverage(ds);
-			} else {
-				av.update(ds);
+			starts.add(pos.clone());
+			ends.add(end);
+		}
+		final int n = starts.size();
+		if (n == 0) {
+			return null;
+		}
+
+		RunningAverage av;
+		if (data instanceof Dataset) { // average views of frames in parallel and merge
+			final Dataset d = (Dataset) data;
+			final int fsize = Math.max(1, ShapeUtils.calcSize(d.getSliceView(starts.get(0), ends.get(0), st).getShapeRef()));
+			av = ParallelUtils.reduce(0, n, Math.max(1, ParallelUtils.DEFAULT_GRAIN / fsize), new ParallelUtils.RangeReduction<RunningAverage>() {
+				@Override
+				RunningAverage compute(int s, int e) {
+					RunningAverage a = new RunningAverage(d.getSliceView(starts.get(s), ends.get(s), st));
+					for (int i = s + 1; i < e; i++) {
+						a.update(d.getSliceView(starts.get(i), ends.get(i), st));
+					}
+					return a;
+				}
+
+				@Override
+				RunningAverage combine(RunningAverage lower, RunningAverage upper) {
+					lower.merge(upper);
+					return lower;
+				}
+			});
+		} else {
+			av = new RunningAverage(data.getSlice(starts.get(0), ends.get(0), st));
+			for (int i = 1; i < n; i++) {
+				av.update(data.getSlice(starts.get(i), ends.get(i), st));
 			}
 		}
 
-		return  av != null ? av.getCurrentAverage().squeeze() : null;
+		return av.getCurrentAverage().squeeze();
 	}
 	
 	public static Dataset mean(ILazyDataset data, int... ignoreAxes) throws DatasetException {
@@ -0,0 +1,198 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+/**
+ * Utilities to apply a one-dimensional kernel to every line of a dataset along an axis
+ * <p>
+ * Lines are read directly from the dataset's buffer, honouring the offset and strides of views,
+ * into a contiguous 1D dataset that is passed to the kernel; the kernel's results are written
+ * directly to the output's buffer. When the axis is not the last one, adjacent lines are read and
+ * written together as a block so that the buffers are traversed in runs of consecutive values
+ * rather than one value at a time. Lines are distributed over a fork-join pool.
+ */
+final class LineUtils {
+
+	private static final int BLOCK = 64; // maximum number of lines read together
+
+	private LineUtils() {
+	}
+
+	/**
+	 * Kernel that processes a line. An instance is shared by all workers so it must not hold state
+	 * that is modified by processing
+	 */
+	static abstract class LineKernel {
+		private final boolean inPlace;
+
+		LineKernel() {
+			this(false);
+		}
+
+		/**
+		 * @param inPlace if true, kernel writes its results into the line
+		 */
+		LineKernel(boolean inPlace) {
+			this.inPlace = inPlace;
+		}
+
+		/**
+		 * @param line 1D contiguous dataset of items along axis
+		 * @param out 1D contiguous dataset for results (same as line for in-place kernels)
+		 */
+		abstract void process(Dataset line, Dataset out);
+	}
+
+	/**
+	 * Apply kernel to every line along an axis
+	 * @param a input dataset
+	 * @param axis
+	 * @param out output dataset with shape of input except along axis (can be the same as input
+	 * for in-place kernels)
+	 * @param kernel
+	 */
+	static void applyAlongAxis(final Dataset a, final int axis, final Dataset out, final LineKernel kernel) {
+		final int[] shape = a.getShapeRef();
+		final int[] oshape = out.getShapeRef();
+		final int rank = shape.length;
+		if (axis < 0 || axis >= rank) {
+			throw new IllegalArgumentException("Axis is out of range");
+		}
+		if (oshape.length != rank) {
+			throw new IllegalArgumentException("Output dataset must have same rank as input");
+		}
+		for (int i = 0; i < rank; i++) {
+			if (i != axis && shape[i] != oshape[i]) {
+				throw new IllegalArgumentException("Output dataset must have same shape as input except along axis");
+			}
+		}
+		final int dtype = a.getDType();
+		final int odtype = out.getDType();
+		final int is = a.getElementsPerItem();
+		final int ois = out.getElementsPerItem();
+		final int len = shape[axis];
+		final int olen = oshape[axis];
+		final boolean inPlace = kernel.inPlace;
+		if (inPlace && (dtype != odtype || is != ois || len != olen)) {
+			throw new IllegalArgumentException("In-place kernel needs output dataset with same type and shape as input");
+		}
+
+		int n = 1;
+		for (int i = 0; i < rank; i++) {
+			if (i != axis) {
+				n *= shape[i];
+			}
+		}
+		if (n == 0) {
+			return;
+		}
+
+		final Object abuf = a.getBuffer();
+		final Object obuf = out.getBuffer();
+		final int[] stride = getStrides(a);
+		final int[] ostride = getStrides(out);
+		final int offset = a.getStrides() == null ? 0 : a.getOffset();
+		final int ooffset = out.getStrides() == null ? 0 : out.getOffset();
+		final int inner = axis == rank - 1 ? -1 : rank - 1; // axis of adjacent lines
+		final int block = inner < 0 ? 1 : Math.min(BLOCK, shape[inner]);
+		final int grain = Math.max(block, ParallelUtils.DEFAULT_GRAIN / Math.max(1, len * is + olen * ois));
+
+		final Class<? extends Dataset> clazz = DTypeUtils.getInterface(dtype);
+		final Class<? extends Dataset> oclazz = DTypeUtils.getInterface(odtype);
+		ParallelUtils.forRange(0, n, grain, new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final Dataset line = DatasetFactory.zeros(is, clazz, len);
+				final Dataset result = inPlace ? line : DatasetFactory.zeros(ois, oclazz, olen);
+				final Object lbuf = line.getBuffer();
+				final Object rbuf = result.getBuffer();
+				final int ll = len * is;
+				final int rl = olen * ois;
+				final Object ibbuf = block > 1 ? DatasetFactory.zeros(is, clazz, block * len).getBuffer() : null;
+				final Object obbuf = block > 1 ? (inPlace ? ibbuf : DatasetFactory.zeros(ois, oclazz, block * olen).getBuffer()) : null;
+				final int[] pos = new int[rank];
+
+				int l = start;
+				while (l < end) {
+					int r = l;
+					for (int i = rank - 1; i >= 0; i--) {
+						if (i == axis) {
+							pos[i] = 0;
+						} else {
+							pos[i] = r % shape[i];
+							r /= shape[i];
+						}
+					}
+					int base = offset;
+					int obase = ooffset;
+					for (int i = 0; i < rank; i++) {
+						base += pos[i] * stride[i];
+						obase += pos[i] * ostride[i];
+					}
+
+					final int b = inner < 0 ? 1 : Math.min(Math.min(block, end - l), shape[inner] - pos[inner]);
+					if (b == 1) {
+						for (int e = 0; e < is; e++) {
+							BufferUtils.copyStrided(abuf, base + e, stride[axis], lbuf, e, is, len);
+						}
+						kernel.process(line, result);
+						for (int e = 0; e < ois; e++) {
+							BufferUtils.copyStrided(rbuf, e, ois, obuf, obase + e, ostride[axis], olen);
+						}
+					} else {
+						// gather block of lines, process each and scatter results
+						final int s = stride[inner];
+						final int os = ostride[inner];
+						for (int k = 0; k < len; k++) {
+							for (int e = 0; e < is; e++) {
+								BufferUtils.copyStrided(abuf, base + k * stride[axis] + e, s, ibbuf, k * is + e, ll, b);
+							}
+						}
+						for (int j = 0; j < b; j++) {
+							System.arraycopy(ibbuf, j * ll, lbuf, 0, ll);
+							kernel.process(line, result);
+							System.arraycopy(rbuf, 0, obbuf, j * rl, rl);
+						}
+						for (int k = 0; k < olen; k++) {
+							for (int e = 0; e < ois; e++) {
+								BufferUtils.copyStrided(obbuf, k * ois + e, rl, obuf, obase + k * ostride[axis] + e, os, b);
+							}
+						}
+					}
+					l += b;
+				}
+			}
+		});
+		out.setDirty();
+	}
+
+	/**
+	 * @param a
+	 * @return strides in elements
+	 */
+	private static int[] getStrides(final Dataset a) {
+		final int[] stride = a.getStrides();
+		if (stride != null) {
+			return stride;
+		}
+		final int[] shape = a.getShapeRef();
+		final int rank = shape.length;
+		final int[] s = new int[rank];
+		int t = a.getElementsPerItem();
+		for (int i = rank - 1; i >= 0; i--) {
+			s[i] = t;
+			t *= shape[i];
+		}
+		return s;
+	}
+}
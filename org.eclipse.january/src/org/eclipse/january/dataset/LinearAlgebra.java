@@ -18,15 +18,14 @@ import java.util.List;
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.CholeskyDecomposition;
 import org.apache.commons.math3.linear.ConjugateGradient;
 import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.LUDecomposition;
 import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.QRDecomposition;
 import org.apache.commons.math3.linear.RealLinearOperator;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.linear.SingularMatrixException;
 import org.apache.commons.math3.linear.SingularValueDecomposition;
 
 
@@ -34,6 +33,8 @@ public class LinearAlgebra {
 
 	private static final int CROSSOVERPOINT = 16; // point at which using slice iterators for inner loop is faster 
 
+	private static final double SINGULARITY_THRESHOLD = 1e-11; // as used by commons-math's LUDecomposition
+
 	/**
 	 * Calculate the tensor dot product over given axes. This is the sum of products of elements selected
 	 * from the given axes in each dataset
@@ -1083,8 +1084,15 @@ public class LinearAlgebra {
 	 * @return determinant of dataset
 	 */
 	public static double calcDeterminant(Dataset a) {
-		EigenDecomposition evd = new EigenDecomposition(createRealMatrix(a));
-		return evd.getDeterminant();
+		Dataset[] lu = DenseDecompositions.decomposeLU(a, false);
+		double[] m = (double[]) lu[0].getBuffer();
+		int[] piv = (int[]) lu[1].getBuffer();
+		int n = piv.length;
+		double det = 1;
+		for (int i = 0; i < n; i++) {
+			det *= m[i * n + i];
+		}
+		return isOddPermutation(piv) ? -det : det;
 	}
 
 	/**
@@ -1092,6 +1100,9 @@ public class LinearAlgebra {
 	 * @return dataset of eigenvalues (can be double or complex double)
 	 */
 	public static Dataset calcEigenvalues(Dataset a) {
+		if (isSymmetric(a)) {
+			return reverse(DenseDecompositions.decomposeSymmetricEigen(a, false)[0]);
+		}
 		EigenDecomposition evd = new EigenDecomposition(createRealMatrix(a));
 		double[] rev = evd.getRealEigenvalues();
 
@@ -1108,6 +1119,10 @@ public class LinearAlgebra {
 	 * @return array of D eigenvalues (can be double or complex double) and V eigenvectors
 	 */
 	public static Dataset[] calcEigenDecomposition(Dataset a) {
+		if (isSymmetric(a)) { // in descending order of eigenvalues
+			Dataset[] evd = DenseDecompositions.decomposeSymmetricEigen(a, false);
+			return new Dataset[] {reverse(evd[0]), evd[1].getSliceView(null, new Slice(null, null, -1)).getSlice()};
+		}
 		EigenDecomposition evd = new EigenDecomposition(createRealMatrix(a));
 		Dataset[] results = new Dataset[2];
 
@@ -1128,8 +1143,22 @@ public class LinearAlgebra {
 	 * @return array of Q and R
 	 */
 	public static Dataset[] calcQRDecomposition(Dataset a) {
-		QRDecomposition qrd = new QRDecomposition(createRealMatrix(a));
-		return new Dataset[] {createDataset(qrd.getQT()).getTransposedView(), createDataset(qrd.getR())};
+		Dataset[] qrd = DenseDecompositions.decomposeQR(a, false);
+		final double[] h = (double[]) qrd[0].getBuffer();
+		final double[] tau = (double[]) qrd[1].getBuffer();
+		final int[] shape = qrd[0].getShapeRef();
+		final int m = shape[0];
+		final int n = shape[1];
+		DoubleDataset q = (DoubleDataset) DatasetUtils.eye(m, m, 0, Dataset.FLOAT64);
+		double[] qb = q.getData();
+		for (int k = tau.length - 1; k >= 0; k--) { // Q = H_0 H_1 ... H_(k-1)
+			DenseDecompositions.applyReflection(h, n, k, m, tau[k], qb, m, k, m);
+		}
+		for (int i = 1; i < m; i++) { // clear vectors below R
+			Arrays.fill(h, i * n, i * n + Math.min(i, n), 0);
+		}
+		qrd[0].setDirty();
+		return new Dataset[] {q, qrd[0]};
 	}
 
 	/**
@@ -1138,9 +1167,22 @@ public class LinearAlgebra {
 	 * @return array of L, U and P
 	 */
 	public static Dataset[] calcLUDecomposition(Dataset a) {
-		LUDecomposition lud = new LUDecomposition(createRealMatrix(a));
-		return new Dataset[] {createDataset(lud.getL()), createDataset(lud.getU()),
-				createDataset(lud.getP())};
+		Dataset[] lud = DenseDecompositions.decomposeLU(a, false);
+		double[] m = (double[]) lud[0].getBuffer();
+		int[] piv = (int[]) lud[1].getBuffer();
+		int n = piv.length;
+		DoubleDataset l = (DoubleDataset) DatasetUtils.eye(n, n, 0, Dataset.FLOAT64);
+		DoubleDataset u = DatasetFactory.zeros(DoubleDataset.class, n, n);
+		DoubleDataset p = DatasetFactory.zeros(DoubleDataset.class, n, n);
+		double[] lb = l.getData();
+		double[] ub = u.getData();
+		for (int i = 0; i < n; i++) {
+			int r = i * n;
+			System.arraycopy(m, r, lb, r, i);
+			System.arraycopy(m, r + i, ub, r + i, n - i);
+			p.setAbs(r + piv[i], 1);
+		}
+		return new Dataset[] {l, u, p};
 	}
 
 	/**
@@ -1149,8 +1191,11 @@ public class LinearAlgebra {
 	 * @return inverse
 	 */
 	public static Dataset calcInverse(Dataset a) {
-		LUDecomposition lud = new LUDecomposition(createRealMatrix(a));
-		return createDataset(lud.getSolver().getInverse());
+		Dataset[] lud = decomposeNonSingularLU(a);
+		int n = lud[1].getSize();
+		DoubleDataset r = (DoubleDataset) DatasetUtils.eye(n, n, 0, Dataset.FLOAT64);
+		solveLU((double[]) lud[0].getBuffer(), n, (int[]) lud[1].getBuffer(), r.getData(), 0, n);
+		return r;
 	}
 
 	/**
@@ -1160,13 +1205,17 @@ public class LinearAlgebra {
 	 * @return x
 	 */
 	public static Dataset solve(Dataset a, Dataset v) {
-		LUDecomposition lud = new LUDecomposition(createRealMatrix(a));
-		if (v.getRank() == 1) {
-			RealVector x = createRealVector(v);
-			return createDataset(lud.getSolver().solve(x));
+		Dataset[] lud = decomposeNonSingularLU(a);
+		int n = lud[1].getSize();
+		int rank = v.getRank();
+		if ((rank != 1 && rank != 2) || v.getShapeRef()[0] != n) {
+			throw new IllegalArgumentException("Dataset must be rank 1 or 2 with same number of rows as matrix");
 		}
-		RealMatrix x = createRealMatrix(v);
-		return createDataset(lud.getSolver().solve(x));
+		DoubleDataset x = DatasetFactory.zeros(DoubleDataset.class, v.getShapeRef());
+		double[] xb = x.getData();
+		BufferUtils.copyToDoubles(v, 0, 0, xb.length, xb, 0);
+		solveLU((double[]) lud[0].getBuffer(), n, (int[]) lud[1].getBuffer(), xb, 0, rank == 1 ? 1 : v.getShapeRef()[1]);
+		return x;
 	}
 
 	
@@ -1192,8 +1241,7 @@ public class LinearAlgebra {
 	 * @return L
 	 */
 	public static Dataset calcCholeskyDecomposition(Dataset a) {
-		CholeskyDecomposition cd = new CholeskyDecomposition(createRealMatrix(a));
-		return createDataset(cd.getL());
+		return DenseDecompositions.decomposeCholesky(a, false);
 	}
 
 	/**
@@ -1221,6 +1269,462 @@ public class LinearAlgebra {
 		return createDataset(cg.solve((RealLinearOperator) createRealMatrix(a), createRealVector(v)));
 	}
 
+	/**
+	 * Calculate determinants of a stack of square matrices. The last two axes of the dataset are
+	 * the rows and columns of each matrix. Small matrices use closed forms and larger ones use
+	 * LU decomposition with partial pivoting; the matrices are processed in parallel
+	 * @param a
+	 * @return dataset of determinants with shape of stack
+	 * @since 2.0
+	 */
+	public static Dataset calcDeterminants(Dataset a) {
+		final int n = getMatrixSize(a);
+		final double[] m = getDoubles(a);
+		final int[] shape = a.getShapeRef();
+		final DoubleDataset r = DatasetFactory.zeros(DoubleDataset.class, Arrays.copyOf(shape, shape.length - 2));
+		final double[] dets = r.getData();
+		final int nn = n * n;
+		ParallelUtils.forRange(0, dets.length, getGrain(n), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] lu = new double[nn];
+				final int[] piv = new int[n];
+				for (int i = start; i < end; i++) {
+					final int o = i * nn;
+					switch (n) {
+					case 1:
+						dets[i] = m[o];
+						break;
+					case 2:
+						dets[i] = m[o] * m[o + 3] - m[o + 1] * m[o + 2];
+						break;
+					case 3:
+						dets[i] = det3(m, o);
+						break;
+					default:
+						System.arraycopy(m, o, lu, 0, nn);
+						dets[i] = DenseDecompositions.lu(lu, n, piv);
+						break;
+					}
+				}
+			}
+		});
+		return r;
+	}
+
+	/**
+	 * Calculate inverses of a stack of square matrices. The last two axes of the dataset are the
+	 * rows and columns of each matrix. Small matrices use the adjugate and larger ones use LU
+	 * decomposition with partial pivoting; the matrices are processed in parallel
+	 * @param a
+	 * @return dataset of inverses where singular matrices have inverses filled with NaNs
+	 * @since 2.0
+	 */
+	public static Dataset calcInverses(Dataset a) {
+		final int n = getMatrixSize(a);
+		final double[] m = getDoubles(a);
+		final DoubleDataset r = DatasetFactory.zeros(DoubleDataset.class, a.getShapeRef());
+		final double[] inv = r.getData();
+		final int nn = n * n;
+		ParallelUtils.forRange(0, inv.length / Math.max(1, nn), getGrain(n), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] lu = new double[nn];
+				final int[] piv = new int[n];
+				for (int i = start; i < end; i++) {
+					final int o = i * nn;
+					switch (n) {
+					case 1:
+						inv[o] = m[o] == 0 ? Double.NaN : 1 / m[o];
+						break;
+					case 2:
+						invert2(m, o, inv);
+						break;
+					case 3:
+						invert3(m, o, inv);
+						break;
+					default:
+						System.arraycopy(m, o, lu, 0, nn);
+						if (DenseDecompositions.lu(lu, n, piv) == 0) {
+							Arrays.fill(inv, o, o + nn, Double.NaN);
+						} else {
+							for (int j = 0; j < n; j++) { // columns of identity
+								inv[o + j * n + j] = 1;
+							}
+							solveLU(lu, n, piv, inv, o, n);
+						}
+						break;
+					}
+				}
+			}
+		});
+		return r;
+	}
+
+	/**
+	 * Solve a stack of linear matrix equations A x = v. The last two axes of the first dataset are
+	 * the rows and columns of each matrix and the stack of right-hand sides is either a stack of
+	 * vectors (with shape of stack and the matrix size) or a stack of matrices (with shape of stack,
+	 * matrix size and number of columns). The equations are solved in parallel
+	 * @param a
+	 * @param v
+	 * @return stack of x where equations with singular matrices have solutions filled with NaNs
+	 * @since 2.0
+	 */
+	public static Dataset solveAll(Dataset a, Dataset v) {
+		final int n = getMatrixSize(a);
+		final int[] shape = a.getShapeRef();
+		final int[] vshape = v.getShapeRef();
+		final int rank = shape.length;
+		final int k;
+		if (vshape.length == rank - 1 && Arrays.equals(Arrays.copyOf(shape, rank - 1), vshape)) {
+			k = 1;
+		} else if (vshape.length == rank && Arrays.equals(Arrays.copyOf(shape, rank - 1), Arrays.copyOf(vshape, rank - 1))) {
+			k = vshape[rank - 1];
+		} else {
+			throw new IllegalArgumentException("Right-hand side must be a stack of vectors or matrices with same stack shape and matrix size");
+		}
+		final double[] m = getDoubles(a);
+		final DoubleDataset r = DatasetFactory.zeros(DoubleDataset.class, vshape);
+		final double[] x = r.getData();
+		BufferUtils.copyToDoubles(v, 0, 0, x.length, x, 0);
+		final int nn = n * n;
+		final int nk = n * k;
+		ParallelUtils.forRange(0, m.length / Math.max(1, nn), getGrain(n), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] lu = new double[nn];
+				final int[] piv = new int[n];
+				for (int i = start; i < end; i++) {
+					System.arraycopy(m, i * nn, lu, 0, nn);
+					if (DenseDecompositions.lu(lu, n, piv) == 0) {
+						Arrays.fill(x, i * nk, (i + 1) * nk, Double.NaN);
+					} else {
+						solveLU(lu, n, piv, x, i * nk, k);
+					}
+				}
+			}
+		});
+		return r;
+	}
+
+	/**
+	 * Calculate eigenvalues of a stack of real symmetric matrices. The last two axes of the dataset
+	 * are the rows and columns of each matrix and only its lower triangle is used. Matrices of size
+	 * 2 and 3 use closed forms and larger ones use the cyclic Jacobi method; the matrices are
+	 * processed in parallel
+	 * @param a
+	 * @return dataset of eigenvalues in ascending order with shape of stack and matrix size
+	 * @since 2.0
+	 */
+	public static Dataset calcSymmetricEigenvalues(Dataset a) {
+		final int n = getMatrixSize(a);
+		final double[] m = getDoubles(a);
+		final int[] shape = a.getShapeRef();
+		final DoubleDataset r = DatasetFactory.zeros(DoubleDataset.class, Arrays.copyOf(shape, shape.length - 1));
+		final double[] ev = r.getData();
+		final int nn = n * n;
+		ParallelUtils.forRange(0, ev.length / Math.max(1, n), getGrain(n), new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] w = new double[nn];
+				for (int i = start; i < end; i++) {
+					final int o = i * nn;
+					final int e = i * n;
+					switch (n) {
+					case 1:
+						ev[e] = m[o];
+						break;
+					case 2:
+						final double h = 0.5 * (m[o] + m[o + 3]);
+						final double d = Math.hypot(0.5 * (m[o] - m[o + 3]), m[o + 2]);
+						ev[e] = h - d;
+						ev[e + 1] = h + d;
+						break;
+					case 3:
+						symmetricEigenvalues3(m, o, ev, e);
+						break;
+					default:
+						System.arraycopy(m, o, w, 0, nn);
+						jacobiEigenvalues(w, n, ev, e);
+						break;
+					}
+				}
+			}
+		});
+		return r;
+	}
+
+	/**
+	 * @param a
+	 * @return size of square matrices in stack
+	 */
+	private static int getMatrixSize(Dataset a) {
+		final int[] shape = a.getShapeRef();
+		final int rank = shape.length;
+		if (rank < 2 || shape[rank - 1] != shape[rank - 2]) {
+			throw new IllegalArgumentException("Dataset must be a stack of square matrices");
+		}
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Dataset must not be compound");
+		}
+		return shape[rank - 1];
+	}
+
+	/**
+	 * @param a
+	 * @return buffer of a contiguous double dataset, otherwise a copy of its values
+	 */
+	private static double[] getDoubles(Dataset a) {
+		if (a instanceof DoubleDataset && a.getStrides() == null) {
+			return (double[]) a.getBuffer();
+		}
+		return BufferUtils.toDoubles(a);
+	}
+
+	/**
+	 * @param n matrix size
+	 * @return number of matrices in each task
+	 */
+	private static int getGrain(int n) {
+		return Math.max(1, ParallelUtils.DEFAULT_GRAIN / Math.max(1, n * n * n));
+	}
+
+	private static double det3(double[] m, int o) {
+		return m[o] * (m[o + 4] * m[o + 8] - m[o + 5] * m[o + 7])
+				- m[o + 1] * (m[o + 3] * m[o + 8] - m[o + 5] * m[o + 6])
+				+ m[o + 2] * (m[o + 3] * m[o + 7] - m[o + 4] * m[o + 6]);
+	}
+
+	private static void invert2(double[] m, int o, double[] r) {
+		final double det = m[o] * m[o + 3] - m[o + 1] * m[o + 2];
+		if (det == 0) {
+			Arrays.fill(r, o, o + 4, Double.NaN);
+			return;
+		}
+		final double f = 1 / det;
+		final double m0 = m[o];
+		r[o + 1] = -f * m[o + 1];
+		r[o + 2] = -f * m[o + 2];
+		r[o] = f * m[o + 3];
+		r[o + 3] = f * m0;
+	}
+
+	private static void invert3(double[] m, int o, double[] r) {
+		final double a = m[o], b = m[o + 1], c = m[o + 2];
+		final double d = m[o + 3], e = m[o + 4], f = m[o + 5];
+		final double g = m[o + 6], h = m[o + 7], i = m[o + 8];
+		final double ca = e * i - f * h;
+		final double cb = f * g - d * i;
+		final double cc = d * h - e * g;
+		final double det = a * ca + b * cb + c * cc;
+		if (det == 0) {
+			Arrays.fill(r, o, o + 9, Double.NaN);
+			return;
+		}
+		final double s = 1 / det;
+		r[o] = s * ca;
+		r[o + 1] = s * (c * h - b * i);
+		r[o + 2] = s * (b * f - c * e);
+		r[o + 3] = s * cb;
+		r[o + 4] = s * (a * i - c * g);
+		r[o + 5] = s * (c * d - a * f);
+		r[o + 6] = s * cc;
+		r[o + 7] = s * (b * g - a * h);
+		r[o + 8] = s * (a * e - b * d);
+	}
+
+	/**
+	 * Solve in place for k right-hand sides held in row-major n x k block of buffer
+	 * @param lu decomposed matrix
+	 * @param n
+	 * @param piv row permutation
+	 * @param b buffer
+	 * @param o offset of block
+	 * @param k number of columns
+	 */
+	private static void solveLU(double[] lu, int n, int[] piv, double[] b, int o, int k) {
+		final int nk = n * k;
+		final double[] y = new double[nk];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(b, o + piv[i] * k, y, i * k, k);
+		}
+		for (int i = 1; i < n; i++) { // forward substitution
+			final int ri = i * n;
+			for (int j = 0; j < i; j++) {
+				final double f = lu[ri + j];
+				if (f != 0) {
+					for (int c = 0; c < k; c++) {
+						y[i * k + c] -= f * y[j * k + c];
+					}
+				}
+			}
+		}
+		for (int i = n - 1; i >= 0; i--) { // back substitution
+			final int ri = i * n;
+			for (int j = i + 1; j < n; j++) {
+				final double f = lu[ri + j];
+				if (f != 0) {
+					for (int c = 0; c < k; c++) {
+						y[i * k + c] -= f * y[j * k + c];
+					}
+				}
+			}
+			final double d = lu[ri + i];
+			for (int c = 0; c < k; c++) {
+				y[i * k + c] /= d;
+			}
+		}
+		System.arraycopy(y, 0, b, o, nk);
+	}
+
+	/**
+	 * Calculate eigenvalues of symmetric 3x3 matrix using the trigonometric solution of its
+	 * characteristic equation
+	 * @param m
+	 * @param o offset of matrix
+	 * @param ev eigenvalues in ascending order
+	 * @param e offset of eigenvalues
+	 */
+	private static void symmetricEigenvalues3(double[] m, int o, double[] ev, int e) {
+		final double a00 = m[o], a11 = m[o + 4], a22 = m[o + 8];
+		final double a10 = m[o + 3], a20 = m[o + 6], a21 = m[o + 7];
+		final double p1 = a10 * a10 + a20 * a20 + a21 * a21;
+		if (p1 == 0) { // diagonal
+			ev[e] = a00;
+			ev[e + 1] = a11;
+			ev[e + 2] = a22;
+			Arrays.sort(ev, e, e + 3);
+			return;
+		}
+		final double q = (a00 + a11 + a22) / 3;
+		final double b00 = a00 - q, b11 = a11 - q, b22 = a22 - q;
+		final double p = Math.sqrt((b00 * b00 + b11 * b11 + b22 * b22 + 2 * p1) / 6);
+		// determinant of B / p where B = A - q I
+		final double det = b00 * (b11 * b22 - a21 * a21) - a10 * (a10 * b22 - a21 * a20) + a20 * (a10 * a21 - b11 * a20);
+		final double hr = det / (2 * p * p * p);
+		final double phi = hr <= -1 ? Math.PI / 3 : (hr >= 1 ? 0 : Math.acos(hr) / 3);
+		final double hi = q + 2 * p * Math.cos(phi);
+		final double lo = q + 2 * p * Math.cos(phi + 2 * Math.PI / 3);
+		ev[e] = lo;
+		ev[e + 1] = 3 * q - hi - lo;
+		ev[e + 2] = hi;
+	}
+
+	/**
+	 * Calculate eigenvalues of symmetric matrix using cyclic Jacobi rotations
+	 * @param w row-major matrix that is overwritten
+	 * @param n
+	 * @param ev eigenvalues in ascending order
+	 * @param e offset of eigenvalues
+	 */
+	private static void jacobiEigenvalues(double[] w, int n, double[] ev, int e) {
+		for (int sweep = 0; sweep < 50; sweep++) {
+			double off = 0;
+			double diag = 0;
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < i; j++) {
+					off += w[i * n + j] * w[i * n + j];
+				}
+				diag += w[i * n + i] * w[i * n + i];
+			}
+			if (off <= 1e-32 * diag) { // negligible off-diagonal terms
+				break;
+			}
+			for (int p = 0; p < n - 1; p++) {
+				for (int q = p + 1; q < n; q++) {
+					final double apq = w[q * n + p]; // lower triangle
+					if (apq == 0) {
+						continue;
+					}
+					final double app = w[p * n + p];
+					final double aqq = w[q * n + q];
+					final double theta = (aqq - app) / (2 * apq);
+					final double t = Math.signum(theta == 0 ? 1 : theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					final double c = 1 / Math.sqrt(t * t + 1);
+					final double s = t * c;
+					for (int k = 0; k < n; k++) {
+						if (k == p || k == q) {
+							continue;
+						}
+						final int kp = k > p ? k * n + p : p * n + k;
+						final int kq = k > q ? k * n + q : q * n + k;
+						final double akp = w[kp];
+						final double akq = w[kq];
+						w[kp] = c * akp - s * akq;
+						w[kq] = s * akp + c * akq;
+					}
+					w[p * n + p] = app - t * apq;
+					w[q * n + q] = aqq + t * apq;
+					w[q * n + p] = 0;
+				}
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			ev[e + i] = w[i * n + i];
+		}
+		Arrays.sort(ev, e, e + n);
+	}
+
+	/**
+	 * @param a
+	 * @return LU decomposition and pivot positions
+	 * @throws SingularMatrixException if matrix is singular
+	 */
+	private static Dataset[] decomposeNonSingularLU(Dataset a) {
+		Dataset[] lud = DenseDecompositions.decomposeLU(a, false);
+		double[] m = (double[]) lud[0].getBuffer();
+		int n = lud[1].getSize();
+		for (int i = 0; i < n; i++) {
+			if (Math.abs(m[i * n + i]) < SINGULARITY_THRESHOLD) {
+				throw new SingularMatrixException();
+			}
+		}
+		return lud;
+	}
+
+	private static boolean isOddPermutation(int[] piv) {
+		boolean odd = false;
+		boolean[] seen = new boolean[piv.length];
+		for (int i = 0; i < piv.length; i++) { // each cycle of length l has l-1 transpositions
+			if (!seen[i]) {
+				for (int j = i; !seen[j]; j = piv[j]) {
+					seen[j] = true;
+					odd = !odd;
+				}
+				odd = !odd;
+			}
+		}
+		return odd;
+	}
+
+	/**
+	 * @param a
+	 * @return true if square matrix is symmetric (to within the tolerance used by {@link EigenDecomposition})
+	 */
+	private static boolean isSymmetric(Dataset a) {
+		int[] shape = a.getShapeRef();
+		if (shape.length != 2 || shape[0] != shape[1] || a.getElementsPerItem() != 1) {
+			return false;
+		}
+		final int n = shape[0];
+		final double[] m = getDoubles(a);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				final double mij = m[i * n + j];
+				final double mji = m[j * n + i];
+				if (mij != mji && !(Math.abs(mij - mji) <= 1e-12 * Math.max(Math.abs(mij), Math.abs(mji)))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static Dataset reverse(Dataset a) {
+		return a.getSliceView(new Slice(null, null, -1)).getSlice();
+	}
+
 	private static RealMatrix createRealMatrix(Dataset a) {
 		if (a.getRank() != 2) {
 			throw new IllegalArgumentException("Dataset must be rank 2");
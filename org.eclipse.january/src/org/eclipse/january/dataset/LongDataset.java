@@ -663,16 +663,12 @@ public class LongDataset extends AbstractDataset {
 			}
 		} else {
 			axis = checkAxis(axis);
-			
-			LongDataset ads = new LongDataset(shape[axis]);
-			PositionIterator pi = getPositionIterator(axis);
-			int[] pos = pi.getPos();
-			boolean[] hit = pi.getOmit();
-			while (pi.hasNext()) {
-				copyItemsFromAxes(pos, hit, ads);
-				Arrays.sort(ads.data);
-				setItemsOnAxes(pos, hit, ads.data);
-			}
+			LineUtils.applyAlongAxis(this, axis, this, new LineUtils.LineKernel(true) {
+				@Override
+				void process(Dataset line, Dataset out) {
+					Arrays.sort(((LongDataset) line).data);
+				}
+			});
 		}
 		return this;
 		// throw new UnsupportedOperationException("Cannot sort dataset"); // BOOLEAN_USE
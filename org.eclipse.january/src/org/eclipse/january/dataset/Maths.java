@@ -1768,6 +1768,8 @@ public class Maths extends GeneratedMaths {
 	 * Linearly interpolate a value at a point in a n-D dataset. The dataset is considered to have
 	 * zero support outside its bounds. Thus points just outside are interpolated from the boundary
 	 * value to zero. The number of coordinates must match the rank of the dataset.
+	 * <p>
+	 * Use {@link Interpolation#mapCoordinates(Dataset, Dataset...)} to interpolate at many points.
 	 * @param d input dataset
 	 * @param x coordinates
 	 * @return interpolated value
@@ -2484,16 +2486,12 @@ public class Maths extends GeneratedMaths {
 		if (rank == 1) {
 			difference(DatasetUtils.convertToDataset(a), ds, n);
 		} else {
-			final Dataset src = DatasetFactory.zeros(is, new int[] { a.getShapeRef()[axis] }, dt);
-			final Dataset dest = DatasetFactory.zeros(is, new int[] { nshape[axis] }, dt);
-			final PositionIterator pi = a.getPositionIterator(axis);
-			final int[] pos = pi.getPos();
-			final boolean[] hit = pi.getOmit();
-			while (pi.hasNext()) {
-				a.copyItemsFromAxes(pos, hit, src);
-				difference(src, dest, n);
-				ds.setItemsOnAxes(pos, hit, dest.getBuffer());
-			}
+			LineUtils.applyAlongAxis(a, axis, ds, new LineUtils.LineKernel() {
+				@Override
+				void process(Dataset line, Dataset out) {
+					difference(line, out, n);
+				}
+			});
 		}
 
 		return ds;
@@ -2653,16 +2651,12 @@ public class Maths extends GeneratedMaths {
 		if (rank == 1) {
 			centralDifference(a, ds);
 		} else {
-			final Dataset src = DatasetFactory.zeros(is, new int[] { len }, dt);
-			final Dataset dest = DatasetFactory.zeros(is, new int[] { len }, dt);
-			final PositionIterator pi = a.getPositionIterator(axis);
-			final int[] pos = pi.getPos();
-			final boolean[] hit = pi.getOmit();
-			while (pi.hasNext()) {
-				a.copyItemsFromAxes(pos, hit, src);
-				centralDifference(src, dest);
-				ds.setItemsOnAxes(pos, hit, dest.getBuffer());
-			}
+			LineUtils.applyAlongAxis(a, axis, ds, new LineUtils.LineKernel() {
+				@Override
+				void process(Dataset line, Dataset out) {
+					centralDifference(line, out);
+				}
+			});
 		}
 
 		return ds;
@@ -2939,19 +2933,11 @@ public class Maths extends GeneratedMaths {
 				int r = dx.getRank();
 				if (r == rank) {
 					g.idivide(centralDifference(dx, a));
-				} else {
-					final int dt = dx.getDType();
-					final int is = dx.getElementsPerItem();
-					final Dataset bdx = DatasetFactory.zeros(is, y.getShapeRef(), dt);
-					final PositionIterator pi = y.getPositionIterator(a);
-					final int[] pos = pi.getPos();
-					final boolean[] hit = pi.getOmit();
-					dx = centralDifference(dx, 0);
-
-					while (pi.hasNext()) {
-						bdx.setItemsOnAxes(pos, hit, dx.getBuffer());
-					}
-					g.idivide(bdx);
+				} else { // broadcast along other axes
+					final int[] bshape = new int[rank];
+					Arrays.fill(bshape, 1);
+					bshape[a] = dx.getSize();
+					g.idivide(centralDifference(dx, 0).reshape(bshape));
 				}
 			}
 		}
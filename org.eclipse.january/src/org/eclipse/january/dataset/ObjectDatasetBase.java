@@ -637,16 +637,12 @@ public class ObjectDatasetBase extends AbstractDataset {
 			}
 		} else {
 			axis = checkAxis(axis);
-			
-			ObjectDatasetBase ads = new ObjectDatasetBase(shape[axis]);
-			PositionIterator pi = getPositionIterator(axis);
-			int[] pos = pi.getPos();
-			boolean[] hit = pi.getOmit();
-			while (pi.hasNext()) {
-				copyItemsFromAxes(pos, hit, ads);
-				Arrays.sort(ads.data);
-				setItemsOnAxes(pos, hit, ads.data);
-			}
+			LineUtils.applyAlongAxis(this, axis, this, new LineUtils.LineKernel(true) {
+				@Override
+				void process(Dataset line, Dataset out) {
+					Arrays.sort(((ObjectDatasetBase) line).data);
+				}
+			});
 		}
 		return this;
 		// throw new UnsupportedOperationException("Cannot sort dataset"); // BOOLEAN_USE
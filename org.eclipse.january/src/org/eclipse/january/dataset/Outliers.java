@@ -9,6 +9,8 @@
 
 package org.eclipse.january.dataset;
 
+import java.util.Arrays;
+
 /**
  * Estimators of the scale of a Dataset.
  * <p>
@@ -17,14 +19,22 @@ package org.eclipse.january.dataset;
  * <ul>
  * <li> Median Absolute Deviation </li>
  * <li> S<sub>n</sub> of Croux and Rousseeuw (1992).</li>
+ * <li> Q<sub>n</sub> of Croux and Rousseeuw (1992).</li>
  * </ul> 
  * <p>
+ * The estimators work on copies of the values in primitive arrays, using selection rather than
+ * sorting where only order statistics are needed. Variants that take an axis estimate the scale
+ * of each line along that axis and process lines in parallel. NaNs in the data give NaN estimates
+ * of Q<sub>n</sub> and are treated as the largest values by the MAD (as in
+ * {@link Stats#median(Dataset)}) and S<sub>n</sub>.
+ * <p>
  * Croux, C. and P. J. Rousseeuw, "Time-efficient algorithms for two highly robust estimators of scale", Computational Statistics, Volume 1, eds. Y. Dodge and J.Whittaker, Physica-Verlag, Heidelberg, pp411--428 (1992).
  */
 public class Outliers {
 
 	private final static double MADSCALEFACTOR = 1.4826;
 	private final static double SNSCALEFACTOR = 1.1926;
+	private final static double QNSCALEFACTOR = 2.2219;
 	
 	/**
 	 * Returns the Median Absolute Deviation (MAD) and the median. 
@@ -33,16 +43,73 @@ public class Outliers {
 	 * @return A two-element array of doubles, consisting of the MAD and the median of the data
 	 */
 	public static double[] medianAbsoluteDeviation(Dataset data) {
-		
-		double median = (Double)Stats.median(data);
-		data = Maths.subtract(data, median);
-		data = Maths.abs(data);
-		double median2 = (Double)Stats.median(data);
-		double mad = MADSCALEFACTOR * median2;
-		
-		return new double[]{mad, median};
+		final double[] result = new double[2];
+		medianAbsoluteDeviation(BufferUtils.toDoubles(data), result);
+		return result;
 	}
-	
+
+	/**
+	 * Returns the Median Absolute Deviation (MAD) and the median of each line along an axis
+	 * @param data
+	 * @param axis
+	 * @return A two-element array of datasets, consisting of the MAD and the median of the data
+	 * @since 2.0
+	 */
+	public static Dataset[] medianAbsoluteDeviation(Dataset data, int axis) {
+		return applyAlongAxis(data, axis, 2, new LineUtils.LineKernel() {
+			@Override
+			void process(Dataset line, Dataset out) {
+				medianAbsoluteDeviation(BufferUtils.toDoubles(line), (double[]) out.getBuffer());
+			}
+		});
+	}
+
+	/**
+	 * @param values which are overwritten
+	 * @param result array for MAD and median
+	 */
+	private static void medianAbsoluteDeviation(final double[] values, final double[] result) {
+		final int m = moveNaNsToEnd(values);
+		final double median = median(values, m);
+		for (int i = 0; i < m; i++) { // deviations of NaNs stay at end
+			values[i] = Math.abs(values[i] - median);
+		}
+		result[0] = MADSCALEFACTOR * median(values, m);
+		result[1] = median;
+	}
+
+	/**
+	 * Median of values interpolated as in {@link Stats#median(Dataset)} with NaNs at end
+	 * @param values which are reordered
+	 * @param m number of values that are not NaNs
+	 * @return median
+	 */
+	private static double median(final double[] values, final int m) {
+		final int n = values.length;
+		if (n == 0) {
+			return Double.NaN;
+		}
+		final double f = (n - 1) * 0.5;
+		final int k = (int) Math.floor(f);
+		if (k >= m) {
+			return Double.NaN;
+		}
+		final double x = select(values, 0, m, k);
+		if (f == k) {
+			return x;
+		}
+		if (k + 1 >= m) {
+			return Double.NaN;
+		}
+		double y = values[k + 1]; // next largest is minimum of upper part
+		for (int i = k + 2; i < m; i++) {
+			if (values[i] < y) {
+				y = values[i];
+			}
+		}
+		return (1 - (f - k)) * x + (f - k) * y;
+	}
+
 	/**
 	 * Returns the Sn estimator of Croux and Rousseeuw.
 	 * <p>
@@ -52,27 +119,24 @@ public class Outliers {
 	 * @return The value of the Sn estimator for the data
 	 */
 	public static double snNaive(Dataset data) {
-		
-		Dataset medAbs = DatasetFactory.zeros(data);
-		Dataset dif = DatasetFactory.zeros(data);
-		
-		IndexIterator it = data.getIterator();
-		int count = 0;
-		while (it.hasNext()) {
-			double val = data.getElementDoubleAbs(it.index);
-			Maths.subtract(data, val, dif);
-			Maths.abs(dif,dif);
+		final double[] values = BufferUtils.toDoubles(data);
+		final int n = values.length;
+		if (n == 0) {
+			return Double.NaN;
+		}
+		final double[] dif = new double[n];
+		final double[] medAbs = new double[n];
+		for (int i = 0; i < n; i++) {
+			final double val = values[i];
+			for (int j = 0; j < n; j++) {
+				dif[j] = Math.abs(values[j] - val);
+			}
 			//Lower median - Math.floor((n/2)+1) of sorted
-			dif.sort(null);
-			medAbs.setObjectAbs(count++, lowMed(dif));
+			medAbs[i] = selectWithNaNsLast(dif, n / 2);
 		}
-		
-		
+
 		//Higher median - Math.floor((n+1)/2) of sorted
-		medAbs.sort(null);
-		double median = highMed(medAbs);
-		
-		return median * SNSCALEFACTOR;
+		return selectWithNaNsLast(medAbs, (n + 1) / 2 - 1) * SNSCALEFACTOR;
 	}
 	
 	/**
@@ -84,27 +148,350 @@ public class Outliers {
 	 * @return The value of the Sn estimator for the data
 	 */
 	public static double snFast(Dataset data) {
-		
-		Dataset sorted = data.clone();
-		sorted.sort(null);
-		
-		Dataset medAbs = DatasetFactory.zeros(data);
-		
-		IndexIterator it = data.getIterator();
-		int count = 0;
-		while (it.hasNext()) {
-			MedianOfTwoSortedSets snuff = new MedianForSn(sorted, it.index);
-			medAbs.setObjectAbs(count++, snuff.get());
+		return sn(BufferUtils.toDoubles(data));
+	}
+
+	/**
+	 * Returns the Sn estimator of Croux and Rousseeuw of each line along an axis
+	 * @param data
+	 * @param axis
+	 * @return The values of the Sn estimator for the data
+	 * @since 2.0
+	 */
+	public static Dataset snFast(Dataset data, int axis) {
+		return applyAlongAxis(data, axis, 1, new LineUtils.LineKernel() {
+			@Override
+			void process(Dataset line, Dataset out) {
+				((double[]) out.getBuffer())[0] = sn(BufferUtils.toDoubles(line));
+			}
+		})[0];
+	}
+
+	/**
+	 * Sn is the high median over i of the low median over j != i of |x_i - x_j|. With the values
+	 * sorted, the differences from each value are the union of two sorted sequences (to lower and
+	 * higher values) whose low median is found by bisection. NaNs are sorted to the end and their
+	 * differences are larger than all others
+	 * @param y values which are sorted in place
+	 * @return Sn
+	 */
+	private static double sn(final double[] y) {
+		final int n = y.length;
+		if (n == 0) {
+			return Double.NaN;
 		}
-		
-		
+		if (n == 1) {
+			return Double.isNaN(y[0]) ? Double.NaN : 0;
+		}
+		Arrays.sort(y);
+		int m = n; // number of values that are not NaNs
+		while (m > 0 && Double.isNaN(y[m - 1])) {
+			m--;
+		}
+		final double[] medAbs = new double[n];
+		Arrays.fill(medAbs, m, n, Double.NaN);
+		final int k = n / 2; // rank of low median of n - 1 differences
+		for (int i = 0; i < m; i++) {
+			final int na = i;
+			final int nb = m - 1 - i;
+			if (k > na + nb) { // low median is a difference from a NaN
+				medAbs[i] = Double.NaN;
+				continue;
+			}
+			// find number of lower differences in k smallest
+			int lo = Math.max(0, k - nb);
+			int hi = Math.min(k, na);
+			while (lo < hi) {
+				final int a = (lo + hi) >>> 1;
+				if (y[i] - y[i - 1 - a] < y[i + k - a] - y[i]) {
+					lo = a + 1;
+				} else {
+					hi = a;
+				}
+			}
+			final int b = k - lo;
+			final double da = lo > 0 ? y[i] - y[i - lo] : Double.NEGATIVE_INFINITY;
+			final double db = b > 0 ? y[i + b] - y[i] : Double.NEGATIVE_INFINITY;
+			medAbs[i] = Math.max(da, db);
+		}
+
 		//Higher median - Math.floor((n+1)/2) of sorted
-		medAbs.sort(null);
-		double median = highMed(medAbs);
-		
-		return median * SNSCALEFACTOR;
+		return selectWithNaNsLast(medAbs, (n + 1) / 2 - 1) * SNSCALEFACTOR;
 	}
-	
+
+	/**
+	 * Returns the Qn estimator of Croux and Rousseeuw. This is the k-th order statistic of the
+	 * n(n-1)/2 absolute differences between pairs of values, where k = h(h-1)/2 and h = n/2 + 1,
+	 * multiplied by a consistency factor of 2.2219 (without small sample corrections)
+	 * <p>
+	 * This uses the O(n log n) algorithm that searches for the order statistic with weighted
+	 * medians of the rows of the (implicit) matrix of differences of the sorted values.
+	 * @param data
+	 * @return The value of the Qn estimator for the data
+	 * @since 2.0
+	 */
+	public static double qn(Dataset data) {
+		return qn(BufferUtils.toDoubles(data));
+	}
+
+	/**
+	 * Returns the Qn estimator of Croux and Rousseeuw of each line along an axis
+	 * @param data
+	 * @param axis
+	 * @return The values of the Qn estimator for the data
+	 * @since 2.0
+	 */
+	public static Dataset qn(Dataset data, int axis) {
+		return applyAlongAxis(data, axis, 1, new LineUtils.LineKernel() {
+			@Override
+			void process(Dataset line, Dataset out) {
+				((double[]) out.getBuffer())[0] = qn(BufferUtils.toDoubles(line));
+			}
+		})[0];
+	}
+
+	/**
+	 * @param y values which are sorted in place
+	 * @return Qn
+	 */
+	private static double qn(final double[] y) {
+		final int n = y.length;
+		if (hasNaN(y) || n == 0) {
+			return Double.NaN;
+		}
+		if (n == 1) {
+			return 0;
+		}
+		Arrays.sort(y);
+
+		// row i (from 0) and column j (from 1) of matrix holds y[i] - y[n - j] which increases
+		// along rows and columns; left and right bound the candidate columns in each row
+		final int h = n / 2 + 1;
+		final long k = (long) h * (h - 1) / 2;
+		final int[] left = new int[n];
+		final int[] right = new int[n];
+		final int[] p = new int[n];
+		final int[] q = new int[n];
+		final long[] weight = new long[n];
+		final double[] work = new double[n];
+		for (int i = 0; i < n; i++) {
+			left[i] = n - i + 1;
+			right[i] = n;
+		}
+		long nL = (long) n * (n + 1) / 2; // number of entries to left of candidates
+		long nR = (long) n * n; // number of entries to right of candidates
+		final long knew = k + nL;
+		while (nR - nL > n) {
+			int j = 0;
+			for (int i = 1; i < n; i++) {
+				if (left[i] <= right[i]) {
+					weight[j] = right[i] - left[i] + 1;
+					final int jh = left[i] + (int) (weight[j] / 2);
+					work[j] = y[i] - y[n - jh];
+					j++;
+				}
+			}
+			final double trial = weightedHighMedian(work, weight, j);
+
+			j = 0;
+			for (int i = n - 1; i >= 0; i--) {
+				while (j < n && y[i] - y[n - j - 1] < trial) {
+					j++;
+				}
+				p[i] = j; // number of entries less than trial
+			}
+			j = n + 1;
+			for (int i = 0; i < n; i++) {
+				while (y[i] - y[n - j + 1] > trial) {
+					j--;
+				}
+				q[i] = j; // one more than number of entries less than or equal to trial
+			}
+			long sumP = 0;
+			long sumQ = 0;
+			for (int i = 0; i < n; i++) {
+				sumP += p[i];
+				sumQ += q[i] - 1;
+			}
+			if (knew <= sumP) {
+				System.arraycopy(p, 0, right, 0, n);
+				nR = sumP;
+			} else if (knew > sumQ) {
+				System.arraycopy(q, 0, left, 0, n);
+				nL = sumQ;
+			} else {
+				return trial * QNSCALEFACTOR;
+			}
+		}
+
+		// few candidates remain
+		final double[] candidates = new double[(int) (nR - nL)];
+		int j = 0;
+		for (int i = 1; i < n; i++) {
+			for (int c = left[i]; c <= right[i]; c++) {
+				candidates[j++] = y[i] - y[n - c];
+			}
+		}
+		return select(candidates, 0, j, (int) (knew - nL - 1)) * QNSCALEFACTOR;
+	}
+
+	/**
+	 * Find weighted high median, the smallest value whose cumulative weight exceeds half the total
+	 * @param a values which are reordered
+	 * @param w weights which are reordered with values
+	 * @param n number of values
+	 * @return weighted high median
+	 */
+	private static double weightedHighMedian(final double[] a, final long[] w, final int n) {
+		long total = 0;
+		for (int i = 0; i < n; i++) {
+			total += w[i];
+		}
+		long below = 0; // weight of values below range
+		int lo = 0;
+		int hi = n;
+		while (true) {
+			final double pivot = a[(lo + hi) >>> 1];
+			// partition range into less than, equal to and greater than pivot
+			int lt = lo;
+			int gt = hi;
+			int i = lo;
+			long wl = 0;
+			long we = 0;
+			while (i < gt) {
+				final double x = a[i];
+				if (x < pivot) {
+					wl += w[i];
+					swap(a, w, i++, lt++);
+				} else if (x > pivot) {
+					swap(a, w, i, --gt);
+				} else {
+					we += w[i];
+					i++;
+				}
+			}
+			if (2 * (below + wl) > total) {
+				hi = lt;
+			} else if (2 * (below + wl + we) > total) {
+				return pivot;
+			} else {
+				below += wl + we;
+				lo = gt;
+			}
+		}
+	}
+
+	private static void swap(final double[] a, final long[] w, final int i, final int j) {
+		final double t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+		final long u = w[i];
+		w[i] = w[j];
+		w[j] = u;
+	}
+
+	/**
+	 * Select k-th smallest value (from 0) in range by partitioning around the median of three
+	 * values. Range is reordered so that values before k are not greater and those after are not
+	 * less
+	 * @param a values without NaNs
+	 * @param start
+	 * @param end exclusive
+	 * @param k
+	 * @return k-th smallest
+	 */
+	static double select(final double[] a, int start, int end, final int k) {
+		while (end - start > 1) {
+			final int mid = (start + end) >>> 1;
+			final double x = a[start];
+			final double y = a[mid];
+			final double z = a[end - 1];
+			final double pivot = x < y ? (y < z ? y : (x < z ? z : x)) : (x < z ? x : (y < z ? z : y));
+			int i = start;
+			int j = end - 1;
+			while (i <= j) {
+				while (a[i] < pivot) {
+					i++;
+				}
+				while (a[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					final double t = a[i];
+					a[i++] = a[j];
+					a[j--] = t;
+				}
+			}
+			if (k <= j) {
+				end = j + 1;
+			} else if (k >= i) {
+				start = i;
+			} else {
+				return a[k];
+			}
+		}
+		return a[k];
+	}
+
+	/**
+	 * @param values which are reordered
+	 * @param k rank
+	 * @return k-th smallest value where NaNs are larger than all others
+	 */
+	private static double selectWithNaNsLast(final double[] values, final int k) {
+		final int m = moveNaNsToEnd(values);
+		return k < m ? select(values, 0, m, k) : Double.NaN;
+	}
+
+	/**
+	 * @param values which are reordered
+	 * @return number of values that are not NaNs, which are moved to start
+	 */
+	private static int moveNaNsToEnd(final double[] values) {
+		int m = 0;
+		for (int i = 0; i < values.length; i++) {
+			final double x = values[i];
+			if (!Double.isNaN(x)) {
+				values[i] = values[m];
+				values[m++] = x;
+			}
+		}
+		return m;
+	}
+
+	private static boolean hasNaN(final double[] values) {
+		for (double x : values) {
+			if (Double.isNaN(x)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Apply kernel that gives n values for each line along an axis
+	 * @param data
+	 * @param axis
+	 * @param n
+	 * @param kernel
+	 * @return datasets of each value without axis
+	 */
+	private static Dataset[] applyAlongAxis(final Dataset data, int axis, final int n, final LineUtils.LineKernel kernel) {
+		axis = data.checkAxis(axis);
+		final int[] shape = data.getShape();
+		shape[axis] = n;
+		final Dataset out = DatasetFactory.zeros(DoubleDataset.class, shape);
+		LineUtils.applyAlongAxis(data, axis, out, kernel);
+		final Dataset[] results = new Dataset[n];
+		final int[] rshape = ShapeUtils.squeezeShape(shape, axis);
+		final Slice[] slices = new Slice[shape.length];
+		for (int i = 0; i < n; i++) {
+			slices[axis] = new Slice(i, i + 1);
+			results[i] = out.getSlice(slices).reshape(rshape);
+		}
+		return results;
+	}
+
 	/**
 	 * Returns the lomed
 	 * <p>
@@ -0,0 +1,184 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Utilities to run loops over ranges of indexes in parallel using a fork-join pool
+ * <p>
+ * Ranges are split into contiguous chunks that are no smaller than a given grain size
+ * and partial results are combined in index order so reductions are repeatable for
+ * a given parallelism.
+ * @since 2.0
+ */
+public final class ParallelUtils {
+
+	/**
+	 * Default minimum number of items to be processed by a task
+	 */
+	public static final int DEFAULT_GRAIN = 16384;
+
+	private static ForkJoinPool pool = null;
+
+	private static int factor = 4; // number of chunks per available thread
+
+	private ParallelUtils() {
+	}
+
+	/**
+	 * Set the pool used for parallel execution
+	 * @param fjPool if null, use common pool
+	 */
+	public static synchronized void setPool(ForkJoinPool fjPool) {
+		pool = fjPool;
+	}
+
+	/**
+	 * @return pool used for parallel execution
+	 */
+	public static synchronized ForkJoinPool getPool() {
+		return pool == null ? ForkJoinPool.commonPool() : pool;
+	}
+
+	/**
+	 * @return number of threads available for parallel execution
+	 */
+	public static int getParallelism() {
+		return getPool().getParallelism();
+	}
+
+	/**
+	 * Task that processes a range of indexes
+	 */
+	static abstract class RangeTask {
+		/**
+		 * @param start first index
+		 * @param end stop index (exclusive)
+		 */
+		abstract void run(int start, int end);
+	}
+
+	/**
+	 * Task that processes a range of indexes to give a partial result which can be combined
+	 * with that of an adjacent range
+	 * @param <T> type of result
+	 */
+	static abstract class RangeReduction<T> {
+		/**
+		 * @param start first index
+		 * @param end stop index (exclusive)
+		 * @return partial result
+		 */
+		abstract T compute(int start, int end);
+
+		/**
+		 * Combine partial results. This can modify and return either argument
+		 * @param lower result of lower range
+		 * @param upper result of upper range
+		 * @return combined result
+		 */
+		abstract T combine(T lower, T upper);
+	}
+
+	/**
+	 * Calculate size of chunks
+	 * @param length of range
+	 * @param grain minimum size of chunk
+	 * @return chunk size, equal to length if range should be processed serially
+	 */
+	static int getChunkSize(final int length, final int grain) {
+		final int threads = getParallelism();
+		if (threads <= 1 || length <= grain) {
+			return Math.max(length, 1);
+		}
+		long chunk = (length + (long) threads * factor - 1) / (threads * factor);
+		return (int) Math.max(chunk, Math.max(grain, 1));
+	}
+
+	/**
+	 * Run task over given range, splitting it up over the pool if it is large enough
+	 * @param start first index
+	 * @param end stop index (exclusive)
+	 * @param grain minimum number of indexes that a task processes
+	 * @param task
+	 */
+	static void forRange(final int start, final int end, final int grain, final RangeTask task) {
+		reduce(start, end, grain, new RangeReduction<Void>() {
+			@Override
+			Void compute(int s, int e) {
+				task.run(s, e);
+				return null;
+			}
+
+			@Override
+			Void combine(Void lower, Void upper) {
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Run reduction over given range, splitting it up over the pool if it is large enough
+	 * @param start first index
+	 * @param end stop index (exclusive)
+	 * @param grain minimum number of indexes that a task processes
+	 * @param reduction
+	 * @return result, or null if range is empty
+	 */
+	static <T> T reduce(final int start, final int end, final int grain, final RangeReduction<T> reduction) {
+		final int length = end - start;
+		if (length <= 0) {
+			return null;
+		}
+		final int chunk = getChunkSize(length, grain);
+		if (chunk >= length) {
+			return reduction.compute(start, end);
+		}
+
+		ReductionTask<T> task = new ReductionTask<T>(reduction, start, end, chunk);
+		return ForkJoinTask.inForkJoinPool() ? task.invoke() : getPool().invoke(task);
+	}
+
+	@SuppressWarnings("serial")
+	private static class ReductionTask<T> extends RecursiveTask<T> {
+		private final RangeReduction<T> reduction;
+		private final int start;
+		private final int end;
+		private final int chunk;
+
+		ReductionTask(RangeReduction<T> reduction, int start, int end, int chunk) {
+			this.reduction = reduction;
+			this.start = start;
+			this.end = end;
+			this.chunk = chunk;
+		}
+
+		@Override
+		protected T compute() {
+			final int length = end - start;
+			if (length <= chunk) {
+				return reduction.compute(start, end);
+			}
+
+			// split on a chunk boundary
+			final int mid = start + ((length / chunk + 1) / 2) * chunk;
+			ReductionTask<T> upper = new ReductionTask<T>(reduction, mid, end, chunk);
+			upper.fork();
+			T l = new ReductionTask<T>(reduction, start, mid, chunk).compute();
+			return reduction.combine(l, upper.join());
+		}
+	}
+}
@@ -0,0 +1,361 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A mergeable sketch of the distribution of a stream of values that gives approximate quantiles
+ * <p>
+ * This follows the sketch of Karnin, Lang and Liberty (KLL): values are held in a hierarchy of
+ * compactors where each value at level h stands for 2<sup>h</sup> values of the stream. When the
+ * sketch is full, a level is sorted and every other value (from a random start) is promoted to
+ * the next level. Lower levels have geometrically smaller capacities so the memory used is
+ * bounded by about 3k values plus a few for each doubling of the stream's length. The error in
+ * the rank of a quantile is about 1.3% of the count for the default k of 200 and is inversely
+ * proportional to k. Sketches of disjoint streams, e.g. from parallel workers or blocks of a lazy
+ * dataset, can be merged. NaNs are ignored.
+ * @since 2.0
+ */
+public class QuantileSketch {
+
+	/**
+	 * Default size parameter
+	 */
+	public static final int DEFAULT_K = 200;
+
+	private static final int MIN_WIDTH = 8; // minimum capacity of a level
+	private static final double RATIO = 2. / 3; // ratio of capacities of adjacent levels
+
+	private final int k;
+	private double[][] levels = new double[0][]; // values in each level
+	private int[] sizes = new int[0]; // number of values in each level
+	private int[] capacities = new int[0];
+	private int retained = 0;
+	private int maxRetained = 0;
+	private long count = 0;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	// sorted view of values with cumulative weights used for queries
+	private double[] sortedValues = null;
+	private long[] cumulativeWeights = null;
+
+	/**
+	 * Create sketch with default size parameter
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * @param k size parameter (at least 8) which controls accuracy and memory used
+	 */
+	public QuantileSketch(int k) {
+		if (k < MIN_WIDTH) {
+			throw new IllegalArgumentException("Size parameter must be at least " + MIN_WIDTH);
+		}
+		this.k = k;
+		addLevel();
+	}
+
+	/**
+	 * @return size parameter
+	 */
+	public int getK() {
+		return k;
+	}
+
+	/**
+	 * @return number of values in stream
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return number of values held by sketch
+	 */
+	public int getRetained() {
+		return retained;
+	}
+
+	/**
+	 * @return minimum value (NaN if empty)
+	 */
+	public double getMinimum() {
+		return count == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * @return maximum value (NaN if empty)
+	 */
+	public double getMaximum() {
+		return count == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * @return approximate bound (at 99% confidence) on the error of ranks as a fraction of count
+	 */
+	public double getNormalizedRankError() {
+		return 2.296 / Math.pow(k, 0.9723);
+	}
+
+	/**
+	 * Update sketch with a value
+	 * @param x
+	 */
+	public void update(double x) {
+		if (Double.isNaN(x)) {
+			return;
+		}
+		if (x < min) {
+			min = x;
+		}
+		if (x > max) {
+			max = x;
+		}
+		count++;
+		append(0, x);
+		if (retained >= maxRetained) {
+			compress();
+		}
+		sortedValues = null;
+	}
+
+	/**
+	 * Update sketch with all items of a dataset
+	 * @param a single element dataset
+	 */
+	public void update(Dataset a) {
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Dataset must have single element items");
+		}
+		final int size = a.getSize();
+		final double[] buffer = new double[Math.min(size, 4096)];
+		for (int i = 0; i < size; i += buffer.length) {
+			final int n = Math.min(buffer.length, size - i);
+			BufferUtils.copyToDoubles(a, 0, i, n, buffer, 0);
+			for (int j = 0; j < n; j++) {
+				update(buffer[j]);
+			}
+		}
+	}
+
+	/**
+	 * Merge another sketch into this one
+	 * @param other sketch with same size parameter
+	 */
+	public void merge(QuantileSketch other) {
+		if (other.k != k) {
+			throw new IllegalArgumentException("Sketches must have same size parameter");
+		}
+		if (other.count == 0) {
+			return;
+		}
+		while (levels.length < other.levels.length) {
+			addLevel();
+		}
+		for (int h = 0; h < other.levels.length; h++) {
+			final int n = other.sizes[h];
+			ensureCapacity(h, sizes[h] + n);
+			System.arraycopy(other.levels[h], 0, levels[h], sizes[h], n);
+			sizes[h] += n;
+			retained += n;
+		}
+		count += other.count;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		compress();
+		sortedValues = null;
+	}
+
+	/**
+	 * Get approximate quantile. This is the value whose rank (number of values less than or equal
+	 * to it) first reaches the given fraction of the count
+	 * @param q fraction in [0, 1]
+	 * @return quantile (NaN if empty)
+	 */
+	public double getQuantile(double q) {
+		if (!(q >= 0 && q <= 1)) {
+			throw new IllegalArgumentException("Quantile requested is outside [0,1]");
+		}
+		if (count == 0) {
+			return Double.NaN;
+		}
+		if (q == 0) {
+			return min;
+		}
+		if (q == 1) {
+			return max;
+		}
+		sort();
+		final long rank = (long) Math.ceil(q * count);
+		int i = Arrays.binarySearch(cumulativeWeights, rank);
+		if (i < 0) {
+			i = -i - 1;
+		}
+		return sortedValues[Math.min(i, sortedValues.length - 1)];
+	}
+
+	/**
+	 * Get approximate quantiles
+	 * @param values fractions in [0, 1]
+	 * @return quantiles
+	 */
+	public double[] getQuantiles(double... values) {
+		final double[] points = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			points[i] = getQuantile(values[i]);
+		}
+		return points;
+	}
+
+	/**
+	 * Get approximate normalised rank of a value
+	 * @param x
+	 * @return fraction of values less than or equal to given value (NaN if empty)
+	 */
+	public double getRank(double x) {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		if (x < min) {
+			return 0;
+		}
+		if (x >= max) {
+			return 1;
+		}
+		sort();
+		int i = Arrays.binarySearch(sortedValues, x);
+		if (i < 0) {
+			i = -i - 2; // last value less than x
+		} else {
+			while (i + 1 < sortedValues.length && sortedValues[i + 1] == x) {
+				i++;
+			}
+		}
+		return i < 0 ? 0 : (double) cumulativeWeights[i] / count;
+	}
+
+	private void append(final int h, final double x) {
+		ensureCapacity(h, sizes[h] + 1);
+		levels[h][sizes[h]++] = x;
+		retained++;
+	}
+
+	private void ensureCapacity(final int h, final int n) {
+		if (levels[h].length < n) {
+			levels[h] = Arrays.copyOf(levels[h], Math.max(n, 2 * levels[h].length));
+		}
+	}
+
+	private void addLevel() {
+		final int n = levels.length + 1;
+		levels = Arrays.copyOf(levels, n);
+		levels[n - 1] = new double[MIN_WIDTH];
+		sizes = Arrays.copyOf(sizes, n);
+		capacities = new int[n];
+		maxRetained = 0;
+		for (int h = 0; h < n; h++) {
+			capacities[h] = Math.max(MIN_WIDTH, (int) Math.ceil(k * Math.pow(RATIO, n - 1 - h)));
+			maxRetained += capacities[h];
+		}
+	}
+
+	/**
+	 * Compact levels until sketch is within its capacity
+	 */
+	private void compress() {
+		while (retained >= maxRetained) {
+			for (int h = 0; h < levels.length; h++) {
+				if (sizes[h] >= capacities[h]) {
+					if (h + 1 == levels.length) {
+						addLevel();
+					}
+					compact(h);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sort a level and promote every other value to next level. A value is left when number is odd
+	 * @param h
+	 */
+	private void compact(final int h) {
+		final double[] values = levels[h];
+		final int n = sizes[h];
+		Arrays.sort(values, 0, n);
+		final int odd = n & 1;
+		final int m = (n - odd) / 2;
+		ensureCapacity(h + 1, sizes[h + 1] + m);
+		final double[] next = levels[h + 1];
+		int j = sizes[h + 1];
+		for (int i = odd + ThreadLocalRandom.current().nextInt(2); i < n; i += 2) {
+			next[j++] = values[i];
+		}
+		sizes[h + 1] = j;
+		sizes[h] = odd; // smallest value is left
+		retained -= n - odd - m;
+	}
+
+	/**
+	 * Create sorted view of values and their cumulative weights
+	 */
+	private void sort() {
+		if (sortedValues != null) {
+			return;
+		}
+		double[] values = new double[retained];
+		long[] weights = new long[retained];
+		double[] tValues = new double[retained];
+		long[] tWeights = new long[retained];
+		int n = 0;
+		for (int h = 0; h < levels.length; h++) {
+			final int m = sizes[h];
+			if (m == 0) {
+				continue;
+			}
+			final double[] level = levels[h];
+			Arrays.sort(level, 0, m);
+			final long w = 1L << h;
+			int i = 0;
+			int j = 0;
+			int t = 0;
+			while (i < n || j < m) {
+				if (j == m || (i < n && values[i] <= level[j])) {
+					tValues[t] = values[i];
+					tWeights[t++] = weights[i++];
+				} else {
+					tValues[t] = level[j++];
+					tWeights[t++] = w;
+				}
+			}
+			n = t;
+			double[] sv = values;
+			values = tValues;
+			tValues = sv;
+			long[] sw = weights;
+			weights = tWeights;
+			tWeights = sw;
+		}
+		for (int i = 1; i < n; i++) {
+			weights[i] += weights[i - 1];
+		}
+		cumulativeWeights = weights;
+		sortedValues = values;
+	}
+}
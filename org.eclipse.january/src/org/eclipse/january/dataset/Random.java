@@ -14,10 +14,9 @@ package org.eclipse.january.dataset;
 
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.math3.random.MersenneTwister;
-import org.apache.commons.math3.random.RandomDataGenerator;
-import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.special.Gamma;
 import org.eclipse.january.IMonitor;
 import org.eclipse.january.io.ILazyLoader;
 
@@ -25,30 +24,191 @@ import org.eclipse.january.io.ILazyLoader;
  * Class to hold methods to create random datasets
  * 
  * Emulates numpy.random
+ * <p>
+ * The numbers are generated by a counter-based generator: each item of a dataset is a function
+ * of the seed and of a counter that is reserved by each call (in blocks the size of the dataset)
+ * so calls are thread-safe and datasets are filled in parallel. After seeding, the same sequence
+ * of calls gives the same datasets whatever the number of threads. Lazy random datasets give
+ * the same values for an item whichever slice it is read from.
  */
 public class Random {
-	private final static RandomGenerator generator = new MersenneTwister();
-	private final static RandomDataGenerator prng = new RandomDataGenerator(generator);
+	private static final long GOLDEN = 0x9e3779b97f4a7c15L; // increment of SplitMix64 generator
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	private static final AtomicLong key = new AtomicLong(mix(System.nanoTime()));
+	private static final AtomicLong counter = new AtomicLong();
 
 	/**
 	 * @param seed
 	 */
 	public static void seed(final int seed) {
-		generator.setSeed(seed);
+		seed((long) seed);
 	}
 
 	/**
 	 * @param seed
 	 */
 	public static void seed(final int[] seed) {
-		generator.setSeed(seed);
+		long s = 0;
+		for (int i : seed) {
+			s = mix(s + GOLDEN + i);
+		}
+		seed(s);
 	}
 
 	/**
 	 * @param seed
 	 */
-	public static void seed(final long seed) {
-		generator.setSeed(seed);
+	public static synchronized void seed(final long seed) {
+		key.set(mix(seed));
+		counter.set(0);
+	}
+
+	/**
+	 * Finalizer of SplitMix64 generator
+	 * @param z
+	 * @return mixed bits
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Stream of random bits for an item
+	 */
+	private static final class Stream {
+		private final long k;
+		private long state;
+
+		Stream(long k) {
+			this.k = k;
+		}
+
+		/**
+		 * Start stream for item at given counter
+		 * @param c
+		 */
+		void reset(long c) {
+			state = mix(k ^ mix(c * GOLDEN));
+		}
+
+		long nextLong() {
+			return mix(state += GOLDEN);
+		}
+
+		/**
+		 * @return value in [0, 1)
+		 */
+		double nextDouble() {
+			return (nextLong() >>> 11) * DOUBLE_UNIT;
+		}
+
+		/**
+		 * @return value in (0, 1)
+		 */
+		double nextOpenDouble() {
+			return ((nextLong() >>> 11) + 0.5) * DOUBLE_UNIT;
+		}
+
+		/**
+		 * @return value in (0, 1]
+		 */
+		double nextPositiveDouble() {
+			return ((nextLong() >>> 11) + 1) * DOUBLE_UNIT;
+		}
+
+		double nextGaussian() {
+			return Math.sqrt(-2 * Math.log(nextPositiveDouble())) * Math.cos(2 * Math.PI * nextDouble());
+		}
+
+		/**
+		 * @param n
+		 * @return value in [0, n)
+		 */
+		long nextLong(long n) {
+			long m = n - 1;
+			long r = nextLong() >>> 1;
+			if ((n & m) == 0) {
+				return r & m;
+			}
+			for (long u = r; u - (r = u % n) + m < 0; u = nextLong() >>> 1) {
+				// reject values that would make result biased
+			}
+			return r;
+		}
+
+		long nextPoisson(double lam) {
+			if (lam < 10) { // multiply uniform numbers until less than exp(-lambda)
+				double l = Math.exp(-lam);
+				long k = 0;
+				double p = nextDouble();
+				while (p > l) {
+					k++;
+					p *= nextDouble();
+				}
+				return k;
+			}
+
+			// transformed rejection with squeeze (PTRS) from W. Hormann (1993)
+			double slam = Math.sqrt(lam);
+			double loglam = Math.log(lam);
+			double b = 0.931 + 2.53 * slam;
+			double a = -0.059 + 0.02483 * b;
+			double invalpha = 1.1239 + 1.1328 / (b - 3.4);
+			double vr = 0.9277 - 3.6224 / (b - 2);
+			while (true) {
+				double u = nextDouble() - 0.5;
+				double v = nextDouble();
+				double us = 0.5 - Math.abs(u);
+				long k = (long) Math.floor((2 * a / us + b) * u + lam + 0.43);
+				if (us >= 0.07 && v <= vr) {
+					return k;
+				}
+				if (k < 0 || (us < 0.013 && v > us)) {
+					continue;
+				}
+				if (Math.log(v) + Math.log(invalpha) - Math.log(a / (us * us) + b) <= -lam + k * loglam - Gamma.logGamma(k + 1)) {
+					return k;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Generator of values of items
+	 */
+	private static abstract class Filler extends ParallelUtils.RangeTask {
+		private final long k = key.get();
+		private final long c;
+
+		/**
+		 * @param size number of items to reserve in counter
+		 */
+		Filler(int size) {
+			c = counter.getAndAdd(size);
+		}
+
+		@Override
+		void run(int start, int end) {
+			Stream s = new Stream(k);
+			for (int i = start; i < end; i++) {
+				s.reset(c + i);
+				set(i, s);
+			}
+		}
+
+		/**
+		 * Set item from stream
+		 * @param i index
+		 * @param s stream
+		 */
+		abstract void set(int i, Stream s);
+
+		void fill(int size) {
+			ParallelUtils.forRange(0, size, 4096, this);
+		}
 	}
 
 	/**
@@ -57,11 +217,14 @@ public class Random {
 	 */
 	public static DoubleDataset rand(final int... shape) {
 		DoubleDataset data = DatasetFactory.zeros(DoubleDataset.class, shape);
-		double[] buf = data.getData();
+		final double[] buf = data.getData();
 
-		for (int i = 0; i < buf.length; i++) {
-			buf[i] = generator.nextDouble();
-		}
+		new Filler(buf.length) {
+			@Override
+			void set(int i, Stream s) {
+				buf[i] = s.nextDouble();
+			}
+		}.fill(buf.length);
 
 		return data;
 	}
@@ -72,13 +235,20 @@ public class Random {
 	 * @param shape
 	 * @return an array of values sampled from a uniform distribution between low and high (both exclusive) 
 	 */
-	public static DoubleDataset rand(double low, double high, final int... shape) {
+	public static DoubleDataset rand(final double low, final double high, final int... shape) {
+		if (low >= high) {
+			throw new IllegalArgumentException("Lower bound must be less than upper bound");
+		}
 		DoubleDataset data = DatasetFactory.zeros(DoubleDataset.class, shape);
-		double[] buf = data.getData();
+		final double[] buf = data.getData();
+		final double range = high - low;
 
-		for (int i = 0; i < buf.length; i++) {
-			buf[i] = prng.nextUniform(low, high);
-		}
+		new Filler(buf.length) {
+			@Override
+			void set(int i, Stream s) {
+				buf[i] = low + range * s.nextOpenDouble();
+			}
+		}.fill(buf.length);
 
 		return data;
 	}
@@ -91,14 +261,7 @@ public class Random {
 	 * same name Carl Friedrich Gauss  http://en.wikipedia.org/wiki/Carl_Friedrich_Gauss born in 1777.)
 	 */
 	public static DoubleDataset randn(final int... shape) {
-		DoubleDataset data = DatasetFactory.zeros(DoubleDataset.class, shape);
-		double[] buf = data.getData();
-
-		for (int i = 0; i < buf.length; i++) {
-			buf[i] = generator.nextGaussian();
-		}
-
-		return data;
+		return randn(0, 1, shape);
 	}
 
 	/**
@@ -107,13 +270,19 @@ public class Random {
 	 * @param shape
 	 * @return an array of values sampled from a Gaussian distribution with given mean and standard deviation 
 	 */
-	public static DoubleDataset randn(double mean, double std, final int... shape) {
+	public static DoubleDataset randn(final double mean, final double std, final int... shape) {
+		if (std <= 0) {
+			throw new IllegalArgumentException("Standard deviation must be positive");
+		}
 		DoubleDataset data = DatasetFactory.zeros(DoubleDataset.class, shape);
-		double[] buf = data.getData();
+		final double[] buf = data.getData();
 
-		for (int i = 0; i < buf.length; i++) {
-			buf[i] = prng.nextGaussian(mean, std);
-		}
+		new Filler(buf.length) {
+			@Override
+			void set(int i, Stream s) {
+				buf[i] = mean + std * s.nextGaussian();
+			}
+		}.fill(buf.length);
 
 		return data;
 	}
@@ -135,18 +304,19 @@ public class Random {
 	 * @return an array of values sampled from a discrete uniform distribution in range [low, high]
 	 */
 	public static IntegerDataset random_integers(final int low, final int high, final int[] shape) {
+		if (low > high) {
+			throw new IllegalArgumentException("Lower bound must not exceed upper bound");
+		}
 		IntegerDataset data = DatasetFactory.zeros(IntegerDataset.class, shape);
-		int[] buf = data.getData();
-
-		if (low == high) {
-			for (int i = 0; i < buf.length; i++) {
-				buf[i] = low;
-			}			
-		} else {
-			for (int i = 0; i < buf.length; i++) {
-				buf[i] = prng.nextInt(low, high);
+		final int[] buf = data.getData();
+		final long range = (long) high - low + 1;
+
+		new Filler(buf.length) {
+			@Override
+			void set(int i, Stream s) {
+				buf[i] = (int) (low + s.nextLong(range));
 			}
-		}
+		}.fill(buf.length);
 
 		return data;
 	}
@@ -157,12 +327,18 @@ public class Random {
 	 * @return an array of values sampled from an exponential distribution with mean beta
 	 */
 	public static DoubleDataset exponential(final double beta, final int... shape) {
+		if (beta <= 0) {
+			throw new IllegalArgumentException("Mean must be positive");
+		}
 		DoubleDataset data = DatasetFactory.zeros(DoubleDataset.class, shape);
-		double[] buf = data.getData();
+		final double[] buf = data.getData();
 
-		for (int i = 0; i < buf.length; i++) {
-			buf[i] = prng.nextExponential(beta);
-		}
+		new Filler(buf.length) {
+			@Override
+			void set(int i, Stream s) {
+				buf[i] = -beta * Math.log(s.nextPositiveDouble());
+			}
+		}.fill(buf.length);
 
 		return data;
 	}
@@ -170,15 +346,21 @@ public class Random {
 	/**
 	 * @param lam 
 	 * @param shape
-	 * @return an array of values sampled from an exponential distribution with mean lambda
+	 * @return an array of values sampled from a Poisson distribution with mean lambda
 	 */
 	public static IntegerDataset poisson(final double lam, final int... shape) {
+		if (lam <= 0) {
+			throw new IllegalArgumentException("Mean must be positive");
+		}
 		IntegerDataset data = DatasetFactory.zeros(IntegerDataset.class, shape);
-		int[] buf = data.getData();
+		final int[] buf = data.getData();
 
-		for (int i = 0; i < buf.length; i++) {
-			buf[i] = (int) prng.nextPoisson(lam);
-		}
+		new Filler(buf.length) {
+			@Override
+			void set(int i, Stream s) {
+				buf[i] = (int) Math.min(Integer.MAX_VALUE, s.nextPoisson(lam));
+			}
+		}.fill(buf.length);
 
 		return data;
 	}
@@ -207,7 +389,9 @@ public class Random {
 	 * @return a lazy dataset with uniformly distributed random numbers
 	 */
 	public static ILazyDataset lazyRand(int dtype, String name, int... shape) {
-		
+		final long k = key.get();
+		final long c = counter.getAndAdd(ShapeUtils.calcLongSize(shape));
+
 		return new LazyDataset(name, dtype, shape, new ILazyLoader() {
 			private static final long serialVersionUID = ILazyLoader.serialVersionUID;
 
@@ -218,7 +402,39 @@ public class Random {
 
 			@Override
 			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
-				return rand(slice.getShape());
+				final int[] sshape = slice.getShape();
+				final int[] start = slice.getStart();
+				final int[] step = slice.getStep();
+				final int[] source = slice.getSourceShape();
+				final int rank = sshape.length;
+				final long[] stride = new long[rank];
+				long t = 1;
+				for (int j = rank - 1; j >= 0; j--) {
+					stride[j] = t;
+					t *= source[j];
+				}
+
+				DoubleDataset data = DatasetFactory.zeros(DoubleDataset.class, sshape);
+				final double[] buf = data.getData();
+				ParallelUtils.forRange(0, buf.length, 4096, new ParallelUtils.RangeTask() {
+					@Override
+					void run(int b, int e) {
+						Stream s = new Stream(k);
+						for (int i = b; i < e; i++) {
+							// counter of item is given by its position in whole dataset
+							long index = 0;
+							int r = i;
+							for (int j = rank - 1; j >= 0; j--) {
+								int p = r % sshape[j];
+								r /= sshape[j];
+								index += (start[j] + p * (long) step[j]) * stride[j];
+							}
+							s.reset(c + index);
+							buf[i] = s.nextDouble();
+						}
+					}
+				});
+				return data;
 			}
 		});
 	}
@@ -9,29 +9,65 @@
 
 package org.eclipse.january.dataset;
 
+import java.util.Arrays;
+
 import org.eclipse.january.DatasetException;
 
 /**
  * A running mean class
+ * <p>
+ * This accumulates the mean of datasets item-wise and, optionally, the variance (using
+ * Welford's method), the minimum and maximum. Squared errors are propagated to give the
+ * squared error of the mean when the first dataset has errors. Updates work directly on
+ * primitive buffers and read strided views without copying them. Accumulators of disjoint
+ * sets of datasets, e.g. from parallel workers, can be merged.
  */
 public class RunningAverage {
-	
+
+	private static final int BLOCK = 4096; // number of items read in a block
+
+	private final int[] shape;
 	private DoubleDataset average;
 	private DoubleDataset sqAveError;
+	private DoubleDataset m2; // sum of squared differences from mean
+	private DoubleDataset min;
+	private DoubleDataset max;
 	private int count = 1;
 
 	/**
 	 * @param dataset
 	 */
 	public RunningAverage(IDataset dataset) {
-		average = (DoubleDataset) (dataset.getElementClass().equals(Double.class) ? DatasetUtils.convertToDataset(dataset).clone()
-				: DatasetUtils.cast(dataset, Dataset.FLOAT64));
+		this(dataset, false, false);
+	}
+
+	/**
+	 * @param dataset
+	 * @param variance if true, accumulate variance
+	 * @param extrema if true, accumulate minimum and maximum
+	 * @since 2.0
+	 */
+	public RunningAverage(IDataset dataset, boolean variance, boolean extrema) {
+		final Dataset d = DatasetUtils.convertToDataset(dataset);
+		shape = d.getShape();
+		average = DatasetFactory.zeros(DoubleDataset.class, shape);
+		final int size = average.getSize();
+		BufferUtils.copyToDoubles(d, 0, 0, size, average.getData(), 0);
+		average.setName(d.getName());
 
 		sqAveError = null;
-		Dataset eb = average.getErrorBuffer();
+		Dataset eb = d.getErrorBuffer();
 		if (eb != null) {
-			sqAveError = eb.getDType() != Dataset.FLOAT64 ? (DoubleDataset) DatasetUtils.cast(eb, Dataset.FLOAT64) :
-				(DoubleDataset) eb;
+			sqAveError = DatasetFactory.zeros(DoubleDataset.class, shape);
+			BufferUtils.copyToDoubles(eb.getBroadcastView(shape), 0, 0, size, sqAveError.getData(), 0);
+		}
+
+		if (variance) {
+			m2 = DatasetFactory.zeros(DoubleDataset.class, shape);
+		}
+		if (extrema) {
+			min = average.clone();
+			max = average.clone();
 		}
 	}
 
@@ -40,57 +76,151 @@ public class RunningAverage {
 	 * @param dataset
 	 */
 	public void update(IDataset dataset) {
+		final Dataset d = DatasetUtils.convertToDataset(dataset);
+		if (!Arrays.equals(shape, d.getShapeRef())) {
+			throw new IllegalArgumentException("Dataset must have same shape as average");
+		}
 		count++;
-		IndexIterator it = average.getIterator(true);
-		int[] pos = it.getPos();
-		double f = 1. / count;
-		if (sqAveError == null) {
-			while (it.hasNext()) {
-				double m = average.getAbs(it.index);
-				double v = f * (dataset.getDouble(pos) - m);
-				average.setAbs(it.index, m + v);
-			}
-		} else {
-			double fs = f * f;
-			double gs = 2 * count - 1;
+
+		Dataset le = null; // squared errors
+		if (sqAveError != null) {
 			if (dataset instanceof Dataset) {
-				final Dataset d = (Dataset) dataset;
-				final Dataset e = d.getErrorBuffer();
-				while (it.hasNext()) {
-					double m = average.getAbs(it.index);
-					double v = f * (d.getDouble(pos) - m);
-					average.setAbs(it.index, m + v);
-
-					if (e != null) {
-						m = sqAveError.getDouble(pos);
-						v = fs * (e.getDouble(pos) - gs * m);
-						sqAveError.setItem(m + v, pos);
-					}
-				}
+				le = d.getErrorBuffer();
 			} else { // only linear error available
-				ILazyDataset le = dataset.getErrors();
-				IDataset e = null;
-				if (le instanceof IDataset) {
-					e = (IDataset) le;
-				} else if (le != null) {
+				ILazyDataset e = dataset.getErrors();
+				if (e != null) {
 					try {
-						e = le.getSlice();
+						le = Maths.square(DatasetUtils.convertToDataset(e.getSlice()));
 					} catch (DatasetException e1) {
 					}
 				}
-				while (it.hasNext()) {
-					double m = average.getAbs(it.index);
-					double v = f * (dataset.getDouble(pos) - m);
-					average.setAbs(it.index, m + v);
-
-					if (e != null) {
-						m = sqAveError.getDouble(pos);
-						v = e.getDouble(pos);
-						v = fs * (v * v - gs * m);
-						sqAveError.setItem(m + v, pos);
+			}
+			if (le != null) {
+				le = le.getBroadcastView(shape);
+			}
+		}
+		final Dataset e = le;
+
+		final int n = count;
+		final double f = 1. / n;
+		final double fs = f * f;
+		final double gs = 2 * n - 1;
+		final double[] a = average.getData();
+		final double[] s = sqAveError == null ? null : sqAveError.getData();
+		final double[] w = m2 == null ? null : m2.getData();
+		final double[] lo = min == null ? null : min.getData();
+		final double[] hi = max == null ? null : max.getData();
+
+		final int size = a.length;
+		ParallelUtils.forRange(0, size, BLOCK, new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				final double[] values = new double[Math.min(BLOCK, end - start)];
+				final double[] errors = e == null ? null : new double[values.length];
+				for (int b = start; b < end; b += BLOCK) {
+					final int l = Math.min(BLOCK, end - b);
+					BufferUtils.copyToDoubles(d, 0, b, l, values, 0);
+					for (int i = 0; i < l; i++) {
+						final int j = b + i;
+						final double x = values[i];
+						final double m = a[j];
+						final double v = x - m;
+						a[j] = m + f * v;
+						if (w != null) {
+							w[j] += v * (x - a[j]);
+						}
+						if (lo != null) {
+							if (x < lo[j]) {
+								lo[j] = x;
+							}
+							if (x > hi[j]) {
+								hi[j] = x;
+							}
+						}
+					}
+					if (errors != null) {
+						BufferUtils.copyToDoubles(e, 0, b, l, errors, 0);
+						for (int i = 0; i < l; i++) {
+							final int j = b + i;
+							s[j] += fs * (errors[i] - gs * s[j]);
+						}
 					}
 				}
 			}
+		});
+		setDirty();
+	}
+
+	/**
+	 * Merge another running average of the same shape into this one. This gives the same
+	 * result, to within rounding, as updating this one with all the datasets of the other
+	 * @param other
+	 * @since 2.0
+	 */
+	public void merge(RunningAverage other) {
+		if (!Arrays.equals(shape, other.shape)) {
+			throw new IllegalArgumentException("Running average must have same shape");
+		}
+		final int na = count;
+		final int nb = other.count;
+		final double n = (double) na + nb;
+		final double fb = nb / n;
+		final double fw = na * fb;
+		final double fa2 = (na / n) * (na / n);
+		final double fb2 = fb * fb;
+
+		final double[] a = average.getData();
+		final double[] b = other.average.getData();
+		final double[] s = sqAveError == null ? null : sqAveError.getData();
+		final double[] sb = other.sqAveError == null ? null : other.sqAveError.getData();
+		final double[] w = m2 == null ? null : m2.getData();
+		final double[] wb = other.m2 == null ? null : other.m2.getData();
+		final double[] lo = min == null ? null : min.getData();
+		final double[] hi = max == null ? null : max.getData();
+		final double[] lob = other.min == null ? null : other.min.getData();
+		final double[] hib = other.max == null ? null : other.max.getData();
+
+		ParallelUtils.forRange(0, a.length, ParallelUtils.DEFAULT_GRAIN, new ParallelUtils.RangeTask() {
+			@Override
+			void run(int start, int end) {
+				for (int j = start; j < end; j++) {
+					final double delta = b[j] - a[j];
+					a[j] += delta * fb;
+					if (w != null) {
+						w[j] += (wb == null ? 0 : wb[j]) + delta * delta * fw;
+					}
+					if (s != null) {
+						s[j] = fa2 * s[j] + (sb == null ? 0 : fb2 * sb[j]);
+					}
+					if (lo != null && lob != null) {
+						lo[j] = Math.min(lo[j], lob[j]);
+						hi[j] = Math.max(hi[j], hib[j]);
+					}
+				}
+			}
+		});
+		if (w != null && wb == null) {
+			m2 = null; // cannot combine without other's variance
+		}
+		if (lo != null && lob == null) {
+			min = null;
+			max = null;
+		}
+		count += nb;
+		setDirty();
+	}
+
+	private void setDirty() {
+		average.setDirty();
+		if (sqAveError != null) {
+			sqAveError.setDirty();
+		}
+		if (m2 != null) {
+			m2.setDirty();
+		}
+		if (min != null) {
+			min.setDirty();
+			max.setDirty();
 		}
 	}
 
@@ -113,4 +243,32 @@ public class RunningAverage {
 
 		return average;
 	}
+
+	/**
+	 * @return current (sample) variance or null if not accumulated
+	 * @since 2.0
+	 */
+	public Dataset getCurrentVariance() {
+		if (m2 == null) {
+			return null;
+		}
+		return count < 2 ? DatasetFactory.zeros(DoubleDataset.class, shape).fill(Double.NaN) :
+			Maths.divide(m2, count - 1);
+	}
+
+	/**
+	 * @return current minimum or null if not accumulated
+	 * @since 2.0
+	 */
+	public Dataset getCurrentMinimum() {
+		return min;
+	}
+
+	/**
+	 * @return current maximum or null if not accumulated
+	 * @since 2.0
+	 */
+	public Dataset getCurrentMaximum() {
+		return max;
+	}
 }
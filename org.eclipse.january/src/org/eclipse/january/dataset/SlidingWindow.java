@@ -0,0 +1,669 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.january.DatasetException;
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.dataset.Interpolation.BoundaryMode;
+import org.eclipse.january.io.ILazyLoader;
+
+/**
+ * Moving (rolling) reductions over a window that slides along one or more axes of a dataset
+ * <p>
+ * Each line along an axis is filtered in a single pass with constant amortised cost per item:
+ * sums and means use a compensated running sum, minima and maxima use a monotonic queue of
+ * candidates and medians use a pair of heaps that hold the lower and upper halves of the window.
+ * Lines are filtered in parallel. A window over several axes is applied as a sequence of
+ * one-dimensional windows so medians are restricted to a single axis. Any NaN in a window gives
+ * a NaN result.
+ * <p>
+ * A window of size w at position i covers positions i - w/2 to i - w/2 + w - 1. Positions beyond
+ * the bounds of the dataset take values according to the boundary mode; without a mode, only
+ * windows that lie entirely within the dataset are used so the result is shorter by w - 1 along
+ * each filtered axis. Results are double datasets with the item size of the input.
+ * @since 2.0
+ */
+public final class SlidingWindow {
+
+	private SlidingWindow() {
+	}
+
+	/**
+	 * Reduction of values in window
+	 */
+	public enum Reduction {
+		SUM,
+		MEAN,
+		MINIMUM,
+		MAXIMUM,
+		MEDIAN;
+	}
+
+	/**
+	 * Moving sum along an axis with reflection at boundaries
+	 * @param a
+	 * @param window size of window
+	 * @param axis
+	 * @return moving sum
+	 */
+	public static Dataset sum(final Dataset a, final int window, final int axis) {
+		return filter(a, Reduction.SUM, window, axis, BoundaryMode.REFLECT, 0);
+	}
+
+	/**
+	 * Moving mean along an axis with reflection at boundaries
+	 * @param a
+	 * @param window size of window
+	 * @param axis
+	 * @return moving mean
+	 */
+	public static Dataset mean(final Dataset a, final int window, final int axis) {
+		return filter(a, Reduction.MEAN, window, axis, BoundaryMode.REFLECT, 0);
+	}
+
+	/**
+	 * Moving minimum along an axis with reflection at boundaries
+	 * @param a
+	 * @param window size of window
+	 * @param axis
+	 * @return moving minimum
+	 */
+	public static Dataset minimum(final Dataset a, final int window, final int axis) {
+		return filter(a, Reduction.MINIMUM, window, axis, BoundaryMode.REFLECT, 0);
+	}
+
+	/**
+	 * Moving maximum along an axis with reflection at boundaries
+	 * @param a
+	 * @param window size of window
+	 * @param axis
+	 * @return moving maximum
+	 */
+	public static Dataset maximum(final Dataset a, final int window, final int axis) {
+		return filter(a, Reduction.MAXIMUM, window, axis, BoundaryMode.REFLECT, 0);
+	}
+
+	/**
+	 * Moving median along an axis with reflection at boundaries
+	 * @param a
+	 * @param window size of window
+	 * @param axis
+	 * @return moving median
+	 */
+	public static Dataset median(final Dataset a, final int window, final int axis) {
+		return filter(a, Reduction.MEDIAN, window, axis, BoundaryMode.REFLECT, 0);
+	}
+
+	/**
+	 * Filter along an axis
+	 * @param a
+	 * @param reduction
+	 * @param window size of window
+	 * @param axis
+	 * @param mode boundary mode (if null, use only windows within dataset)
+	 * @param cval value beyond bounds for constant mode
+	 * @return filtered dataset
+	 */
+	public static Dataset filter(final Dataset a, final Reduction reduction, final int window, final int axis, final BoundaryMode mode, final double cval) {
+		return filter(a, reduction, new int[] {window}, new int[] {axis}, mode, cval);
+	}
+
+	/**
+	 * Filter along axes
+	 * @param a
+	 * @param reduction
+	 * @param window sizes of window
+	 * @param axes axes of window
+	 * @param mode boundary mode (if null, use only windows within dataset)
+	 * @param cval value beyond bounds for constant mode
+	 * @return filtered dataset
+	 */
+	public static Dataset filter(final Dataset a, final Reduction reduction, final int[] window, final int[] axes, final BoundaryMode mode, final double cval) {
+		final int[] checked = checkWindow(a.getShapeRef(), reduction, window, axes, mode);
+		Dataset result = a;
+		double c = cval;
+		for (int i = 0; i < checked.length; i++) {
+			result = filterAxis(result, reduction, window[i], checked[i], mode, c);
+			if (reduction == Reduction.SUM) { // values beyond bounds are now sums of constants
+				c *= window[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Filter a lazy dataset along axes. Each slice of the returned dataset reads only the part of
+	 * the source that its windows cover so the source can be processed in chunks that fit in memory
+	 * @param a
+	 * @param reduction
+	 * @param window sizes of window
+	 * @param axes axes of window
+	 * @param mode boundary mode (if null, use only windows within dataset)
+	 * @param cval value beyond bounds for constant mode
+	 * @return lazy filtered dataset
+	 */
+	public static ILazyDataset lazyFilter(final ILazyDataset a, final Reduction reduction, final int[] window, final int[] axes, final BoundaryMode mode, final double cval) {
+		final int[] shape = a.getShape();
+		final int[] checked = checkWindow(shape, reduction, window, axes, mode);
+		final int rank = shape.length;
+		final int[] wsize = new int[rank]; // window size per axis or 0 if not filtered
+		final int[] oshape = shape.clone();
+		for (int i = 0; i < checked.length; i++) {
+			wsize[checked[i]] = window[i];
+			if (mode == null) {
+				oshape[checked[i]] -= window[i] - 1;
+			}
+		}
+		final int is = a.getElementsPerItem();
+
+		return new LazyDataset(a.getName(), Dataset.FLOAT64, is, oshape, new ILazyLoader() {
+			private static final long serialVersionUID = ILazyLoader.serialVersionUID;
+
+			@Override
+			public boolean isFileReadable() {
+				return true;
+			}
+
+			@Override
+			public IDataset getDataset(IMonitor mon, SliceND slice) throws IOException {
+				final int[] sshape = slice.getShape();
+				if (ShapeUtils.calcLongSize(sshape) == 0) {
+					return DatasetFactory.zeros(is, DoubleDataset.class, sshape);
+				}
+				final int[] start = slice.getStart();
+				final int[] step = slice.getStep();
+
+				// gather runs of source positions covered by windows of slice
+				final int[] pshape = new int[rank];
+				final int[] first = new int[rank]; // first position of slice in padded block
+				@SuppressWarnings({"unchecked", "rawtypes"})
+				final List<int[]>[] runs = new List[rank];
+				for (int i = 0; i < rank; i++) {
+					final int last = start[i] + (sshape[i] - 1) * step[i];
+					final int lo = Math.min(start[i], last);
+					final int hi = Math.max(start[i], last);
+					runs[i] = new ArrayList<int[]>();
+					if (wsize[i] == 0) {
+						final int s = Math.abs(step[i]);
+						pshape[i] = sshape[i];
+						runs[i].add(new int[] {0, sshape[i], lo, s});
+						first[i] = step[i] < 0 ? sshape[i] - 1 : 0;
+					} else {
+						final int before = mode == null ? 0 : wsize[i] / 2;
+						pshape[i] = hi - lo + wsize[i];
+						addRuns(runs[i], lo - before, pshape[i], shape[i], mode);
+						first[i] = start[i] - lo;
+					}
+				}
+
+				final Dataset padded = DatasetFactory.zeros(is, DoubleDataset.class, pshape);
+				padded.fill(cval);
+				try {
+					loadRuns(mon, a, runs, padded);
+				} catch (DatasetException e) {
+					throw new IOException(e);
+				}
+
+				Dataset result = padded;
+				for (int i = 0; i < checked.length; i++) {
+					result = filterAxis(result, reduction, window[i], checked[i], null, 0);
+				}
+				final Slice[] slices = new Slice[rank];
+				for (int i = 0; i < rank; i++) {
+					slices[i] = wsize[i] == 0 ? new Slice(first[i], null, step[i] < 0 ? -1 : 1) : new Slice(first[i], null, step[i]);
+				}
+				return result.getSlice(slices);
+			}
+		});
+	}
+
+	/**
+	 * Add runs of consecutive source positions to cover part of a padded line
+	 * @param runs list of runs of destination start, length, source start, source step (0 for constant)
+	 * @param k source position of start of padded line
+	 * @param length of padded line
+	 * @param n length of source axis
+	 * @param mode
+	 */
+	private static void addRuns(final List<int[]> runs, final int k, final int length, final int n, final BoundaryMode mode) {
+		int[] run = null;
+		for (int j = 0; j < length; j++) {
+			final int p = mode == null ? k + j : Interpolation.mapIndex(k + j, n, mode);
+			if (run != null) {
+				final int q = run[2] + run[3] * run[1];
+				if (p >= 0 && (run[1] == 1 ? Math.abs(p - run[2]) == 1 : p == q)) {
+					if (run[1] == 1) {
+						run[3] = p - run[2];
+					}
+					run[1]++;
+					continue;
+				}
+			}
+			if (p >= 0) {
+				run = new int[] {j, 1, p, 1};
+				runs.add(run);
+			} else {
+				run = null; // leave constant
+			}
+		}
+	}
+
+	/**
+	 * Load every combination of runs over axes into padded block
+	 * @param mon
+	 * @param a
+	 * @param runs
+	 * @param padded
+	 * @throws DatasetException
+	 */
+	private static void loadRuns(final IMonitor mon, final ILazyDataset a, final List<int[]>[] runs, final Dataset padded) throws DatasetException {
+		final int rank = runs.length;
+		final int[] shape = a.getShape();
+		final int[] choice = new int[rank];
+		final int[] sstart = new int[rank];
+		final int[] sstop = new int[rank];
+		final int[] sstep = new int[rank];
+		final int[] dstart = new int[rank];
+		final int[] dstop = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			if (runs[i].isEmpty()) {
+				return;
+			}
+		}
+		while (true) {
+			final Slice[] reverse = new Slice[rank];
+			boolean reversed = false;
+			for (int i = 0; i < rank; i++) {
+				final int[] run = runs[i].get(choice[i]);
+				final int s = run[3];
+				final int end = run[2] + (run[1] - 1) * s;
+				sstart[i] = Math.min(run[2], end);
+				sstop[i] = Math.max(run[2], end) + 1;
+				sstep[i] = Math.abs(s);
+				dstart[i] = run[0];
+				dstop[i] = run[0] + run[1];
+				if (s < 0) {
+					reverse[i] = new Slice(null, null, -1);
+					reversed = true;
+				}
+			}
+			Dataset block = DatasetUtils.convertToDataset(a.getSlice(mon, new SliceND(shape, sstart, sstop, sstep)));
+			if (reversed) {
+				block = block.getSlice(reverse); // copy as reversed views are misread when setting
+			}
+			padded.setSlice(block, new SliceND(padded.getShapeRef(), dstart, dstop, null));
+
+			int i = rank - 1;
+			for (; i >= 0; i--) {
+				if (++choice[i] < runs[i].size()) {
+					break;
+				}
+				choice[i] = 0;
+			}
+			if (i < 0) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * @param shape
+	 * @param reduction
+	 * @param window
+	 * @param axes
+	 * @param mode
+	 * @return checked axes
+	 */
+	private static int[] checkWindow(final int[] shape, final Reduction reduction, final int[] window, final int[] axes, final BoundaryMode mode) {
+		if (window.length != axes.length || axes.length == 0) {
+			throw new IllegalArgumentException("Window sizes must be given for one or more axes");
+		}
+		if (reduction == Reduction.MEDIAN && axes.length > 1) {
+			throw new IllegalArgumentException("Median is restricted to a single axis");
+		}
+		final int rank = shape.length;
+		final int[] checked = new int[axes.length];
+		final boolean[] used = new boolean[rank];
+		for (int i = 0; i < axes.length; i++) {
+			int axis = axes[i];
+			if (axis < 0) {
+				axis += rank;
+			}
+			if (axis < 0 || axis >= rank) {
+				throw new IllegalArgumentException("Axis " + axes[i] + " is out of range");
+			}
+			if (used[axis]) {
+				throw new IllegalArgumentException("Axis " + axes[i] + " is repeated");
+			}
+			used[axis] = true;
+			if (window[i] < 1) {
+				throw new IllegalArgumentException("Window size must be positive");
+			}
+			if (mode == null && window[i] > shape[axis]) {
+				throw new IllegalArgumentException("Window size must not exceed length of axis " + axes[i]);
+			}
+			checked[i] = axis;
+		}
+		return checked;
+	}
+
+	/**
+	 * Filter along a single axis
+	 * @param a
+	 * @param reduction
+	 * @param w size of window
+	 * @param axis
+	 * @param mode
+	 * @param cval
+	 * @return filtered dataset
+	 */
+	private static Dataset filterAxis(final Dataset a, final Reduction reduction, final int w, final int axis, final BoundaryMode mode, final double cval) {
+		final int[] shape = a.getShape();
+		final int len = shape[axis];
+		final int before = mode == null ? 0 : w / 2;
+		final int after = mode == null ? 0 : w - 1 - before;
+		final int olen = mode == null ? len - w + 1 : len;
+		shape[axis] = olen;
+		final int is = a.getElementsPerItem();
+		final Dataset out = DatasetFactory.zeros(is, DoubleDataset.class, shape);
+
+		LineUtils.applyAlongAxis(a, axis, out, new LineUtils.LineKernel() {
+			@Override
+			void process(Dataset line, Dataset result) {
+				if (olen == 0) {
+					return;
+				}
+				final double[] o = (double[]) result.getBuffer();
+				final double[] padded = new double[before + len + after];
+				for (int e = 0; e < is; e++) {
+					BufferUtils.copyToDoubles(line, e, 0, len, padded, before);
+					for (int k = 0; k < before; k++) {
+						final int p = Interpolation.mapIndex(k - before, len, mode);
+						padded[k] = p < 0 ? cval : padded[before + p];
+					}
+					for (int k = 0; k < after; k++) {
+						final int p = Interpolation.mapIndex(len + k, len, mode);
+						padded[before + len + k] = p < 0 ? cval : padded[before + p];
+					}
+					switch (reduction) {
+					case SUM:
+						movingSum(padded, w, false, o, e, is, olen);
+						break;
+					case MEAN:
+						movingSum(padded, w, true, o, e, is, olen);
+						break;
+					case MINIMUM:
+						movingExtremum(padded, w, false, o, e, is, olen);
+						break;
+					case MAXIMUM:
+						movingExtremum(padded, w, true, o, e, is, olen);
+						break;
+					case MEDIAN:
+					default:
+						new MedianHeaps(w).filter(padded, o, e, is, olen);
+						break;
+					}
+				}
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * Running sum over windows with compensated summation. Non-finite values are counted rather
+	 * than summed so they leave the sum when they leave the window
+	 * @param in padded values
+	 * @param w size of window
+	 * @param mean if true, divide sum by w
+	 * @param out
+	 * @param opos start position in output
+	 * @param ostep step in output
+	 * @param n number of windows
+	 */
+	private static void movingSum(final double[] in, final int w, final boolean mean, final double[] out, int opos, final int ostep, final int n) {
+		double sum = 0;
+		double comp = 0;
+		int nans = 0;
+		int pinfs = 0;
+		int ninfs = 0;
+		for (int i = 0, iEnd = n + w - 1; i < iEnd; i++) {
+			for (int j = 0; j < 2; j++) {
+				final double x;
+				final int c;
+				if (j == 0) {
+					x = in[i];
+					c = 1;
+				} else if (i >= w) {
+					x = -in[i - w];
+					c = -1;
+				} else {
+					break;
+				}
+				if (Double.isNaN(x)) {
+					nans += c;
+				} else if (Double.isInfinite(x)) {
+					if (x * c > 0) {
+						pinfs += c;
+					} else {
+						ninfs += c;
+					}
+				} else {
+					final double y = x - comp;
+					final double t = sum + y;
+					comp = (t - sum) - y;
+					sum = t;
+				}
+			}
+			if (i >= w - 1) {
+				final double v;
+				if (nans > 0 || (pinfs > 0 && ninfs > 0)) {
+					v = Double.NaN;
+				} else if (pinfs > 0) {
+					v = Double.POSITIVE_INFINITY;
+				} else if (ninfs > 0) {
+					v = Double.NEGATIVE_INFINITY;
+				} else {
+					v = mean ? sum / w : sum;
+				}
+				out[opos] = v;
+				opos += ostep;
+			}
+		}
+	}
+
+	/**
+	 * Running extremum over windows using a monotonic queue of positions of candidates
+	 * @param in padded values
+	 * @param w size of window
+	 * @param max if true, find maximum
+	 * @param out
+	 * @param opos start position in output
+	 * @param ostep step in output
+	 * @param n number of windows
+	 */
+	private static void movingExtremum(final double[] in, final int w, final boolean max, final double[] out, int opos, final int ostep, final int n) {
+		final int m = n + w - 1;
+		final int[] queue = new int[m];
+		int head = 0;
+		int tail = 0;
+		int nan = -w; // last position of NaN
+		for (int i = 0; i < m; i++) {
+			if (head < tail && queue[head] <= i - w) {
+				head++;
+			}
+			final double x = in[i];
+			if (Double.isNaN(x)) {
+				nan = i;
+			} else {
+				while (tail > head && (max ? in[queue[tail - 1]] <= x : in[queue[tail - 1]] >= x)) {
+					tail--;
+				}
+				queue[tail++] = i;
+			}
+			if (i >= w - 1) {
+				out[opos] = nan > i - w ? Double.NaN : in[queue[head]];
+				opos += ostep;
+			}
+		}
+	}
+
+	/**
+	 * Running median over windows. Values in window are held in a ring and split between a
+	 * max-heap of the lower half and a min-heap of the upper half; each step replaces the oldest
+	 * value in place and restores the heaps in logarithmic time
+	 */
+	private static class MedianHeaps {
+		private final int w;
+		private final double[] v; // ring of values with NaNs as +infinity
+		private final int[] lo; // max-heap of ring slots
+		private final int[] hi; // min-heap of ring slots
+		private final int[] where; // position in lo or ~position in hi
+
+		MedianHeaps(int w) {
+			this.w = w;
+			v = new double[w];
+			lo = new int[(w + 1) / 2];
+			hi = new int[w - lo.length];
+			where = new int[w];
+			for (int k = 0; k < lo.length; k++) {
+				lo[k] = k;
+				where[k] = k;
+			}
+			for (int k = 0; k < hi.length; k++) {
+				hi[k] = lo.length + k;
+				where[lo.length + k] = ~k;
+			}
+		}
+
+		void filter(final double[] in, final double[] out, int opos, final int ostep, final int n) {
+			int nans = 0;
+			// all values are equal initially so heaps are valid
+			final double x0 = in[0];
+			Arrays.fill(v, Double.isNaN(x0) ? Double.POSITIVE_INFINITY : x0);
+			for (int i = 0, iEnd = n + w - 1; i < iEnd; i++) {
+				final int s = i % w;
+				if (i >= w && Double.isNaN(in[i - w])) {
+					nans--;
+				}
+				final double x = in[i];
+				if (Double.isNaN(x)) {
+					nans++;
+					replace(s, Double.POSITIVE_INFINITY);
+				} else {
+					replace(s, x);
+				}
+				if (i >= w - 1) {
+					final double m;
+					if (nans > 0) {
+						m = Double.NaN;
+					} else if (hi.length < lo.length) {
+						m = v[lo[0]];
+					} else {
+						m = 0.5 * (v[lo[0]] + v[hi[0]]);
+					}
+					out[opos] = m;
+					opos += ostep;
+				}
+			}
+		}
+
+		private void replace(final int s, final double x) {
+			v[s] = x;
+			final int p = where[s];
+			if (p >= 0) {
+				siftLo(p);
+			} else {
+				siftHi(~p);
+			}
+			if (hi.length > 0 && v[lo[0]] > v[hi[0]]) { // exchange tops
+				final int a = lo[0];
+				final int b = hi[0];
+				lo[0] = b;
+				where[b] = 0;
+				hi[0] = a;
+				where[a] = ~0;
+				siftLo(0);
+				siftHi(0);
+			}
+		}
+
+		private void siftLo(int p) {
+			final int s = lo[p];
+			final double x = v[s];
+			while (p > 0) {
+				final int q = (p - 1) / 2;
+				if (v[lo[q]] >= x) {
+					break;
+				}
+				lo[p] = lo[q];
+				where[lo[p]] = p;
+				p = q;
+			}
+			final int size = lo.length;
+			while (true) {
+				int c = 2 * p + 1;
+				if (c >= size) {
+					break;
+				}
+				if (c + 1 < size && v[lo[c + 1]] > v[lo[c]]) {
+					c++;
+				}
+				if (v[lo[c]] <= x) {
+					break;
+				}
+				lo[p] = lo[c];
+				where[lo[p]] = p;
+				p = c;
+			}
+			lo[p] = s;
+			where[s] = p;
+		}
+
+		private void siftHi(int p) {
+			final int s = hi[p];
+			final double x = v[s];
+			while (p > 0) {
+				final int q = (p - 1) / 2;
+				if (v[hi[q]] <= x) {
+					break;
+				}
+				hi[p] = hi[q];
+				where[hi[p]] = ~p;
+				p = q;
+			}
+			final int size = hi.length;
+			while (true) {
+				int c = 2 * p + 1;
+				if (c >= size) {
+					break;
+				}
+				if (c + 1 < size && v[hi[c + 1]] < v[hi[c]]) {
+					c++;
+				}
+				if (v[hi[c]] >= x) {
+					break;
+				}
+				hi[p] = hi[c];
+				where[hi[p]] = ~p;
+				p = c;
+			}
+			hi[p] = s;
+			where[s] = ~p;
+		}
+	}
+}
@@ -0,0 +1,897 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.io.Serializable;
+import java.text.Format;
+import java.util.Arrays;
+
+import org.eclipse.january.IMonitor;
+import org.eclipse.january.metadata.ErrorMetadata;
+
+/**
+ * Dataset of doubles that only holds its non-zero items
+ * <p>
+ * Items are held in coordinate form as their flat (row-major) indexes, in increasing order, and
+ * values. So memory and the cost of conversions, slicing, reductions and element-wise operations
+ * that preserve zero scale with the number of non-zero items rather than the size. For 2D
+ * datasets, this is equivalent to compressed sparse rows as the items of each row are contiguous
+ * and are found by a binary search. NaNs and infinities are held as non-zero items.
+ * <p>
+ * Setting an item takes time proportional to the number of non-zero items so datasets are best
+ * created from dense datasets or lists of indexes and values. Views are not supported so slices
+ * and transposes are copies. Errors are not supported.
+ * @since 2.0
+ */
+public class SparseDataset extends LazyDatasetBase implements IDataset {
+
+	private static final long serialVersionUID = 5281376543203571496L;
+
+	private static final int BUFFER = 4096; // number of items read at a time from dense datasets
+
+	private int size;
+	private int[] index; // flat indexes of non-zero items in increasing order
+	private double[] value; // values of non-zero items
+	private Format stringFormat = null;
+
+	/**
+	 * Create a dataset of zeros
+	 * @param shape
+	 */
+	public SparseDataset(final int... shape) {
+		this(shape, new int[0], new double[0]);
+	}
+
+	private SparseDataset(final int[] shape, final int[] index, final double[] value) {
+		this.shape = shape.clone();
+		size = ShapeUtils.calcSize(shape);
+		this.index = index;
+		this.value = value;
+	}
+
+	/**
+	 * Create a sparse dataset from the non-zero items of a dataset
+	 * @param a dataset with single element items
+	 * @return sparse dataset
+	 */
+	public static SparseDataset createFromDense(final Dataset a) {
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Dataset must have single element items");
+		}
+		Items items = ParallelUtils.reduce(0, a.getSize(), ParallelUtils.DEFAULT_GRAIN, new ParallelUtils.RangeReduction<Items>() {
+			@Override
+			Items compute(int start, int end) {
+				final Items items = new Items(16);
+				final double[] buffer = new double[Math.min(BUFFER, end - start)];
+				for (int i = start; i < end; i += buffer.length) {
+					final int n = Math.min(buffer.length, end - i);
+					BufferUtils.copyToDoubles(a, 0, i, n, buffer, 0);
+					for (int j = 0; j < n; j++) {
+						items.add(i + j, buffer[j]);
+					}
+				}
+				return items;
+			}
+
+			@Override
+			Items combine(Items lower, Items upper) {
+				lower.add(upper);
+				return lower;
+			}
+		});
+		SparseDataset s = items == null ? new SparseDataset(a.getShapeRef()) : items.create(a.getShapeRef());
+		s.setName(a.getName());
+		return s;
+	}
+
+	/**
+	 * Create a sparse dataset from lists of flat indexes and values. Values of repeated indexes are
+	 * summed and zeros are omitted
+	 * @param shape
+	 * @param indexes flat (row-major) indexes in any order
+	 * @param values
+	 * @return sparse dataset
+	 */
+	public static SparseDataset createFromIndexes(final int[] shape, final int[] indexes, final double[] values) {
+		final int n = indexes.length;
+		if (values.length != n) {
+			throw new IllegalArgumentException("Number of indexes and values must match");
+		}
+		final int size = ShapeUtils.calcSize(shape);
+		final long[] keys = new long[n];
+		for (int k = 0; k < n; k++) {
+			final int i = indexes[k];
+			if (i < 0 || i >= size) {
+				throw new IllegalArgumentException("Index (" + i + ") is out of range [0," + size + ")");
+			}
+			keys[k] = ((long) i << 32) | k;
+		}
+		Arrays.sort(keys);
+
+		final Items items = new Items(n);
+		for (int k = 0; k < n;) {
+			final int i = (int) (keys[k] >>> 32);
+			double v = values[(int) keys[k++]];
+			while (k < n && (int) (keys[k] >>> 32) == i) {
+				v += values[(int) keys[k++]];
+			}
+			items.add(i, v);
+		}
+		return items.create(shape);
+	}
+
+	/**
+	 * @return dense dataset
+	 */
+	public DoubleDataset toDense() {
+		DoubleDataset d = DatasetFactory.zeros(DoubleDataset.class, shape);
+		final double[] data = d.getData();
+		for (int k = 0; k < index.length; k++) {
+			data[index[k]] = value[k];
+		}
+		d.setName(name);
+		return d;
+	}
+
+	/**
+	 * @return number of non-zero items
+	 */
+	public int getNonZeroCount() {
+		return index.length;
+	}
+
+	/**
+	 * @return flat indexes of non-zero items in increasing order
+	 */
+	public int[] getNonZeroIndexes() {
+		return index.clone();
+	}
+
+	/**
+	 * @return values of non-zero items in order of their indexes
+	 */
+	public double[] getNonZeroValues() {
+		return value.clone();
+	}
+
+	@Override
+	public int getDType() {
+		return Dataset.FLOAT64;
+	}
+
+	@Override
+	public int getElementsPerItem() {
+		return 1;
+	}
+
+	@Override
+	public int getItemBytes() {
+		return DTypeUtils.getItemBytes(Dataset.FLOAT64, 1);
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public void setStringFormat(Format format) {
+		stringFormat = format;
+	}
+
+	@Override
+	public double getDouble(final int... pos) {
+		final int k = Arrays.binarySearch(index, AbstractDataset.get1DIndexFromShape(shape, pos));
+		return k < 0 ? 0 : value[k];
+	}
+
+	@Override
+	public Object getObject(final int... pos) {
+		return getDouble(pos);
+	}
+
+	@Override
+	public String getString(final int... pos) {
+		final double v = getDouble(pos);
+		return stringFormat == null ? String.format("%.8g", v) : stringFormat.format(v);
+	}
+
+	@Override
+	public long getLong(final int... pos) {
+		return (long) getDouble(pos);
+	}
+
+	@Override
+	public float getFloat(final int... pos) {
+		return (float) getDouble(pos);
+	}
+
+	@Override
+	public int getInt(final int... pos) {
+		return (int) getDouble(pos);
+	}
+
+	@Override
+	public short getShort(final int... pos) {
+		return (short) getDouble(pos);
+	}
+
+	@Override
+	public byte getByte(final int... pos) {
+		return (byte) getDouble(pos);
+	}
+
+	@Override
+	public boolean getBoolean(final int... pos) {
+		return getDouble(pos) != 0;
+	}
+
+	/**
+	 * Set an item. This takes time proportional to the number of non-zero items when an item is
+	 * added or removed
+	 */
+	@Override
+	public void set(final Object obj, final int... pos) {
+		final double v = DTypeUtils.toReal(obj);
+		final int i = AbstractDataset.get1DIndexFromShape(shape, pos);
+		int k = Arrays.binarySearch(index, i);
+		if (k >= 0) {
+			if (v != 0) {
+				value[k] = v;
+				return;
+			}
+			// remove item
+			final int n = index.length - 1;
+			final int[] nindex = new int[n];
+			final double[] nvalue = new double[n];
+			System.arraycopy(index, 0, nindex, 0, k);
+			System.arraycopy(value, 0, nvalue, 0, k);
+			System.arraycopy(index, k + 1, nindex, k, n - k);
+			System.arraycopy(value, k + 1, nvalue, k, n - k);
+			index = nindex;
+			value = nvalue;
+		} else if (v != 0) {
+			// insert item
+			k = -k - 1;
+			final int n = index.length;
+			final int[] nindex = new int[n + 1];
+			final double[] nvalue = new double[n + 1];
+			System.arraycopy(index, 0, nindex, 0, k);
+			System.arraycopy(value, 0, nvalue, 0, k);
+			nindex[k] = i;
+			nvalue[k] = v;
+			System.arraycopy(index, k, nindex, k + 1, n - k);
+			System.arraycopy(value, k, nvalue, k + 1, n - k);
+			index = nindex;
+			value = nvalue;
+		}
+	}
+
+	@Override
+	public int fillArray(SliceND slice, Object array, int offset) {
+		if (!(array instanceof double[])) {
+			return IDataset.super.fillArray(slice, array, offset);
+		}
+		final SparseDataset s = slice == null ? this : getSlice(slice);
+		final double[] data = (double[]) array;
+		Arrays.fill(data, offset, offset + s.size, 0);
+		for (int k = 0; k < s.index.length; k++) {
+			data[offset + s.index[k]] = s.value[k];
+		}
+		return s.size;
+	}
+
+	@Override
+	public void setShape(final int... shape) {
+		if (ShapeUtils.calcSize(shape) != size) {
+			throw new IllegalArgumentException("New shape is not compatible with old shape");
+		}
+		// flat indexes are unchanged
+		this.shape = shape.clone();
+	}
+
+	@Override
+	public void resize(int... newShape) {
+		final int nsize = ShapeUtils.calcSize(newShape);
+		int n = Arrays.binarySearch(index, nsize);
+		if (n < 0) {
+			n = -n - 1;
+		}
+		index = Arrays.copyOf(index, n);
+		value = Arrays.copyOf(value, n);
+		shape = newShape.clone();
+		size = nsize;
+	}
+
+	@Override
+	public SparseDataset squeezeEnds() {
+		return squeeze(true);
+	}
+
+	@Override
+	public SparseDataset squeeze() {
+		return squeeze(false);
+	}
+
+	@Override
+	public SparseDataset squeeze(boolean onlyFromEnds) {
+		shape = ShapeUtils.squeezeShape(shape, onlyFromEnds);
+		return this;
+	}
+
+	@Override
+	public SparseDataset clone() {
+		SparseDataset c = new SparseDataset(shape, index.clone(), value.clone());
+		c.name = name;
+		c.stringFormat = stringFormat;
+		c.metadata = copyMetadata();
+		return c;
+	}
+
+	@Override
+	public SparseDataset getSlice(final int[] start, final int[] stop, final int[] step) {
+		return getSlice(new SliceND(shape, start, stop, step));
+	}
+
+	@Override
+	public SparseDataset getSlice(final Slice... slice) {
+		return getSlice(new SliceND(shape, slice));
+	}
+
+	/**
+	 * Get a slice. Only the non-zero items between the first and last items of the slice are visited
+	 */
+	@Override
+	public SparseDataset getSlice(final SliceND slice) {
+		final int[] start = slice.getStart();
+		final int[] step = slice.getStep();
+		final int[] nshape = slice.getShape();
+		final int rank = shape.length;
+		final Items items = new Items(16);
+		if (ShapeUtils.calcSize(nshape) > 0 && index.length > 0) {
+			// range of flat indexes that contains slice
+			int lo = 0;
+			int hi = 0;
+			for (int i = 0; i < rank; i++) {
+				final int last = start[i] + (nshape[i] - 1) * step[i];
+				lo = lo * shape[i] + Math.min(start[i], last);
+				hi = hi * shape[i] + Math.max(start[i], last);
+			}
+			final int kStart = findFrom(lo);
+			final int kStop = findFrom(hi + 1);
+
+			final int[] pos = new int[rank];
+			boolean sorted = true;
+			int previous = -1;
+			for (int k = kStart; k < kStop; k++) {
+				unravel(index[k], pos);
+				int n = 0;
+				int i = 0;
+				for (; i < rank; i++) {
+					final int d = pos[i] - start[i];
+					if (d % step[i] != 0) {
+						break;
+					}
+					final int q = d / step[i];
+					if (q < 0 || q >= nshape[i]) {
+						break;
+					}
+					n = n * nshape[i] + q;
+				}
+				if (i == rank) {
+					items.add(n, value[k]);
+					if (n < previous) {
+						sorted = false;
+					}
+					previous = n;
+				}
+			}
+			if (!sorted) { // from negative steps
+				items.sort();
+			}
+		}
+		final SparseDataset s = items.create(nshape);
+		s.name = name;
+		return s;
+	}
+
+	@Override
+	public SparseDataset getSlice(IMonitor monitor, int[] start, int[] stop, int[] step) {
+		return getSlice(start, stop, step);
+	}
+
+	@Override
+	public SparseDataset getSlice(IMonitor monitor, Slice... slice) {
+		return getSlice(slice);
+	}
+
+	@Override
+	public SparseDataset getSlice(IMonitor monitor, SliceND slice) {
+		return getSlice(slice);
+	}
+
+	/**
+	 * Get a slice. As views are not supported, this is a copy
+	 */
+	@Override
+	public SparseDataset getSliceView(final int[] start, final int[] stop, final int[] step) {
+		return getSlice(start, stop, step);
+	}
+
+	/**
+	 * Get a slice. As views are not supported, this is a copy
+	 */
+	@Override
+	public SparseDataset getSliceView(final Slice... slice) {
+		return getSlice(slice);
+	}
+
+	/**
+	 * Get a slice. As views are not supported, this is a copy
+	 */
+	@Override
+	public SparseDataset getSliceView(final SliceND slice) {
+		return getSlice(slice);
+	}
+
+	/**
+	 * Get a transpose. As views are not supported, this is a copy
+	 */
+	@Override
+	public SparseDataset getTransposedView(int... axes) {
+		axes = checkPermutatedAxes(shape, axes);
+		if (axes == null) {
+			return clone();
+		}
+		final int rank = shape.length;
+		final int[] nshape = new int[rank];
+		for (int i = 0; i < rank; i++) {
+			nshape[i] = shape[axes[i]];
+		}
+		final Items items = new Items(index.length);
+		final int[] pos = new int[rank];
+		for (int k = 0; k < index.length; k++) {
+			unravel(index[k], pos);
+			int n = 0;
+			for (int i = 0; i < rank; i++) {
+				n = n * nshape[i] + pos[axes[i]];
+			}
+			items.add(n, value[k]);
+		}
+		items.sort();
+		final SparseDataset t = items.create(nshape);
+		t.name = name;
+		return t;
+	}
+
+	/**
+	 * @return sum of all items
+	 */
+	public double sum() {
+		double sum = 0;
+		for (double v : value) {
+			sum += v;
+		}
+		return sum;
+	}
+
+	/**
+	 * Sum items along an axis
+	 * @param axis
+	 * @return dense dataset with given axis removed
+	 */
+	public Dataset sum(int axis) {
+		axis = AbstractDataset.checkAxis(shape.length, axis);
+		final DoubleDataset result = DatasetFactory.zeros(DoubleDataset.class, ShapeUtils.squeezeShape(shape, axis));
+		final double[] data = result.getData();
+		int inner = 1;
+		for (int i = axis + 1; i < shape.length; i++) {
+			inner *= shape[i];
+		}
+		final int outer = inner * shape[axis];
+		for (int k = 0; k < index.length; k++) {
+			final int i = index[k];
+			data[(i / outer) * inner + i % inner] += value[k];
+		}
+		return result;
+	}
+
+	@Override
+	public Number max(boolean... ignoreInvalids) {
+		return extremum(true, ignoreInvalids);
+	}
+
+	@Override
+	public Number min(boolean... ignoreInvalids) {
+		return extremum(false, ignoreInvalids);
+	}
+
+	@Override
+	public int[] maxPos(boolean... ignoreInvalids) {
+		return findPosition(extremum(true, ignoreInvalids));
+	}
+
+	@Override
+	public int[] minPos(boolean... ignoreInvalids) {
+		return findPosition(extremum(false, ignoreInvalids));
+	}
+
+	@Override
+	public Object mean(boolean... ignoreInvalids) {
+		final boolean ignoreNaNs = ignoreInvalids != null && ignoreInvalids.length > 0 ? ignoreInvalids[0] : false;
+		final boolean ignoreInfs = ignoreInvalids != null && ignoreInvalids.length > 1 ? ignoreInvalids[1] : ignoreNaNs;
+		double sum = 0;
+		int n = size;
+		for (double v : value) {
+			if ((ignoreNaNs && Double.isNaN(v)) || (ignoreInfs && Double.isInfinite(v))) {
+				n--;
+			} else {
+				sum += v;
+			}
+		}
+		return sum / n;
+	}
+
+	private double extremum(final boolean isMax, final boolean[] ignoreInvalids) {
+		final boolean ignoreNaNs = ignoreInvalids != null && ignoreInvalids.length > 0 ? ignoreInvalids[0] : false;
+		final boolean ignoreInfs = ignoreInvalids != null && ignoreInvalids.length > 1 ? ignoreInvalids[1] : ignoreNaNs;
+		double m = isMax ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		boolean found = index.length < size;
+		if (found) {
+			m = 0;
+		}
+		for (double v : value) {
+			if (Double.isNaN(v)) {
+				if (!ignoreNaNs) {
+					return Double.NaN;
+				}
+			} else if (!ignoreInfs || !Double.isInfinite(v)) {
+				if (isMax ? v > m : v < m) {
+					m = v;
+				}
+				found = true;
+			}
+		}
+		return found ? m : Double.NaN;
+	}
+
+	/**
+	 * @param v
+	 * @return position of first item with given value
+	 */
+	private int[] findPosition(final double v) {
+		int i = -1;
+		if (v == 0) { // first zero
+			i = index.length;
+			for (int k = 0; k < index.length; k++) {
+				if (index[k] != k) {
+					i = k;
+					break;
+				}
+			}
+		} else {
+			final boolean isNaN = Double.isNaN(v);
+			for (int k = 0; k < index.length; k++) {
+				if (isNaN ? Double.isNaN(value[k]) : value[k] == v) {
+					i = index[k];
+					break;
+				}
+			}
+		}
+		return i < 0 || i >= size ? null : ShapeUtils.getNDPositionFromShape(i, shape);
+	}
+
+	/**
+	 * @param b
+	 * @return this multiplied by value
+	 * @throws IllegalArgumentException if value is not finite
+	 */
+	public SparseDataset multiply(final double b) {
+		if (Double.isNaN(b) || Double.isInfinite(b)) {
+			throw new IllegalArgumentException("Multiplication by a non-finite value does not preserve zeros");
+		}
+		final Items items = new Items(index.length);
+		for (int k = 0; k < index.length; k++) {
+			items.add(index[k], value[k] * b);
+		}
+		return items.create(shape);
+	}
+
+	/**
+	 * @param b
+	 * @return this divided by value
+	 * @throws IllegalArgumentException if value is zero or NaN
+	 */
+	public SparseDataset divide(final double b) {
+		if (b == 0 || Double.isNaN(b)) {
+			throw new IllegalArgumentException("Division by zero or NaN does not preserve zeros");
+		}
+		final Items items = new Items(index.length);
+		for (int k = 0; k < index.length; k++) {
+			items.add(index[k], value[k] / b);
+		}
+		return items.create(shape);
+	}
+
+	/**
+	 * Multiply item-wise by a dataset of the same shape. The result is zero wherever this
+	 * dataset is zero
+	 * @param b sparse or dense dataset
+	 * @return product
+	 */
+	public SparseDataset multiply(final IDataset b) {
+		checkShape(b);
+		final Items items = new Items(index.length);
+		if (b instanceof SparseDataset) {
+			// intersection of items
+			final SparseDataset s = (SparseDataset) b;
+			final int na = index.length;
+			final int nb = s.index.length;
+			for (int i = 0, j = 0; i < na && j < nb;) {
+				if (index[i] < s.index[j]) {
+					i++;
+				} else if (index[i] > s.index[j]) {
+					j++;
+				} else {
+					items.add(index[i], value[i++] * s.value[j++]);
+				}
+			}
+		} else {
+			Dataset d = DatasetUtils.convertToDataset(b);
+			if (d.getElementsPerItem() != 1) {
+				throw new IllegalArgumentException("Dataset must have single element items");
+			}
+			final double[] x = new double[1];
+			for (int k = 0; k < index.length; k++) {
+				BufferUtils.copyToDoubles(d, 0, index[k], 1, x, 0);
+				items.add(index[k], value[k] * x[0]);
+			}
+		}
+		return items.create(shape);
+	}
+
+	/**
+	 * @param b sparse dataset of same shape
+	 * @return sum
+	 */
+	public SparseDataset add(final SparseDataset b) {
+		return merge(b, 1);
+	}
+
+	/**
+	 * @param b sparse dataset of same shape
+	 * @return difference
+	 */
+	public SparseDataset subtract(final SparseDataset b) {
+		return merge(b, -1);
+	}
+
+	/**
+	 * @return negated dataset
+	 */
+	public SparseDataset negate() {
+		return multiply(-1);
+	}
+
+	/**
+	 * @return dataset of absolute values
+	 */
+	public SparseDataset abs() {
+		final Items items = new Items(index.length);
+		for (int k = 0; k < index.length; k++) {
+			items.add(index[k], Math.abs(value[k]));
+		}
+		return items.create(shape);
+	}
+
+	/**
+	 * Apply an operation to every non-zero item
+	 * @param op unary operation that maps zero to zero
+	 * @return result
+	 * @throws IllegalArgumentException if operation does not map zero to zero
+	 */
+	public SparseDataset apply(final UnaryOperation op) {
+		if (op.doubleOperate(0) != 0) {
+			throw new IllegalArgumentException("Operation does not preserve zeros");
+		}
+		final Items items = new Items(index.length);
+		for (int k = 0; k < index.length; k++) {
+			items.add(index[k], op.doubleOperate(value[k]));
+		}
+		return items.create(shape);
+	}
+
+	/**
+	 * Union of items of this and scaled items of other dataset
+	 * @param b
+	 * @param factor
+	 * @return merged dataset
+	 */
+	private SparseDataset merge(final SparseDataset b, final double factor) {
+		checkShape(b);
+		final int na = index.length;
+		final int nb = b.index.length;
+		final Items items = new Items(na + nb);
+		int i = 0;
+		int j = 0;
+		while (i < na || j < nb) {
+			if (j == nb || (i < na && index[i] < b.index[j])) {
+				items.add(index[i], value[i++]);
+			} else if (i == na || b.index[j] < index[i]) {
+				items.add(b.index[j], factor * b.value[j++]);
+			} else {
+				items.add(index[i], value[i++] + factor * b.value[j++]);
+			}
+		}
+		return items.create(shape);
+	}
+
+	private void checkShape(final ILazyDataset b) {
+		if (!Arrays.equals(shape, b.getShape())) {
+			throw new IllegalArgumentException("Datasets must have same shape");
+		}
+	}
+
+	/**
+	 * @param i flat index
+	 * @return position of first non-zero item with an index not less than given one
+	 */
+	private int findFrom(final int i) {
+		final int k = Arrays.binarySearch(index, i);
+		return k < 0 ? -k - 1 : k;
+	}
+
+	/**
+	 * @param i flat index
+	 * @param pos position
+	 */
+	private void unravel(int i, final int[] pos) {
+		for (int j = shape.length - 1; j >= 0; j--) {
+			final int l = shape[j];
+			pos[j] = i % l;
+			i /= l;
+		}
+	}
+
+	/**
+	 * Errors are not supported
+	 * @throws UnsupportedOperationException unless errors are null
+	 */
+	@Override
+	public void setErrors(Serializable errors) {
+		if (errors != null) {
+			throw new UnsupportedOperationException("Sparse datasets do not support errors");
+		}
+		clearMetadata(ErrorMetadata.class);
+	}
+
+	@Override
+	public IDataset getErrors() {
+		return null;
+	}
+
+	@Override
+	public boolean hasErrors() {
+		return false;
+	}
+
+	@Override
+	public double getError(int... pos) {
+		return 0;
+	}
+
+	@Override
+	public double[] getErrorArray(int... pos) {
+		return null;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!super.equals(obj)) {
+			return false;
+		}
+		SparseDataset other = (SparseDataset) obj;
+		return Arrays.equals(index, other.index) && Arrays.equals(value, other.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+
+		if (name != null && name.length() > 0) {
+			out.append("Sparse dataset '");
+			out.append(name);
+			out.append("' has shape ");
+		} else {
+			out.append("Sparse dataset shape is ");
+		}
+		out.append(Arrays.toString(shape));
+		out.append(" with ");
+		out.append(index.length);
+		out.append(" non-zero items");
+
+		return out.toString();
+	}
+
+	/**
+	 * Growable lists of indexes and values of non-zero items
+	 */
+	private static class Items {
+		private int[] index;
+		private double[] value;
+		private int n = 0;
+
+		Items(int capacity) {
+			index = new int[Math.max(1, capacity)];
+			value = new double[index.length];
+		}
+
+		/**
+		 * Add item if it is not zero
+		 * @param i
+		 * @param v
+		 */
+		void add(final int i, final double v) {
+			if (v == 0) {
+				return;
+			}
+			if (n == index.length) {
+				index = Arrays.copyOf(index, 2 * n);
+				value = Arrays.copyOf(value, 2 * n);
+			}
+			index[n] = i;
+			value[n++] = v;
+		}
+
+		/**
+		 * Append items
+		 * @param other
+		 */
+		void add(final Items other) {
+			final int m = n + other.n;
+			if (m > index.length) {
+				index = Arrays.copyOf(index, m);
+				value = Arrays.copyOf(value, m);
+			}
+			System.arraycopy(other.index, 0, index, n, other.n);
+			System.arraycopy(other.value, 0, value, n, other.n);
+			n = m;
+		}
+
+		/**
+		 * Sort items by index
+		 */
+		void sort() {
+			final long[] keys = new long[n];
+			for (int k = 0; k < n; k++) {
+				keys[k] = ((long) index[k] << 32) | k;
+			}
+			Arrays.sort(keys);
+			final double[] nvalue = new double[n];
+			for (int k = 0; k < n; k++) {
+				index[k] = (int) (keys[k] >>> 32);
+				nvalue[k] = value[(int) keys[k]];
+			}
+			value = nvalue;
+		}
+
+		SparseDataset create(final int[] shape) {
+			return new SparseDataset(shape, Arrays.copyOf(index, n), Arrays.copyOf(value, n));
+		}
+	}
+}
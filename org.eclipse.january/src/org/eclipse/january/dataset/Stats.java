@@ -14,6 +14,7 @@ package org.eclipse.january.dataset;
 
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +24,7 @@ import java.util.TreeMap;
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.stat.descriptive.moment.Kurtosis;
 import org.apache.commons.math3.stat.descriptive.moment.Skewness;
+import org.eclipse.january.DatasetException;
 import org.eclipse.january.metadata.Dirtiable;
 import org.eclipse.january.metadata.MetadataType;
 
@@ -97,8 +99,8 @@ public class Stats {
 		}
 
 		public Dataset getQuantile(int axis, double q) {
-			Map<Double, ReferencedDataset> qm = getMap(axis);
-			return qm.get(q).get();
+			ReferencedDataset r = getMap(axis).get(q);
+			return r == null ? null : r.get();
 		}
 
 		Dataset getSortedDataset(int axis) {
@@ -389,6 +391,214 @@ public class Stats {
 		return points;
 	}
 
+	private static final int LAZY_BLOCK = 1 << 20; // number of items read in a block from lazy datasets
+
+	/**
+	 * Build sketch of distribution of dataset that gives approximate quantiles. Ranges of items are
+	 * sketched in parallel and the partial sketches merged
+	 * @param a single element dataset
+	 * @param k size parameter of sketch, see {@link QuantileSketch#QuantileSketch(int)}
+	 * @return sketch
+	 * @since 2.0
+	 */
+	public static QuantileSketch quantileSketch(final Dataset a, final int k) {
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Dataset must have single element items");
+		}
+		final QuantileSketch sketch = new QuantileSketch(k); // check k before going parallel
+		final QuantileSketch partial = ParallelUtils.reduce(0, a.getSize(), ParallelUtils.DEFAULT_GRAIN, new ParallelUtils.RangeReduction<QuantileSketch>() {
+			@Override
+			QuantileSketch compute(int start, int end) {
+				final QuantileSketch s = new QuantileSketch(k);
+				final double[] buffer = new double[Math.min(end - start, 4096)];
+				for (int i = start; i < end; i += buffer.length) {
+					final int n = Math.min(buffer.length, end - i);
+					BufferUtils.copyToDoubles(a, 0, i, n, buffer, 0);
+					for (int j = 0; j < n; j++) {
+						s.update(buffer[j]);
+					}
+				}
+				return s;
+			}
+
+			@Override
+			QuantileSketch combine(QuantileSketch lower, QuantileSketch upper) {
+				lower.merge(upper);
+				return lower;
+			}
+		});
+		if (partial != null) { // null if dataset is empty
+			sketch.merge(partial);
+		}
+		return sketch;
+	}
+
+	/**
+	 * Build sketch of distribution of lazy dataset that gives approximate quantiles. The dataset is
+	 * read in blocks along its first axis so it need not fit in memory
+	 * @param a single element lazy dataset
+	 * @param k size parameter of sketch, see {@link QuantileSketch#QuantileSketch(int)}
+	 * @return sketch
+	 * @throws DatasetException
+	 * @since 2.0
+	 */
+	public static QuantileSketch quantileSketch(final ILazyDataset a, final int k) throws DatasetException {
+		final QuantileSketch sketch = new QuantileSketch(k);
+		final int[] shape = a.getShape();
+		if (shape.length == 0) {
+			sketch.merge(quantileSketch(DatasetUtils.convertToDataset(a.getSlice()), k));
+			return sketch;
+		}
+		final int n = shape[0];
+		final int b = getLazyBlock(shape, 0);
+		final int[] start = new int[shape.length];
+		final int[] stop = shape.clone();
+		for (int i = 0; i < n; i += b) {
+			start[0] = i;
+			stop[0] = Math.min(n, i + b);
+			sketch.merge(quantileSketch(DatasetUtils.convertToDataset(a.getSlice(start, stop, null)), k));
+		}
+		return sketch;
+	}
+
+	/**
+	 * Build sketches of distributions of values along an axis
+	 * @param a single element dataset
+	 * @param axis
+	 * @param k size parameter of sketch, see {@link QuantileSketch#QuantileSketch(int)}
+	 * @return sketches for each position of the dataset without the axis (in row-major order)
+	 * @since 2.0
+	 */
+	public static QuantileSketch[] quantileSketches(final Dataset a, int axis, final int k) {
+		axis = a.checkAxis(axis);
+		final QuantileSketch[] sketches = createSketches(a, axis, k);
+		updateSketches(sketches, a.getTransposedView(moveAxisToFront(a.getRank(), axis)));
+		return sketches;
+	}
+
+	/**
+	 * Build sketches of distributions of values along an axis of a lazy dataset. The dataset is
+	 * read in blocks along the axis so it need not fit in memory
+	 * @param a single element lazy dataset
+	 * @param axis
+	 * @param k size parameter of sketch, see {@link QuantileSketch#QuantileSketch(int)}
+	 * @return sketches for each position of the dataset without the axis (in row-major order)
+	 * @throws DatasetException
+	 * @since 2.0
+	 */
+	public static QuantileSketch[] quantileSketches(final ILazyDataset a, int axis, final int k) throws DatasetException {
+		final int[] shape = a.getShape();
+		final int rank = shape.length;
+		if (axis < 0) {
+			axis += rank;
+		}
+		if (axis < 0 || axis >= rank) {
+			throw new IllegalArgumentException("Axis " + axis + " given is out of range [0, " + rank + ")");
+		}
+		final QuantileSketch[] sketches = createSketches(a, axis, k);
+		final ILazyDataset t = a.getTransposedView(moveAxisToFront(rank, axis));
+		final int[] tshape = t.getShape();
+		final int n = tshape[0];
+		final int b = getLazyBlock(tshape, 0);
+		final int[] start = new int[rank];
+		final int[] stop = tshape.clone();
+		for (int i = 0; i < n; i += b) {
+			start[0] = i;
+			stop[0] = Math.min(n, i + b);
+			updateSketches(sketches, DatasetUtils.convertToDataset(t.getSlice(start, stop, null)));
+		}
+		return sketches;
+	}
+
+	/**
+	 * Get approximate quantiles from sketches
+	 * @param sketches
+	 * @param shape of result
+	 * @param q fraction in [0, 1]
+	 * @return dataset of quantiles
+	 * @since 2.0
+	 */
+	public static Dataset quantile(final QuantileSketch[] sketches, final int[] shape, final double q) {
+		if (ShapeUtils.calcLongSize(shape) != sketches.length) {
+			throw new IllegalArgumentException("Shape must match number of sketches");
+		}
+		final DoubleDataset result = DatasetFactory.zeros(DoubleDataset.class, shape);
+		final double[] data = result.getData();
+		for (int i = 0; i < data.length; i++) {
+			data[i] = sketches[i].getQuantile(q);
+		}
+		return result;
+	}
+
+	private static QuantileSketch[] createSketches(final ILazyDataset a, final int axis, final int k) {
+		if (a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Dataset must have single element items");
+		}
+		final int[] shape = a.getShape();
+		shape[axis] = 1;
+		final QuantileSketch[] sketches = new QuantileSketch[ShapeUtils.calcSize(shape)];
+		for (int i = 0; i < sketches.length; i++) {
+			sketches[i] = new QuantileSketch(k);
+		}
+		return sketches;
+	}
+
+	private static int[] moveAxisToFront(final int rank, final int axis) {
+		final int[] axes = new int[rank];
+		axes[0] = axis;
+		for (int i = 0, j = 1; i < rank; i++) {
+			if (i != axis) {
+				axes[j++] = i;
+			}
+		}
+		return axes;
+	}
+
+	/**
+	 * @param shape
+	 * @param axis
+	 * @return number of positions along axis read in a block
+	 */
+	private static int getLazyBlock(final int[] shape, final int axis) {
+		long m = 1;
+		for (int i = 0; i < shape.length; i++) {
+			if (i != axis) {
+				m *= shape[i];
+			}
+		}
+		return (int) Math.max(1, LAZY_BLOCK / Math.max(1, m));
+	}
+
+	/**
+	 * Update sketches with each row of a block whose first axis is the sketched axis
+	 * @param sketches one for each item of a row
+	 * @param block
+	 */
+	private static void updateSketches(final QuantileSketch[] sketches, final Dataset block) {
+		final int m = sketches.length;
+		final int n = block.getShapeRef()[0];
+		if (m == 0 || n == 0) {
+			return;
+		}
+		final int rows = Math.max(1, Math.min(n, LAZY_BLOCK / m));
+		final double[] buffer = new double[rows * m];
+		for (int r = 0; r < n; r += rows) {
+			final int nr = Math.min(rows, n - r);
+			BufferUtils.copyToDoubles(block, 0, r * m, nr * m, buffer, 0);
+			ParallelUtils.forRange(0, m, Math.max(1, ParallelUtils.DEFAULT_GRAIN / nr), new ParallelUtils.RangeTask() {
+				@Override
+				void run(int start, int end) {
+					for (int p = start; p < end; p++) {
+						final QuantileSketch s = sketches[p];
+						for (int j = 0; j < nr; j++) {
+							s.update(buffer[j * m + p]);
+						}
+					}
+				}
+			});
+		}
+	}
+
 	/**
 	 * @param a dataset
 	 * @param axis
@@ -1169,11 +1379,6 @@ public class Stats {
 	 */
 	public static Dataset cumulativeProduct(final Dataset a, int axis, final boolean... ignoreInvalids) {
 		axis = a.checkAxis(axis);
-		int dtype = a.getDType();
-		int[] oshape = a.getShape();
-		int alen = oshape[axis];
-		oshape[axis] = 1;
-
 		final boolean ignoreNaNs;
 		final boolean ignoreInfs;
 		if (a.hasFloatingPointElements()) {
@@ -1184,186 +1389,12 @@ public class Stats {
 			ignoreInfs = false;
 		}
 		Dataset result = DatasetFactory.zeros(a);
-		PositionIterator pi = result.getPositionIterator(axis);
-
-		int[] pos = pi.getPos();
-
-		while (pi.hasNext()) {
-
-			if (a.isComplex()) {
-				double rv = 1, iv = 0;
-				switch (dtype) {
-				case Dataset.COMPLEX64:
-					ComplexFloatDataset af = (ComplexFloatDataset) a;
-					ComplexFloatDataset rf = (ComplexFloatDataset) result;
-					for (int j = 0; j < alen; j++) {
-						if (!Double.isNaN(rv) || !Double.isNaN(iv)) {
-							pos[axis] = j;
-							final float r1 = af.getReal(pos);
-							final float i1 = af.getImag(pos);
-							if (ignoreNaNs && (Float.isNaN(r1) || Float.isNaN(i1))) {
-								continue;
-							}
-							if (ignoreInfs  && (Float.isInfinite(r1) || Float.isInfinite(i1))) {
-								continue;
-							}
-							final double tv = r1*rv - i1*iv;
-							iv = r1*iv + i1*rv;
-							rv = tv;
-						}
-						rf.set((float) rv, (float) iv, pos);
-					}
-					break;
-				case Dataset.COMPLEX128:
-					ComplexDoubleDataset ad = (ComplexDoubleDataset) a;
-					ComplexDoubleDataset rd = (ComplexDoubleDataset) result;
-					for (int j = 0; j < alen; j++) {
-						if (!Double.isNaN(rv) || !Double.isNaN(iv)) {
-							pos[axis] = j;
-							final double r1 = ad.getReal(pos);
-							final double i1 = ad.getImag(pos);
-							if (ignoreNaNs && (Double.isNaN(r1) || Double.isNaN(i1))) {
-								continue;
-							}
-							if (ignoreInfs  && (Double.isInfinite(r1) || Double.isInfinite(i1))) {
-								continue;
-							}
-							final double tv = r1*rv - i1*iv;
-							iv = r1*iv + i1*rv;
-							rv = tv;
-						}
-						rd.set(rv, iv, pos);
-					}
-					break;
-				}
-			} else {
-				final int is;
-				final long[] lresults;
-				final double[] dresults;
-
-				switch (dtype) {
-				case Dataset.BOOL:
-				case Dataset.INT8: case Dataset.INT16:
-				case Dataset.INT32: case Dataset.INT64:
-					long lresult = 1;
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						lresult *= a.getInt(pos);
-						result.set(lresult, pos);
-					}
-					break;
-				case Dataset.ARRAYINT8:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int k = 0; k < is; k++) {
-						lresults[k] = 1;
-					}
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final byte[] va = (byte[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] *= va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.ARRAYINT16:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int k = 0; k < is; k++) {
-						lresults[k] = 1;
-					}
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final short[] va = (short[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] *= va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.ARRAYINT32:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int k = 0; k < is; k++) {
-						lresults[k] = 1;
-					}
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final int[] va = (int[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] *= va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.ARRAYINT64:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int k = 0; k < is; k++) {
-						lresults[k] = 1;
-					}
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final long[] va = (long[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] *= va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.FLOAT32: case Dataset.FLOAT64:
-					double dresult = 1.;
-					for (int j = 0; j < alen; j++) {
-						if (!Double.isNaN(dresult)) {
-							pos[axis] = j;
-							final double x = a.getDouble(pos);
-							if (ignoreNaNs && Double.isNaN(x)) {
-								continue;
-							}
-							if (ignoreInfs && Double.isInfinite(x)) {
-								continue;
-							}
-							dresult *= x;
-						}
-						result.set(dresult, pos);
-					}
-					break;
-				case Dataset.ARRAYFLOAT32: case Dataset.ARRAYFLOAT64:
-					is = a.getElementsPerItem();
-					CompoundDataset da = (CompoundDataset) a;
-					double[] dvalues = new double[is];
-					dresults = new double[is];
-					for (int k = 0; k < is; k++) {
-						dresults[k] = 1.;
-					}
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						da.getDoubleArray(dvalues, pos);
-						boolean okay = true;
-						for (int k = 0; k < is; k++) {
-							final double val = dvalues[k];
-							if (ignoreNaNs && Double.isNaN(val)) {
-								okay = false;
-								break;
-							}
-							if (ignoreInfs && Double.isInfinite(val)) {
-								okay = false;
-								break;
-							}
-						}
-						if (okay) {
-							for (int k = 0; k < is; k++) {
-								dresults[k] *= dvalues[k];
-							}
-						}
-						result.set(dresults, pos);
-					}
-					break;
-				}
+		LineUtils.applyAlongAxis(a, axis, result, new LineUtils.LineKernel() {
+			@Override
+			void process(Dataset line, Dataset out) {
+				cumulate(line, out, true, ignoreNaNs, ignoreInfs);
 			}
-		}
-
+		});
 		return result;
 	}
 
@@ -1384,11 +1415,6 @@ public class Stats {
 	 */
 	public static Dataset cumulativeSum(final Dataset a, int axis, final boolean... ignoreInvalids) {
 		axis = a.checkAxis(axis);
-		int dtype = a.getDType();
-		int[] oshape = a.getShape();
-		int alen = oshape[axis];
-		oshape[axis] = 1;
-
 		final boolean ignoreNaNs;
 		final boolean ignoreInfs;
 		if (a.hasFloatingPointElements()) {
@@ -1399,170 +1425,202 @@ public class Stats {
 			ignoreInfs = false;
 		}
 		Dataset result = DatasetFactory.zeros(a);
-		PositionIterator pi = result.getPositionIterator(axis);
-
-		int[] pos = pi.getPos();
+		LineUtils.applyAlongAxis(a, axis, result, new LineUtils.LineKernel() {
+			@Override
+			void process(Dataset line, Dataset out) {
+				cumulate(line, out, false, ignoreNaNs, ignoreInfs);
+			}
+		});
+		return result;
+	}
 
-		while (pi.hasNext()) {
+	/**
+	 * Cumulative sum or product of a line that works directly on the primitive buffers. Integer
+	 * values are accumulated as longs and floating point values as doubles. When an invalid value
+	 * of a single element or complex dataset is ignored, its result is zero
+	 * @param a 1D dataset
+	 * @param result 1D dataset for cumulative values
+	 * @param product if true, calculate product otherwise sum
+	 * @param ignoreNaNs
+	 * @param ignoreInfs
+	 */
+	private static void cumulate(final Dataset a, final Dataset result, final boolean product, final boolean ignoreNaNs, final boolean ignoreInfs) {
+		final Object abuf = a.getBuffer();
+		final Object rbuf = result.getBuffer();
+		final int is = a.getElementsPerItem();
+		final int n = a.getSize() * is;
 
+		if (abuf instanceof double[] || abuf instanceof float[]) {
+			final double[] x = abuf instanceof double[] ? (double[]) abuf : toDoubles((float[]) abuf, n);
+			final double[] y = rbuf instanceof double[] ? (double[]) rbuf : new double[n];
 			if (a.isComplex()) {
-				double rv = 0, iv = 0;
-				switch (dtype) {
-				case Dataset.COMPLEX64:
-					ComplexFloatDataset af = (ComplexFloatDataset) a;
-					ComplexFloatDataset rf = (ComplexFloatDataset) result;
-					for (int j = 0; j < alen; j++) {
-						if (!Double.isNaN(rv) || !Double.isNaN(iv)) {
-							pos[axis] = j;
-							final float r1 = af.getReal(pos);
-							final float i1 = af.getImag(pos);
-							if (ignoreNaNs && (Float.isNaN(r1) || Float.isNaN(i1))) {
-								continue;
-							}
-							if (ignoreInfs  && (Float.isInfinite(r1) || Float.isInfinite(i1))) {
-								continue;
-							}
-							rv += r1;
-							iv += i1;
-						}
-						rf.set((float) rv, (float) iv, pos);
-					}
-					break;
-				case Dataset.COMPLEX128:
-					ComplexDoubleDataset ad = (ComplexDoubleDataset) a;
-					ComplexDoubleDataset rd = (ComplexDoubleDataset) result;
-					for (int j = 0; j < alen; j++) {
-						if (!Double.isNaN(rv) || !Double.isNaN(iv)) {
-							pos[axis] = j;
-							final double r1 = ad.getReal(pos);
-							final double i1 = ad.getImag(pos);
-							if (ignoreNaNs && (Double.isNaN(r1) || Double.isNaN(i1))) {
-								continue;
-							}
-							if (ignoreInfs  && (Double.isInfinite(r1) || Double.isInfinite(i1))) {
-								continue;
-							}
-							rv += r1;
-							iv += i1;
-						}
-						rd.set(rv, iv, pos);
-					}
-					break;
+				cumulateComplex(x, y, n, product, ignoreNaNs, ignoreInfs);
+			} else {
+				cumulateDoubles(x, y, is, n, product, ignoreNaNs, ignoreInfs);
+			}
+			if (rbuf instanceof float[]) {
+				final float[] r = (float[]) rbuf;
+				for (int i = 0; i < n; i++) {
+					r[i] = (float) y[i];
+				}
+			}
+			return;
+		}
+
+		final long[] x;
+		if (abuf instanceof long[]) {
+			x = (long[]) abuf;
+		} else {
+			x = new long[n];
+			if (abuf instanceof int[]) {
+				final int[] data = (int[]) abuf;
+				for (int i = 0; i < n; i++) {
+					x[i] = data[i];
+				}
+			} else if (abuf instanceof short[]) {
+				final short[] data = (short[]) abuf;
+				for (int i = 0; i < n; i++) {
+					x[i] = data[i];
+				}
+			} else if (abuf instanceof byte[]) {
+				final byte[] data = (byte[]) abuf;
+				for (int i = 0; i < n; i++) {
+					x[i] = data[i];
+				}
+			} else if (abuf instanceof boolean[]) {
+				final boolean[] data = (boolean[]) abuf;
+				for (int i = 0; i < n; i++) {
+					x[i] = data[i] ? 1 : 0;
 				}
 			} else {
-				final int is;
-				final long[] lresults;
-				final double[] dresults;
+				return; // not numeric
+			}
+		}
 
-				switch (dtype) {
-				case Dataset.BOOL:
-				case Dataset.INT8: case Dataset.INT16:
-				case Dataset.INT32: case Dataset.INT64:
-					long lresult = 0;
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						lresult += a.getInt(pos);
-						result.set(lresult, pos);
+		final long[] y = rbuf instanceof long[] ? (long[]) rbuf : new long[n];
+		for (int k = 0; k < is && k < n; k++) {
+			long v = product ? 1 : 0;
+			for (int i = k; i < n; i += is) {
+				if (product) {
+					v *= x[i];
+				} else {
+					v += x[i];
+				}
+				y[i] = v;
+			}
+		}
+
+		if (rbuf instanceof int[]) {
+			final int[] r = (int[]) rbuf;
+			for (int i = 0; i < n; i++) {
+				r[i] = (int) y[i];
+			}
+		} else if (rbuf instanceof short[]) {
+			final short[] r = (short[]) rbuf;
+			for (int i = 0; i < n; i++) {
+				r[i] = (short) y[i];
+			}
+		} else if (rbuf instanceof byte[]) {
+			final byte[] r = (byte[]) rbuf;
+			for (int i = 0; i < n; i++) {
+				r[i] = (byte) y[i];
+			}
+		} else if (rbuf instanceof boolean[]) {
+			final boolean[] r = (boolean[]) rbuf;
+			for (int i = 0; i < n; i++) {
+				r[i] = y[i] != 0;
+			}
+		}
+	}
+
+	private static double[] toDoubles(final float[] data, final int n) {
+		final double[] x = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = data[i];
+		}
+		return x;
+	}
+
+	/**
+	 * @param x interleaved real and imaginary parts of line
+	 * @param y interleaved real and imaginary parts of results
+	 * @param n number of values
+	 * @param product
+	 * @param ignoreNaNs
+	 * @param ignoreInfs
+	 */
+	private static void cumulateComplex(final double[] x, final double[] y, final int n, final boolean product, final boolean ignoreNaNs, final boolean ignoreInfs) {
+		double rv = product ? 1 : 0, iv = 0;
+		for (int i = 0; i < n; i += 2) {
+			if (!Double.isNaN(rv) || !Double.isNaN(iv)) {
+				final double r1 = x[i];
+				final double i1 = x[i + 1];
+				if ((ignoreNaNs && (Double.isNaN(r1) || Double.isNaN(i1))) ||
+						(ignoreInfs && (Double.isInfinite(r1) || Double.isInfinite(i1)))) {
+					y[i] = 0;
+					y[i + 1] = 0;
+					continue;
+				}
+				if (product) {
+					final double tv = r1*rv - i1*iv;
+					iv = r1*iv + i1*rv;
+					rv = tv;
+				} else {
+					rv += r1;
+					iv += i1;
+				}
+			}
+			y[i] = rv;
+			y[i + 1] = iv;
+		}
+	}
+
+	/**
+	 * @param x line values
+	 * @param y results
+	 * @param is number of elements per item
+	 * @param n number of values
+	 * @param product
+	 * @param ignoreNaNs
+	 * @param ignoreInfs
+	 */
+	private static void cumulateDoubles(final double[] x, final double[] y, final int is, final int n, final boolean product, final boolean ignoreNaNs, final boolean ignoreInfs) {
+		if (is == 1) {
+			double v = product ? 1 : 0;
+			for (int i = 0; i < n; i++) {
+				if (!Double.isNaN(v)) {
+					final double x1 = x[i];
+					if ((ignoreNaNs && Double.isNaN(x1)) || (ignoreInfs && Double.isInfinite(x1))) {
+						y[i] = 0;
+						continue;
 					}
-					break;
-				case Dataset.ARRAYINT8:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final byte[] va = (byte[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] += va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.ARRAYINT16:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final short[] va = (short[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] += va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.ARRAYINT32:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final int[] va = (int[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] += va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.ARRAYINT64:
-					is = a.getElementsPerItem();
-					lresults = new long[is];
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						final long[] va = (long[]) a.getObject(pos);
-						for (int k = 0; k < is; k++) {
-							lresults[k] += va[k];
-						}
-						result.set(lresults, pos);
-					}
-					break;
-				case Dataset.FLOAT32: case Dataset.FLOAT64:
-					double dresult = 0.;
-					for (int j = 0; j < alen; j++) {
-						if (!Double.isNaN(dresult)) {
-							pos[axis] = j;
-							final double x = a.getDouble(pos);
-							if (ignoreNaNs && Double.isNaN(x)) {
-								continue;
-							}
-							if (ignoreInfs && Double.isInfinite(x)) {
-								continue;
-							}
-							dresult += x;
-						}
-						result.set(dresult, pos);
-					}
-					break;
-				case Dataset.ARRAYFLOAT32: case Dataset.ARRAYFLOAT64:
-					is = a.getElementsPerItem();
-					CompoundDataset da = (CompoundDataset) a;
-					double[] dvalues = new double[is];
-					dresults = new double[is];
-					for (int j = 0; j < alen; j++) {
-						pos[axis] = j;
-						da.getDoubleArray(dvalues, pos);
-						boolean okay = true;
-						for (int k = 0; k < is; k++) {
-							final double val = dvalues[k];
-							if (ignoreNaNs && Double.isNaN(val)) {
-								okay = false;
-								break;
-							}
-							if (ignoreInfs && Double.isInfinite(val)) {
-								okay = false;
-								break;
-							}
-						}
-						if (okay) {
-							for (int k = 0; k < is; k++) {
-								dresults[k] += dvalues[k];
-							}
-						}
-						result.set(dresults, pos);
-					}
-					break;
+					v = product ? v * x1 : v + x1;
 				}
+				y[i] = v;
 			}
+			return;
 		}
 
-		return result;
+		final double[] v = new double[is];
+		Arrays.fill(v, product ? 1 : 0);
+		for (int j = 0; j < n; j += is) {
+			boolean okay = true;
+			if (ignoreNaNs || ignoreInfs) {
+				for (int k = 0; k < is; k++) {
+					final double x1 = x[j + k];
+					if ((ignoreNaNs && Double.isNaN(x1)) || (ignoreInfs && Double.isInfinite(x1))) {
+						okay = false;
+						break;
+					}
+				}
+			}
+			for (int k = 0; k < is; k++) {
+				if (okay) {
+					v[k] = product ? v[k] * x[j + k] : v[k] + x[j + k];
+				}
+				y[j + k] = v[k];
+			}
+		}
 	}
 
 	/**
@@ -1637,10 +1695,26 @@ public class Stats {
 	 * @return double array with low and high values, and low and high percentage thresholds
 	 */
 	public static double[] outlierValues(final Dataset a, double lo, double hi, final int length) {
+		return outlierValues(a, lo, hi, length, 0);
+	}
+
+	/**
+	 * Calculate approximate outlier values as in {@link #outlierValues(Dataset, double, double, int)}
+	 * from an optional sample of the dataset. The sample consists of evenly spaced items and the
+	 * percentage thresholds are in terms of the sample size
+	 * @param a
+	 * @param lo percentage threshold for lower limit
+	 * @param hi percentage threshold for higher limit
+	 * @param length maximum number of items used internally, if negative, then unlimited
+	 * @param samples maximum number of items sampled, if not positive, then all items are used
+	 * @return double array with low and high values, and low and high percentage thresholds
+	 * @since 2.0
+	 */
+	public static double[] outlierValues(final Dataset a, double lo, double hi, final int length, final int samples) {
 		if (lo <= 0 || hi <= 0 || lo >= hi || hi >= 100  || Double.isNaN(lo)|| Double.isNaN(hi)) {
 			throw new IllegalArgumentException("Thresholds must be between (0,100) and in order");
 		}
-		final int size = a.getSize();
+		final int size = samples > 0 ? Math.min(samples, a.getSize()) : a.getSize();
 		int nl = Math.max((int) ((lo*size)/100), 1);
 		if (length > 0 && nl > length)
 			nl = length;
@@ -1648,13 +1722,198 @@ public class Stats {
 		if (length > 0 && nh > length)
 			nh = length;
 
-		double[] results = Math.max(nl, nh) > 640 ? outlierValuesMap(a, nl, nh) : outlierValuesList(a, nl, nh);
+		double[] results = outlierValuesHeap(a, nl, nh, samples);
 
 		results[2] = results[2]*100./size;
 		results[3] = 100. - results[3]*100./size;
 		return results;
 	}
 
+	/**
+	 * Find outlier values by keeping the lowest and highest values in bounded heaps of primitives.
+	 * Ranges of items are processed in parallel and their heaps merged. When the heaps would hold a
+	 * large fraction of the items, the values are sorted instead. NaNs are ignored
+	 * @param a
+	 * @param nl maximum number of low values
+	 * @param nh maximum number of high values
+	 * @param samples maximum number of evenly spaced items used, if not positive, then all items are used
+	 * @return double array with low and high values, and numbers of low and high values
+	 */
+	static double[] outlierValuesHeap(final Dataset a, final int nl, final int nh, final int samples) {
+		final int size = a.getSize();
+		final double[] values; // sampled values
+		final int n;
+		if (samples > 0 && samples < size) {
+			n = samples;
+			values = new double[n];
+			for (int k = 0; k < n; k++) {
+				BufferUtils.copyToDoubles(a, 0, (int) ((long) k * size / n), 1, values, k);
+			}
+		} else {
+			n = size;
+			values = null;
+		}
+
+		final double[] low;
+		final double[] high;
+		if (4L * (nl + nh) > n) {
+			final double[] v = values == null ? BufferUtils.toDoubles(a) : values;
+			Arrays.sort(v); // NaNs are sorted to end
+			int m = n;
+			while (m > 0 && Double.isNaN(v[m - 1])) {
+				m--;
+			}
+			low = Arrays.copyOf(v, Math.min(nl, m));
+			high = Arrays.copyOfRange(v, m - Math.min(nh, m), m);
+		} else {
+			ExtremeValues[] e = ParallelUtils.reduce(0, n, ParallelUtils.DEFAULT_GRAIN, new ParallelUtils.RangeReduction<ExtremeValues[]>() {
+				@Override
+				ExtremeValues[] compute(int start, int end) {
+					final ExtremeValues l = new ExtremeValues(nl, true);
+					final ExtremeValues h = new ExtremeValues(nh, false);
+					final double[] buffer = values == null ? new double[Math.min(4096, end - start)] : values;
+					for (int i = start; i < end;) {
+						final int len;
+						final int j0;
+						if (values == null) {
+							len = Math.min(buffer.length, end - i);
+							BufferUtils.copyToDoubles(a, 0, i, len, buffer, 0);
+							j0 = 0;
+						} else {
+							len = end - i;
+							j0 = i;
+						}
+						for (int j = j0, jEnd = j0 + len; j < jEnd; j++) {
+							final double x = buffer[j];
+							if (!Double.isNaN(x)) {
+								l.offer(x);
+								h.offer(x);
+							}
+						}
+						i += len;
+					}
+					return new ExtremeValues[] {l, h};
+				}
+
+				@Override
+				ExtremeValues[] combine(ExtremeValues[] lower, ExtremeValues[] upper) {
+					lower[0].merge(upper[0]);
+					lower[1].merge(upper[1]);
+					return lower;
+				}
+			});
+			low = e[0].getValues();
+			high = e[1].getValues();
+		}
+
+		double lx = Double.NEGATIVE_INFINITY;
+		for (double l : low) {
+			lx = Math.max(lx, l);
+		}
+		if (low.length == 0) {
+			lx = Double.POSITIVE_INFINITY;
+		}
+		double hx = Double.POSITIVE_INFINITY;
+		for (double h : high) {
+			hx = Math.min(hx, h);
+		}
+		if (high.length == 0) {
+			hx = Double.NEGATIVE_INFINITY;
+		}
+		int ml = low.length;
+		int mh = high.length;
+
+		// Attempt to make values distinct
+		if (lx >= hx) {
+			Arrays.sort(high);
+			for (double h : high) {
+				if (h > hx) {
+					hx = h;
+					break;
+				}
+				mh--;
+			}
+			if (lx >= hx) {
+				Arrays.sort(low);
+				for (int i = low.length - 1; i >= 0; i--) {
+					final double l = low[i];
+					if (l < lx) {
+						lx = l;
+						break;
+					}
+					ml--;
+				}
+			}
+		}
+		return new double[] {lx, hx, ml, mh};
+	}
+
+	/**
+	 * Bounded heap of the lowest or highest values offered
+	 */
+	private static class ExtremeValues {
+		private double[] heap; // max-heap of values (negated for highest) that grows up to limit
+		private final int limit;
+		private final double sign;
+		private int size = 0;
+
+		ExtremeValues(int limit, boolean lowest) {
+			this.limit = limit;
+			heap = new double[Math.min(limit, 64)];
+			sign = lowest ? 1 : -1;
+		}
+
+		void offer(double x) {
+			x *= sign;
+			if (size < limit) {
+				if (size == heap.length) {
+					heap = Arrays.copyOf(heap, (int) Math.min(limit, 2L * size));
+				}
+				int p = size++;
+				while (p > 0) {
+					final int q = (p - 1) / 2;
+					if (heap[q] >= x) {
+						break;
+					}
+					heap[p] = heap[q];
+					p = q;
+				}
+				heap[p] = x;
+			} else if (size > 0 && x < heap[0]) {
+				int p = 0;
+				while (true) {
+					int c = 2 * p + 1;
+					if (c >= size) {
+						break;
+					}
+					if (c + 1 < size && heap[c + 1] > heap[c]) {
+						c++;
+					}
+					if (heap[c] <= x) {
+						break;
+					}
+					heap[p] = heap[c];
+					p = c;
+				}
+				heap[p] = x;
+			}
+		}
+
+		void merge(ExtremeValues other) {
+			for (int i = 0; i < other.size; i++) {
+				offer(other.heap[i] * sign);
+			}
+		}
+
+		double[] getValues() {
+			final double[] values = new double[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = heap[i] * sign;
+			}
+			return values;
+		}
+	}
+
 	static double[] outlierValuesMap(final Dataset a, int nl, int nh) {
 		final TreeMap<Double, Integer> lMap = new TreeMap<Double, Integer>();
 		final TreeMap<Double, Integer> hMap = new TreeMap<Double, Integer>();
@@ -1803,6 +2062,161 @@ public class Stats {
 		return new double[] {lx, hx, nl, nh};
 	}
 
+	/**
+	 * Calculate histogram of dataset using bins of equal width that span the range of its values
+	 * @param a dataset
+	 * @param bins number of bins
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return array of histogram (as long dataset) and bin edges
+	 * @since 2.0
+	 */
+	public static Dataset[] histogram(final Dataset a, final int bins, final boolean... ignoreInvalids) {
+		Histogram.Binner binner = Histogram.createBinner(a, bins, ignoreInvalids);
+		return new Dataset[] {Histogram.histogram(new Dataset[] {a}, new Histogram.Binner[] {binner}, null, ignoreInvalids),
+				binner.getEdges()};
+	}
+
+	/**
+	 * Calculate histogram of dataset using bins of equal width. Values outside the range
+	 * are ignored and the last bin includes the upper limit
+	 * @param a dataset
+	 * @param bins number of bins
+	 * @param lo lower limit of range
+	 * @param hi upper limit of range
+	 * @param weights can be null. If given, the histogram contains the sum of weights in each bin
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}. These ignore values or weights that are NaNs
+	 * or infinities
+	 * @return array of histogram (as long dataset or double dataset when weighted) and bin edges
+	 * @since 2.0
+	 */
+	public static Dataset[] histogram(final Dataset a, final int bins, final double lo, final double hi, final Dataset weights, final boolean... ignoreInvalids) {
+		Histogram.Binner binner = new Histogram.UniformBinner(bins, lo, hi);
+		return new Dataset[] {Histogram.histogram(new Dataset[] {a}, new Histogram.Binner[] {binner}, weights, ignoreInvalids),
+				binner.getEdges()};
+	}
+
+	/**
+	 * Calculate histogram of dataset using given bin edges. Values outside the range
+	 * are ignored and the last bin includes its upper edge
+	 * @param a dataset
+	 * @param edges monotonically increasing bin edges
+	 * @param weights can be null. If given, the histogram contains the sum of weights in each bin
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}. These ignore values or weights that are NaNs
+	 * or infinities
+	 * @return histogram (as long dataset or double dataset when weighted)
+	 * @since 2.0
+	 */
+	public static Dataset histogram(final Dataset a, final Dataset edges, final Dataset weights, final boolean... ignoreInvalids) {
+		return Histogram.histogram(new Dataset[] {a}, new Histogram.Binner[] {Histogram.createBinner(edges)}, weights, ignoreInvalids);
+	}
+
+	/**
+	 * Calculate histograms of dataset along an axis using bins of equal width
+	 * @param a dataset
+	 * @param axis
+	 * @param bins number of bins
+	 * @param lo lower limit of range
+	 * @param hi upper limit of range
+	 * @param weights can be null. If given, it must have the same shape as the dataset
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return array of histograms and bin edges. The histograms' shape is that of the dataset with
+	 * the given axis removed and an extra last axis of bins
+	 * @since 2.0
+	 */
+	public static Dataset[] histogram(final Dataset a, final int axis, final int bins, final double lo, final double hi, final Dataset weights, final boolean... ignoreInvalids) {
+		Histogram.Binner binner = new Histogram.UniformBinner(bins, lo, hi);
+		return new Dataset[] {Histogram.histogram(a, axis, binner, weights, ignoreInvalids), binner.getEdges()};
+	}
+
+	/**
+	 * Calculate histograms of dataset along an axis using given bin edges
+	 * @param a dataset
+	 * @param axis
+	 * @param edges monotonically increasing bin edges
+	 * @param weights can be null. If given, it must have the same shape as the dataset
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return histograms whose shape is that of the dataset with the given axis removed and an extra
+	 * last axis of bins
+	 * @since 2.0
+	 */
+	public static Dataset histogram(final Dataset a, final int axis, final Dataset edges, final Dataset weights, final boolean... ignoreInvalids) {
+		return Histogram.histogram(a, axis, Histogram.createBinner(edges), weights, ignoreInvalids);
+	}
+
+	/**
+	 * Calculate 2D histogram of pairs of values using bins of equal width
+	 * @param x dataset of first coordinates
+	 * @param y dataset of second coordinates (same size as x)
+	 * @param xBins number of bins for x
+	 * @param xLo lower limit of x range
+	 * @param xHi upper limit of x range
+	 * @param yBins number of bins for y
+	 * @param yLo lower limit of y range
+	 * @param yHi upper limit of y range
+	 * @param weights can be null
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return array of histogram of shape [xBins, yBins], x bin edges and y bin edges
+	 * @since 2.0
+	 */
+	public static Dataset[] histogram2D(final Dataset x, final Dataset y, final int xBins, final double xLo, final double xHi,
+			final int yBins, final double yLo, final double yHi, final Dataset weights, final boolean... ignoreInvalids) {
+		Histogram.Binner[] binners = new Histogram.Binner[] {new Histogram.UniformBinner(xBins, xLo, xHi),
+				new Histogram.UniformBinner(yBins, yLo, yHi)};
+		return new Dataset[] {Histogram.histogram(new Dataset[] {x, y}, binners, weights, ignoreInvalids),
+				binners[0].getEdges(), binners[1].getEdges()};
+	}
+
+	/**
+	 * Calculate 2D histogram of pairs of values using given bin edges
+	 * @param x dataset of first coordinates
+	 * @param y dataset of second coordinates (same size as x)
+	 * @param xEdges monotonically increasing bin edges for x
+	 * @param yEdges monotonically increasing bin edges for y
+	 * @param weights can be null
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return histogram of shape [x bins, y bins]
+	 * @since 2.0
+	 */
+	public static Dataset histogram2D(final Dataset x, final Dataset y, final Dataset xEdges, final Dataset yEdges,
+			final Dataset weights, final boolean... ignoreInvalids) {
+		Histogram.Binner[] binners = new Histogram.Binner[] {Histogram.createBinner(xEdges), Histogram.createBinner(yEdges)};
+		return Histogram.histogram(new Dataset[] {x, y}, binners, weights, ignoreInvalids);
+	}
+
+	/**
+	 * Calculate histogram of lazy dataset using bins of equal width. The dataset is
+	 * streamed in blocks so it need not fit in memory
+	 * @param a lazy dataset
+	 * @param bins number of bins
+	 * @param lo lower limit of range
+	 * @param hi upper limit of range
+	 * @param weights can be null. If given, it must have the same shape as the dataset
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return array of histogram and bin edges
+	 * @throws DatasetException
+	 * @since 2.0
+	 */
+	public static Dataset[] histogram(final ILazyDataset a, final int bins, final double lo, final double hi, final ILazyDataset weights, final boolean... ignoreInvalids) throws DatasetException {
+		Histogram.Binner binner = new Histogram.UniformBinner(bins, lo, hi);
+		return new Dataset[] {Histogram.histogram(new ILazyDataset[] {a}, new Histogram.Binner[] {binner}, weights, ignoreInvalids),
+				binner.getEdges()};
+	}
+
+	/**
+	 * Calculate histogram of lazy dataset using given bin edges. The dataset is
+	 * streamed in blocks so it need not fit in memory
+	 * @param a lazy dataset
+	 * @param edges monotonically increasing bin edges
+	 * @param weights can be null. If given, it must have the same shape as the dataset
+	 * @param ignoreInvalids see {@link Dataset#max(boolean...)}
+	 * @return histogram
+	 * @throws DatasetException
+	 * @since 2.0
+	 */
+	public static Dataset histogram(final ILazyDataset a, final Dataset edges, final ILazyDataset weights, final boolean... ignoreInvalids) throws DatasetException {
+		return Histogram.histogram(new ILazyDataset[] {a}, new Histogram.Binner[] {Histogram.createBinner(edges)}, weights, ignoreInvalids);
+	}
+
 	/**
 	 * See {@link #covariance(Dataset a, Dataset b, boolean rowvar, boolean bias, Integer ddof)} with b = null, rowvar = true, bias = false and ddof = null.
 	 * @param a
@@ -1834,6 +2248,13 @@ public class Stats {
 	/**
 	 * Calculate the covariance matrix (array) of a concatenated with b. This 
 	 * method is directly based on the implementation in numpy (cov). 
+	 * <p>
+	 * For real datasets of rank 1 or 2, the centred cross-products are accumulated in a single pass
+	 * over blocks of observations that are read in place and processed in parallel. Otherwise, the
+	 * deviations are calculated on copies and multiplied with a tensor dot product.
+	 * <p>
+	 * Values are accumulated in double precision so the result is a double dataset, even for
+	 * float inputs.
 	 * @param a Array containing multiple variable and observations. Each row represents a variable, each column an observation.
 	 * @param b An extra set of variables and observations. Must be of same type as a and have a compatible shape. 
 	 * @param rowvar When true (default), each row is a variable; when false each column is a variable.
@@ -1843,6 +2264,318 @@ public class Stats {
 	 */
 	public static Dataset covariance (final Dataset a, final Dataset b, 
 			boolean rowvar, boolean bias, Integer ddof) {
+		if (a.getRank() > 2 || (b != null && b.getRank() > 2) || a.isComplex() || (b != null && b.isComplex())) {
+			return tensorCovariance(a, b, rowvar, bias, ddof);
+		}
+
+		Dataset[] vars = b == null ? new Dataset[] {asVariables(a, rowvar)} : new Dataset[] {asVariables(a, rowvar), asVariables(b, rowvar)};
+		CrossProducts cp = crossProducts(vars);
+		return cp.getCovariance(getNormalisation(cp.n, bias, ddof));
+	}
+
+	/**
+	 * Calculate the covariance matrix of a lazy dataset in a single pass over blocks of observations
+	 * so the dataset need not fit in memory. See {@link #covariance(Dataset a, Dataset b, boolean rowvar, boolean bias, Integer ddof)}
+	 * <p>
+	 * The result is a double dataset for all input types.
+	 * @param a lazy dataset of rank 1 or 2
+	 * @param rowvar When true (default), each row is a variable; when false each column is a variable.
+	 * @param bias Default normalisation is (N - 1) - N is number of observations. If set true, normalisation is (N). 
+	 * @param ddof Default normalisation is (N - 1). If ddof is set, then normalisation is (N - ddof).
+	 * @return covariance array of a
+	 * @throws DatasetException
+	 * @since 2.0
+	 */
+	public static Dataset covariance(final ILazyDataset a, boolean rowvar, boolean bias, Integer ddof) throws DatasetException {
+		CrossProducts cp = crossProducts(a, rowvar);
+		return cp.getCovariance(getNormalisation(cp.n, bias, ddof));
+	}
+
+	/**
+	 * Calculate the Pearson correlation coefficients of variables as in numpy (corrcoef)
+	 * <p>
+	 * The result is a double dataset for all input types.
+	 * @param a Array containing multiple variable and observations.
+	 * @param rowvar When true (default), each row is a variable; when false each column is a variable.
+	 * @return correlation array of a
+	 * @since 2.0
+	 */
+	public static Dataset correlation(final Dataset a, boolean rowvar) {
+		if (a.getRank() > 2 || a.isComplex()) {
+			throw new IllegalArgumentException("Dataset must be real and of rank 1 or 2");
+		}
+		return crossProducts(new Dataset[] {asVariables(a, rowvar)}).getCorrelation();
+	}
+
+	/**
+	 * Calculate the Pearson correlation coefficients of variables in a single pass over blocks of
+	 * observations of a lazy dataset. See {@link #correlation(Dataset, boolean)}
+	 * <p>
+	 * The result is a double dataset for all input types.
+	 * @param a lazy dataset of rank 1 or 2
+	 * @param rowvar When true (default), each row is a variable; when false each column is a variable.
+	 * @return correlation array of a
+	 * @throws DatasetException
+	 * @since 2.0
+	 */
+	public static Dataset correlation(final ILazyDataset a, boolean rowvar) throws DatasetException {
+		return crossProducts(a, rowvar).getCorrelation();
+	}
+
+	private static double getNormalisation(final long n, final boolean bias, Integer ddof) {
+		//Set the reduced degrees of freedom & normalisation factor
+		if (ddof == null) {
+			if (bias == false) {
+				ddof = 1;
+			} else {
+				ddof = 0;
+			}
+		}
+		double norm_fact = n - ddof;
+		if (norm_fact <= 0.) {
+			//TODO Some sort of warning here?
+			norm_fact = 0.;
+		}
+		return norm_fact;
+	}
+
+	/**
+	 * @param a dataset of rank 1 or 2
+	 * @param rowvar
+	 * @return view of dataset with variables along rows and observations along columns
+	 */
+	private static Dataset asVariables(final Dataset a, final boolean rowvar) {
+		if (a.getRank() < 2) {
+			return a.getView(true).reshape(1, a.getSize());
+		}
+		//1D of variables, so consider rows as variables
+		return rowvar || a.getShapeRef()[0] == 1 ? a : a.getTransposedView();
+	}
+
+	private static final int OBSERVATION_BLOCK = 256; // number of observations in a block
+	private static final int TILE = 32; // number of variables in a tile of cross-products
+	private static final long CROSS_PRODUCTS_LIMIT = 1 << 24; // number of values held by all partial cross-products
+
+	/**
+	 * Accumulate cross-products of datasets of variables by observations
+	 * @param vars datasets with same number of observations
+	 * @return centred cross-products
+	 */
+	private static CrossProducts crossProducts(final Dataset[] vars) {
+		final int n = vars[0].getShapeRef()[1];
+		int nv = 0;
+		for (Dataset v : vars) {
+			if (v.getShapeRef()[1] != n) {
+				throw new IllegalArgumentException("Datasets must have same number of observations");
+			}
+			nv += v.getShapeRef()[0];
+		}
+		final int v = nv;
+		if (n == 0) {
+			return new CrossProducts(v);
+		}
+
+		// at most one partial result per thread as each holds v^2 values and fewer for many variables
+		final int partials = (int) Math.max(1, Math.min(ParallelUtils.getParallelism(), CROSS_PRODUCTS_LIMIT / ((long) v * v)));
+		final int grain = Math.max(OBSERVATION_BLOCK, (n + partials - 1) / partials);
+		return ParallelUtils.reduce(0, n, grain, new ParallelUtils.RangeReduction<CrossProducts>() {
+			@Override
+			CrossProducts compute(int start, int end) {
+				final CrossProducts cp = new CrossProducts(v);
+				final double[] block = new double[v * Math.min(OBSERVATION_BLOCK, end - start)];
+				for (int k = start; k < end; k += OBSERVATION_BLOCK) {
+					final int len = Math.min(OBSERVATION_BLOCK, end - k);
+					int row = 0;
+					for (Dataset d : vars) {
+						for (int i = 0, imax = d.getShapeRef()[0]; i < imax; i++) {
+							BufferUtils.copyToDoubles(d, 0, i * n + k, len, block, row++ * len);
+						}
+					}
+					cp.add(block, len);
+				}
+				return cp;
+			}
+
+			@Override
+			CrossProducts combine(CrossProducts lower, CrossProducts upper) {
+				lower.merge(upper);
+				return lower;
+			}
+		});
+	}
+
+	/**
+	 * Accumulate cross-products of lazy dataset by reading blocks of observations
+	 * @param a lazy dataset of rank 1 or 2
+	 * @param rowvar
+	 * @return centred cross-products
+	 * @throws DatasetException
+	 */
+	private static CrossProducts crossProducts(final ILazyDataset a, boolean rowvar) throws DatasetException {
+		final int[] shape = a.getShape();
+		final int rank = shape.length;
+		if (rank > 2 || a.getElementsPerItem() != 1) {
+			throw new IllegalArgumentException("Lazy dataset must be of rank 1 or 2 and not compound");
+		}
+		if (rank < 2 || shape[0] == 1) {
+			rowvar = true;
+		}
+		final int axis = rank < 2 ? 0 : (rowvar ? 1 : 0); // of observations
+		final int n = shape[axis];
+		final int b = getLazyBlock(shape, axis);
+		final int[] start = new int[rank];
+		final int[] stop = shape.clone();
+		CrossProducts cp = null;
+		for (int i = 0; i < n || cp == null; i += b) {
+			start[axis] = i;
+			stop[axis] = Math.min(n, i + b);
+			final Dataset d = DatasetUtils.convertToDataset(a.getSlice(start, stop, null));
+			final CrossProducts p = crossProducts(new Dataset[] {asVariables(d, rowvar)});
+			if (cp == null) {
+				cp = p;
+			} else {
+				cp.merge(p);
+			}
+		}
+		return cp;
+	}
+
+	/**
+	 * Number of observations, means and centred cross-products (upper triangle) of variables
+	 */
+	private static class CrossProducts {
+		private final int v;
+		private long n = 0;
+		private final double[] mean;
+		private final double[] c; // v by v with upper triangle used
+		private double[] delta = null; // work array for blocks
+
+		CrossProducts(int v) {
+			this.v = v;
+			mean = new double[v];
+			c = new double[v * v];
+		}
+
+		/**
+		 * Add block of observations
+		 * @param block values of each variable in rows
+		 * @param len number of observations in block
+		 */
+		void add(final double[] block, final int len) {
+			if (delta == null) {
+				delta = new double[v];
+			}
+			final long na = n;
+			n += len;
+			final double f = (double) na * len / n;
+			for (int i = 0; i < v; i++) {
+				final int o = i * len;
+				double s = 0;
+				for (int k = 0; k < len; k++) {
+					s += block[o + k];
+				}
+				final double m = s / len;
+				for (int k = 0; k < len; k++) {
+					block[o + k] -= m;
+				}
+				delta[i] = m - mean[i];
+			}
+			// tiles of upper triangle, merged in place as in merge(long, double[], double[])
+			for (int i0 = 0; i0 < v; i0 += TILE) {
+				final int i1 = Math.min(v, i0 + TILE);
+				for (int j0 = i0; j0 < v; j0 += TILE) {
+					final int j1 = Math.min(v, j0 + TILE);
+					for (int i = i0; i < i1; i++) {
+						final int oi = i * len;
+						for (int j = Math.max(i, j0); j < j1; j++) {
+							final int oj = j * len;
+							double s = 0;
+							for (int k = 0; k < len; k++) {
+								s += block[oi + k] * block[oj + k];
+							}
+							c[i * v + j] += s + delta[i] * f * delta[j];
+						}
+					}
+				}
+			}
+			final double g = (double) len / n;
+			for (int i = 0; i < v; i++) {
+				mean[i] += delta[i] * g;
+			}
+		}
+
+		void merge(CrossProducts other) {
+			merge(other.n, other.mean, other.c);
+		}
+
+		/**
+		 * Merge with centred cross-products of disjoint observations
+		 * @param nb number of observations
+		 * @param mb means
+		 * @param cb cross-products
+		 */
+		private void merge(final long nb, final double[] mb, final double[] cb) {
+			if (nb == 0) {
+				return;
+			}
+			final long na = n;
+			n += nb;
+			final double f = (double) na * nb / n;
+			final double g = (double) nb / n;
+			final double[] delta = new double[v];
+			for (int i = 0; i < v; i++) {
+				delta[i] = mb[i] - mean[i];
+			}
+			for (int i = 0; i < v; i++) {
+				final double di = delta[i] * f;
+				for (int j = i, o = i * v + i; j < v; j++, o++) {
+					c[o] += cb[o] + di * delta[j];
+				}
+				mean[i] += delta[i] * g;
+			}
+		}
+
+		/**
+		 * @param norm normalisation factor
+		 * @return covariance
+		 */
+		Dataset getCovariance(final double norm) {
+			final DoubleDataset cov = DatasetFactory.zeros(DoubleDataset.class, v, v);
+			final double[] data = cov.getData();
+			for (int i = 0; i < v; i++) {
+				for (int j = i; j < v; j++) {
+					final double x = c[i * v + j] / norm;
+					data[i * v + j] = x;
+					data[j * v + i] = x;
+				}
+			}
+			return cov.squeeze();
+		}
+
+		/**
+		 * @return correlation coefficients
+		 */
+		Dataset getCorrelation() {
+			final DoubleDataset cor = DatasetFactory.zeros(DoubleDataset.class, v, v);
+			final double[] data = cor.getData();
+			for (int i = 0; i < v; i++) {
+				for (int j = i; j < v; j++) {
+					double x = c[i * v + j] / Math.sqrt(c[i * v + i] * c[j * v + j]);
+					if (x > 1) { // clip rounding errors
+						x = 1;
+					} else if (x < -1) {
+						x = -1;
+					}
+					data[i * v + j] = x;
+					data[j * v + i] = x;
+				}
+			}
+			return cor.squeeze();
+		}
+	}
+
+	private static Dataset tensorCovariance (final Dataset a, final Dataset b, 
+			boolean rowvar, boolean bias, Integer ddof) {
 		
 		//Create a working copy of the dataset & check its rank.
 		Dataset vars = a.clone();
@@ -1865,19 +2598,7 @@ public class Stats {
 			axis = 1;
 		}
 		
-		//Set the reduced degrees of freedom & normalisation factor
-		if (ddof == null) {
-			if (bias == false) {
-				ddof = 1;
-			} else {
-				ddof = 0;
-			}
-		}
-		double norm_fact = nr - ddof;
-		if (norm_fact <= 0.) {
-			//TODO Some sort of warning here?
-			norm_fact = 0.;
-		}
+		double norm_fact = getNormalisation(nr, bias, ddof);
 		
 		//Concatenate additional set of variables with main set
 		if (b != null) {
@@ -0,0 +1,217 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2026 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Diamond Light Source Ltd - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.january.dataset;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.january.io.ILazyDynamicLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scheduler for the periodic update checks of dynamic datasets
+ * <p>
+ * All checks share a small pool of daemon threads rather than using a thread per dataset. At
+ * each check, the shape of a dataset with a dynamic loader is refreshed and its change checker
+ * is consulted; listeners are alerted if either indicates a change. The shapes from a loader
+ * shared by several datasets are re-read at most once per half period. When nothing changes,
+ * the interval between checks is doubled up to a maximum multiple of the period and it is
+ * reset to the period on the next change. Datasets without a checker alert their listeners
+ * every period as the checker default is to assume a change.
+ * @since 2.0
+ */
+public final class UpdateCheckScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(UpdateCheckScheduler.class);
+
+	private static ScheduledExecutorService executor = null;
+
+	private static int maxBackoff = 8;
+
+	private static final Map<ILazyDynamicLoader, Refresh> refreshes = new WeakHashMap<ILazyDynamicLoader, Refresh>();
+
+	private UpdateCheckScheduler() {
+	}
+
+	/**
+	 * Set the executor used to run checks. For example, on newer JVMs, this could be a scheduled
+	 * executor whose thread factory creates virtual threads
+	 * @param service if null, use a default pool of daemon threads
+	 */
+	public static synchronized void setExecutor(ScheduledExecutorService service) {
+		executor = service;
+	}
+
+	/**
+	 * @return executor used to run checks
+	 */
+	public static synchronized ScheduledExecutorService getExecutor() {
+		if (executor == null) {
+			final AtomicInteger count = new AtomicInteger();
+			ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "Dataset update checker " + count.incrementAndGet());
+							t.setDaemon(true);
+							return t;
+						}
+					});
+			pool.setRemoveOnCancelPolicy(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * Set the limit on the interval between checks when nothing changes
+	 * @param factor maximum multiple of period (1 disables back-off)
+	 */
+	public static synchronized void setMaximumBackoff(int factor) {
+		if (factor < 1) {
+			throw new IllegalArgumentException("Factor must be positive");
+		}
+		maxBackoff = factor;
+	}
+
+	/**
+	 * @return maximum multiple of period between checks
+	 */
+	public static synchronized int getMaximumBackoff() {
+		return maxBackoff;
+	}
+
+	/**
+	 * Schedule checks of a dataset
+	 * @param dataset
+	 * @param milliseconds period between checks
+	 * @param checker can be null
+	 * @return task that can be cancelled
+	 */
+	static Task schedule(LazyDynamicDataset dataset, int milliseconds, IDatasetChangeChecker checker) {
+		Task task = new Task(dataset, milliseconds, checker);
+		task.schedule(task.period);
+		return task;
+	}
+
+	/**
+	 * Last shape read from a loader
+	 */
+	private static class Refresh {
+		long time;
+		int[] shape;
+	}
+
+	/**
+	 * Refresh shape of dataset, reusing a shape recently read from its loader by another check
+	 * @param dataset
+	 * @param window period in nanoseconds over which a shape is reused
+	 * @return true if shape has changed
+	 */
+	static boolean refreshShape(LazyDynamicDataset dataset, long window) {
+		if (!(dataset.loader instanceof ILazyDynamicLoader)) {
+			return false;
+		}
+
+		ILazyDynamicLoader loader = (ILazyDynamicLoader) dataset.loader;
+		Refresh r;
+		synchronized (refreshes) {
+			r = refreshes.get(loader);
+			if (r == null) {
+				r = new Refresh();
+				refreshes.put(loader, r);
+			}
+		}
+
+		int[] shape;
+		synchronized (r) { // other checks of loader wait for a refresh in progress
+			long now = System.nanoTime();
+			if (r.shape == null || now - r.time >= window) {
+				r.shape = loader.refreshShape();
+				r.time = now;
+			}
+			shape = r.shape;
+		}
+		return shape != null && dataset.resize(shape);
+	}
+
+	/**
+	 * Periodic check of a dataset that reschedules itself
+	 */
+	static class Task implements Runnable {
+		private final LazyDynamicDataset dataset;
+		private final IDatasetChangeChecker checker;
+		private final long period; // in nanoseconds
+		private long next;
+		private int interval = 1; // multiple of period
+		private volatile boolean cancelled = false;
+		private ScheduledFuture<?> future;
+
+		private Task(LazyDynamicDataset dataset, int milliseconds, IDatasetChangeChecker checker) {
+			this.dataset = dataset;
+			this.checker = checker;
+			period = TimeUnit.MILLISECONDS.toNanos(milliseconds);
+			next = System.nanoTime();
+		}
+
+		private synchronized void schedule(long delay) {
+			if (!cancelled) {
+				long now = System.nanoTime();
+				next += delay;
+				if (next < now) { // skip missed checks
+					next = now;
+				}
+				future = getExecutor().schedule(this, next - now, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		/**
+		 * Stop checking
+		 */
+		synchronized void cancel() {
+			cancelled = true;
+			if (future != null) {
+				future.cancel(false);
+				future = null;
+			}
+		}
+
+		@Override
+		public void run() {
+			if (cancelled) {
+				return;
+			}
+			boolean changed = false;
+			try {
+				boolean resized = refreshShape(dataset, period / 2);
+				changed = checker == null || checker.check();
+				if (changed && !resized) { // listeners were already alerted on resize
+					dataset.fireDataListeners();
+				}
+				changed |= resized;
+			} catch (RuntimeException e) {
+				logger.error("Problem checking for update to {}", dataset.getName(), e);
+			}
+
+			interval = changed ? 1 : Math.min(2 * interval, getMaximumBackoff());
+			schedule(interval * period);
+		}
+	}
+}